@@ -0,0 +1,132 @@
+package ai.teraunit.core.api;
+
+import ai.teraunit.core.common.ProviderName;
+import ai.teraunit.core.inventory.RawScrapeArchive;
+import ai.teraunit.core.pricing.GpuOffer;
+import ai.teraunit.core.pricing.PriceMapper;
+import ai.teraunit.core.security.ControlAuth;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Read access to the raw scrape archive: list what was captured, fetch a
+ * response byte-for-byte, or replay it through today's mapper.
+ * Control-plane token required (raw payloads are operator data).
+ */
+@RestController
+@RequestMapping("/v1/archive")
+public class ArchiveController {
+
+    private static final int MAX_LIMIT = 500;
+
+    private final RawScrapeArchive archive;
+    private final PriceMapper priceMapper;
+    private final ControlAuth controlAuth;
+
+    public ArchiveController(RawScrapeArchive archive, PriceMapper priceMapper, ControlAuth controlAuth) {
+        this.archive = archive;
+        this.priceMapper = priceMapper;
+        this.controlAuth = controlAuth;
+    }
+
+    @GetMapping
+    public ArchiveListing list(@RequestParam(required = false) String provider,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(defaultValue = "50") int limit,
+            HttpServletRequest request) {
+        controlAuth.requireControlToken(request);
+
+        List<RawScrapeArchive.Entry> entries = archive.find(parseProvider(provider), parseInstant(from),
+                parseInstant(to), Math.max(1, Math.min(limit, MAX_LIMIT)));
+        return new ArchiveListing(archive.stats(), entries);
+    }
+
+    @GetMapping("/{segment}/{offset}")
+    public ResponseEntity<byte[]> raw(@PathVariable long segment, @PathVariable long offset,
+            HttpServletRequest request) {
+        controlAuth.requireControlToken(request);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(read(segment, offset));
+    }
+
+    @GetMapping("/{segment}/{offset}/replay")
+    public Replay replay(@PathVariable long segment, @PathVariable long offset, HttpServletRequest request) {
+        controlAuth.requireControlToken(request);
+
+        RawScrapeArchive.Entry entry = lookup(segment, offset);
+        PriceMapper.MappedOffers mapped;
+        try {
+            mapped = priceMapper.map(entry.provider(), new ByteArrayInputStream(read(segment, offset)));
+        } catch (UncheckedIOException e) {
+            // A captured body the mapper rejects is exactly what replay is for; say why.
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage());
+        }
+        return new Replay(entry, mapped.rawCount(), mapped.offers().size(), mapped.offers());
+    }
+
+    private RawScrapeArchive.Entry lookup(long segment, long offset) {
+        try {
+            return archive.lookup(segment, offset);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    private byte[] read(long segment, long offset) {
+        try {
+            return archive.read(segment, offset);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+        }
+    }
+
+    private static ProviderName parseProvider(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return null;
+        }
+        try {
+            return ProviderName.valueOf(raw.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown provider: " + raw);
+        }
+    }
+
+    private static Instant parseInstant(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return null;
+        }
+        try {
+            return Instant.parse(raw.trim());
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Expected ISO-8601 instant: " + raw);
+        }
+    }
+
+    public record ArchiveListing(Map<String, Object> stats, List<RawScrapeArchive.Entry> entries) {
+    }
+
+    /**
+     * rawCount vs mappedCount shows how many provider entries the mapper skipped.
+     */
+    public record Replay(RawScrapeArchive.Entry entry, int rawCount, int mappedCount, List<GpuOffer> offers) {
+    }
+}
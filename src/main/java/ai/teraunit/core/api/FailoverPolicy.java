@@ -0,0 +1,30 @@
+package ai.teraunit.core.api;
+
+import ai.teraunit.core.common.ProviderName;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * THE PLAN B
+ * Optional part of a {@link LaunchRequest}: what else is acceptable if the
+ * chosen offer sells out between the price list and the launch call.
+ *
+ * Every field is optional:
+ * - gpu: GPU class to stay within (SKU id "H100-80G-SXM-x1", family "H100");
+ *   defaults to the SKU of the requested instance type.
+ * - maxPricePerHour: defaults to 1.2x the requested offer's live price.
+ * - regions / providers: empty means any region / the request's provider.
+ * - apiKeys: credentials for providers other than the request's own; a
+ *   provider without a key is never tried.
+ * - budgetSeconds (default 60) and maxAttempts (default 5) bound the retries.
+ */
+public record FailoverPolicy(
+        String gpu,
+        Double maxPricePerHour,
+        List<String> regions,
+        List<ProviderName> providers,
+        Map<ProviderName, String> apiKeys,
+        Integer budgetSeconds,
+        Integer maxAttempts
+) {}
@@ -0,0 +1,17 @@
+package ai.teraunit.core.api;
+
+/**
+ * THE FLEET MANIFEST
+ * {@code count} identical instances of {@code instance}. Every member gets
+ * its own heartbeat identity.
+ *
+ * Constraints: {@code allOrNothing} terminates the members that launched if
+ * any member fails; {@code maxPricePerHour} (per instance, optional) refuses
+ * the fleet when the current offer price is above it or unknown.
+ */
+public record FleetLaunchRequest(
+        LaunchRequest instance,
+        int count,
+        boolean allOrNothing,
+        Double maxPricePerHour
+) {}
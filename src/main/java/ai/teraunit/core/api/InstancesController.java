@@ -1,5 +1,6 @@
 package ai.teraunit.core.api;
 
+import ai.teraunit.core.pricing.BootTimes;
 import ai.teraunit.core.provisioning.CloudExecutor;
 import ai.teraunit.core.repository.InstanceEntity;
 import ai.teraunit.core.repository.InstanceRepository;
@@ -19,15 +20,18 @@ public class InstancesController {
     private final CloudExecutor executor;
     private final KeyVaultService vault;
     private final ControlAuth controlAuth;
+    private final BootTimes bootTimes;
 
     public InstancesController(InstanceRepository repository,
             CloudExecutor executor,
             KeyVaultService vault,
-            ControlAuth controlAuth) {
+            ControlAuth controlAuth,
+            BootTimes bootTimes) {
         this.repository = repository;
         this.executor = executor;
         this.vault = vault;
         this.controlAuth = controlAuth;
+        this.bootTimes = bootTimes;
     }
 
     @GetMapping
@@ -41,10 +45,26 @@ public class InstancesController {
                         i.getHeartbeatId(),
                         i.getStartTime(),
                         i.getLastHeartbeat(),
-                        i.getExpiresAt()))
+                        i.getExpiresAt(),
+                        i.getFirstHeartbeatAt()))
                 .toList();
     }
 
+    /**
+     * Launch-to-first-heartbeat latency (p50/p90/p99, ms) per provider,
+     * region, SKU and image over the last 7 days; every filter is optional
+     * and {@code overall} merges whatever matched.
+     */
+    @GetMapping("/boot-times")
+    public BootTimes.Report bootTimes(@RequestParam(required = false) String provider,
+            @RequestParam(required = false) String region,
+            @RequestParam(required = false) String sku,
+            @RequestParam(required = false) String image,
+            HttpServletRequest request) {
+        controlAuth.requireControlToken(request);
+        return bootTimes.report(provider, region, sku, image);
+    }
+
     @PostMapping("/terminate")
     public String terminate(@RequestBody TerminateRequest body, HttpServletRequest request) {
         controlAuth.requireControlToken(request);
@@ -98,6 +118,7 @@ public class InstancesController {
             String heartbeatId,
             Instant startTime,
             Instant lastHeartbeat,
-            Instant expiresAt) {
+            Instant expiresAt,
+            Instant firstHeartbeatAt) {
     }
 }
@@ -1,66 +1,127 @@
 package ai.teraunit.core.api;
 
-import ai.teraunit.core.provisioning.ProvisioningService;
+import ai.teraunit.core.provisioning.LaunchJob;
+import ai.teraunit.core.provisioning.LaunchJobService;
+import ai.teraunit.core.provisioning.VelocityFuse;
+import ai.teraunit.core.security.ClientIpResolver;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.net.URI;
+
+/**
+ * Launches are asynchronous: POST returns 202 with a job, then poll
+ * GET /v1/launch/jobs/{id} or stream /v1/launch/jobs/{id}/events (SSE)
+ * until the phase is SUCCEEDED or FAILED; {@code result} carries the
+ * familiar "SUCCESS: ..." / "FAILED: ..." line. Fleet jobs also list
+ * every member's outcome once done.
+ *
+ * Send an {@code Idempotency-Key} header to make retries safe: a repeat of
+ * the same launch returns 200 with the original job (and
+ * {@code Idempotent-Replayed: true}) instead of launching again.
+ */
 @RestController
 @RequestMapping("/v1/launch")
 public class LaunchController {
 
-    private final ProvisioningService service;
+    private final LaunchJobService jobs;
     private final ai.teraunit.core.security.ControlAuth controlAuth;
+    private final ClientIpResolver clientIp;
 
-    public LaunchController(ProvisioningService service,
-            ai.teraunit.core.security.ControlAuth controlAuth) {
-        this.service = service;
+    public LaunchController(LaunchJobService jobs,
+            ai.teraunit.core.security.ControlAuth controlAuth,
+            ClientIpResolver clientIp) {
+        this.jobs = jobs;
         this.controlAuth = controlAuth;
+        this.clientIp = clientIp;
     }
 
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     @PostMapping
-    public String launchInstance(@RequestBody LaunchRequest request, HttpServletRequest servletRequest) {
+    public ResponseEntity<?> launchInstance(@RequestBody LaunchRequest request,
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            HttpServletRequest servletRequest) {
+        VelocityFuse.Caller caller;
         try {
             // TRUST BOUNDARY: Control-plane token required
-            controlAuth.requireControlToken(servletRequest);
+            caller = new VelocityFuse.Caller(clientIp.resolve(servletRequest),
+                    controlAuth.requireControlToken(servletRequest));
+        } catch (SecurityException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("BLOCKED: " + e.getMessage());
+        }
 
-            // EXECUTE
-            return service.launch(request);
+        try {
+            return accepted(jobs.submit(request, idempotencyKey, caller));
+        } catch (VelocityFuse.Tripped e) {
+            return tripped(e);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("ERROR: " + e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body("BUSY: " + e.getMessage());
+        }
+    }
 
+    /**
+     * N identical instances as one job; see {@link FleetLaunchRequest}.
+     */
+    @PostMapping("/fleet")
+    public ResponseEntity<?> launchFleet(@RequestBody FleetLaunchRequest request,
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            HttpServletRequest servletRequest) {
+        VelocityFuse.Caller caller;
+        try {
+            caller = new VelocityFuse.Caller(clientIp.resolve(servletRequest),
+                    controlAuth.requireControlToken(servletRequest));
         } catch (SecurityException e) {
-            // LOGIC ENGINE BLOCKS (Egress, Sovereignty, Fuse)
-            return "BLOCKED: " + e.getMessage();
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("BLOCKED: " + e.getMessage());
+        }
 
-        } catch (Exception e) {
-            // PROVIDER ERROR TRANSLATION LAYER
-            String msg = e.getMessage().toLowerCase();
+        try {
+            return accepted(jobs.submitFleet(request, idempotencyKey, caller));
+        } catch (VelocityFuse.Tripped e) {
+            return tripped(e);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("ERROR: " + e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body("BUSY: " + e.getMessage());
+        }
+    }
 
-            // --- 1. FUNDS ---
-            if (msg.contains("balance") || msg.contains("funds") || msg.contains("credit")) {
-                return "FAILED: INSUFFICIENT FUNDS (Check Provider Account)";
-            }
-            // --- 2. QUOTA ---
-            if (msg.contains("quota") || msg.contains("limit") || msg.contains("capacity")) {
-                return "FAILED: PROVIDER QUOTA EXCEEDED";
-            }
-            // --- 3. AUTH ---
-            if (msg.contains("unauthorized") || msg.contains("401") || msg.contains("403") || msg.contains("auth")) {
-                return "FAILED: INVALID API KEY";
-            }
-            // --- 4. INVENTORY (The Fix for RunPod) ---
-            // Catches "SUPPLY_CONSTRAINT", "no longer any instances", "sold out",
-            // "unavailable"
-            if (msg.contains("supply_constraint") ||
-                    msg.contains("no longer") ||
-                    msg.contains("unavailable") ||
-                    msg.contains("stock") ||
-                    msg.contains("sold out")) {
-                return "FAILED: SOLD OUT (Race Condition)";
-            }
+    @GetMapping("/jobs/{id}")
+    public LaunchJob job(@PathVariable String id, HttpServletRequest request) {
+        controlAuth.requireControlToken(request);
+        return jobs.find(id).orElseThrow(() -> notFound(id));
+    }
+
+    @GetMapping(path = "/jobs/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@PathVariable String id, HttpServletRequest request) {
+        controlAuth.requireControlToken(request);
+        return jobs.subscribe(id).orElseThrow(() -> notFound(id));
+    }
 
-            // Fallback: Log the full nasty error to Console, show simplified version to
-            // User
-            System.err.println("[LAUNCH-FAIL] " + e.getClass().getSimpleName() + ": " + e.getMessage());
-            return "ERROR: PROVIDER REJECTED REQUEST (See Console)";
+    private static ResponseEntity<LaunchJob> accepted(LaunchJobService.Submission submission) {
+        LaunchJob job = submission.job();
+        URI location = URI.create("/v1/launch/jobs/" + job.id());
+        if (submission.replayed()) {
+            return ResponseEntity.ok().location(location).header("Idempotent-Replayed", "true").body(job);
         }
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    private static ResponseEntity<String> tripped(VelocityFuse.Tripped e) {
+        long seconds = Math.max(1, (e.retryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", String.valueOf(seconds))
+                .body("BLOCKED: " + e.getMessage());
+    }
+
+    private static ResponseStatusException notFound(String id) {
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown launch job: " + id);
     }
 }
@@ -20,5 +20,8 @@ public record LaunchRequest(
         // Logic Engine Inputs (REQUIRED for Orchestration)
         int datasetSizeGb,          // For EgressGuard (Protocol 10)
         String sourceRegion,        // For SovereigntySwitch (Protocol 12)
-        double currentGpuHourlyCost // For ROI Calculation
+        double currentGpuHourlyCost, // For ROI Calculation
+
+        // Optional: retry sold-out races against the next-best live offer
+        FailoverPolicy failover
 ) {}
@@ -1,11 +1,21 @@
 package ai.teraunit.core.api;
 
 import ai.teraunit.core.common.ProviderName;
+import ai.teraunit.core.config.RedisSerializationConfig;
 import ai.teraunit.core.pricing.GpuOffer;
+import ai.teraunit.core.pricing.LocalSnapshotStore;
+import ai.teraunit.core.pricing.OfferIndexService;
+import ai.teraunit.core.pricing.RankedOffer;
+import ai.teraunit.core.pricing.RankingEngine;
+import ai.teraunit.core.pricing.WorkloadProfile;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Duration;
 import java.time.Instant;
@@ -20,18 +30,31 @@ import java.util.concurrent.ConcurrentHashMap;
 public class PricingController {
 
     private final RedisTemplate<String, Object> redis;
+    private final OfferIndexService offerIndex;
+    private final LocalSnapshotStore localSnapshots;
+    private final RankingEngine ranking;
 
     /**
      * MEMORY BUFFER: Prevents UI flicker during scraper updates.
      * Acts as a shock absorber for transient API/Redis failures.
+     * Backed by the on-disk snapshot when Redis is unreachable or has nothing.
      */
     private final Map<ProviderName, CachedOffers> lastKnownGood = new ConcurrentHashMap<>();
 
     // Safety Limit: If data is older than 5 mins, admit defeat and show empty.
     private static final Duration MAX_STALE = Duration.ofMinutes(5);
 
-    public PricingController(RedisTemplate<String, Object> redis) {
+    // Search result cap (keeps responses small; the UI only renders a page)
+    private static final int MAX_SEARCH_LIMIT = 500;
+
+    public PricingController(@Qualifier(RedisSerializationConfig.OFFER_SNAPSHOTS) RedisTemplate<String, Object> redis,
+            OfferIndexService offerIndex,
+            LocalSnapshotStore localSnapshots,
+            RankingEngine ranking) {
         this.redis = redis;
+        this.offerIndex = offerIndex;
+        this.localSnapshots = localSnapshots;
+        this.ranking = ranking;
     }
 
     @GetMapping
@@ -46,6 +69,47 @@ public class PricingController {
         return index;
     }
 
+    /**
+     * SERVER-SIDE SEARCH
+     * Served from the in-memory index; cheapest first.
+     */
+    @GetMapping("/search")
+    public List<GpuOffer> search(@RequestParam(required = false) String gpu,
+            @RequestParam(required = false) String region,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String provider,
+            @RequestParam(defaultValue = "50") int limit) {
+        int cappedLimit = Math.max(0, Math.min(limit, MAX_SEARCH_LIMIT));
+        return offerIndex.current().search(gpu, region, provider, maxPrice, cappedLimit);
+    }
+
+    /**
+     * VALUE RANKING
+     * Best price per unit of throughput for a workload (training, inference,
+     * fp32, memory-bound, vram). Precomputed on each snapshot change.
+     */
+    @GetMapping("/ranked")
+    public List<RankedOffer> ranked(@RequestParam(defaultValue = "training") String profile,
+            @RequestParam(required = false) String provider,
+            @RequestParam(defaultValue = "50") int limit) {
+        WorkloadProfile workload = WorkloadProfile.parse(profile);
+        if (workload == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown profile: " + profile);
+        }
+
+        ProviderName providerName = null;
+        if (provider != null && !provider.isBlank()) {
+            try {
+                providerName = ProviderName.valueOf(provider.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown provider: " + provider);
+            }
+        }
+
+        int cappedLimit = Math.max(0, Math.min(limit, MAX_SEARCH_LIMIT));
+        return ranking.top(workload, providerName, cappedLimit);
+    }
+
     @SuppressWarnings("unchecked")
     private List<GpuOffer> safeGet(ProviderName provider) {
         try {
@@ -78,13 +142,19 @@ public class PricingController {
     private List<GpuOffer> fallback(ProviderName provider) {
         CachedOffers cached = lastKnownGood.get(provider);
 
-        // If no cache, or cache is too old -> Return Empty (Truth)
-        if (cached == null || Duration.between(cached.at(), Instant.now()).compareTo(MAX_STALE) > 0) {
-            return Collections.emptyList();
+        // Return Stale Data (Stability)
+        if (cached != null && Duration.between(cached.at(), Instant.now()).compareTo(MAX_STALE) <= 0) {
+            return cached.offers();
         }
 
-        // Return Stale Data (Stability)
-        return cached.offers();
+        // Redis down or empty (e.g. fresh boot): the disk snapshot, aged from when it was saved
+        LocalSnapshotStore.StoredSnapshot stored = localSnapshots.get(provider);
+        if (stored != null && Duration.between(stored.savedAt(), Instant.now()).compareTo(MAX_STALE) <= 0) {
+            return stored.offers();
+        }
+
+        // If no cache, or cache is too old -> Return Empty (Truth)
+        return Collections.emptyList();
     }
 
     // Immutable Cache Wrapper
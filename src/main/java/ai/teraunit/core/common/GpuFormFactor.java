@@ -0,0 +1,5 @@
+package ai.teraunit.core.common;
+
+public enum GpuFormFactor {
+    PCIE, SXM
+}
@@ -1,5 +1,84 @@
 package ai.teraunit.core.common;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * GPU families we can match across providers.
+ *
+ * Declaration order is the match order: more specific aliases come first
+ * (GH200 before H200, A100 before A10, L40S before L40 before L4).
+ * Each alias is a set of space-separated tokens that must all be present.
+ */
 public enum GpuModel {
-    H100, A100, B200
+    B200(GpuFormFactor.SXM, List.of(180, 192), "B200"),
+    GH200(GpuFormFactor.SXM, List.of(96), "GH200"),
+    H200(GpuFormFactor.SXM, List.of(141), "H200"),
+    H100(GpuFormFactor.SXM, List.of(80, 94), "H100"),
+    A100(GpuFormFactor.SXM, List.of(40, 80), "A100"),
+    A10(GpuFormFactor.PCIE, List.of(24), "A10", "A10G"),
+    L40S(GpuFormFactor.PCIE, List.of(48), "L40S"),
+    L40(GpuFormFactor.PCIE, List.of(48), "L40"),
+    L4(GpuFormFactor.PCIE, List.of(24), "L4"),
+    A40(GpuFormFactor.PCIE, List.of(48), "A40"),
+    RTX6000_ADA(GpuFormFactor.PCIE, List.of(48), "6000 ADA", "RTX6000ADA"),
+    RTX6000(GpuFormFactor.PCIE, List.of(24), "RTX6000", "RTX 6000"),
+    A6000(GpuFormFactor.PCIE, List.of(48), "A6000", "RTXA6000"),
+    A5000(GpuFormFactor.PCIE, List.of(24), "A5000", "RTXA5000"),
+    A4000(GpuFormFactor.PCIE, List.of(16), "A4000", "RTXA4000"),
+    RTX5090(GpuFormFactor.PCIE, List.of(32), "5090", "RTX5090"),
+    RTX4090(GpuFormFactor.PCIE, List.of(24), "4090", "RTX4090"),
+    RTX3090(GpuFormFactor.PCIE, List.of(24), "3090", "RTX3090"),
+    V100(GpuFormFactor.SXM, List.of(16, 32), "V100"),
+    T4(GpuFormFactor.PCIE, List.of(16), "T4");
+
+    private final GpuFormFactor defaultFormFactor;
+    private final List<Integer> vramOptionsGb; // first entry is the default
+    private final List<List<String>> aliases;
+
+    GpuModel(GpuFormFactor defaultFormFactor, List<Integer> vramOptionsGb, String... aliases) {
+        this.defaultFormFactor = defaultFormFactor;
+        this.vramOptionsGb = vramOptionsGb;
+        this.aliases = Arrays.stream(aliases)
+                .map(a -> List.of(a.split(" ")))
+                .toList();
+    }
+
+    public GpuFormFactor defaultFormFactor() {
+        return defaultFormFactor;
+    }
+
+    public List<Integer> vramOptionsGb() {
+        return vramOptionsGb;
+    }
+
+    /**
+     * True if every token of any alias appears in {@code tokens}.
+     */
+    public boolean matches(Set<String> tokens) {
+        for (List<String> alias : aliases) {
+            if (tokens.containsAll(alias)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Snaps a reported VRAM size (which providers round differently) to the
+     * nearest real variant of this model.
+     */
+    public int snapVram(Integer reportedGb) {
+        if (reportedGb == null || reportedGb <= 0) {
+            return vramOptionsGb.getFirst();
+        }
+        int best = vramOptionsGb.getFirst();
+        for (int option : vramOptionsGb) {
+            if (Math.abs(option - reportedGb) < Math.abs(best - reportedGb)) {
+                best = option;
+            }
+        }
+        return best;
+    }
 }
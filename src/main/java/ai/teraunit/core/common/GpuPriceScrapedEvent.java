@@ -1,12 +1,15 @@
 package ai.teraunit.core.common;
 
-import java.util.Map;
+import java.time.Instant;
 
 /**
  * The "Pulse" of TeraUnit.
- * Immutable record for high-concurrency event processing.
+ * Immutable record for high-concurrency event processing: one raw provider
+ * response exactly as fetched. Mapping happens downstream, so the payload is
+ * handed over on publish and must not be modified afterwards.
  */
 public record GpuPriceScrapedEvent(
         ProviderName provider,
-        Map<String, Object> rawData
+        byte[] payload,
+        Instant scrapedAt
 ) {}
@@ -0,0 +1,13 @@
+package ai.teraunit.core.common;
+
+/**
+ * Canonical hardware identity shared by every provider.
+ * Instances are pooled by {@code id}; see GpuCatalog.
+ */
+public record GpuSku(
+        String id,            // e.g. "A100-80G-SXM-x8"
+        GpuModel model,
+        int vramGb,           // per GPU
+        GpuFormFactor formFactor,
+        int gpuCount
+) {}
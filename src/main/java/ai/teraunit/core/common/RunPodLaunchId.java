@@ -0,0 +1,53 @@
+package ai.teraunit.core.common;
+
+/**
+ * RunPod offers are per (GPU type, cloud, GPU count[, datacenter]); the
+ * launchId carries all of it so CloudExecutor can deploy exactly what was
+ * priced: {@code <gpuTypeId>|<SECURE|COMMUNITY>|x<count>[|<dataCenterId>]}.
+ *
+ * A plain gpuTypeId (the original format) still parses, as cloud ALL, x1.
+ */
+public record RunPodLaunchId(String gpuTypeId, Cloud cloud, int gpuCount, String dataCenterId) {
+
+    public enum Cloud { SECURE, COMMUNITY, ALL }
+
+    private static final char SEP = '|';
+
+    public String encode() {
+        if (cloud == Cloud.ALL && gpuCount == 1 && dataCenterId == null) {
+            return gpuTypeId;
+        }
+        String id = gpuTypeId + SEP + cloud.name() + SEP + "x" + gpuCount;
+        return dataCenterId == null ? id : id + SEP + dataCenterId;
+    }
+
+    /**
+     * @throws IllegalArgumentException for a malformed composite id
+     */
+    public static RunPodLaunchId parse(String launchId) {
+        if (launchId == null || launchId.isBlank()) {
+            throw new IllegalArgumentException("RunPod launchId is blank");
+        }
+        String[] parts = launchId.trim().split("\\|", -1);
+        if (parts.length == 1) {
+            return new RunPodLaunchId(parts[0], Cloud.ALL, 1, null);
+        }
+        if (parts.length < 3 || parts.length > 4 || parts[0].isBlank() || !parts[2].startsWith("x")) {
+            throw new IllegalArgumentException("Malformed RunPod launchId: " + launchId);
+        }
+        try {
+            Cloud cloud = Cloud.valueOf(parts[1]);
+            int count = Integer.parseInt(parts[2].substring(1));
+            if (count < 1) {
+                throw new IllegalArgumentException("Malformed RunPod launchId: " + launchId);
+            }
+            String dataCenter = parts.length == 4 && !parts[3].isBlank() ? parts[3] : null;
+            if (dataCenter != null && !dataCenter.matches("[A-Za-z0-9_-]+")) {
+                throw new IllegalArgumentException("Malformed RunPod launchId: " + launchId);
+            }
+            return new RunPodLaunchId(parts[0], cloud, count, dataCenter);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed RunPod launchId: " + launchId, e);
+        }
+    }
+}
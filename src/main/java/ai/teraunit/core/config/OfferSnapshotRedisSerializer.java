@@ -0,0 +1,60 @@
+package ai.teraunit.core.config;
+
+import ai.teraunit.core.pricing.GpuOffer;
+import ai.teraunit.core.pricing.OfferSnapshotCodec;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.List;
+
+/**
+ * Value serializer of the CLEAN_OFFERS:* template only: writes offer snapshots
+ * (List&lt;GpuOffer&gt;) in the compact binary format and anything else as JSON.
+ * Reads both, so snapshots written as JSON by an older build keep working
+ * until the next scrape overwrites them.
+ */
+public class OfferSnapshotRedisSerializer implements RedisSerializer<Object> {
+
+    private final GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public byte[] serialize(Object value) throws SerializationException {
+        if (isOfferSnapshot(value)) {
+            try {
+                return OfferSnapshotCodec.encode((List<GpuOffer>) value);
+            } catch (RuntimeException e) {
+                throw new SerializationException("Could not encode offer snapshot", e);
+            }
+        }
+        return json.serialize(value);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (OfferSnapshotCodec.isEncoded(bytes)) {
+            try {
+                return OfferSnapshotCodec.decode(bytes);
+            } catch (RuntimeException e) {
+                throw new SerializationException("Could not decode offer snapshot", e);
+            }
+        }
+        return json.deserialize(bytes);
+    }
+
+    private static boolean isOfferSnapshot(Object value) {
+        if (!(value instanceof List<?> list) || list.isEmpty()) {
+            return false;
+        }
+        for (Object o : list) {
+            if (!(o instanceof GpuOffer)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
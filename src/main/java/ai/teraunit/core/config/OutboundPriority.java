@@ -0,0 +1,16 @@
+package ai.teraunit.core.config;
+
+/**
+ * Why a provider call is being made, most urgent first. A waiting call of a
+ * higher class is always sent before any call of a lower one.
+ */
+public enum OutboundPriority {
+    // A running instance is costing money until this lands.
+    TERMINATE,
+    // A user is waiting on the response.
+    LAUNCH,
+    // Credential checks in front of a launch.
+    VERIFY,
+    // Background inventory; happy to wait.
+    SCRAPE
+}
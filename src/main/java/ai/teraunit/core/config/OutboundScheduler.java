@@ -0,0 +1,297 @@
+package ai.teraunit.core.config;
+
+import ai.teraunit.core.common.ProviderName;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * THE DISPATCHER
+ * Every outbound provider call (scrape, verify, launch, terminate) queues
+ * here first. One lane per (provider, credential): a token bucket sized to
+ * the provider's documented limits, with waiting calls served in strict
+ * {@link OutboundPriority} order, so a burst of scrape traffic can delay
+ * other scrapes but never a kill.
+ *
+ * Terminates may also borrow a few tokens past empty (the lane pays them
+ * back before anything else is sent), so a kill does not wait for a refill
+ * even when the bucket has just been drained.
+ *
+ * A 429 (or a 503 with Retry-After) pauses the whole lane until the
+ * provider says to come back. Calls that would wait longer than the queue
+ * limit fail fast instead of holding a thread.
+ */
+public class OutboundScheduler {
+
+    // Lanes kept in memory; beyond this many, idle ones are dropped.
+    static final int MAX_LANES = 1_000;
+    // 429 without a Retry-After: back off this long.
+    static final Duration DEFAULT_BACKOFF = Duration.ofSeconds(1);
+    private static final String BEARER = "Bearer ";
+
+    private final Clock clock;
+    private final Map<ProviderName, Limit> limits = new EnumMap<>(ProviderName.class);
+    private final int terminateReserve;
+    private final Duration maxWait;
+
+    private final Map<String, Lane> lanes = new HashMap<>();
+
+    /**
+     * Sustained rate and the most calls that may go out back to back.
+     */
+    public record Limit(double perSecond, int burst) {
+
+        public Limit {
+            if (perSecond <= 0 || burst < 1) {
+                throw new IllegalArgumentException("Invalid outbound limit: " + perSecond + "/s, burst " + burst);
+            }
+        }
+    }
+
+    public OutboundScheduler(Clock clock, Map<ProviderName, Limit> limits, int terminateReserve, Duration maxWait) {
+        this.clock = clock;
+        this.limits.putAll(limits);
+        this.terminateReserve = Math.max(0, terminateReserve);
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * Gates every request of one client: waits for its lane, then watches the
+     * response for the provider pushing back.
+     */
+    public ClientHttpRequestInterceptor interceptor(ProviderName provider, OutboundPriority priority) {
+        return (request, body, execution) -> {
+            Lane lane = lane(provider, request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+            lane.acquire(priority);
+
+            ClientHttpResponse response = execution.execute(request, body);
+            int status = response.getStatusCode().value();
+            String retryAfter = response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+            if (status == 429 || (status == 503 && retryAfter != null)) {
+                Duration pause = retryAfter(retryAfter, clock.instant());
+                lane.pause(pause);
+                System.err.println("[TeraUnit-Http] " + provider + " returned " + status + "; pausing lane for "
+                        + pause.toMillis() + "ms");
+            }
+            return response;
+        };
+    }
+
+    Lane lane(ProviderName provider, String credential) {
+        String key = provider.name() + ':' + fingerprint(credential);
+        synchronized (lanes) {
+            if (lanes.size() >= MAX_LANES && !lanes.containsKey(key)) {
+                lanes.values().removeIf(Lane::idle);
+            }
+            return lanes.computeIfAbsent(key, k -> new Lane(limit(provider)));
+        }
+    }
+
+    /**
+     * The configured rate for one provider's lanes, so callers can size
+     * their work to what will actually get through.
+     */
+    public Limit limit(ProviderName provider) {
+        Limit limit = limits.get(provider);
+        if (limit == null) {
+            throw new IllegalStateException("No outbound limit configured for " + provider);
+        }
+        return limit;
+    }
+
+    /**
+     * Retry-After as delta-seconds or an HTTP date; missing or garbled means
+     * {@link #DEFAULT_BACKOFF}.
+     */
+    static Duration retryAfter(String header, Instant now) {
+        if (header == null || header.isBlank()) {
+            return DEFAULT_BACKOFF;
+        }
+        String value = header.trim();
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value)));
+        } catch (NumberFormatException notSeconds) {
+            try {
+                Instant at = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+                return at.isAfter(now) ? Duration.between(now, at) : Duration.ZERO;
+            } catch (DateTimeParseException notDate) {
+                return DEFAULT_BACKOFF;
+            }
+        }
+    }
+
+    // Lanes are keyed by a digest so raw API keys are not held as map keys.
+    // RunPod's scraper sends the bare key and everything else "Bearer <key>";
+    // both must land in the same lane or priority means nothing between them.
+    private static String fingerprint(String credential) {
+        String key = credential == null ? "" : credential.trim();
+        if (key.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            key = key.substring(BEARER.length()).trim();
+        }
+        if (key.isEmpty()) {
+            return "anonymous";
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    /**
+     * One (provider, credential) bucket and the calls waiting on it.
+     */
+    final class Lane {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        private final PriorityQueue<Ticket> waiting = new PriorityQueue<>();
+        private final double perMilli;
+        private final int burst;
+
+        private double tokens;
+        private long refilledAt;
+        private long pausedUntil;
+        private long sequence;
+
+        private Lane(Limit limit) {
+            this.perMilli = limit.perSecond() / 1000.0;
+            this.burst = limit.burst();
+            this.tokens = burst;
+            this.refilledAt = clock.millis();
+        }
+
+        void acquire(OutboundPriority priority) throws IOException {
+            lock.lock();
+            try {
+                Ticket ticket = enqueue(priority);
+                long deadline = clock.millis() + maxWait.toMillis();
+                boolean granted = false;
+                try {
+                    while (true) {
+                        long wait = poll(ticket);
+                        if (wait == 0) {
+                            granted = true;
+                            return;
+                        }
+                        long now = clock.millis();
+                        if (pausedUntil > deadline || now >= deadline) {
+                            throw new IOException("OUTBOUND_BUSY: " + priority + " call not sent within "
+                                    + maxWait.toMillis() + "ms (rate limited)");
+                        }
+                        changed.await(Math.min(wait, deadline - now), TimeUnit.MILLISECONDS);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted waiting to send " + priority + " call");
+                } finally {
+                    if (!granted) {
+                        waiting.remove(ticket);
+                    }
+                    // The head changed either way; let the next waiter re-check.
+                    changed.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Ticket enqueue(OutboundPriority priority) {
+            lock.lock();
+            try {
+                Ticket ticket = new Ticket(priority, sequence++);
+                waiting.add(ticket);
+                return ticket;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Sends {@code ticket} if it is at the head of the queue and the lane
+         * has a token for it (0, ticket dequeued); else how long to wait
+         * before checking again.
+         */
+        long poll(Ticket ticket) {
+            lock.lock();
+            try {
+                long now = clock.millis();
+                refill(now);
+                if (pausedUntil > now) {
+                    return pausedUntil - now;
+                }
+                // Terminates may dip into debt; everyone else needs a whole token.
+                double floor = ticket.priority() == OutboundPriority.TERMINATE ? 1 - terminateReserve : 1;
+                if (waiting.peek() == ticket && tokens >= floor) {
+                    tokens -= 1;
+                    waiting.poll();
+                    return 0;
+                }
+                return Math.max(1, (long) Math.ceil((floor - tokens) / perMilli));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void pause(Duration duration) {
+            lock.lock();
+            try {
+                pausedUntil = Math.max(pausedUntil, clock.millis() + duration.toMillis());
+                // Whatever is left was not really available.
+                tokens = Math.min(tokens, 0);
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean idle() {
+            lock.lock();
+            try {
+                long now = clock.millis();
+                refill(now);
+                return waiting.isEmpty() && pausedUntil <= now && tokens >= burst;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void refill(long now) {
+            long elapsed = now - refilledAt;
+            if (elapsed > 0) {
+                tokens = Math.min(burst, tokens + elapsed * perMilli);
+                refilledAt = now;
+            }
+        }
+    }
+
+    record Ticket(OutboundPriority priority, long sequence) implements Comparable<Ticket> {
+
+        @Override
+        public int compareTo(Ticket other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
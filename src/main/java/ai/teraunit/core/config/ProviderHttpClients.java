@@ -0,0 +1,60 @@
+package ai.teraunit.core.config;
+
+import ai.teraunit.core.common.ProviderName;
+import org.springframework.web.client.RestClient;
+
+import java.net.URI;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * One tuned {@link RestClient} per provider and {@link OutboundPriority}.
+ * Each provider has its own JDK HttpClient, so connection pools, timeouts and
+ * metrics never mix; the priority decides where its calls queue in the
+ * {@link OutboundScheduler}.
+ */
+public class ProviderHttpClients {
+
+    // Hosts every call for the provider goes to; used to pre-open connections.
+    static final Map<ProviderName, URI> ORIGINS = Map.of(
+            ProviderName.LAMBDA, URI.create("https://cloud.lambda.ai/"),
+            ProviderName.RUNPOD, URI.create("https://api.runpod.io/"),
+            ProviderName.VAST, URI.create("https://console.vast.ai/"));
+
+    private final Map<ProviderName, Map<OutboundPriority, RestClient>> clients;
+
+    ProviderHttpClients(Map<ProviderName, Map<OutboundPriority, RestClient>> clients) {
+        this.clients = new EnumMap<>(clients);
+    }
+
+    public RestClient of(ProviderName provider, OutboundPriority priority) {
+        Map<OutboundPriority, RestClient> byPriority = clients.get(provider);
+        RestClient client = byPriority == null ? null : byPriority.get(priority);
+        if (client == null) {
+            throw new IllegalStateException("No HTTP client configured for " + provider + " (" + priority + ")");
+        }
+        return client;
+    }
+
+    /**
+     * Opens (TLS handshake, HTTP/2 negotiation) one pooled connection per
+     * provider so the first launch or terminate after a deploy is not cold.
+     * Failures are ignored; the real call will simply connect itself.
+     */
+    public void prewarm(ProviderName provider) {
+        long start = System.nanoTime();
+        try {
+            of(provider, OutboundPriority.SCRAPE).head()
+                    .uri(ORIGINS.get(provider))
+                    .retrieve()
+                    .onStatus(status -> true, (req, res) -> {
+                        // Any status means the connection is up; that is all we want.
+                    })
+                    .toBodilessEntity();
+            System.out.println("[TeraUnit-Http] " + provider + " connection warm in "
+                    + (System.nanoTime() - start) / 1_000_000 + "ms");
+        } catch (Exception e) {
+            System.err.println("[TeraUnit-Http] " + provider + " prewarm failed: " + e.getMessage());
+        }
+    }
+}
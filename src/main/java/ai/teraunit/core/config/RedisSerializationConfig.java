@@ -2,25 +2,44 @@ package ai.teraunit.core.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
 public class RedisSerializationConfig {
 
+    /** Bean name of the template for offer snapshots (CLEAN_OFFERS:*) only. */
+    public static final String OFFER_SNAPSHOTS = "offerSnapshotRedisTemplate";
+
     @Bean
+    @Primary
     public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+        // Use String keys and JSON values for industrial-tier readability.
+        return template(connectionFactory, new GenericJackson2JsonRedisSerializer());
+    }
+
+    /**
+     * Offer snapshots use the compact binary codec instead; legacy JSON
+     * snapshots are still readable. Kept to its own template so the format
+     * is chosen by key, never by whatever value happens to be a List of offers.
+     */
+    @Bean(OFFER_SNAPSHOTS)
+    public RedisTemplate<String, Object> offerSnapshotRedisTemplate(RedisConnectionFactory connectionFactory) {
+        return template(connectionFactory, new OfferSnapshotRedisSerializer());
+    }
+
+    private static RedisTemplate<String, Object> template(RedisConnectionFactory connectionFactory,
+            RedisSerializer<Object> valueSerializer) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
-
-        // Use String keys and JSON values for industrial-tier readability
         template.setKeySerializer(new StringRedisSerializer());
-        template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setValueSerializer(valueSerializer);
         template.setHashKeySerializer(new StringRedisSerializer());
         template.setHashValueSerializer(new GenericJackson2JsonRedisSerializer());
-
         return template;
     }
 }
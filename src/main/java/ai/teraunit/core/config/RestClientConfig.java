@@ -1,17 +1,130 @@
 package ai.teraunit.core.config;
 
+import ai.teraunit.core.common.ProviderName;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.web.client.RestClient;
 import org.springframework.http.client.JdkClientHttpRequestFactory;
 
+import java.net.http.HttpClient;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
 @Configuration
 public class RestClientConfig {
 
+    // Defaults per provider; override with teraunit.http.<provider>.connect-timeout-ms / read-timeout-ms.
+    private static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    private static final Map<ProviderName, Duration> DEFAULT_READ_TIMEOUTS = Map.of(
+            ProviderName.LAMBDA, Duration.ofSeconds(20),
+            ProviderName.RUNPOD, Duration.ofSeconds(15),
+            ProviderName.VAST, Duration.ofSeconds(30)); // bundle search is the slowest call we make
+
+    // Outbound rate per (provider, credential), kept under each provider's published API limits;
+    // override with teraunit.http.<provider>.requests-per-second / burst.
+    private static final Map<ProviderName, OutboundScheduler.Limit> DEFAULT_LIMITS = Map.of(
+            ProviderName.LAMBDA, new OutboundScheduler.Limit(1, 2),
+            ProviderName.RUNPOD, new OutboundScheduler.Limit(5, 10),
+            ProviderName.VAST, new OutboundScheduler.Limit(2, 4));
+
+    private ProviderHttpClients clients;
+
+    @Value("${teraunit.http.prewarm:true}")
+    private boolean prewarm;
+
+    @Bean
+    public OutboundScheduler outboundScheduler(Environment env,
+            @Value("${teraunit.http.terminate-reserve:2}") int terminateReserve,
+            @Value("${teraunit.http.max-queue-ms:30000}") long maxQueueMs) {
+        Map<ProviderName, OutboundScheduler.Limit> limits = new EnumMap<>(ProviderName.class);
+        for (ProviderName provider : ProviderName.values()) {
+            String prefix = "teraunit.http." + provider.name().toLowerCase(Locale.ROOT) + ".";
+            OutboundScheduler.Limit fallback = DEFAULT_LIMITS.get(provider);
+            limits.put(provider, new OutboundScheduler.Limit(
+                    env.getProperty(prefix + "requests-per-second", Double.class, fallback.perSecond()),
+                    env.getProperty(prefix + "burst", Integer.class, fallback.burst())));
+        }
+        return new OutboundScheduler(Clock.systemUTC(), limits, terminateReserve,
+                Duration.ofMillis(Math.max(0, maxQueueMs)));
+    }
+
     @Bean
-    public RestClient restClient() {
-        return RestClient.builder()
-                .requestFactory(new JdkClientHttpRequestFactory())
-                .build();
+    public ProviderHttpClients providerHttpClients(Environment env, MeterRegistry meters,
+            OutboundScheduler scheduler) {
+        Map<ProviderName, Map<OutboundPriority, RestClient>> byProvider = new EnumMap<>(ProviderName.class);
+        for (ProviderName provider : ProviderName.values()) {
+            String prefix = "teraunit.http." + provider.name().toLowerCase(Locale.ROOT) + ".";
+            Duration connectTimeout = Duration.ofMillis(env.getProperty(prefix + "connect-timeout-ms",
+                    Long.class, DEFAULT_CONNECT_TIMEOUT.toMillis()));
+            Duration readTimeout = Duration.ofMillis(env.getProperty(prefix + "read-timeout-ms",
+                    Long.class, DEFAULT_READ_TIMEOUTS.get(provider).toMillis()));
+
+            // HTTP/2 is negotiated via ALPN and falls back to HTTP/1.1 per host;
+            // either way the client keeps its connections pooled for reuse.
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(connectTimeout)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+
+            JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient);
+            factory.setReadTimeout(readTimeout);
+
+            // Same connection pool for every priority; only the queueing differs.
+            // The scheduler runs outermost so queue time is not counted as request time.
+            Map<OutboundPriority, RestClient> byPriority = new EnumMap<>(OutboundPriority.class);
+            for (OutboundPriority priority : OutboundPriority.values()) {
+                byPriority.put(priority, RestClient.builder()
+                        .requestFactory(factory)
+                        .requestInterceptor(scheduler.interceptor(provider, priority))
+                        .requestInterceptor(timing(provider, meters))
+                        .requestInterceptor(new GzipDecodingInterceptor())
+                        .build());
+            }
+            byProvider.put(provider, byPriority);
+        }
+        clients = new ProviderHttpClients(byProvider);
+        return clients;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prewarmConnections() {
+        if (!prewarm || clients == null) {
+            return;
+        }
+        for (ProviderName provider : ProviderName.values()) {
+            Thread.ofVirtual().name("http-prewarm-" + provider.name()).start(() -> clients.prewarm(provider));
+        }
+    }
+
+    // Time to response headers, tagged per provider (body streaming is timed by the caller).
+    private static ClientHttpRequestInterceptor timing(ProviderName provider, MeterRegistry meters) {
+        return (request, body, execution) -> {
+            long start = System.nanoTime();
+            String outcome = "IO_ERROR";
+            try {
+                var response = execution.execute(request, body);
+                outcome = String.valueOf(response.getStatusCode().value());
+                return response;
+            } finally {
+                Timer.builder("teraunit.http.client")
+                        .tag("provider", provider.name())
+                        .tag("method", request.getMethod().name())
+                        .tag("status", outcome)
+                        .register(meters)
+                        .record(Duration.ofNanos(System.nanoTime() - start));
+            }
+        };
     }
 }
@@ -0,0 +1,30 @@
+package ai.teraunit.core.inventory;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds each published snapshot to the {@link ChurnTracker}.
+ */
+@Component
+public class ChurnSink implements OfferSink {
+
+    private final ChurnTracker churn;
+
+    public ChurnSink(ChurnTracker churn) {
+        this.churn = churn;
+    }
+
+    @Override
+    public String name() {
+        return "churn";
+    }
+
+    @Override
+    public void accept(OfferBatch batch) {
+        if (batch.partial()) {
+            churn.observeSegments(batch.provider(), batch.segments(), batch.offers());
+        } else {
+            churn.observe(batch.provider(), batch.offers());
+        }
+    }
+}
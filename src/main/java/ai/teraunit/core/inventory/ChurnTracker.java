@@ -0,0 +1,187 @@
+package ai.teraunit.core.inventory;
+
+import ai.teraunit.core.common.GpuModel;
+import ai.teraunit.core.common.ProviderName;
+import ai.teraunit.core.pricing.GpuCatalog;
+import ai.teraunit.core.pricing.GpuOffer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * THE VOLATILITY METER
+ * Tracks how much each provider segment (one raw GPU SKU string, e.g. Vast
+ * "H100 SXM" or Lambda "GPU_8X_H100_SXM5") changes between snapshots.
+ *
+ * Churn for one observation is (added + removed + repriced) / union of offer
+ * keys; it is smoothed with an EWMA. Scarce hardware counts double, since a
+ * missed H100 listing costs more than a missed T4 price tick.
+ */
+@Component
+public class ChurnTracker {
+
+    // Per-scrape churn that counts as "normal" (new segments start here) and as "hot".
+    public static final double NEUTRAL_CHURN = 0.02;
+    public static final double HOT_CHURN = 0.20;
+
+    private static final double ALPHA = 0.3;
+    private static final double SCARCE_WEIGHT = 2.0;
+    private static final Set<GpuModel> SCARCE = EnumSet.of(GpuModel.B200, GpuModel.GH200, GpuModel.H200, GpuModel.H100);
+
+    // Bounds memory if a provider starts inventing names.
+    private static final int MAX_SEGMENTS_PER_PROVIDER = 1_000;
+
+    private final Map<ProviderName, Map<String, Segment>> segments = new EnumMap<>(ProviderName.class);
+
+    /**
+     * Full snapshot for the provider.
+     */
+    public synchronized void observe(ProviderName provider, List<GpuOffer> offers) {
+        Map<String, Map<String, Double>> bySegment = group(offers);
+        Map<String, Segment> known = segments.get(provider);
+        if (known == null) {
+            // First snapshot is the baseline, not a wave of additions.
+            known = new HashMap<>();
+            segments.put(provider, known);
+            for (Map.Entry<String, Map<String, Double>> e : bySegment.entrySet()) {
+                if (known.size() < MAX_SEGMENTS_PER_PROVIDER) {
+                    Segment segment = new Segment(e.getKey());
+                    segment.offers = e.getValue();
+                    known.put(e.getKey(), segment);
+                }
+            }
+            return;
+        }
+
+        Set<String> all = new HashSet<>(known.keySet());
+        all.addAll(bySegment.keySet());
+        for (String name : all) {
+            update(known, name, bySegment.getOrDefault(name, Map.of()));
+        }
+    }
+
+    /**
+     * Partial refresh: only {@code refreshed} segments were re-read; {@code offers}
+     * is everything currently listed for them.
+     */
+    public synchronized void observeSegments(ProviderName provider, Collection<String> refreshed, List<GpuOffer> offers) {
+        Map<String, Map<String, Double>> bySegment = group(offers);
+        Map<String, Segment> known = segments.computeIfAbsent(provider, p -> new HashMap<>());
+        for (String name : refreshed) {
+            update(known, name, bySegment.getOrDefault(name, Map.of()));
+        }
+    }
+
+    /**
+     * Provider answered with exactly the previous data: zero churn everywhere.
+     */
+    public synchronized void observeUnchanged(ProviderName provider) {
+        Map<String, Segment> known = segments.get(provider);
+        if (known != null) {
+            known.values().forEach(s -> s.ewma = (1 - ALPHA) * s.ewma);
+        }
+    }
+
+    /**
+     * Heat of the provider's hottest segment; NEUTRAL_CHURN until we know better.
+     */
+    public synchronized double hotness(ProviderName provider) {
+        Map<String, Segment> known = segments.get(provider);
+        if (known == null || known.isEmpty()) {
+            return NEUTRAL_CHURN;
+        }
+        double max = 0;
+        for (Segment s : known.values()) {
+            max = Math.max(max, s.hotness());
+        }
+        return max;
+    }
+
+    /**
+     * Up to {@code limit} segments at or above {@code minHotness}, hottest first.
+     */
+    public synchronized List<String> hottestSegments(ProviderName provider, int limit, double minHotness) {
+        Map<String, Segment> known = segments.get(provider);
+        if (known == null) {
+            return List.of();
+        }
+        List<Segment> hot = new ArrayList<>();
+        for (Segment s : known.values()) {
+            if (s.hotness() >= minHotness) {
+                hot.add(s);
+            }
+        }
+        hot.sort((a, b) -> Double.compare(b.hotness(), a.hotness()));
+        return hot.stream().limit(limit).map(s -> s.name).toList();
+    }
+
+    // --- INTERNALS ---
+
+    private static void update(Map<String, Segment> known, String name, Map<String, Double> current) {
+        Segment segment = known.get(name);
+        if (segment == null) {
+            if (current.isEmpty() || known.size() >= MAX_SEGMENTS_PER_PROVIDER) {
+                return;
+            }
+            segment = new Segment(name);
+            known.put(name, segment);
+        }
+
+        Map<String, Double> previous = segment.offers;
+        Set<String> union = new HashSet<>(previous.keySet());
+        union.addAll(current.keySet());
+        int changed = 0;
+        for (String key : union) {
+            Double before = previous.get(key);
+            Double after = current.get(key);
+            if (before == null || after == null || Double.compare(before, after) != 0) {
+                changed++;
+            }
+        }
+        double churn = union.isEmpty() ? 0.0 : (double) changed / union.size();
+        segment.ewma = ALPHA * churn + (1 - ALPHA) * segment.ewma;
+        segment.offers = current;
+
+        // Gone and quiet: forget it.
+        if (current.isEmpty() && segment.ewma < NEUTRAL_CHURN / 10) {
+            known.remove(name);
+        }
+    }
+
+    private static Map<String, Map<String, Double>> group(List<GpuOffer> offers) {
+        Map<String, Map<String, Double>> bySegment = new HashMap<>();
+        for (GpuOffer o : offers) {
+            if (o.gpuModel() == null) {
+                continue;
+            }
+            bySegment.computeIfAbsent(o.gpuModel(), k -> new HashMap<>())
+                    .put(o.launchId() + "@" + o.region(), o.pricePerHour());
+        }
+        return bySegment;
+    }
+
+    private static final class Segment {
+        final String name;
+        final double weight;
+        double ewma = NEUTRAL_CHURN;
+        Map<String, Double> offers = Map.of();
+
+        Segment(String name) {
+            this.name = name;
+            GpuModel model = GpuCatalog.resolveModel(name);
+            this.weight = (model != null && SCARCE.contains(model)) ? SCARCE_WEIGHT : 1.0;
+        }
+
+        double hotness() {
+            return ewma * weight;
+        }
+    }
+}
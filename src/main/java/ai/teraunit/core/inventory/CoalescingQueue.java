@@ -0,0 +1,39 @@
+package ai.teraunit.core.inventory;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Blocking queue holding at most one value per key: a newer value replaces
+ * the pending one and is handed back to the caller. Fits full snapshots,
+ * where only the latest matters, and is bounded by the number of keys.
+ */
+final class CoalescingQueue<K, V> {
+
+    private final LinkedHashMap<K, V> pending = new LinkedHashMap<>();
+
+    /**
+     * @return the value this one displaced, or null
+     */
+    synchronized V put(K key, V value) {
+        V displaced = pending.remove(key); // re-insert at the tail: oldest key drains first
+        pending.put(key, value);
+        notifyAll();
+        return displaced;
+    }
+
+    synchronized V take() throws InterruptedException {
+        while (pending.isEmpty()) {
+            wait();
+        }
+        Iterator<Map.Entry<K, V>> it = pending.entrySet().iterator();
+        V value = it.next().getValue();
+        it.remove();
+        return value;
+    }
+
+    synchronized int size() {
+        return pending.size();
+    }
+}
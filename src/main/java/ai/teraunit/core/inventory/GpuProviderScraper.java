@@ -1,5 +1,37 @@
 package ai.teraunit.core.inventory;
 
+import ai.teraunit.core.common.ProviderName;
+
+import java.time.Duration;
+
+/**
+ * One provider's inventory pull. Scheduling, deadlines and failure handling
+ * belong to {@link ScrapeOrchestrator}; implementations just throw on failure.
+ */
 public interface GpuProviderScraper {
-    void scrape();
+
+    ProviderName provider();
+
+    /** Nominal time between scrapes (jitter is applied by the orchestrator). */
+    Duration interval();
+
+    /** Hard limit for one scrape; the run is cancelled after this. */
+    default Duration deadline() {
+        return interval().dividedBy(2);
+    }
+
+    /**
+     * Provider API calls allowed per hour. The orchestrator speeds up for
+     * volatile data and slows down for stable data, but never past this.
+     */
+    default int requestBudgetPerHour() {
+        return (int) (Duration.ofHours(1).toSeconds() / interval().toSeconds()) * 4;
+    }
+
+    /** Provider API calls the last {@link #scrape()} made (for the budget). */
+    default int requestsLastRun() {
+        return 1;
+    }
+
+    ScrapeResult scrape() throws InterruptedException;
 }
@@ -1,14 +1,17 @@
 package ai.teraunit.core.inventory;
 
+import ai.teraunit.core.common.GpuPriceScrapedEvent;
 import ai.teraunit.core.common.ProviderName;
+import ai.teraunit.core.config.OutboundPriority;
+import ai.teraunit.core.config.ProviderHttpClients;
 import ai.teraunit.core.pricing.GpuOffer;
 import ai.teraunit.core.pricing.PriceMapper;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -17,8 +20,12 @@ import java.util.Map;
 public class LambdaScraper implements GpuProviderScraper {
 
     private final RestClient restClient;
-    private final RedisTemplate<String, Object> redis; // Added DB Access
     private final PriceMapper priceMapper; // Added Mapper Access
+    private final ScrapePipeline pipeline;
+    private final ChurnTracker churn;
+
+    // Forces a full rewrite at least this often even if the provider data never changes.
+    private final ResponseFingerprint fingerprint = new ResponseFingerprint(Duration.ofMinutes(10));
 
     @Value("${LAMBDA_API_KEY:missing_key}")
     private String apiKey;
@@ -26,51 +33,77 @@ public class LambdaScraper implements GpuProviderScraper {
     @Value("${TERA_DEBUG_LAMBDA:false}")
     private boolean debugLambda;
 
-    public LambdaScraper(RestClient restClient,
-            RedisTemplate<String, Object> redis,
-            PriceMapper priceMapper) {
-        this.restClient = restClient;
-        this.redis = redis;
+    public LambdaScraper(ProviderHttpClients http,
+            PriceMapper priceMapper,
+            ScrapePipeline pipeline,
+            ChurnTracker churn) {
+        this.restClient = http.of(ProviderName.LAMBDA, OutboundPriority.SCRAPE);
         this.priceMapper = priceMapper;
+        this.pipeline = pipeline;
+        this.churn = churn;
     }
 
     @Override
-    @Scheduled(fixedRate = 60000)
-    public void scrape() {
-        try {
-            String cleanKey = ai.teraunit.core.security.TokenUtil.sanitizeApiKey(apiKey);
+    public ProviderName provider() {
+        return ProviderName.LAMBDA;
+    }
 
-            String endpoint = "https://cloud.lambda.ai/api/v1/instance-types";
+    @Override
+    public Duration interval() {
+        return Duration.ofSeconds(60);
+    }
 
+    @Override
+    public ScrapeResult scrape() throws InterruptedException {
+        String cleanKey = ai.teraunit.core.security.TokenUtil.sanitizeApiKey(apiKey);
+
+        String endpoint = "https://cloud.lambda.ai/api/v1/instance-types";
+
+        if (debugLambda) {
+            // Debug keeps the tree so the response shape can be summarized.
             @SuppressWarnings("unchecked")
             Map<String, Object> response = restClient.get()
                     .uri(endpoint)
                     .header("Authorization", "Bearer " + cleanKey)
                     .retrieve()
                     .body(Map.class);
-
-            if (response != null) {
-                if (debugLambda) {
-                    System.out.println("[LAMBDA-DEBUG] " + summarizeLambdaResponse(response));
-                }
-
-                // 1. Use the Mapper we just fixed
-                List<GpuOffer> offers = priceMapper.mapToOffers(ProviderName.LAMBDA, response);
-
-                if (debugLambda) {
-                    System.out.println("[LAMBDA-DEBUG] mappedOffers=" + offers.size());
-                }
-
-                // 2. Save DIRECTLY to Redis (Fixing the "Depleted" issue)
-                if (!offers.isEmpty()) {
-                    redis.opsForValue().set("CLEAN_OFFERS:LAMBDA", offers);
-                    System.out.println("[TeraUnit-Pulse] Lambda Updated: " + offers.size() + " units online.");
-                }
+            if (response == null) {
+                return ScrapeResult.EMPTY;
+            }
+            System.out.println("[LAMBDA-DEBUG] " + summarizeLambdaResponse(response));
+            List<GpuOffer> offers = priceMapper.mapToOffers(ProviderName.LAMBDA, response);
+            System.out.println("[LAMBDA-DEBUG] mappedOffers=" + offers.size());
+            if (offers.isEmpty()) {
+                return ScrapeResult.EMPTY;
             }
+            return pipeline.await(pipeline.publishOffers(ProviderName.LAMBDA, offers, null));
+        } else {
+            // Conditional GET: a 304 or an identical body skips mapping and the Redis write.
+            byte[] body = restClient.get()
+                    .uri(endpoint)
+                    .header("Authorization", "Bearer " + cleanKey)
+                    .headers(fingerprint::applyConditionalHeaders)
+                    .exchange((request, response) -> fingerprint.readIfChanged(response));
+            if (body == null) {
+                churn.observeUnchanged(ProviderName.LAMBDA);
+                return ScrapeResult.UNCHANGED;
+            }
+            return publish(body);
+        }
+    }
 
-        } catch (Exception e) {
-            System.err.println("[TeraUnit-Warn] Lambda Scrape Retry: " + e.getMessage());
+    /**
+     * Mapping and the Redis write happen in the {@link ScrapePipeline}; the
+     * fingerprint only advances once the snapshot has actually been written.
+     */
+    private ScrapeResult publish(byte[] body) throws InterruptedException {
+        ResponseFingerprint.Version version = fingerprint.pending();
+        ScrapeResult result = pipeline.await(
+                pipeline.publish(new GpuPriceScrapedEvent(ProviderName.LAMBDA, body, Instant.now())));
+        if (result == ScrapeResult.UPDATED) {
+            fingerprint.commit(version);
         }
+        return result;
     }
 
     private static String summarizeLambdaResponse(Map<String, Object> response) {
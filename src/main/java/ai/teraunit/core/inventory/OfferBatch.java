@@ -0,0 +1,25 @@
+package ai.teraunit.core.inventory;
+
+import ai.teraunit.core.common.ProviderName;
+import ai.teraunit.core.pricing.GpuOffer;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A provider's full offer list after mapping, as handed to every {@link OfferSink}.
+ *
+ * @param segments gpu-model segments actually re-read for this batch, or null
+ *                 when the whole provider was (a targeted Vast refresh re-reads a few)
+ */
+public record OfferBatch(
+        ProviderName provider,
+        List<GpuOffer> offers,
+        Set<String> segments,
+        Instant scrapedAt
+) {
+    public boolean partial() {
+        return segments != null;
+    }
+}
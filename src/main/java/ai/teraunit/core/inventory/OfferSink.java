@@ -0,0 +1,22 @@
+package ai.teraunit.core.inventory;
+
+/**
+ * Consumer at the end of the {@link ScrapePipeline}. Each sink runs on its own
+ * lane, so a slow sink never holds up the scrapers or the other sinks; under
+ * backpressure a lane keeps only the newest batch per provider.
+ */
+public interface OfferSink {
+
+    /** Short name for metrics and logs. */
+    String name();
+
+    /**
+     * Required sinks gate the publish result: the scraper only treats its data
+     * as delivered (and advances its fingerprint) once these have succeeded.
+     */
+    default boolean required() {
+        return false;
+    }
+
+    void accept(OfferBatch batch) throws Exception;
+}
@@ -0,0 +1,16 @@
+package ai.teraunit.core.inventory;
+
+import ai.teraunit.core.common.GpuPriceScrapedEvent;
+
+/**
+ * Consumer of raw provider responses, before mapping. Best-effort: the
+ * {@link ScrapePipeline} drops events for a sink that falls behind rather
+ * than slow the scrapers down.
+ */
+public interface RawResponseSink {
+
+    /** Short name for metrics and logs. */
+    String name();
+
+    void accept(GpuPriceScrapedEvent event) throws Exception;
+}
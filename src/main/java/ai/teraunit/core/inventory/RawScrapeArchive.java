@@ -0,0 +1,368 @@
+package ai.teraunit.core.inventory;
+
+import ai.teraunit.core.common.GpuPriceScrapedEvent;
+import ai.teraunit.core.common.ProviderName;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * THE FLIGHT RECORDER
+ * Every raw provider response, appended to size-rotated segment files
+ * (raw-00000001.seg, ...) so whatever the mapper skipped can be read back and
+ * replayed later.
+ *
+ * Each record is deflated on its own, so any one can be read by random access
+ * without touching its neighbours. Record layout: MAGIC (int), scrapedAt
+ * epoch millis (long), provider name length (byte) + ASCII name, raw length
+ * (int), stored length (int), CRC32C of stored bytes (long), stored bytes.
+ *
+ * The index (provider, time -> segment, offset) lives in memory. Segments are
+ * self-describing, so on boot it is rebuilt by hopping from header to header;
+ * a torn tail from a crash is simply where the scan stops. Writing always
+ * starts a fresh segment, and the oldest segments are deleted once the
+ * archive exceeds max-bytes.
+ */
+@Component
+public class RawScrapeArchive implements RawResponseSink {
+
+    private static final int MAGIC = 0x54555241; // "TURA"
+    private static final int FIXED_HEADER = 4 + 8 + 1 + 4 + 4 + 8;
+
+    private final boolean enabled;
+    private final Path dir;
+    private final long segmentBytes;
+    private final long maxBytes;
+
+    // Guarded by this.
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private FileChannel out;
+    private Segment current;
+
+    @Autowired
+    public RawScrapeArchive(@Value("${teraunit.archive.enabled:true}") boolean enabled,
+            @Value("${teraunit.archive.dir:${java.io.tmpdir}/teraunit-archive}") String dir,
+            @Value("${teraunit.archive.segment-mb:64}") long segmentMb,
+            @Value("${teraunit.archive.max-mb:1024}") long maxMb) {
+        this(enabled, Path.of(dir), Math.max(1, segmentMb) * 1024 * 1024, Math.max(1, maxMb) * 1024 * 1024);
+    }
+
+    RawScrapeArchive(boolean enabled, Path dir, long segmentBytes, long maxBytes) {
+        this.enabled = enabled;
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.maxBytes = Math.max(segmentBytes, maxBytes);
+    }
+
+    @PostConstruct
+    public synchronized void open() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Files.createDirectories(dir);
+            try (Stream<Path> files = Files.list(dir)) {
+                for (Path file : files.filter(f -> f.getFileName().toString().matches("raw-\\d{8}\\.seg")).toList()) {
+                    Segment segment = scan(file);
+                    segments.put(segment.seq, segment);
+                }
+            }
+            int records = segments.values().stream().mapToInt(s -> s.entries.size()).sum();
+            System.out.println("[TeraUnit-Archive] " + segments.size() + " segments, " + records + " responses indexed");
+        } catch (IOException e) {
+            System.err.println("[TeraUnit-Archive] Index rebuild failed: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        closeCurrent();
+        deflater.end();
+    }
+
+    @Override
+    public String name() {
+        return "archive";
+    }
+
+    @Override
+    public void accept(GpuPriceScrapedEvent event) throws IOException {
+        append(event.provider(), event.scrapedAt(), event.payload());
+    }
+
+    // --- WRITE ---
+
+    synchronized Entry append(ProviderName provider, Instant scrapedAt, byte[] raw) throws IOException {
+        if (!enabled) {
+            return null;
+        }
+        byte[] stored = deflate(raw);
+        CRC32C crc = new CRC32C();
+        crc.update(stored);
+
+        byte[] name = provider.name().getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer record = ByteBuffer.allocate(FIXED_HEADER + name.length + stored.length)
+                .putInt(MAGIC)
+                .putLong(scrapedAt.toEpochMilli())
+                .put((byte) name.length)
+                .put(name)
+                .putInt(raw.length)
+                .putInt(stored.length)
+                .putLong(crc.getValue())
+                .put(stored)
+                .flip();
+
+        if (current == null || (current.size > 0 && current.size + record.remaining() > segmentBytes)) {
+            rotate();
+        }
+        long offset = current.size;
+        while (record.hasRemaining()) {
+            out.write(record);
+        }
+        Entry entry = new Entry(provider, scrapedAt, current.seq, offset, raw.length, stored.length);
+        current.entries.add(entry);
+        current.size = offset + record.limit();
+        return entry;
+    }
+
+    private byte[] deflate(byte[] raw) {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        byte[] chunk = new byte[16 * 1024];
+        while (!deflater.finished()) {
+            int n = deflater.deflate(chunk);
+            buffer.write(chunk, 0, n);
+        }
+        return buffer.toByteArray();
+    }
+
+    private void rotate() throws IOException {
+        closeCurrent();
+        long seq = segments.isEmpty() ? 1 : segments.lastKey() + 1;
+        Path file = dir.resolve(String.format("raw-%08d.seg", seq));
+        out = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        current = new Segment(seq, file);
+        segments.put(seq, current);
+        enforceRetention();
+    }
+
+    private void closeCurrent() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.force(false);
+            out.close();
+        } catch (IOException e) {
+            System.err.println("[TeraUnit-Archive] Closing segment failed: " + e.getMessage());
+        }
+        out = null;
+    }
+
+    private void enforceRetention() {
+        long total = segments.values().stream().mapToLong(s -> s.size).sum();
+        while (total > maxBytes && segments.size() > 1) {
+            Segment oldest = segments.pollFirstEntry().getValue();
+            total -= oldest.size;
+            try {
+                Files.deleteIfExists(oldest.file);
+            } catch (IOException e) {
+                System.err.println("[TeraUnit-Archive] Could not delete " + oldest.file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // --- READ ---
+
+    /**
+     * Indexed responses for the provider (null = all) in [from, to], newest first.
+     */
+    public synchronized List<Entry> find(ProviderName provider, Instant from, Instant to, int limit) {
+        List<Entry> found = new ArrayList<>();
+        for (Segment segment : segments.descendingMap().values()) {
+            for (int i = segment.entries.size() - 1; i >= 0 && found.size() < limit; i--) {
+                Entry e = segment.entries.get(i);
+                if ((provider == null || e.provider() == provider)
+                        && (from == null || !e.scrapedAt().isBefore(from))
+                        && (to == null || !e.scrapedAt().isAfter(to))) {
+                    found.add(e);
+                }
+            }
+            if (found.size() >= limit) {
+                break;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * The raw response stored at (segment, offset), checksum-verified and inflated.
+     *
+     * @throws IllegalArgumentException if nothing is indexed there
+     */
+    public byte[] read(long segment, long offset) throws IOException {
+        Entry entry = lookup(segment, offset);
+        Path file;
+        synchronized (this) {
+            Segment s = segments.get(segment);
+            if (s == null) {
+                throw new IllegalArgumentException("segment " + segment + " is gone");
+            }
+            file = s.file;
+        }
+        int nameLength = entry.provider().name().length();
+        ByteBuffer buffer = ByteBuffer.allocate(FIXED_HEADER + nameLength + entry.storedLength());
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (in.read(buffer, offset + buffer.position()) < 0) {
+                    throw new IOException("record at " + segment + ":" + offset + " is truncated");
+                }
+            }
+        }
+        buffer.flip();
+        buffer.position(FIXED_HEADER - 8 + nameLength);
+        long expectedCrc = buffer.getLong();
+        byte[] stored = new byte[entry.storedLength()];
+        buffer.get(stored);
+
+        CRC32C crc = new CRC32C();
+        crc.update(stored);
+        if (crc.getValue() != expectedCrc) {
+            throw new IOException("record at " + segment + ":" + offset + " failed its checksum");
+        }
+        return inflate(stored, entry.rawLength());
+    }
+
+    public synchronized Entry lookup(long segment, long offset) {
+        Segment s = segments.get(segment);
+        if (s != null) {
+            for (Entry e : s.entries) {
+                if (e.offset() == offset) {
+                    return e;
+                }
+            }
+        }
+        throw new IllegalArgumentException("no archived response at " + segment + ":" + offset);
+    }
+
+    private static byte[] inflate(byte[] stored, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored);
+            byte[] raw = new byte[rawLength];
+            int n = 0;
+            while (n < rawLength && !inflater.finished()) {
+                int read = inflater.inflate(raw, n, rawLength - n);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                n += read;
+            }
+            if (n != rawLength) {
+                throw new IOException("inflated " + n + " of " + rawLength + " bytes");
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("corrupt archive record: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    public synchronized Map<String, Object> stats() {
+        long bytes = segments.values().stream().mapToLong(s -> s.size).sum();
+        long raw = segments.values().stream().flatMap(s -> s.entries.stream()).mapToLong(Entry::rawLength).sum();
+        int records = segments.values().stream().mapToInt(s -> s.entries.size()).sum();
+        return Map.of("enabled", enabled, "segments", segments.size(), "records", records,
+                "storedBytes", bytes, "rawBytes", raw);
+    }
+
+    // --- BOOT SCAN ---
+
+    private static Segment scan(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        Segment segment = new Segment(Long.parseLong(name.substring(4, 12)), file);
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = in.size();
+            long offset = 0;
+            ByteBuffer fixed = ByteBuffer.allocate(FIXED_HEADER + 255);
+            while (offset + FIXED_HEADER <= size) {
+                fixed.clear().limit((int) Math.min(fixed.capacity(), size - offset));
+                in.read(fixed, offset);
+                fixed.flip();
+                if (fixed.remaining() < FIXED_HEADER || fixed.getInt() != MAGIC) {
+                    break;
+                }
+                long millis = fixed.getLong();
+                int nameLength = Byte.toUnsignedInt(fixed.get());
+                if (fixed.remaining() < nameLength + 16) {
+                    break;
+                }
+                byte[] providerBytes = new byte[nameLength];
+                fixed.get(providerBytes);
+                int rawLength = fixed.getInt();
+                int storedLength = fixed.getInt();
+                long end = offset + FIXED_HEADER + nameLength + storedLength;
+                if (storedLength < 0 || end > size) {
+                    break; // torn tail
+                }
+                ProviderName provider = parseProvider(new String(providerBytes, StandardCharsets.US_ASCII));
+                if (provider != null) {
+                    segment.entries.add(new Entry(provider, Instant.ofEpochMilli(millis), segment.seq, offset,
+                            rawLength, storedLength));
+                }
+                offset = end;
+            }
+            segment.size = size;
+        }
+        return segment;
+    }
+
+    private static ProviderName parseProvider(String name) {
+        try {
+            return ProviderName.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return null; // provider since removed; skip its records
+        }
+    }
+
+    public record Entry(ProviderName provider, Instant scrapedAt, long segment, long offset,
+            int rawLength, int storedLength) {
+    }
+
+    private static final class Segment {
+        final long seq;
+        final Path file;
+        final List<Entry> entries = new ArrayList<>();
+        long size;
+
+        Segment(long seq, Path file) {
+            this.seq = seq;
+            this.file = file;
+        }
+    }
+}
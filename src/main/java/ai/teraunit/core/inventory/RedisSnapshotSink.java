@@ -0,0 +1,43 @@
+package ai.teraunit.core.inventory;
+
+import ai.teraunit.core.config.RedisSerializationConfig;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes CLEAN_OFFERS:&lt;PROVIDER&gt;, the snapshot every replica serves from,
+ * only while this replica still holds the provider's scrape lease.
+ */
+@Component
+public class RedisSnapshotSink implements OfferSink {
+
+    private final RedisTemplate<String, Object> redis;
+    private final ScrapeLeases leases;
+
+    public RedisSnapshotSink(@Qualifier(RedisSerializationConfig.OFFER_SNAPSHOTS) RedisTemplate<String, Object> redis,
+            ScrapeLeases leases) {
+        this.redis = redis;
+        this.leases = leases;
+    }
+
+    @Override
+    public String name() {
+        return "redis";
+    }
+
+    @Override
+    public boolean required() {
+        return true;
+    }
+
+    @Override
+    public void accept(OfferBatch batch) {
+        if (!leases.confirm(batch.provider())) {
+            throw new ScrapeLeases.LeaseLost(batch.provider());
+        }
+        redis.opsForValue().set("CLEAN_OFFERS:" + batch.provider().name(), batch.offers());
+        System.out.println("[TeraUnit-Pulse] " + batch.provider() + " Updated: " + batch.offers().size()
+                + " units online.");
+    }
+}
@@ -0,0 +1,56 @@
+package ai.teraunit.core.inventory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Token bucket for provider API calls: {@code perHour} tokens refill evenly,
+ * with up to five minutes' worth banked for bursts. Consumption may go into
+ * debt (a big Vast sweep), which simply pushes the next run out.
+ */
+final class RequestBudget {
+
+    private final double perMilli;
+    private final double capacity;
+    private final Clock clock;
+
+    private double tokens;
+    private Instant last;
+
+    RequestBudget(int perHour, Clock clock) {
+        this.perMilli = Math.max(1, perHour) / 3_600_000.0;
+        this.capacity = Math.max(1.0, perHour / 12.0);
+        this.clock = clock;
+        this.tokens = capacity;
+        this.last = clock.instant();
+    }
+
+    synchronized void consume(int requests) {
+        refill();
+        tokens -= requests;
+    }
+
+    /**
+     * How long until {@code requests} calls fit in the budget (0 = now).
+     */
+    synchronized Duration waitFor(int requests) {
+        refill();
+        double needed = Math.min(requests, capacity) - tokens;
+        return needed <= 0 ? Duration.ZERO : Duration.ofMillis((long) Math.ceil(needed / perMilli));
+    }
+
+    synchronized double tokens() {
+        refill();
+        return tokens;
+    }
+
+    private void refill() {
+        Instant now = clock.instant();
+        long elapsed = Duration.between(last, now).toMillis();
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * perMilli);
+            last = now;
+        }
+    }
+}
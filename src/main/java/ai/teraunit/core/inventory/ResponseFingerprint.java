@@ -0,0 +1,109 @@
+package ai.teraunit.core.inventory;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * Remembers what a provider last sent so an identical response can be
+ * recognised before it is mapped. Uses the provider's validators (ETag /
+ * Last-Modified, answered with 304) when it has them, and a CRC32C + length
+ * of the raw body otherwise.
+ *
+ * The fingerprint only advances on {@link #commit(Version)}, i.e. after the
+ * offers were actually written (which, through the pipeline, may be after the
+ * next read has started), and a full write is forced every
+ * {@code maxSkipAge} in case the Redis copy was lost.
+ */
+final class ResponseFingerprint {
+
+    private final Duration maxSkipAge;
+
+    private String etag;
+    private String lastModified;
+    private long crc = -1;
+    private int length = -1;
+    private Instant lastWrite = Instant.EPOCH;
+
+    private Version pending;
+
+    ResponseFingerprint(Duration maxSkipAge) {
+        this.maxSkipAge = maxSkipAge;
+    }
+
+    /**
+     * Adds If-None-Match / If-Modified-Since (only meaningful for GETs).
+     */
+    synchronized void applyConditionalHeaders(HttpHeaders headers) {
+        if (refreshDue()) {
+            return;
+        }
+        if (etag != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, etag);
+        }
+        if (lastModified != null) {
+            headers.set(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+        }
+    }
+
+    /**
+     * @return the body, or null if the provider data is unchanged since the last commit
+     */
+    synchronized byte[] readIfChanged(ClientHttpResponse response) throws IOException {
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            return null;
+        }
+        if (response.getStatusCode().isError()) {
+            throw new IllegalStateException("HTTP " + response.getStatusCode().value());
+        }
+
+        // Buffered on purpose: the pipeline maps and archives this payload after
+        // the scraper returns, so it must outlive the response. The checksum is
+        // taken in the same pass instead of re-reading the array.
+        CheckedInputStream in = new CheckedInputStream(response.getBody(), new CRC32C());
+        byte[] body = in.readAllBytes();
+
+        pending = new Version(response.getHeaders().getETag(),
+                response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED), in.getChecksum().getValue(), body.length);
+
+        if (pending.crc() == crc && pending.length() == length && !refreshDue()) {
+            return null;
+        }
+        return body;
+    }
+
+    /**
+     * The version last returned by {@link #readIfChanged}, to commit once written.
+     */
+    synchronized Version pending() {
+        return pending;
+    }
+
+    synchronized void commit() {
+        commit(pending);
+    }
+
+    synchronized void commit(Version version) {
+        if (version == null) {
+            return;
+        }
+        etag = version.etag();
+        lastModified = version.lastModified();
+        crc = version.crc();
+        length = version.length();
+        lastWrite = Instant.now();
+    }
+
+    record Version(String etag, String lastModified, long crc, int length) {
+    }
+
+    private boolean refreshDue() {
+        return Duration.between(lastWrite, Instant.now()).compareTo(maxSkipAge) > 0;
+    }
+}
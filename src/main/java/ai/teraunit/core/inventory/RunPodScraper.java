@@ -1,23 +1,40 @@
 package ai.teraunit.core.inventory;
 
+import ai.teraunit.core.common.GpuPriceScrapedEvent;
 import ai.teraunit.core.common.ProviderName;
+import ai.teraunit.core.config.OutboundPriority;
+import ai.teraunit.core.config.ProviderHttpClients;
 import ai.teraunit.core.pricing.GpuOffer;
 import ai.teraunit.core.pricing.PriceMapper;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
 @Component
 public class RunPodScraper implements GpuProviderScraper {
 
+    // GPU counts priced per type; RunPod pods top out at 8.
+    private static final int[] GPU_COUNTS = { 1, 2, 4, 8 };
+
+    /**
+     * One round trip for everything the launcher needs: per type, the secure
+     * and community price and stock at each GPU count (aliased lowestPrice
+     * blocks, e.g. secure4), plus per-datacenter stock for pinning secure pods.
+     */
+    static final String QUERY = buildQuery();
+
     private final RestClient restClient;
-    private final RedisTemplate<String, Object> redis;
     private final PriceMapper priceMapper;
+    private final ScrapePipeline pipeline;
+    private final ChurnTracker churn;
+
+    // Forces a full rewrite at least this often even if the provider data never changes.
+    private final ResponseFingerprint fingerprint = new ResponseFingerprint(Duration.ofMinutes(10));
 
     @Value("${RUNPOD_API_KEY:EMBEDDED_READ_ONLY}")
     private String apiKey;
@@ -25,66 +42,99 @@ public class RunPodScraper implements GpuProviderScraper {
     @Value("${TERA_DEBUG_RUNPOD:false}")
     private boolean debugRunPod;
 
-    public RunPodScraper(RestClient restClient,
-                         RedisTemplate<String, Object> redis,
-                         PriceMapper priceMapper) {
-        this.restClient = restClient;
-        this.redis = redis;
+    public RunPodScraper(ProviderHttpClients http,
+                         PriceMapper priceMapper,
+                         ScrapePipeline pipeline,
+                         ChurnTracker churn) {
+        this.restClient = http.of(ProviderName.RUNPOD, OutboundPriority.SCRAPE);
         this.priceMapper = priceMapper;
+        this.pipeline = pipeline;
+        this.churn = churn;
     }
 
     @Override
-    @Scheduled(fixedRate = 30000)
-    public void scrape() {
-        try {
-            // GraphQL query for community and secure cloud prices
-            String query = """
-                {
-                  gpuTypes {
-                    id
-                    displayName
-                    communityPrice
-                    securePrice
-                  }
-                }
-                """;
+    public ProviderName provider() {
+        return ProviderName.RUNPOD;
+    }
 
+    @Override
+    public Duration interval() {
+        return Duration.ofSeconds(30);
+    }
+
+    @Override
+    public ScrapeResult scrape() throws InterruptedException {
+        if (debugRunPod) {
+            // Debug keeps the tree so raw counts and errors can be reported.
             @SuppressWarnings("unchecked")
             Map<String, Object> response = restClient.post()
                     .uri("https://api.runpod.io/graphql")
                     .header("Authorization", apiKey)
-                    .body(Map.of("query", query))
+                    .body(Map.of("query", QUERY))
                     .retrieve()
                     .body(Map.class);
+            if (response == null) {
+                return ScrapeResult.EMPTY;
+            }
+            List<GpuOffer> offers = priceMapper.mapToOffers(ProviderName.RUNPOD, response);
 
-            if (response != null) {
-                // 1. STANDARDIZE (Map to GpuOffer)
-                List<GpuOffer> offers = priceMapper.mapToOffers(ProviderName.RUNPOD, response);
-
-                if (debugRunPod) {
-                    Integer rawGpuTypesCount = null;
-                    Object errorsObj = response.get("errors");
-                    Object dataObj = response.get("data");
-                    if (dataObj instanceof Map<?, ?> dataMap) {
-                        Object gpuTypesObj = dataMap.get("gpuTypes");
-                        if (gpuTypesObj instanceof List<?> gpuTypesList) {
-                            rawGpuTypesCount = gpuTypesList.size();
-                        }
-                    }
-
-                    System.out.println("[RUNPOD-DEBUG] rawGpuTypesCount=" + rawGpuTypesCount +
-                            " mappedOffers=" + offers.size() +
-                            " hasErrors=" + (errorsObj != null));
+            Integer rawGpuTypesCount = null;
+            Object errorsObj = response.get("errors");
+            Object dataObj = response.get("data");
+            if (dataObj instanceof Map<?, ?> dataMap) {
+                Object gpuTypesObj = dataMap.get("gpuTypes");
+                if (gpuTypesObj instanceof List<?> gpuTypesList) {
+                    rawGpuTypesCount = gpuTypesList.size();
                 }
+            }
 
-                // 2. PERSIST (Write to Redis Vault)
-                if (!offers.isEmpty()) {
-                    redis.opsForValue().set("CLEAN_OFFERS:RUNPOD", offers);
-                    System.out.println("[TeraUnit-Pulse] RunPod Updated: " + offers.size() + " SKUs (gpuTypes) online.");
-                }
+            System.out.println("[RUNPOD-DEBUG] rawGpuTypesCount=" + rawGpuTypesCount +
+                    " mappedOffers=" + offers.size() +
+                    " hasErrors=" + (errorsObj != null));
+            if (offers.isEmpty()) {
+                return ScrapeResult.EMPTY;
+            }
+            return pipeline.await(pipeline.publishOffers(ProviderName.RUNPOD, offers, null));
+        } else {
+            // GraphQL POSTs carry no validators: an identical body (by hash) means no change.
+            byte[] body = restClient.post()
+                    .uri("https://api.runpod.io/graphql")
+                    .header("Authorization", apiKey)
+                    .body(Map.of("query", QUERY))
+                    .exchange((request, response) -> fingerprint.readIfChanged(response));
+            if (body == null) {
+                churn.observeUnchanged(ProviderName.RUNPOD);
+                return ScrapeResult.UNCHANGED;
+            }
+            return publish(body);
+        }
+    }
+
+    /**
+     * Mapping and the Redis write happen in the {@link ScrapePipeline}; the
+     * fingerprint only advances once the snapshot has actually been written.
+     */
+    private ScrapeResult publish(byte[] body) throws InterruptedException {
+        ResponseFingerprint.Version version = fingerprint.pending();
+        ScrapeResult result = pipeline.await(
+                pipeline.publish(new GpuPriceScrapedEvent(ProviderName.RUNPOD, body, Instant.now())));
+        if (result == ScrapeResult.UPDATED) {
+            fingerprint.commit(version);
+        }
+        return result;
+    }
+
+    private static String buildQuery() {
+        StringBuilder q = new StringBuilder("{\n  gpuTypes {\n    id\n    displayName\n    memoryInGb\n");
+        for (int count : GPU_COUNTS) {
+            for (boolean secure : new boolean[] { true, false }) {
+                q.append("    ").append(secure ? "secure" : "community").append(count)
+                        .append(": lowestPrice(input: { gpuCount: ").append(count)
+                        .append(", secureCloud: ").append(secure).append(" }) {\n")
+                        .append("      uninterruptablePrice\n      stockStatus\n    }\n");
             }
-        } catch (Exception e) {
-            System.err.println("[TeraUnit-Warn] RunPod Scrape Failed: " + e.getMessage());
         }
+        q.append("  }\n  dataCenters {\n    id\n    gpuAvailability {\n      gpuTypeId\n      stockStatus\n    }\n  }\n}\n");
+        return q.toString();
     }
 }
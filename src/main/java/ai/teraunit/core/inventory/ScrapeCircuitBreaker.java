@@ -0,0 +1,88 @@
+package ai.teraunit.core.inventory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Per-provider breaker. CLOSED until {@code failureThreshold} consecutive
+ * failures, then OPEN for a cool-down; after that exactly one HALF_OPEN probe
+ * is let through. A failed probe re-opens with a doubled cool-down (capped).
+ */
+final class ScrapeCircuitBreaker {
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final Duration baseOpen;
+    private final Duration maxOpen;
+    private final Clock clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private Duration currentOpen;
+    private Instant openUntil;
+
+    ScrapeCircuitBreaker(int failureThreshold, Duration baseOpen, Duration maxOpen, Clock clock) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.baseOpen = baseOpen;
+        this.maxOpen = maxOpen;
+        this.clock = clock;
+        this.currentOpen = baseOpen;
+    }
+
+    /**
+     * True if a scrape may run now. Moves OPEN to HALF_OPEN once the
+     * cool-down has elapsed and hands out the single probe.
+     */
+    synchronized boolean tryAcquire() {
+        return switch (state) {
+            case CLOSED -> true;
+            case HALF_OPEN -> false; // probe already in flight
+            case OPEN -> {
+                if (clock.instant().isBefore(openUntil)) {
+                    yield false;
+                }
+                state = State.HALF_OPEN;
+                yield true;
+            }
+        };
+    }
+
+    synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        currentOpen = baseOpen;
+        openUntil = null;
+    }
+
+    synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN) {
+            Duration doubled = currentOpen.multipliedBy(2);
+            currentOpen = doubled.compareTo(maxOpen) > 0 ? maxOpen : doubled;
+            open();
+        } else if (state == State.CLOSED && consecutiveFailures >= failureThreshold) {
+            open();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openUntil = clock.instant().plus(currentOpen);
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    synchronized int consecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    synchronized Instant openUntil() {
+        return openUntil;
+    }
+}
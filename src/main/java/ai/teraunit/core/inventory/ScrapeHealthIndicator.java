@@ -0,0 +1,34 @@
+package ai.teraunit.core.inventory;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * /actuator/health "scrape" component: per-provider breaker state and timing.
+ * DOWN only when every provider's breaker is open (no fresh prices at all).
+ */
+@Component("scrape")
+public class ScrapeHealthIndicator implements HealthIndicator {
+
+    private final ScrapeOrchestrator orchestrator;
+
+    public ScrapeHealthIndicator(ScrapeOrchestrator orchestrator) {
+        this.orchestrator = orchestrator;
+    }
+
+    @Override
+    public Health health() {
+        List<ScrapeOrchestrator.ScrapeStatus> statuses = orchestrator.status();
+        boolean allOpen = !statuses.isEmpty()
+                && statuses.stream().allMatch(s -> ScrapeCircuitBreaker.State.OPEN.name().equals(s.breaker()));
+
+        Health.Builder builder = allOpen ? Health.down() : Health.up();
+        for (ScrapeOrchestrator.ScrapeStatus status : statuses) {
+            builder.withDetail(status.provider().name().toLowerCase(), status);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,172 @@
+package ai.teraunit.core.inventory;
+
+import ai.teraunit.core.common.ProviderName;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * THE BATON
+ * One Redis lease per provider (SCRAPE_LEADER:&lt;PROVIDER&gt;) so exactly one
+ * control-plane replica scrapes it; the others just read CLEAN_OFFERS:*.
+ *
+ * Acquire is SET NX PX; renew and release are compare-and-act Lua scripts
+ * on our owner id, so a replica can never extend or delete a lease it lost.
+ * Leadership is also bounded locally: if Redis goes quiet we stop at the
+ * lease's expiry, measured from before the request was sent.
+ *
+ * A scrape can outlive the lease it started under (a slow provider, a long
+ * pause), so the snapshot write {@link #confirm}s ownership against Redis
+ * right before publishing; a replica that lost the lease drops its batch
+ * instead of overwriting the new leader's.
+ */
+@Component
+public class ScrapeLeases {
+
+    private static final String KEY_PREFIX = "SCRAPE_LEADER:";
+
+    private static final RedisScript<Long> RENEW = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then "
+                    + "return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then "
+                    + "return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redis;
+    private final boolean enabled;
+    private final String owner;
+
+    private final Map<ProviderName, Instant> heldUntil = new EnumMap<>(ProviderName.class);
+
+    public ScrapeLeases(StringRedisTemplate redis,
+            @Value("${teraunit.scrape.leader.enabled:true}") boolean enabled) {
+        this.redis = redis;
+        this.enabled = enabled;
+        String host = System.getenv().getOrDefault("HOSTNAME", "replica");
+        this.owner = host + ":" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * True while this replica holds the provider's lease (always true when
+     * leadership is disabled, i.e. single-replica deployments).
+     */
+    public synchronized boolean isLeader(ProviderName provider) {
+        if (!enabled) {
+            return true;
+        }
+        Instant until = heldUntil.get(provider);
+        return until != null && Instant.now().isBefore(until);
+    }
+
+    /**
+     * Renews the lease if we hold it, otherwise tries to take it.
+     * Returns whether we are the leader afterwards.
+     */
+    public boolean refresh(ProviderName provider, Duration ttl) {
+        if (!enabled) {
+            return true;
+        }
+        String key = KEY_PREFIX + provider.name();
+        boolean wasLeader = isLeader(provider);
+        Instant sentAt = Instant.now();
+        try {
+            boolean held = false;
+            if (wasLeader) {
+                Long renewed = redis.execute(RENEW, List.of(key), owner, String.valueOf(ttl.toMillis()));
+                held = renewed != null && renewed == 1L;
+            }
+            if (!held) {
+                held = Boolean.TRUE.equals(redis.opsForValue().setIfAbsent(key, owner, ttl));
+            }
+
+            synchronized (this) {
+                if (held) {
+                    heldUntil.put(provider, sentAt.plus(ttl));
+                } else {
+                    heldUntil.remove(provider);
+                }
+            }
+            if (held != wasLeader) {
+                System.out.println("[TeraUnit-Scrape] " + provider + (held ? " lease acquired by " : " lease lost by ")
+                        + owner);
+            }
+        } catch (RuntimeException e) {
+            // Keep whatever we had; it lapses on its own at the local expiry.
+            System.err.println("[TeraUnit-Warn] " + provider + " lease refresh failed: " + e.getMessage());
+        }
+        return isLeader(provider);
+    }
+
+    /**
+     * Fencing check for a publish: true only while the local lease is live
+     * and Redis still names this replica as the holder. If Redis cannot be
+     * asked, the local lease decides (the write itself will fail loudly).
+     */
+    public boolean confirm(ProviderName provider) {
+        if (!enabled) {
+            return true;
+        }
+        if (!isLeader(provider)) {
+            return false;
+        }
+        try {
+            if (owner.equals(redis.opsForValue().get(KEY_PREFIX + provider.name()))) {
+                return true;
+            }
+        } catch (RuntimeException e) {
+            return isLeader(provider);
+        }
+        synchronized (this) {
+            heldUntil.remove(provider);
+        }
+        System.out.println("[TeraUnit-Scrape] " + provider + " lease lost by " + owner + " before publishing");
+        return false;
+    }
+
+    /**
+     * Thrown instead of publishing a batch scraped under a lease this
+     * replica no longer holds. Not a scrape failure: another replica owns it.
+     */
+    public static final class LeaseLost extends IllegalStateException {
+        public LeaseLost(ProviderName provider) {
+            super(provider + " scrape lease lost; batch not published");
+        }
+    }
+
+    public String owner() {
+        return owner;
+    }
+
+    /**
+     * Hand leases back on shutdown so another replica takes over on its next
+     * refresh instead of waiting out the TTL.
+     */
+    @PreDestroy
+    public void releaseAll() {
+        List<ProviderName> held;
+        synchronized (this) {
+            held = List.copyOf(heldUntil.keySet());
+            heldUntil.clear();
+        }
+        for (ProviderName provider : held) {
+            try {
+                redis.execute(RELEASE, List.of(KEY_PREFIX + provider.name()), owner);
+            } catch (RuntimeException e) {
+                System.err.println("[TeraUnit-Warn] " + provider + " lease release failed: " + e.getMessage());
+            }
+        }
+    }
+}
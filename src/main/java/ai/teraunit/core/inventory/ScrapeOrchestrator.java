@@ -0,0 +1,401 @@
+package ai.teraunit.core.inventory;
+
+import ai.teraunit.core.common.ProviderName;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * THE SCRAPE CONDUCTOR
+ * Owns every {@link GpuProviderScraper}: one self-rescheduling lane per
+ * provider with a jittered interval, a hard deadline per run, a circuit
+ * breaker and a no-overlap guard.
+ *
+ * The interval adapts to {@link ChurnTracker}: at neutral churn a lane runs
+ * at the scraper's nominal interval, hot (or scarce) data pulls it down to a
+ * quarter, quiet data stretches it to 3x. A per-provider {@link RequestBudget}
+ * caps the result, so speeding up never costs more than the budget allows.
+ *
+ * With several replicas, a lane only scrapes while this replica holds the
+ * provider's {@link ScrapeLeases} lease. The lease TTL is half the nominal
+ * interval and is refreshed every third of that, so a dead leader is
+ * replaced well within one interval; followers just serve the snapshot the
+ * leader publishes.
+ *
+ * Each run executes on its own virtual thread; the lane waits at most the
+ * scraper's deadline and then cancels (interrupts) it. A run that ignores the
+ * interrupt keeps the lane busy, so later ticks are skipped rather than
+ * stacked on top of it.
+ */
+@Component
+public class ScrapeOrchestrator {
+
+    // No provider gets polled faster than this, however hot it runs.
+    private static final long MIN_INTERVAL_MS = 10_000;
+    private static final Duration MIN_LEASE_TTL = Duration.ofSeconds(5);
+
+    private final boolean enabled;
+    private final double jitter;
+    private final MeterRegistry meters;
+    private final ChurnTracker churn;
+    private final ScrapeLeases leases;
+    private final Clock clock;
+
+    private final Map<ProviderName, Lane> lanes = new EnumMap<>(ProviderName.class);
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "scrape-timer");
+        t.setDaemon(true);
+        return t;
+    });
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ScrapeOrchestrator(List<GpuProviderScraper> scrapers,
+            MeterRegistry meters,
+            ChurnTracker churn,
+            ScrapeLeases leases,
+            Environment env,
+            @Value("${teraunit.scrape.enabled:true}") boolean enabled,
+            @Value("${teraunit.scrape.jitter:0.1}") double jitter,
+            @Value("${teraunit.scrape.breaker.failure-threshold:3}") int failureThreshold,
+            @Value("${teraunit.scrape.breaker.open-seconds:60}") long openSeconds,
+            @Value("${teraunit.scrape.breaker.max-open-seconds:600}") long maxOpenSeconds) {
+        this(scrapers, meters, churn, leases, env, enabled, jitter, failureThreshold, openSeconds, maxOpenSeconds,
+                Clock.systemUTC());
+    }
+
+    ScrapeOrchestrator(List<GpuProviderScraper> scrapers, MeterRegistry meters, ChurnTracker churn,
+            ScrapeLeases leases, Environment env, boolean enabled, double jitter, int failureThreshold,
+            long openSeconds, long maxOpenSeconds, Clock clock) {
+        this.enabled = enabled;
+        this.jitter = Math.max(0.0, Math.min(jitter, 0.5));
+        this.meters = meters;
+        this.churn = churn;
+        this.leases = leases;
+        this.clock = clock;
+
+        for (GpuProviderScraper scraper : scrapers) {
+            ScrapeCircuitBreaker breaker = new ScrapeCircuitBreaker(failureThreshold,
+                    Duration.ofSeconds(openSeconds), Duration.ofSeconds(maxOpenSeconds), clock);
+            int perHour = env.getProperty("teraunit.scrape.budget."
+                    + scraper.provider().name().toLowerCase(Locale.ROOT) + ".requests-per-hour",
+                    Integer.class, scraper.requestBudgetPerHour());
+            lanes.put(scraper.provider(), new Lane(scraper, breaker, new RequestBudget(perHour, clock)));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            System.out.println("[TeraUnit-Scrape] Orchestrator disabled (teraunit.scrape.enabled=false)");
+            return;
+        }
+        for (Lane lane : lanes.values()) {
+            // Settle leadership before the first tick so two replicas do not both start scraping.
+            leases.refresh(lane.provider(), leaseTtl(lane));
+            scheduleLease(lane);
+            // Stagger the first run so providers do not all fire on the same tick.
+            long initialDelayMs = ThreadLocalRandom.current().nextLong(1000);
+            schedule(lane, initialDelayMs);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        timer.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    // --- LANE LOOP ---
+
+    private void schedule(Lane lane, long delayMs) {
+        if (timer.isShutdown()) {
+            return;
+        }
+        // The timer thread only dispatches; all waiting happens on virtual threads.
+        timer.schedule(() -> workers.execute(() -> tick(lane)), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void scheduleLease(Lane lane) {
+        if (timer.isShutdown()) {
+            return;
+        }
+        Duration ttl = leaseTtl(lane);
+        timer.schedule(() -> workers.execute(() -> {
+            try {
+                leases.refresh(lane.provider(), ttl);
+            } finally {
+                scheduleLease(lane);
+            }
+        }), ttl.toMillis() / 3, TimeUnit.MILLISECONDS);
+    }
+
+    private static Duration leaseTtl(Lane lane) {
+        Duration half = lane.scraper.interval().dividedBy(2);
+        return half.compareTo(MIN_LEASE_TTL) < 0 ? MIN_LEASE_TTL : half;
+    }
+
+    private void tick(Lane lane) {
+        if (!leases.isLeader(lane.provider())) {
+            // Follower: check back at the lease cadence so a takeover starts scraping promptly.
+            schedule(lane, leaseTtl(lane).toMillis() / 3);
+            return;
+        }
+        try {
+            runOnce(lane);
+        } catch (Throwable t) {
+            System.err.println("[TeraUnit-Scrape] " + lane.provider() + " tick failed: " + t.getMessage());
+        } finally {
+            schedule(lane, nextDelayMs(lane));
+        }
+    }
+
+    void runOnce(Lane lane) throws InterruptedException {
+        if (!lane.running.compareAndSet(false, true)) {
+            lane.skipped.incrementAndGet();
+            System.err.println("[TeraUnit-Scrape] " + lane.provider() + " still running past its deadline; skipping tick");
+            return;
+        }
+        if (!lane.breaker.tryAcquire()) {
+            lane.running.set(false);
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        lane.lastStart = clock.instant();
+        lane.runs.incrementAndGet();
+
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<ScrapeResult> run = workers.submit(() -> {
+            if (!claimed.compareAndSet(false, true)) {
+                return null; // cancelled before it started; the lane was already released
+            }
+            try {
+                return lane.scraper.scrape();
+            } finally {
+                lane.budget.consume(lane.scraper.requestsLastRun());
+                lane.running.set(false);
+            }
+        });
+
+        String outcome;
+        try {
+            ScrapeResult result = run.get(lane.scraper.deadline().toMillis(), TimeUnit.MILLISECONDS);
+            lane.breaker.onSuccess();
+            lane.lastSuccess = clock.instant();
+            lane.lastError = null;
+            if (result == ScrapeResult.UPDATED) {
+                lane.lastChanged = lane.lastSuccess;
+            }
+            if (result == ScrapeResult.UPDATED || result == ScrapeResult.UNCHANGED) {
+                // Provider data is known-current as of now, whether or not it was rewritten.
+                lane.lastConfirmed = lane.lastSuccess;
+            }
+            if (result == ScrapeResult.UNCHANGED) {
+                lane.unchanged.incrementAndGet();
+            }
+            outcome = result == null ? "success" : result.name().toLowerCase();
+        } catch (TimeoutException e) {
+            run.cancel(true);
+            if (claimed.compareAndSet(false, true)) {
+                lane.running.set(false);
+            }
+            lane.timeouts.incrementAndGet();
+            fail(lane, "deadline of " + lane.scraper.deadline().toSeconds() + "s exceeded");
+            outcome = "timeout";
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (leaseLost(cause)) {
+                // The provider answered fine (so the breaker hears a success, which also
+                // settles a half-open probe); another replica publishes now.
+                lane.breaker.onSuccess();
+                System.out.println("[TeraUnit-Scrape] " + lane.provider() + " batch dropped: " + cause.getMessage());
+                outcome = "lease_lost";
+            } else {
+                fail(lane, cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName());
+                outcome = "failure";
+            }
+        }
+
+        Duration took = Duration.ofNanos(System.nanoTime() - startNanos);
+        lane.lastDuration = took;
+        Timer.builder("teraunit.scrape")
+                .tag("provider", lane.provider().name())
+                .tag("outcome", outcome)
+                .register(meters)
+                .record(took);
+    }
+
+    private static boolean leaseLost(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof ScrapeLeases.LeaseLost) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void fail(Lane lane, String error) {
+        lane.failures.incrementAndGet();
+        lane.lastFailure = clock.instant();
+        lane.lastError = error;
+        lane.breaker.onFailure();
+        System.err.println("[TeraUnit-Warn] " + lane.provider() + " scrape failed (breaker "
+                + lane.breaker.state() + "): " + error);
+    }
+
+    /**
+     * Churn-adapted interval, jittered, then pushed out if the budget is short.
+     */
+    long nextDelayMs(Lane lane) {
+        long adaptive = adaptiveInterval(lane.scraper.interval(), churn.hotness(lane.provider())).toMillis();
+        long delay = jittered(Duration.ofMillis(adaptive));
+        long budgetWait = lane.budget.waitFor(lane.scraper.requestsLastRun()).toMillis();
+        lane.currentInterval = Duration.ofMillis(adaptive);
+        return Math.max(delay, budgetWait);
+    }
+
+    static Duration adaptiveInterval(Duration nominal, double hotness) {
+        long base = nominal.toMillis();
+        long min = Math.max(MIN_INTERVAL_MS, base / 4);
+        long max = base * 3;
+        double neutral = ChurnTracker.NEUTRAL_CHURN;
+        double hot = ChurnTracker.HOT_CHURN;
+
+        long ms;
+        if (hotness <= neutral) {
+            // Quiet: stretch toward max as churn falls to zero.
+            ms = Math.round(max - (max - base) * (hotness / neutral));
+        } else {
+            double heat = Math.min(1.0, (hotness - neutral) / (hot - neutral));
+            ms = Math.round(base - (base - min) * heat);
+        }
+        return Duration.ofMillis(Math.max(min, Math.min(max, ms)));
+    }
+
+    private long jittered(Duration interval) {
+        long base = interval.toMillis();
+        double factor = jitter == 0 ? 1.0 : 1.0 + ThreadLocalRandom.current().nextDouble(-jitter, jitter);
+        return Math.max(1000, Math.round(base * factor));
+    }
+
+    Lane lane(ProviderName provider) {
+        return lanes.get(provider);
+    }
+
+    // --- STATUS ---
+
+    public List<ScrapeStatus> status() {
+        List<ScrapeStatus> out = new ArrayList<>(lanes.size());
+        for (Lane lane : lanes.values()) {
+            out.add(new ScrapeStatus(
+                    lane.provider(),
+                    lane.breaker.state().name(),
+                    lane.breaker.consecutiveFailures(),
+                    lane.breaker.openUntil(),
+                    lane.running.get(),
+                    lane.runs.get(),
+                    lane.failures.get(),
+                    lane.timeouts.get(),
+                    lane.skipped.get(),
+                    lane.unchanged.get(),
+                    lane.lastStart,
+                    lane.lastSuccess,
+                    lane.lastFailure,
+                    lane.lastChanged,
+                    lane.lastConfirmed,
+                    lane.lastError,
+                    lane.lastDuration == null ? null : lane.lastDuration.toMillis(),
+                    leases.isLeader(lane.provider()),
+                    lane.scraper.interval().toSeconds(),
+                    lane.currentInterval == null ? null : lane.currentInterval.toSeconds(),
+                    lane.scraper.deadline().toSeconds(),
+                    churn.hotness(lane.provider()),
+                    lane.scraper.requestsLastRun(),
+                    Math.round(lane.budget.tokens())));
+        }
+        return out;
+    }
+
+    public record ScrapeStatus(
+            ProviderName provider,
+            String breaker,
+            int consecutiveFailures,
+            Instant openUntil,
+            boolean running,
+            long runs,
+            long failures,
+            long timeouts,
+            long skippedOverlaps,
+            long unchangedSkips,
+            Instant lastStart,
+            Instant lastSuccess,
+            Instant lastFailure,
+            Instant lastChanged,
+            Instant lastConfirmed,
+            String lastError,
+            Long lastDurationMs,
+            boolean leader,
+            long intervalSeconds,
+            Long adaptiveIntervalSeconds,
+            long deadlineSeconds,
+            double churn,
+            int requestsLastRun,
+            long budgetTokens
+    ) {}
+
+    static final class Lane {
+        final GpuProviderScraper scraper;
+        final ScrapeCircuitBreaker breaker;
+        final RequestBudget budget;
+        final AtomicBoolean running = new AtomicBoolean();
+        final AtomicLong runs = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        final AtomicLong timeouts = new AtomicLong();
+        final AtomicLong skipped = new AtomicLong();
+        final AtomicLong unchanged = new AtomicLong();
+
+        volatile Instant lastStart;
+        volatile Instant lastSuccess;
+        volatile Instant lastFailure;
+        volatile Instant lastChanged;
+        volatile Instant lastConfirmed;
+        volatile String lastError;
+        volatile Duration lastDuration;
+        volatile Duration currentInterval;
+
+        Lane(GpuProviderScraper scraper, ScrapeCircuitBreaker breaker, RequestBudget budget) {
+            this.scraper = scraper;
+            this.breaker = breaker;
+            this.budget = budget;
+        }
+
+        ProviderName provider() {
+            return scraper.provider();
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package ai.teraunit.core.inventory;
+
+import ai.teraunit.core.common.GpuPriceScrapedEvent;
+import ai.teraunit.core.common.ProviderName;
+import ai.teraunit.core.pricing.GpuOffer;
+import ai.teraunit.core.pricing.PriceMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * THE ASSEMBLY LINE
+ * Scrapers only fetch: they publish a {@link GpuPriceScrapedEvent} and go back
+ * to sleep. Everything after the network runs here, in three stages:
+ *
+ *   ring buffer (bounded) -> mapper workers -> one lane per {@link OfferSink}
+ *
+ * Backpressure: a full ring blocks the publisher for at most
+ * {@code publish-timeout-ms} and then rejects (the scrape counts as failed).
+ * Sink lanes coalesce, keeping only the newest batch per provider, so a slow
+ * sink sheds stale snapshots instead of memory.
+ *
+ * The future returned on publish completes once every required sink has
+ * taken the batch. Scrapers {@link #await} it before reporting a result, so a
+ * mapping or sink failure fails the scrape (breaker, health, last-confirmed)
+ * and a response fingerprint only advances for data that was written.
+ *
+ * Raw payloads are also copied to each {@link RawResponseSink} (the archive)
+ * on a separate small queue that drops, never blocks, when it is full.
+ */
+@Component
+public class ScrapePipeline {
+
+    private final PriceMapper priceMapper;
+    private final MeterRegistry meters;
+    private final ArrayBlockingQueue<PendingEvent> ring;
+    private final int mapperCount;
+    private final long publishTimeoutMs;
+    private final List<SinkLane> lanes = new ArrayList<>();
+    private final List<RawLane> rawLanes = new ArrayList<>();
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final Counter accepted;
+    private final Counter rejected;
+
+    public ScrapePipeline(PriceMapper priceMapper,
+            List<OfferSink> sinks,
+            List<RawResponseSink> rawSinks,
+            MeterRegistry meters,
+            @Value("${teraunit.pipeline.capacity:32}") int capacity,
+            @Value("${teraunit.pipeline.mappers:2}") int mapperCount,
+            @Value("${teraunit.pipeline.publish-timeout-ms:2000}") long publishTimeoutMs) {
+        this.priceMapper = priceMapper;
+        this.meters = meters;
+        this.ring = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.mapperCount = Math.max(1, mapperCount);
+        this.publishTimeoutMs = publishTimeoutMs;
+
+        this.accepted = Counter.builder("teraunit.pipeline.events").tag("outcome", "accepted").register(meters);
+        this.rejected = Counter.builder("teraunit.pipeline.events").tag("outcome", "rejected").register(meters);
+        Gauge.builder("teraunit.pipeline.depth", ring, ArrayBlockingQueue::size).tag("stage", "map").register(meters);
+
+        for (OfferSink sink : sinks) {
+            SinkLane lane = new SinkLane(sink);
+            Gauge.builder("teraunit.pipeline.depth", lane.queue, CoalescingQueue::size)
+                    .tag("stage", "sink:" + sink.name()).register(meters);
+            lanes.add(lane);
+        }
+        for (RawResponseSink sink : rawSinks) {
+            RawLane lane = new RawLane(sink, Math.max(1, capacity));
+            Gauge.builder("teraunit.pipeline.depth", lane.queue, ArrayBlockingQueue::size)
+                    .tag("stage", "raw:" + sink.name()).register(meters);
+            rawLanes.add(lane);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        for (int i = 0; i < mapperCount; i++) {
+            workers.add(Thread.ofVirtual().name("scrape-mapper-" + i).start(this::mapLoop));
+        }
+        for (SinkLane lane : lanes) {
+            workers.add(Thread.ofVirtual().name("scrape-sink-" + lane.sink.name()).start(lane::drain));
+        }
+        for (RawLane lane : rawLanes) {
+            workers.add(Thread.ofVirtual().name("scrape-raw-" + lane.sink.name()).start(lane::drain));
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        workers.forEach(Thread::interrupt);
+    }
+
+    // --- PUBLISH ---
+
+    /**
+     * Hands a raw response to the mapper stage.
+     *
+     * @throws IllegalStateException if the ring stays full past the publish timeout
+     */
+    public CompletableFuture<ScrapeResult> publish(GpuPriceScrapedEvent event) throws InterruptedException {
+        PendingEvent pending = new PendingEvent(event, new CompletableFuture<>());
+        if (!ring.offer(pending, publishTimeoutMs, TimeUnit.MILLISECONDS)) {
+            rejected.increment();
+            throw new IllegalStateException("scrape pipeline full (" + ring.size() + " events waiting)");
+        }
+        accepted.increment();
+        archive(event);
+        return pending.done;
+    }
+
+    /**
+     * Waits for a published batch to reach every required sink, for at most
+     * {@code publish-timeout-ms}.
+     *
+     * @throws IllegalStateException if mapping or a required sink failed, or
+     *         the write did not land in time
+     */
+    public ScrapeResult await(CompletableFuture<ScrapeResult> done) throws InterruptedException {
+        try {
+            return done.get(publishTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new IllegalStateException("scrape pipeline failed: " + cause.getMessage(), cause);
+        } catch (CancellationException e) {
+            throw new IllegalStateException("scrape pipeline dropped the batch: " + e.getMessage(), e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("scrape pipeline did not write within " + publishTimeoutMs + "ms");
+        }
+    }
+
+    /**
+     * Raw sinks only: for payloads mapped outside the pipeline (Vast shards).
+     */
+    public void archive(GpuPriceScrapedEvent event) {
+        for (RawLane lane : rawLanes) {
+            if (!lane.queue.offer(event)) {
+                lane.dropped.increment();
+            }
+        }
+    }
+
+    /**
+     * Skips the mapper stage for scrapers that already had to map (Vast plans
+     * its shards from the offers).
+     */
+    public CompletableFuture<ScrapeResult> publishOffers(ProviderName provider, List<GpuOffer> offers,
+            Set<String> segments) {
+        accepted.increment();
+        return fanOut(new OfferBatch(provider, List.copyOf(offers),
+                segments == null ? null : Set.copyOf(segments), Instant.now()));
+    }
+
+    // --- STAGES ---
+
+    private void mapLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            PendingEvent pending;
+            try {
+                pending = ring.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            GpuPriceScrapedEvent event = pending.event;
+            long start = System.nanoTime();
+            try {
+                List<GpuOffer> offers = priceMapper.map(event.provider(),
+                        new ByteArrayInputStream(event.payload())).offers();
+                stageTimer("map", offers.isEmpty() ? "empty" : "mapped")
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                if (offers.isEmpty()) {
+                    System.err.println("[TeraUnit-Warn] " + event.provider() + " payload mapped to 0 offers; snapshot kept");
+                    pending.done.complete(ScrapeResult.EMPTY);
+                    continue;
+                }
+                fanOut(new OfferBatch(event.provider(), offers, null, event.scrapedAt()))
+                        .whenComplete((result, error) -> {
+                            if (error != null) {
+                                pending.done.completeExceptionally(error);
+                            } else {
+                                pending.done.complete(result);
+                            }
+                        });
+            } catch (RuntimeException e) {
+                stageTimer("map", "failure").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                System.err.println("[TeraUnit-Warn] " + event.provider() + " mapping failed: " + e.getMessage());
+                pending.done.completeExceptionally(e);
+            }
+        }
+    }
+
+    private CompletableFuture<ScrapeResult> fanOut(OfferBatch batch) {
+        List<CompletableFuture<Void>> required = new ArrayList<>();
+        for (SinkLane lane : lanes) {
+            CompletableFuture<Void> delivered = lane.offer(batch);
+            if (lane.sink.required()) {
+                required.add(delivered);
+            }
+        }
+        return CompletableFuture.allOf(required.toArray(CompletableFuture[]::new))
+                .thenApply(v -> ScrapeResult.UPDATED);
+    }
+
+    private Timer stageTimer(String stage, String outcome) {
+        return Timer.builder("teraunit.pipeline.stage")
+                .tag("stage", stage)
+                .tag("outcome", outcome)
+                .register(meters);
+    }
+
+    private record PendingEvent(GpuPriceScrapedEvent event, CompletableFuture<ScrapeResult> done) {
+    }
+
+    private record PendingBatch(OfferBatch batch, CompletableFuture<Void> done) {
+    }
+
+    private final class RawLane {
+        final RawResponseSink sink;
+        final ArrayBlockingQueue<GpuPriceScrapedEvent> queue;
+        final Counter dropped;
+
+        RawLane(RawResponseSink sink, int capacity) {
+            this.sink = sink;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.dropped = Counter.builder("teraunit.pipeline.dropped").tag("sink", sink.name()).register(meters);
+        }
+
+        void drain() {
+            while (!Thread.currentThread().isInterrupted()) {
+                GpuPriceScrapedEvent event;
+                try {
+                    event = queue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long start = System.nanoTime();
+                String outcome = "success";
+                try {
+                    sink.accept(event);
+                } catch (Exception e) {
+                    outcome = "failure";
+                    System.err.println("[TeraUnit-Warn] raw sink " + sink.name() + " failed for "
+                            + event.provider() + ": " + e.getMessage());
+                }
+                stageTimer("raw:" + sink.name(), outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private final class SinkLane {
+        final OfferSink sink;
+        final CoalescingQueue<ProviderName, PendingBatch> queue = new CoalescingQueue<>();
+        final Counter coalesced;
+
+        SinkLane(OfferSink sink) {
+            this.sink = sink;
+            this.coalesced = Counter.builder("teraunit.pipeline.coalesced").tag("sink", sink.name()).register(meters);
+        }
+
+        CompletableFuture<Void> offer(OfferBatch batch) {
+            PendingBatch pending = new PendingBatch(batch, new CompletableFuture<>());
+            PendingBatch displaced = queue.put(batch.provider(), pending);
+            if (displaced != null) {
+                coalesced.increment();
+                displaced.done.completeExceptionally(new CancellationException("superseded by a newer snapshot"));
+            }
+            return pending.done;
+        }
+
+        void drain() {
+            while (!Thread.currentThread().isInterrupted()) {
+                PendingBatch pending;
+                try {
+                    pending = queue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long start = System.nanoTime();
+                String outcome = "success";
+                try {
+                    sink.accept(pending.batch);
+                    pending.done.complete(null);
+                } catch (Exception e) {
+                    outcome = "failure";
+                    System.err.println("[TeraUnit-Warn] sink " + sink.name() + " failed for "
+                            + pending.batch.provider() + ": " + e.getMessage());
+                    pending.done.completeExceptionally(e);
+                }
+                stageTimer("sink:" + sink.name(), outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package ai.teraunit.core.inventory;
+
+public enum ScrapeResult {
+    UPDATED,   // new offers mapped and written
+    UNCHANGED, // provider data identical to the last write; nothing downstream touched
+    EMPTY      // provider answered but nothing usable was mapped
+}
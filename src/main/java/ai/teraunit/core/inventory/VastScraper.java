@@ -1,28 +1,71 @@
 package ai.teraunit.core.inventory;
 
+import ai.teraunit.core.common.GpuPriceScrapedEvent;
 import ai.teraunit.core.common.ProviderName;
+import ai.teraunit.core.config.OutboundPriority;
+import ai.teraunit.core.config.OutboundScheduler;
+import ai.teraunit.core.config.ProviderHttpClients;
 import ai.teraunit.core.pricing.GpuOffer;
 import ai.teraunit.core.pricing.PriceMapper;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.zip.CRC32C;
 
 @Component
 public class VastScraper implements GpuProviderScraper {
 
     private final RestClient restClient;
-    private final RedisTemplate<String, Object> redis; // CHANGED: Redis instead of Publisher
     private final PriceMapper priceMapper;
+    private final ScrapePipeline pipeline;
+    private final ChurnTracker churn;
+    // Bundle requests one sweep may send; see shardBudget.
+    private final int sweepRequests;
+
+    private static final String ENDPOINT = "https://console.vast.ai/api/v0/bundles/";
+
+    // Observed page cap; a shard returning this many offers may be truncated and is split.
+    static final int SHARD_CAP = 64;
+    // Upper bound on bundle requests per sweep, however generous the configured rate.
+    static final int MAX_SHARD_REQUESTS = 150;
+    // Concurrent shard requests across the whole process.
+    private static final Semaphore SHARD_PERMITS = new Semaphore(8);
+    private static final int MAX_KNOWN_GPU_NAMES = 500;
+    // Targeted refresh between sweeps: at most this many hot gpu_names / requests.
+    private static final int MAX_HOT_SEGMENTS = 6;
+    private static final int MAX_HOT_REQUESTS = 24;
+
+    // Forces a full rewrite at least this often even if the provider data never changes.
+    private static final Duration MAX_SKIP_AGE = Duration.ofMinutes(10);
+
+    // Learned from the previous cycle; drives the first-level shards.
+    private volatile Set<String> knownGpuNames = Set.of();
+    private volatile Map<String, CachedShard> shardCache = Map.of();
+    private volatile Instant lastFullWrite = Instant.EPOCH;
+    private volatile Instant lastSweep = Instant.EPOCH;
+    // Last published market and, per gpu_name, the leaf shards that fully cover it.
+    private volatile Map<String, GpuOffer> lastOffers = Map.of();
+    private volatile Map<String, List<VastShard>> leavesByName = Map.of();
+    private volatile int requestsLastRun = 1;
 
     @Value("${VAST_API_KEY:missing_key}")
     private String apiKey;
@@ -30,64 +73,399 @@ public class VastScraper implements GpuProviderScraper {
     @Value("${TERA_DEBUG_VAST:false}")
     private boolean debugVast;
 
-    public VastScraper(RestClient restClient,
-            RedisTemplate<String, Object> redis,
-            PriceMapper priceMapper) {
+    public VastScraper(ProviderHttpClients http,
+            OutboundScheduler scheduler,
+            PriceMapper priceMapper,
+            ScrapePipeline pipeline,
+            ChurnTracker churn) {
+        this(http.of(ProviderName.VAST, OutboundPriority.SCRAPE), scheduler.limit(ProviderName.VAST),
+                priceMapper, pipeline, churn);
+    }
+
+    VastScraper(RestClient restClient,
+            OutboundScheduler.Limit limit,
+            PriceMapper priceMapper,
+            ScrapePipeline pipeline,
+            ChurnTracker churn) {
         this.restClient = restClient;
-        this.redis = redis;
         this.priceMapper = priceMapper;
+        this.pipeline = pipeline;
+        this.churn = churn;
+        this.sweepRequests = shardBudget(limit, deadline());
+    }
+
+    /**
+     * Requests the outbound lane lets through before the deadline (the burst,
+     * then the sustained rate), less a quarter for response time, so a sweep
+     * never queues past its own cancellation.
+     */
+    static int shardBudget(OutboundScheduler.Limit limit, Duration deadline) {
+        long drained = limit.burst() + (long) (limit.perSecond() * deadline.toMillis() / 1000.0 * 0.75);
+        return (int) Math.max(1, Math.min(MAX_SHARD_REQUESTS, drained));
     }
 
     @Override
-    @Scheduled(fixedRate = 60000)
-    public void scrape() {
-        try {
-            String endpoint = "https://console.vast.ai/api/v0/bundles/";
+    public ProviderName provider() {
+        return ProviderName.VAST;
+    }
 
-            // Vast's bundles endpoint appears to return a fixed-size slice (often 64) and
-            // does not accept an `offset` parameter for pagination (sending it yields 400:
-            // "oplist for key offset is not a valid dict").
-            // Keep the scraper stable: make a single request, and optionally request a
-            // larger `limit` in the JSON body (Vast will cap as needed).
-            final int requestedLimit = 256;
+    @Override
+    public Duration interval() {
+        return Duration.ofSeconds(60);
+    }
 
-            if (debugVast) {
-                System.out.println("[VAST-DEBUG] requestConfig={requestedLimit=" + requestedLimit + "}");
+    @Override
+    public int requestBudgetPerHour() {
+        return hourlyBudget(interval(), sweepRequests);
+    }
+
+    /**
+     * One full sweep per nominal interval plus one capped hot refresh: with the
+     * shipped lane, 60 x (49 + 24) = 4,380 bundle requests an hour. Faster
+     * cadences for churning data spend the same allowance rather than adding to it.
+     */
+    static int hourlyBudget(Duration interval, int sweepRequests) {
+        long cycles = Duration.ofHours(1).toSeconds() / Math.max(1, interval.toSeconds());
+        return (int) (cycles * (sweepRequests + Math.min(MAX_HOT_REQUESTS, sweepRequests)));
+    }
+
+    @Override
+    public int requestsLastRun() {
+        return requestsLastRun;
+    }
+
+    @Override
+    public ScrapeResult scrape() throws InterruptedException {
+        // Vast's bundles endpoint appears to return a fixed-size slice (often 64) and
+        // does not accept an `offset` parameter for pagination (sending it yields 400:
+        // "oplist for key offset is not a valid dict").
+        // Coverage therefore comes from sharding the query into disjoint filters (see
+        // VastShardPlanner); each request still asks for a larger `limit` in case
+        // Vast honours it.
+        final int requestedLimit = 256;
+
+        if (debugVast) {
+            System.out.println("[VAST-DEBUG] requestConfig={requestedLimit=" + requestedLimit + "}");
+            return scrapeDebug(buildQuery(requestedLimit));
+        }
+
+        Map<String, Object> base = buildQuery(requestedLimit);
+
+        // Between full sweeps, only re-read the segments that are actually moving.
+        if (!sweepDue()) {
+            List<String> hot = new ArrayList<>();
+            for (String name : churn.hottestSegments(ProviderName.VAST, MAX_HOT_SEGMENTS, ChurnTracker.NEUTRAL_CHURN)) {
+                if (leavesByName.containsKey(name)) {
+                    hot.add(name);
+                }
             }
+            if (!hot.isEmpty()) {
+                return refreshHot(hot, base);
+            }
+        }
+        return sweep(base);
+    }
 
-            Map<String, Object> query = buildQuery(requestedLimit);
+    private ScrapeResult sweep(Map<String, Object> base) throws InterruptedException {
+        Map<String, CachedShard> cache = new HashMap<>(shardCache);
+        Map<String, CachedShard> fetched = new LinkedHashMap<>();
+        Map<String, GpuOffer> merged = new LinkedHashMap<>();
+        Set<String> seenGpuNames = new HashSet<>();
+        Map<String, List<VastShard>> leaves = new HashMap<>();
+        Set<String> incompleteNames = new HashSet<>();
+        int requests = 0;
+        int failedShards = 0;
+        boolean allUnchanged = true;
 
-            @SuppressWarnings("unchecked")
-            Map<String, Object> response = restClient.post()
-                    .uri(endpoint)
-                    .header("Authorization", "Bearer " + apiKey)
-                    .header("Content-Type", "application/json")
-                    .body(query)
-                    .retrieve()
-                    .body(Map.class);
+        List<VastShard> wave = VastShardPlanner.firstLevel(knownGpuNames);
+        try (ExecutorService shardExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            while (!wave.isEmpty()) {
+                int room = sweepRequests - requests;
+                if (wave.size() > room) {
+                    // Least recently fetched first, so successive sweeps rotate through a big market.
+                    wave = new ArrayList<>(wave);
+                    wave.sort(Comparator.comparing(sh -> fetchedAt(cache.get(sh.key()))));
+                    List<VastShard> deferred = wave.subList(room, wave.size());
+                    System.err.println("[TeraUnit-Warn] Vast shard budget of " + sweepRequests
+                            + " requests reached; " + deferred.size() + " shards deferred to the next sweep");
+                    for (VastShard shard : deferred) {
+                        if (shard.nameResolved()) {
+                            incompleteNames.add(shard.gpuName());
+                        }
+                        CachedShard stale = cache.get(shard.key());
+                        if (stale != null) {
+                            fetched.put(shard.key(), stale.carriedOver());
+                            absorb(stale, merged, seenGpuNames);
+                        }
+                    }
+                    wave = wave.subList(0, room);
+                    if (wave.isEmpty()) {
+                        break;
+                    }
+                }
+
+                List<Future<CachedShard>> results = new ArrayList<>(wave.size());
+                for (VastShard shard : wave) {
+                    CachedShard previous = cache.get(shard.key());
+                    results.add(shardExecutor.submit(() -> fetchShard(shard, base, previous)));
+                }
+                requests += wave.size();
 
-            if (response == null) {
-                return;
+                List<VastShard> nextWave = new ArrayList<>();
+                for (int k = 0; k < wave.size(); k++) {
+                    VastShard shard = wave.get(k);
+                    CachedShard result;
+                    try {
+                        result = results.get(k).get();
+                    } catch (ExecutionException e) {
+                        // Keep the shard's last good slice rather than dropping part of the market.
+                        failedShards++;
+                        allUnchanged = false;
+                        result = cache.get(shard.key());
+                        System.err.println("[TeraUnit-Warn] Vast shard " + shard.key() + " failed: "
+                                + e.getCause().getMessage());
+                        if (result == null) {
+                            if (shard.nameResolved()) {
+                                incompleteNames.add(shard.gpuName());
+                            }
+                            continue;
+                        }
+                    }
+
+                    fetched.put(shard.key(), result);
+                    allUnchanged &= result.reused();
+                    absorb(result, merged, seenGpuNames);
+                    List<VastShard> children = result.rawCount() >= SHARD_CAP
+                            ? VastShardPlanner.split(shard, result.offers())
+                            : List.of();
+                    if (children.isEmpty() && shard.nameResolved()) {
+                        leaves.computeIfAbsent(shard.gpuName(), n -> new ArrayList<>()).add(shard);
+                    }
+                    nextWave.addAll(children);
+                }
+                wave = nextWave;
             }
+        }
+
+        requestsLastRun = Math.max(1, requests);
+        if (failedShards == requests) {
+            throw new IllegalStateException("all " + requests + " Vast shard requests failed");
+        }
+        incompleteNames.forEach(leaves::remove);
+        leavesByName = leaves;
+        lastSweep = Instant.now();
+
+        knownGpuNames = seenGpuNames.size() > MAX_KNOWN_GPU_NAMES ? Set.of() : Set.copyOf(seenGpuNames);
+        boolean sameShards = fetched.keySet().equals(shardCache.keySet());
+
+        if (allUnchanged && sameShards && !fullWriteDue()) {
+            shardCache = fetched;
+            churn.observeUnchanged(ProviderName.VAST);
+            return ScrapeResult.UNCHANGED;
+        }
+
+        List<GpuOffer> offers = new ArrayList<>(merged.values());
+        if (offers.isEmpty()) {
+            return ScrapeResult.EMPTY;
+        }
+        // Only a write that landed becomes the base for hot refreshes and skip decisions.
+        ScrapeResult result = pipeline.await(pipeline.publishOffers(ProviderName.VAST, offers, null));
+        shardCache = fetched;
+        lastFullWrite = Instant.now();
+        lastOffers = merged;
+        System.out.println("[TeraUnit-Pulse] Vast swept: " + offers.size() + " units ("
+                + requests + " shards" + (failedShards > 0 ? ", " + failedShards + " failed" : "") + ").");
+        return result;
+    }
 
-            if (debugVast) {
-                debugPrintResponseMeta(response);
+    private static void absorb(CachedShard slice, Map<String, GpuOffer> merged, Set<String> seenGpuNames) {
+        for (GpuOffer offer : slice.offers()) {
+            merged.putIfAbsent(offer.launchId(), offer); // ask id: dedupes shard overlap
+            if (offer.gpuModel() != null) {
+                seenGpuNames.add(offer.gpuModel());
             }
+        }
+    }
+
+    private static Instant fetchedAt(CachedShard slice) {
+        return slice == null ? Instant.EPOCH : slice.fetchedAt();
+    }
 
-            List<GpuOffer> offers = priceMapper.mapToOffers(ProviderName.VAST, response);
+    /**
+     * Re-reads only the leaf shards of the given gpu_names and splices them
+     * into the last published market. A name whose refresh failed or came
+     * back saturated is left as it was until the next full sweep.
+     */
+    private ScrapeResult refreshHot(List<String> names, Map<String, Object> base) throws InterruptedException {
+        Map<String, List<VastShard>> leaves = leavesByName;
+        Map<String, CachedShard> cache = shardCache;
 
-            if (debugVast) {
-                Integer offersCount = getOffersCount(response);
-                System.out.println("[VAST-DEBUG] mappedOffers=" + (offers == null ? 0 : offers.size())
-                        + " responseOffersCount=" + offersCount);
+        List<String> planned = new ArrayList<>();
+        int requests = 0;
+        for (String name : names) {
+            int n = leaves.get(name).size();
+            if (requests + n > Math.min(MAX_HOT_REQUESTS, sweepRequests)) {
+                continue;
             }
+            planned.add(name);
+            requests += n;
+        }
+        if (planned.isEmpty()) {
+            return sweep(base);
+        }
 
-            if (!offers.isEmpty()) {
-                redis.opsForValue().set("CLEAN_OFFERS:VAST", offers);
-                System.out.println("[TeraUnit-Pulse] Vast Updated: " + offers.size() + " units online.");
+        Map<String, List<Future<CachedShard>>> results = new LinkedHashMap<>();
+        try (ExecutorService shardExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String name : planned) {
+                List<Future<CachedShard>> futures = new ArrayList<>();
+                for (VastShard shard : leaves.get(name)) {
+                    CachedShard previous = cache.get(shard.key());
+                    futures.add(shardExecutor.submit(() -> fetchShard(shard, base, previous)));
+                }
+                results.put(name, futures);
             }
-        } catch (Exception e) {
-            System.err.println("[TeraUnit-Warn] Vast Scrape Failed: " + e.getMessage());
+        }
+        requestsLastRun = Math.max(1, requests);
+
+        Map<String, CachedShard> updatedCache = new HashMap<>(cache);
+        List<String> refreshed = new ArrayList<>();
+        List<GpuOffer> fresh = new ArrayList<>();
+        boolean changed = false;
+        for (String name : planned) {
+            List<VastShard> shards = leaves.get(name);
+            List<CachedShard> slices = new ArrayList<>(shards.size());
+            try {
+                for (Future<CachedShard> f : results.get(name)) {
+                    slices.add(f.get());
+                }
+            } catch (ExecutionException e) {
+                System.err.println("[TeraUnit-Warn] Vast hot refresh of " + name + " failed: "
+                        + e.getCause().getMessage());
+                continue;
+            }
+            if (slices.stream().anyMatch(c -> c.rawCount() >= SHARD_CAP)) {
+                continue; // grew past its leaves; the next sweep re-plans it
+            }
+            refreshed.add(name);
+            for (int k = 0; k < shards.size(); k++) {
+                CachedShard slice = slices.get(k);
+                updatedCache.put(shards.get(k).key(), slice);
+                changed |= !slice.reused();
+                fresh.addAll(slice.offers());
+            }
+        }
+
+        if (refreshed.isEmpty()) {
+            throw new IllegalStateException("hot refresh of " + planned + " failed");
+        }
+        if (!changed) {
+            shardCache = updatedCache;
+            churn.observeSegments(ProviderName.VAST, refreshed, fresh);
+            return ScrapeResult.UNCHANGED;
+        }
+
+        Set<String> refreshedNames = Set.copyOf(refreshed);
+        Map<String, GpuOffer> merged = new LinkedHashMap<>();
+        for (GpuOffer offer : lastOffers.values()) {
+            if (!refreshedNames.contains(offer.gpuModel())) {
+                merged.put(offer.launchId(), offer);
+            }
+        }
+        for (GpuOffer offer : fresh) {
+            merged.putIfAbsent(offer.launchId(), offer);
+        }
+        List<GpuOffer> offers = new ArrayList<>(merged.values());
+        if (offers.isEmpty()) {
+            return ScrapeResult.EMPTY;
+        }
+        ScrapeResult result = pipeline.await(pipeline.publishOffers(ProviderName.VAST, offers, refreshedNames));
+        shardCache = updatedCache;
+        lastFullWrite = Instant.now();
+        lastOffers = merged;
+        System.out.println("[TeraUnit-Pulse] Vast hot refresh " + refreshed + ": " + offers.size()
+                + " units online (" + requests + " shards).");
+        return result;
+    }
+
+    /**
+     * One shard request, bounded by the global permit pool. An identical
+     * body (CRC32C + length) reuses the previous mapping.
+     */
+    private CachedShard fetchShard(VastShard shard, Map<String, Object> base, CachedShard previous)
+            throws InterruptedException {
+        SHARD_PERMITS.acquire();
+        try {
+            byte[] body = restClient.post()
+                    .uri(ENDPOINT)
+                    .header("Authorization", "Bearer " + apiKey)
+                    .header("Content-Type", "application/json")
+                    .body(shard.applyTo(base))
+                    .exchange((request, response) -> {
+                        if (response.getStatusCode().isError()) {
+                            throw new IllegalStateException("HTTP " + response.getStatusCode().value());
+                        }
+                        return response.getBody().readAllBytes();
+                    });
+
+            CRC32C crc = new CRC32C();
+            crc.update(body);
+            if (previous != null && previous.crc() == crc.getValue() && previous.length() == body.length) {
+                return previous.asReused(Instant.now());
+            }
+            pipeline.archive(new GpuPriceScrapedEvent(ProviderName.VAST, body, Instant.now()));
+            // Parse as a token stream, never build the Map tree.
+            PriceMapper.MappedOffers mapped = priceMapper.map(ProviderName.VAST, new ByteArrayInputStream(body));
+            return new CachedShard(crc.getValue(), body.length, mapped.offers(), mapped.rawCount(), false,
+                    Instant.now());
+        } finally {
+            SHARD_PERMITS.release();
+        }
+    }
+
+    // Leaves a margin for the orchestrator's jitter.
+    private boolean sweepDue() {
+        return lastOffers.isEmpty()
+                || Duration.between(lastSweep, Instant.now()).compareTo(interval().multipliedBy(4).dividedBy(5)) >= 0;
+    }
+
+    private boolean fullWriteDue() {
+        return Duration.between(lastFullWrite, Instant.now()).compareTo(MAX_SKIP_AGE) > 0;
+    }
+
+    // Single unsharded request; keeps the tree so pagination metadata can be inspected.
+    private ScrapeResult scrapeDebug(Map<String, Object> query) throws InterruptedException {
+        @SuppressWarnings("unchecked")
+        Map<String, Object> response = restClient.post()
+                .uri(ENDPOINT)
+                .header("Authorization", "Bearer " + apiKey)
+                .header("Content-Type", "application/json")
+                .body(query)
+                .retrieve()
+                .body(Map.class);
+        if (response == null) {
+            return ScrapeResult.EMPTY;
+        }
+        debugPrintResponseMeta(response);
+        List<GpuOffer> offers = priceMapper.mapToOffers(ProviderName.VAST, response);
+        System.out.println("[VAST-DEBUG] mappedOffers=" + offers.size()
+                + " responseOffersCount=" + getOffersCount(response));
+
+        if (offers.isEmpty()) {
+            return ScrapeResult.EMPTY;
+        }
+        return pipeline.await(pipeline.publishOffers(ProviderName.VAST, offers, null));
+    }
+
+    private record CachedShard(long crc, int length, List<GpuOffer> offers, int rawCount, boolean reused,
+            Instant fetchedAt) {
+        // Fetched again and byte-identical.
+        CachedShard asReused(Instant now) {
+            return new CachedShard(crc, length, offers, rawCount, true, now);
+        }
+
+        // Not fetched this sweep; the last good slice stands in.
+        CachedShard carriedOver() {
+            return new CachedShard(crc, length, offers, rawCount, true, fetchedAt);
         }
     }
 
@@ -0,0 +1,80 @@
+package ai.teraunit.core.inventory;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * One disjoint slice of the Vast marketplace, expressed as extra bundle
+ * filters. The shards produced by {@link VastShardPlanner} from a parent
+ * partition it exactly: no offer matches two of them and none is lost.
+ *
+ * @param gpuName      exact gpu_name, or null for "any name not in excludedGpuNames"
+ * @param numGpus      exact num_gpus, or null (see otherNumGpus)
+ * @param otherNumGpus when numGpus is null: true = only counts outside {@link #STANDARD_GPU_COUNTS}
+ * @param minPrice     inclusive dph_total lower bound (0 = none)
+ * @param maxPrice     exclusive dph_total upper bound (infinity = none)
+ */
+record VastShard(
+        String gpuName,
+        Set<String> excludedGpuNames,
+        Integer numGpus,
+        boolean otherNumGpus,
+        double minPrice,
+        double maxPrice
+) {
+    static final List<Integer> STANDARD_GPU_COUNTS = List.of(1, 2, 4, 8);
+
+    static final VastShard ALL = new VastShard(null, Set.of(), null, false, 0.0, Double.POSITIVE_INFINITY);
+
+    VastShard {
+        excludedGpuNames = Set.copyOf(excludedGpuNames);
+    }
+
+    boolean nameResolved() {
+        return gpuName != null;
+    }
+
+    boolean countResolved() {
+        return numGpus != null || otherNumGpus;
+    }
+
+    /**
+     * Base query plus this shard's filters.
+     */
+    Map<String, Object> applyTo(Map<String, Object> base) {
+        Map<String, Object> query = new LinkedHashMap<>(base);
+        if (gpuName != null) {
+            query.put("gpu_name", Map.of("eq", gpuName));
+        } else if (!excludedGpuNames.isEmpty()) {
+            query.put("gpu_name", Map.of("notin", List.copyOf(new TreeSet<>(excludedGpuNames))));
+        }
+        if (numGpus != null) {
+            query.put("num_gpus", Map.of("eq", numGpus));
+        } else if (otherNumGpus) {
+            query.put("num_gpus", Map.of("notin", STANDARD_GPU_COUNTS));
+        }
+        if (minPrice > 0 || maxPrice != Double.POSITIVE_INFINITY) {
+            Map<String, Object> price = new LinkedHashMap<>();
+            if (minPrice > 0) {
+                price.put("gte", minPrice);
+            }
+            if (maxPrice != Double.POSITIVE_INFINITY) {
+                price.put("lt", maxPrice);
+            }
+            query.put("dph_total", price);
+        }
+        return query;
+    }
+
+    /**
+     * Stable identity across cycles (used to cache per-shard payloads).
+     */
+    String key() {
+        String name = gpuName != null ? gpuName : "*-" + new TreeSet<>(excludedGpuNames).hashCode();
+        String count = numGpus != null ? numGpus.toString() : (otherNumGpus ? "other" : "*");
+        return name + "|" + count + "|" + minPrice + "-" + maxPrice;
+    }
+}
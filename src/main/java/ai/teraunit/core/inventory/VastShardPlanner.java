@@ -0,0 +1,91 @@
+package ai.teraunit.core.inventory;
+
+import ai.teraunit.core.pricing.GpuOffer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Splits the Vast marketplace into shards small enough to come back under
+ * the bundles endpoint's result cap.
+ *
+ * First level: one shard per gpu_name we saw last cycle plus a catch-all
+ * ("notin" those names). A shard that still comes back full is split again,
+ * in order, by newly seen gpu names, by num_gpus, then by price at the median.
+ */
+final class VastShardPlanner {
+
+    private VastShardPlanner() {
+    }
+
+    static List<VastShard> firstLevel(Set<String> knownGpuNames) {
+        if (knownGpuNames.isEmpty()) {
+            return List.of(VastShard.ALL);
+        }
+        List<VastShard> shards = new ArrayList<>();
+        for (String name : new TreeSet<>(knownGpuNames)) {
+            shards.add(new VastShard(name, Set.of(), null, false, 0.0, Double.POSITIVE_INFINITY));
+        }
+        shards.add(new VastShard(null, knownGpuNames, null, false, 0.0, Double.POSITIVE_INFINITY));
+        return shards;
+    }
+
+    /**
+     * Children of a saturated shard, or empty if it cannot be split further.
+     *
+     * @param offers what the saturated request returned (a sample of the shard)
+     */
+    static List<VastShard> split(VastShard shard, List<GpuOffer> offers) {
+        List<VastShard> children = new ArrayList<>();
+
+        // 1. Catch-all shard: peel off every gpu_name the sample revealed.
+        if (!shard.nameResolved()) {
+            Set<String> names = new TreeSet<>();
+            for (GpuOffer o : offers) {
+                if (o.gpuModel() != null && !shard.excludedGpuNames().contains(o.gpuModel())) {
+                    names.add(o.gpuModel());
+                }
+            }
+            if (!names.isEmpty()) {
+                for (String name : names) {
+                    children.add(new VastShard(name, Set.of(), shard.numGpus(), shard.otherNumGpus(),
+                            shard.minPrice(), shard.maxPrice()));
+                }
+                Set<String> excluded = new HashSet<>(shard.excludedGpuNames());
+                excluded.addAll(names);
+                children.add(new VastShard(null, excluded, shard.numGpus(), shard.otherNumGpus(),
+                        shard.minPrice(), shard.maxPrice()));
+                return children;
+            }
+        }
+
+        // 2. GPU count: the common sizes plus everything else.
+        if (!shard.countResolved()) {
+            for (int count : VastShard.STANDARD_GPU_COUNTS) {
+                children.add(new VastShard(shard.gpuName(), shard.excludedGpuNames(), count, false,
+                        shard.minPrice(), shard.maxPrice()));
+            }
+            children.add(new VastShard(shard.gpuName(), shard.excludedGpuNames(), null, true,
+                    shard.minPrice(), shard.maxPrice()));
+            return children;
+        }
+
+        // 3. Price: halve the band at the sample's median.
+        double[] prices = offers.stream().mapToDouble(GpuOffer::pricePerHour).sorted().toArray();
+        if (prices.length == 0) {
+            return children;
+        }
+        double median = prices[prices.length / 2];
+        if (median <= shard.minPrice() || median >= shard.maxPrice()) {
+            return children; // every sampled offer has the same price; nothing left to cut
+        }
+        children.add(new VastShard(shard.gpuName(), shard.excludedGpuNames(), shard.numGpus(),
+                shard.otherNumGpus(), shard.minPrice(), median));
+        children.add(new VastShard(shard.gpuName(), shard.excludedGpuNames(), shard.numGpus(),
+                shard.otherNumGpus(), median, shard.maxPrice()));
+        return children;
+    }
+}
@@ -0,0 +1,79 @@
+package ai.teraunit.core.pricing;
+
+import java.time.Duration;
+
+/**
+ * THE STOPWATCH
+ * A fixed-size, log-bucketed latency histogram (the DDSketch layout): every
+ * value lands in the bucket ceil(log_gamma(ms)), so any quantile comes back
+ * within {@link #RELATIVE_ACCURACY} of the true value. Two sketches merge by
+ * adding bucket counts, which is what lets per-(provider, region, SKU, image)
+ * series be rolled up to any coarser view without keeping raw samples.
+ *
+ * Not thread-safe; {@link BootTimes} guards access.
+ */
+public final class BootLatencySketch {
+
+    static final double RELATIVE_ACCURACY = 0.02;
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    // 1 ms .. ~2 days; anything longer is not a boot.
+    private static final long MAX_MS = Duration.ofDays(2).toMillis();
+    private static final int BUCKETS = index(MAX_MS) + 1;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long minMs = Long.MAX_VALUE;
+    private long maxMs;
+
+    public void add(Duration latency) {
+        long ms = Math.clamp(latency.toMillis(), 1, MAX_MS);
+        counts[index(ms)]++;
+        count++;
+        minMs = Math.min(minMs, ms);
+        maxMs = Math.max(maxMs, ms);
+    }
+
+    public void merge(BootLatencySketch other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        minMs = Math.min(minMs, other.minMs);
+        maxMs = Math.max(maxMs, other.maxMs);
+    }
+
+    public BootLatencySketch copy() {
+        BootLatencySketch copy = new BootLatencySketch();
+        copy.merge(this);
+        return copy;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * The q-quantile (0..1) in milliseconds, or 0 for an empty sketch.
+     */
+    public long quantileMs(double q) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.floor(Math.clamp(q, 0.0, 1.0) * (count - 1));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                // Bucket midpoint (in the log sense), kept inside the observed range.
+                long estimate = Math.round(2 * Math.pow(GAMMA, i) / (GAMMA + 1));
+                return Math.clamp(estimate, minMs, maxMs);
+            }
+        }
+        return maxMs;
+    }
+
+    private static int index(long ms) {
+        return (int) Math.ceil(Math.log(ms) / LOG_GAMMA);
+    }
+}
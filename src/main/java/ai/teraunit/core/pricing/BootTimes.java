@@ -0,0 +1,175 @@
+package ai.teraunit.core.pricing;
+
+import ai.teraunit.core.common.GpuSku;
+import ai.teraunit.core.common.ProviderName;
+import ai.teraunit.core.common.RunPodLaunchId;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * THE BOOT CLOCK
+ * Launch-to-first-heartbeat latency, one {@link BootLatencySketch} per
+ * (provider, region, SKU, image). Fed live by the heartbeat path and rebuilt
+ * from the ledger periodically, so every replica converges on the same numbers.
+ *
+ * Read by the ranking (slow boots cost money before any work happens) and by
+ * the reaper (an instance still inside its typical boot time is not a zombie).
+ */
+@Component
+public class BootTimes {
+
+    // Fewer samples than this and a series is noise, not a typical boot time.
+    static final int MIN_SAMPLES = 5;
+
+    private Map<Key, BootLatencySketch> sketches = new HashMap<>();
+
+    public record Key(String provider, String region, String sku, String image) {
+
+        /**
+         * Normalized key for a launch: the offer's SKU id if known, else the
+         * catalog's reading of the instance type (raw type as a last resort),
+         * and RunPod's data center when no region was given.
+         */
+        public static Key of(ProviderName provider, String instanceType, String region, String skuId,
+                String image) {
+            String where = region;
+            String sku = skuId != null ? skuId : skuOf(instanceType);
+            if (provider == ProviderName.RUNPOD && instanceType != null) {
+                try {
+                    RunPodLaunchId id = RunPodLaunchId.parse(instanceType);
+                    GpuSku resolved = GpuCatalog.resolve(id.gpuTypeId(), id.gpuCount(), null);
+                    sku = skuId == null && resolved != null ? resolved.id() : sku;
+                    where = where == null || where.isBlank() ? id.dataCenterId() : where;
+                } catch (IllegalArgumentException ignored) {
+                    // Not a launch id we understand; keep the raw type.
+                }
+            }
+            return new Key(provider.name(), normalize(where), sku, image == null ? "" : image);
+        }
+    }
+
+    public record Summary(Key key, long count, long p50Ms, long p90Ms, long p99Ms) {
+
+        static Summary of(Key key, BootLatencySketch sketch) {
+            return new Summary(key, sketch.count(), sketch.quantileMs(0.5), sketch.quantileMs(0.9),
+                    sketch.quantileMs(0.99));
+        }
+    }
+
+    /**
+     * Every matching series, plus all of them merged (the key's null fields
+     * are the ones that were merged over).
+     */
+    public record Report(Summary overall, List<Summary> series) {
+    }
+
+    public synchronized void record(Key key, Duration latency) {
+        sketches.computeIfAbsent(key, k -> new BootLatencySketch()).add(latency);
+    }
+
+    /**
+     * Swaps in sketches rebuilt from the ledger.
+     */
+    public synchronized void replace(Map<Key, BootLatencySketch> rebuilt) {
+        sketches = new HashMap<>(rebuilt);
+    }
+
+    /**
+     * Filters are optional and case-insensitive; null matches everything.
+     */
+    public synchronized Report report(String provider, String region, String sku, String image) {
+        Predicate<Key> filter = k -> matches(provider, k.provider()) && matches(region, k.region())
+                && matches(sku, k.sku()) && matches(image, k.image());
+        BootLatencySketch merged = new BootLatencySketch();
+        List<Summary> series = new ArrayList<>();
+        sketches.forEach((key, sketch) -> {
+            if (filter.test(key)) {
+                merged.merge(sketch);
+                series.add(Summary.of(key, sketch));
+            }
+        });
+        series.sort(Comparator.comparingLong(Summary::count).reversed());
+        Key overall = new Key(provider, region, sku, image);
+        return new Report(Summary.of(overall, merged), series);
+    }
+
+    /**
+     * The q-quantile boot time of every target at three levels, computed once
+     * so callers walking thousands of offers pay a hash lookup each.
+     */
+    public synchronized Typical typical(double q) {
+        Map<String, BootLatencySketch> rollups = new HashMap<>();
+        sketches.forEach((key, sketch) -> {
+            // Images are merged: each provider boots one image today.
+            for (String level : Typical.levels(key.provider(), key.region(), key.sku())) {
+                rollups.computeIfAbsent(level, k -> new BootLatencySketch()).merge(sketch);
+            }
+        });
+        Map<String, Duration> quantiles = new HashMap<>();
+        rollups.forEach((level, sketch) -> {
+            if (sketch.count() >= MIN_SAMPLES) {
+                quantiles.put(level, Duration.ofMillis(sketch.quantileMs(q)));
+            }
+        });
+        return new Typical(Map.copyOf(quantiles));
+    }
+
+    /**
+     * Boot-time quantiles by (provider, region, SKU), falling back to the SKU
+     * anywhere on that provider, then to the provider as a whole; empty until
+     * some level has enough samples.
+     */
+    public static final class Typical {
+
+        public static final Typical NONE = new Typical(Map.of());
+
+        private final Map<String, Duration> quantiles;
+
+        private Typical(Map<String, Duration> quantiles) {
+            this.quantiles = quantiles;
+        }
+
+        public Optional<Duration> of(String provider, String region, String sku) {
+            if (quantiles.isEmpty() || provider == null) {
+                return Optional.empty();
+            }
+            for (String level : levels(provider.trim().toUpperCase(Locale.ROOT), normalize(region),
+                    sku == null ? "" : sku)) {
+                Duration found = quantiles.get(level);
+                if (found != null) {
+                    return Optional.of(found);
+                }
+            }
+            return Optional.empty();
+        }
+
+        private static List<String> levels(String provider, String region, String sku) {
+            return List.of("R|" + provider + '|' + region + '|' + sku, "S|" + provider + '|' + sku, "P|" + provider);
+        }
+    }
+
+    private static boolean matches(String filter, String value) {
+        return filter == null || filter.isBlank() || filter.trim().equalsIgnoreCase(value);
+    }
+
+    private static String normalize(String region) {
+        return region == null ? "" : region.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String skuOf(String instanceType) {
+        if (instanceType == null) {
+            return "";
+        }
+        GpuSku sku = GpuCatalog.resolve(instanceType);
+        return sku != null ? sku.id() : instanceType.trim();
+    }
+}
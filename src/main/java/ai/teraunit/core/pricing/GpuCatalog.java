@@ -0,0 +1,167 @@
+package ai.teraunit.core.pricing;
+
+import ai.teraunit.core.common.GpuFormFactor;
+import ai.teraunit.core.common.GpuModel;
+import ai.teraunit.core.common.GpuSku;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * THE SKU CATALOG
+ * Normalizes provider spellings (Lambda "gpu_8x_a100_80gb_sxm4", RunPod
+ * "NVIDIA A100-SXM4-80GB", Vast "A100 SXM4") onto one canonical {@link GpuSku}.
+ *
+ * SKUs are pooled by id, so every offer for the same hardware shares one id
+ * String and price lookups become exact hash hits instead of substring scans.
+ */
+public final class GpuCatalog {
+
+    // Raw provider strings are a small, stable vocabulary; cap defensively anyway.
+    private static final int MAX_CACHED_INPUTS = 10_000;
+
+    private static final Map<String, GpuSku> SKUS = new ConcurrentHashMap<>();
+    private static final Map<String, Optional<GpuSku>> RESOLVED = new ConcurrentHashMap<>();
+
+    private GpuCatalog() {
+    }
+
+    public static GpuSku resolve(String raw) {
+        return resolve(raw, null, null);
+    }
+
+    /**
+     * @param raw          provider model string (name, displayName, gpu_name)
+     * @param gpuCount     GPUs per instance if the provider reports it separately
+     * @param vramGbPerGpu VRAM per GPU if the provider reports it separately
+     * @return the canonical SKU, or null for hardware we do not catalog
+     */
+    public static GpuSku resolve(String raw, Integer gpuCount, Integer vramGbPerGpu) {
+        if (raw == null || raw.isBlank()) {
+            return null;
+        }
+
+        String cacheKey = raw + '|' + gpuCount + '|' + vramGbPerGpu;
+        Optional<GpuSku> cached = RESOLVED.get(cacheKey);
+        if (cached != null) {
+            return cached.orElse(null);
+        }
+
+        GpuSku sku = parse(raw, gpuCount, vramGbPerGpu);
+        if (RESOLVED.size() >= MAX_CACHED_INPUTS) {
+            RESOLVED.clear();
+        }
+        RESOLVED.put(cacheKey, Optional.ofNullable(sku));
+        return sku;
+    }
+
+    /**
+     * Model family only ("a100 80gb" -> A100), for coarse queries.
+     */
+    public static GpuModel resolveModel(String raw) {
+        return raw == null ? null : matchModel(tokenize(raw));
+    }
+
+    /**
+     * Looks up a canonical id (e.g. "H100-80G-SXM-x8"). Ids written by another
+     * node are parsed and pooled on first sight.
+     */
+    public static GpuSku byId(String id) {
+        if (id == null) {
+            return null;
+        }
+        GpuSku pooled = SKUS.get(id);
+        return pooled != null ? pooled : parseId(id);
+    }
+
+    public static GpuSku sku(GpuModel model, int vramGb, GpuFormFactor formFactor, int gpuCount) {
+        String id = model.name() + "-" + vramGb + "G-" + formFactor.name() + "-x" + gpuCount;
+        return SKUS.computeIfAbsent(id, k -> new GpuSku(k, model, vramGb, formFactor, gpuCount));
+    }
+
+    // --- PARSING ---
+
+    private static GpuSku parse(String raw, Integer gpuCount, Integer vramGbPerGpu) {
+        Set<String> tokens = tokenize(raw);
+        GpuModel model = matchModel(tokens);
+        if (model == null) {
+            return null;
+        }
+
+        GpuFormFactor formFactor = model.defaultFormFactor();
+        Integer parsedVram = null;
+        Integer parsedCount = null;
+
+        for (String t : tokens) {
+            if (t.startsWith("SXM") || t.startsWith("HBM")) {
+                formFactor = GpuFormFactor.SXM;
+            } else if (t.equals("PCIE") || t.equals("NVL")) {
+                formFactor = GpuFormFactor.PCIE;
+            } else if (parsedVram == null && isNumberWithSuffix(t, "GB")) {
+                parsedVram = Integer.parseInt(t.substring(0, t.length() - 2));
+            } else if (parsedVram == null && isNumberWithSuffix(t, "G")) {
+                parsedVram = Integer.parseInt(t.substring(0, t.length() - 1));
+            } else if (parsedCount == null && isNumberWithSuffix(t, "X")) {
+                parsedCount = Integer.parseInt(t.substring(0, t.length() - 1));
+            }
+        }
+
+        int vram = model.snapVram(parsedVram != null ? parsedVram : vramGbPerGpu);
+        int count = (gpuCount != null && gpuCount > 0) ? gpuCount
+                : (parsedCount != null && parsedCount > 0) ? parsedCount : 1;
+
+        return sku(model, vram, formFactor, count);
+    }
+
+    private static GpuSku parseId(String id) {
+        String[] parts = id.split("-");
+        if (parts.length != 4 || !parts[1].endsWith("G") || !parts[3].startsWith("x")) {
+            return null;
+        }
+        try {
+            GpuModel model = GpuModel.valueOf(parts[0]);
+            int vram = Integer.parseInt(parts[1].substring(0, parts[1].length() - 1));
+            GpuFormFactor formFactor = GpuFormFactor.valueOf(parts[2]);
+            int count = Integer.parseInt(parts[3].substring(1));
+            return (vram > 0 && count > 0) ? sku(model, vram, formFactor, count) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static GpuModel matchModel(Set<String> tokens) {
+        for (GpuModel model : GpuModel.values()) {
+            if (model.matches(tokens)) {
+                return model;
+            }
+        }
+        return null;
+    }
+
+    private static Set<String> tokenize(String raw) {
+        Set<String> tokens = new HashSet<>();
+        for (String t : raw.toUpperCase(Locale.ROOT).split("[^A-Z0-9]+")) {
+            if (!t.isEmpty()) {
+                tokens.add(t);
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isNumberWithSuffix(String token, String suffix) {
+        int digits = token.length() - suffix.length();
+        if (digits <= 0 || digits > 4 || !token.endsWith(suffix)) {
+            return false;
+        }
+        for (int i = 0; i < digits; i++) {
+            if (!Character.isDigit(token.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -8,5 +8,12 @@ public record GpuOffer(
         String launchId,    // e.g. "gpu_1x_a100"
         double pricePerHour,
         String region,
-        boolean isAvailable
-) implements Serializable {}
+        boolean isAvailable,
+        String skuId        // Canonical id from GpuCatalog (null if uncatalogued)
+) implements Serializable {
+
+    public GpuOffer(String provider, String gpuModel, String launchId, double pricePerHour, String region,
+            boolean isAvailable) {
+        this(provider, gpuModel, launchId, pricePerHour, region, isAvailable, null);
+    }
+}
@@ -0,0 +1,76 @@
+package ai.teraunit.core.pricing;
+
+import ai.teraunit.core.common.GpuFormFactor;
+import ai.teraunit.core.common.GpuModel;
+import ai.teraunit.core.common.GpuSku;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * THE SPEC SHEET
+ * Per-GPU datasheet numbers used to turn an hourly price into a value metric.
+ *
+ * All TFLOPS are dense (no structured sparsity). 0 means the precision is not
+ * supported in hardware; callers fall back to the next wider precision.
+ */
+public final class GpuSpecs {
+
+    public record Spec(
+            double fp32Tflops,
+            double bf16Tflops,    // FP16/BF16 tensor
+            double fp8Tflops,
+            double bandwidthTbps  // HBM/GDDR, TB/s
+    ) {
+        /** FP8 if the hardware has it, else BF16. */
+        public double lowPrecisionTflops() {
+            return fp8Tflops > 0 ? fp8Tflops : bf16Tflops;
+        }
+    }
+
+    private static final Map<GpuModel, Spec> SXM = new EnumMap<>(GpuModel.class);
+    private static final Map<GpuModel, Spec> PCIE = new EnumMap<>(GpuModel.class);
+
+    static {
+        SXM.put(GpuModel.B200, new Spec(80, 2250, 4500, 8.0));
+        SXM.put(GpuModel.GH200, new Spec(67, 989, 1979, 4.0));
+        SXM.put(GpuModel.H200, new Spec(67, 989, 1979, 4.8));
+        SXM.put(GpuModel.H100, new Spec(67, 989, 1979, 3.35));
+        SXM.put(GpuModel.A100, new Spec(19.5, 312, 0, 2.04));
+        SXM.put(GpuModel.V100, new Spec(15.7, 125, 0, 0.9));
+
+        PCIE.put(GpuModel.H100, new Spec(51, 756, 1513, 2.0));
+        PCIE.put(GpuModel.A100, new Spec(19.5, 312, 0, 1.94));
+        PCIE.put(GpuModel.A10, new Spec(31.2, 125, 0, 0.6));
+        PCIE.put(GpuModel.L40S, new Spec(91.6, 362, 733, 0.864));
+        PCIE.put(GpuModel.L40, new Spec(90.5, 181, 362, 0.864));
+        PCIE.put(GpuModel.L4, new Spec(30.3, 121, 242, 0.3));
+        PCIE.put(GpuModel.A40, new Spec(37.4, 150, 0, 0.696));
+        PCIE.put(GpuModel.RTX6000_ADA, new Spec(91.1, 182, 364, 0.96));
+        PCIE.put(GpuModel.RTX6000, new Spec(16.3, 130, 0, 0.672));
+        PCIE.put(GpuModel.A6000, new Spec(38.7, 155, 0, 0.768));
+        PCIE.put(GpuModel.A5000, new Spec(27.8, 111, 0, 0.768));
+        PCIE.put(GpuModel.A4000, new Spec(19.2, 77, 0, 0.448));
+        PCIE.put(GpuModel.RTX5090, new Spec(104.8, 209, 419, 1.79));
+        PCIE.put(GpuModel.RTX4090, new Spec(82.6, 165, 330, 1.008));
+        PCIE.put(GpuModel.RTX3090, new Spec(35.6, 71, 0, 0.936));
+        PCIE.put(GpuModel.T4, new Spec(8.1, 65, 0, 0.32));
+    }
+
+    private GpuSpecs() {
+    }
+
+    /**
+     * Spec for one GPU of the SKU, or null if we have no datasheet for it.
+     * Falls back across form factors (e.g. a B200 listed as PCIe).
+     */
+    public static Spec of(GpuSku sku) {
+        if (sku == null) {
+            return null;
+        }
+        Map<GpuModel, Spec> primary = sku.formFactor() == GpuFormFactor.SXM ? SXM : PCIE;
+        Map<GpuModel, Spec> secondary = primary == SXM ? PCIE : SXM;
+        Spec spec = primary.get(sku.model());
+        return spec != null ? spec : secondary.get(sku.model());
+    }
+}
@@ -0,0 +1,169 @@
+package ai.teraunit.core.pricing;
+
+import ai.teraunit.core.common.ProviderName;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32C;
+
+/**
+ * THE COLD STORE
+ * Last-known-good offer snapshots on local disk, one file per provider.
+ *
+ * Files are written to a temp file, fsynced and atomically renamed, so a
+ * crash never leaves a torn snapshot. They are memory-mapped and checksum
+ * verified at startup, before the node reports ready, so a fresh node serves
+ * warm pricing without waiting for Redis or the provider APIs.
+ *
+ * File layout: MAGIC (int), FORMAT (int), savedAt epoch millis (long),
+ * payload length (int), CRC32C of payload (long), OfferSnapshotCodec payload.
+ */
+@Component
+public class LocalSnapshotStore {
+
+    private static final int MAGIC = 0x5455534E; // "TUSN"
+    private static final int FORMAT = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 4 + 8;
+
+    private final boolean enabled;
+    private final Path dir;
+    private final Duration maxAge;
+
+    private final Map<ProviderName, StoredSnapshot> latest = new ConcurrentHashMap<>();
+
+    public LocalSnapshotStore(@Value("${teraunit.pricing.snapshot.enabled:true}") boolean enabled,
+            @Value("${teraunit.pricing.snapshot.dir:${java.io.tmpdir}/teraunit-pricing}") String dir,
+            @Value("${teraunit.pricing.snapshot.max-age-minutes:5}") long maxAgeMinutes) {
+        this.enabled = enabled;
+        this.dir = Path.of(dir);
+        this.maxAge = Duration.ofMinutes(maxAgeMinutes);
+    }
+
+    @PostConstruct
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        for (ProviderName provider : ProviderName.values()) {
+            Path file = fileFor(provider);
+            if (!Files.exists(file)) {
+                continue;
+            }
+            try {
+                StoredSnapshot snapshot = read(file);
+                latest.put(provider, snapshot);
+                System.out.println("[TeraUnit-Snapshot] Warm start " + provider + ": " + snapshot.offers().size()
+                        + " offers saved at " + snapshot.savedAt());
+            } catch (Exception e) {
+                System.err.println("[TeraUnit-Snapshot] Ignoring unreadable snapshot for " + provider + ": "
+                        + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Latest snapshot for the provider if it is still young enough to serve.
+     */
+    public StoredSnapshot get(ProviderName provider) {
+        StoredSnapshot snapshot = latest.get(provider);
+        if (snapshot == null || Duration.between(snapshot.savedAt(), Instant.now()).compareTo(maxAge) > 0) {
+            return null;
+        }
+        return snapshot;
+    }
+
+    public void save(ProviderName provider, List<GpuOffer> offers) {
+        if (!enabled || offers == null || offers.isEmpty()) {
+            return;
+        }
+
+        StoredSnapshot snapshot = new StoredSnapshot(List.copyOf(offers), Instant.now());
+        latest.put(provider, snapshot);
+
+        try {
+            write(fileFor(provider), snapshot);
+        } catch (Exception e) {
+            System.err.println("[TeraUnit-Snapshot] Write failed for " + provider + ": " + e.getMessage());
+        }
+    }
+
+    // --- FILE IO ---
+
+    private Path fileFor(ProviderName provider) {
+        return dir.resolve("offers-" + provider.name() + ".snap");
+    }
+
+    private static void write(Path file, StoredSnapshot snapshot) throws IOException {
+        Files.createDirectories(file.getParent());
+
+        byte[] payload = OfferSnapshotCodec.encode(snapshot.offers());
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+        buf.putInt(MAGIC)
+                .putInt(FORMAT)
+                .putLong(snapshot.savedAt().toEpochMilli())
+                .putInt(payload.length)
+                .putLong(crc.getValue())
+                .put(payload)
+                .flip();
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buf.hasRemaining()) {
+                ch.write(buf);
+            }
+            ch.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static StoredSnapshot read(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("truncated header");
+            }
+
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (map.getInt() != MAGIC || map.getInt() != FORMAT) {
+                throw new IOException("unknown format");
+            }
+            Instant savedAt = Instant.ofEpochMilli(map.getLong());
+            int length = map.getInt();
+            long expectedCrc = map.getLong();
+            if (length < 0 || length != size - HEADER_SIZE) {
+                throw new IOException("length mismatch");
+            }
+
+            CRC32C crc = new CRC32C();
+            crc.update(map.duplicate());
+            if (crc.getValue() != expectedCrc) {
+                throw new IOException("checksum mismatch");
+            }
+
+            byte[] payload = new byte[length];
+            map.get(payload);
+            return new StoredSnapshot(List.copyOf(OfferSnapshotCodec.decode(payload)), savedAt);
+        }
+    }
+
+    public record StoredSnapshot(List<GpuOffer> offers, Instant savedAt) {
+    }
+}
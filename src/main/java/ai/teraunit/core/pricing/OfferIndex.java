@@ -0,0 +1,254 @@
+package ai.teraunit.core.pricing;
+
+import ai.teraunit.core.common.GpuModel;
+import ai.teraunit.core.common.GpuSku;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * THE MARKET INDEX
+ * Immutable, price-sorted view of one pricing snapshot.
+ *
+ * Every available offer is filed under all (gpu, region, provider) combinations
+ * where each dimension is either its concrete value or a wildcard. A query is
+ * therefore one hash lookup plus a binary search on the price column: top-K is
+ * a prefix of an already sorted array, no per-query scan or sort.
+ *
+ * The gpu dimension is canonical: an offer is reachable by its catalog SKU id
+ * ("A100-80G-SXM-x8"), its model family ("A100") and its normalized raw name.
+ */
+public final class OfferIndex {
+
+    public static final OfferIndex EMPTY = build(List.of());
+
+    private static final String ANY = "*";
+    private static final char SEP = '\u001F';
+
+    private static final Comparator<GpuOffer> BY_PRICE = Comparator
+            .comparingDouble(GpuOffer::pricePerHour)
+            .thenComparing(GpuOffer::provider)
+            .thenComparing(o -> o.launchId() == null ? "" : o.launchId());
+
+    private final Map<String, Bucket> buckets;
+    private final Map<String, Double> cheapestByLaunchId;
+    private final Map<String, Double> cheapestBySku;
+    private final Map<String, String> skuByLaunchId;
+    private final int size;
+
+    private OfferIndex(Map<String, Bucket> buckets,
+            Map<String, Double> cheapestByLaunchId,
+            Map<String, Double> cheapestBySku,
+            Map<String, String> skuByLaunchId,
+            int size) {
+        this.buckets = buckets;
+        this.cheapestByLaunchId = cheapestByLaunchId;
+        this.cheapestBySku = cheapestBySku;
+        this.skuByLaunchId = skuByLaunchId;
+        this.size = size;
+    }
+
+    public static OfferIndex build(Collection<GpuOffer> offers) {
+        Map<String, List<GpuOffer>> grouped = new HashMap<>();
+        Map<String, Double> cheapestByLaunchId = new HashMap<>();
+        Map<String, Double> cheapestBySku = new HashMap<>();
+        Map<String, String> skuByLaunchId = new HashMap<>();
+        int size = 0;
+
+        for (GpuOffer offer : offers) {
+            if (offer == null || !offer.isAvailable()) {
+                continue;
+            }
+            size++;
+
+            String region = regionKey(offer.region());
+            String provider = providerKey(offer.provider());
+
+            // Wildcard combinations: each offer is reachable from any partial query.
+            for (String gpu : gpuKeys(offer)) {
+                for (int mask = 0; mask < 4; mask++) {
+                    String key = key(
+                            gpu,
+                            (mask & 1) != 0 ? region : ANY,
+                            (mask & 2) != 0 ? provider : ANY);
+                    grouped.computeIfAbsent(key, k -> new ArrayList<>()).add(offer);
+                }
+            }
+
+            if (offer.launchId() != null) {
+                cheapestByLaunchId.merge(provider + SEP + offer.launchId(), offer.pricePerHour(), Math::min);
+            }
+            if (offer.skuId() != null) {
+                cheapestBySku.merge(provider + SEP + offer.skuId(), offer.pricePerHour(), Math::min);
+                if (offer.launchId() != null) {
+                    skuByLaunchId.put(provider + SEP + offer.launchId(), offer.skuId());
+                }
+            }
+        }
+
+        Map<String, Bucket> buckets = new HashMap<>(grouped.size() * 2);
+        for (Map.Entry<String, List<GpuOffer>> e : grouped.entrySet()) {
+            GpuOffer[] sorted = e.getValue().toArray(new GpuOffer[0]);
+            Arrays.sort(sorted, BY_PRICE);
+
+            double[] prices = new double[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                prices[i] = sorted[i].pricePerHour();
+            }
+            buckets.put(e.getKey(), new Bucket(sorted, prices));
+        }
+
+        return new OfferIndex(buckets, Map.copyOf(cheapestByLaunchId), Map.copyOf(cheapestBySku),
+                Map.copyOf(skuByLaunchId), size);
+    }
+
+    /**
+     * Cheapest-first offers matching every non-blank filter.
+     */
+    public List<GpuOffer> search(String gpu, String region, String provider, Double maxPrice, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        Bucket bucket = buckets.get(key(
+                isBlank(gpu) ? ANY : queryGpuKey(gpu),
+                isBlank(region) ? ANY : regionKey(region),
+                isBlank(provider) ? ANY : providerKey(provider)));
+        if (bucket == null) {
+            return List.of();
+        }
+
+        int end = (maxPrice == null) ? bucket.prices().length : upperBound(bucket.prices(), maxPrice);
+        int n = Math.min(end, limit);
+        return Collections.unmodifiableList(Arrays.asList(bucket.offers()).subList(0, n));
+    }
+
+    /**
+     * Cheapest live price for a launch target: exact launch id first, then the
+     * canonical SKU the target resolves to. Returns 0.0 when unknown.
+     */
+    public double cheapestPrice(String provider, String instanceType) {
+        if (isBlank(provider) || isBlank(instanceType)) {
+            return 0.0;
+        }
+        String p = providerKey(provider);
+
+        Double exact = cheapestByLaunchId.get(p + SEP + instanceType.trim());
+        if (exact != null) {
+            return exact;
+        }
+
+        GpuSku sku = GpuCatalog.resolve(instanceType);
+        if (sku != null) {
+            Double bySku = cheapestBySku.get(p + SEP + sku.id());
+            if (bySku != null) {
+                return bySku;
+            }
+        }
+        return 0.0;
+    }
+
+    /**
+     * Catalog SKU id of a live offer, or null (unknown launch id or uncatalogued hardware).
+     */
+    public String skuOf(String provider, String launchId) {
+        if (isBlank(provider) || isBlank(launchId)) {
+            return null;
+        }
+        return skuByLaunchId.get(providerKey(provider) + SEP + launchId.trim());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // --- KEYS ---
+
+    private static List<String> gpuKeys(GpuOffer offer) {
+        List<String> keys = new ArrayList<>(4);
+        keys.add(ANY);
+        keys.add("R:" + modelKey(offer.gpuModel()));
+
+        GpuSku sku = GpuCatalog.byId(offer.skuId());
+        if (sku != null) {
+            keys.add("S:" + sku.id());
+            keys.add("M:" + sku.model().name());
+        } else {
+            // Snapshots written before the catalog existed carry no skuId.
+            GpuModel model = GpuCatalog.resolveModel(offer.gpuModel());
+            if (model != null) {
+                keys.add("M:" + model.name());
+            }
+        }
+        return keys;
+    }
+
+    // Exact SKU id > model family > raw name.
+    private static String queryGpuKey(String gpu) {
+        String trimmed = gpu.trim();
+        GpuSku sku = GpuCatalog.byId(trimmed);
+        if (sku != null) {
+            return "S:" + sku.id();
+        }
+        GpuModel model = GpuCatalog.resolveModel(trimmed);
+        if (model != null) {
+            return "M:" + model.name();
+        }
+        return "R:" + modelKey(trimmed);
+    }
+
+    /**
+     * Collapses provider spellings ("NVIDIA A100-80GB", "a100 80gb") onto one key.
+     */
+    static String modelKey(String raw) {
+        if (raw == null) {
+            return "";
+        }
+        String cleaned = raw.toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9]+", " ").trim();
+        if (cleaned.startsWith("NVIDIA ")) {
+            cleaned = cleaned.substring(7);
+        }
+        return cleaned;
+    }
+
+    static String regionKey(String raw) {
+        return raw == null ? "GLOBAL" : raw.trim().toUpperCase(Locale.ROOT);
+    }
+
+    static String providerKey(String raw) {
+        return raw == null ? "" : raw.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static String key(String gpu, String region, String provider) {
+        return gpu + SEP + region + SEP + provider;
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.isBlank();
+    }
+
+    // First index whose price is > maxPrice.
+    private static int upperBound(double[] prices, double maxPrice) {
+        int lo = 0;
+        int hi = prices.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (prices[mid] <= maxPrice) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private record Bucket(GpuOffer[] offers, double[] prices) {
+    }
+}
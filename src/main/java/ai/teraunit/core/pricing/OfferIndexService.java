@@ -0,0 +1,132 @@
+package ai.teraunit.core.pricing;
+
+import ai.teraunit.core.common.ProviderName;
+import jakarta.annotation.PostConstruct;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * THE INDEX KEEPER
+ * Rebuilds the in-memory {@link OfferIndex} only when a provider snapshot
+ * actually changes, so search queries never touch Redis.
+ *
+ * Each new snapshot is also persisted to the {@link LocalSnapshotStore}; on
+ * boot the index is seeded from disk before the first Redis read. Every
+ * snapshot, from disk or Redis, ages from when it was taken and is dropped
+ * after MAX_STALE unless Redis confirms it again.
+ * Changed providers are also re-ranked in the {@link RankingEngine}.
+ */
+@Service
+public class OfferIndexService {
+
+    // Same staleness contract as the pricing endpoint: old data is dropped, not served.
+    private static final Duration MAX_STALE = Duration.ofMinutes(5);
+
+    private final PricingService pricing;
+    private final LocalSnapshotStore localSnapshots;
+    private final RankingEngine ranking;
+    private final Clock clock;
+
+    private final Map<ProviderName, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private volatile OfferIndex index = OfferIndex.EMPTY;
+
+    public OfferIndexService(PricingService pricing, LocalSnapshotStore localSnapshots, RankingEngine ranking) {
+        this(pricing, localSnapshots, ranking, Clock.systemUTC());
+    }
+
+    OfferIndexService(PricingService pricing, LocalSnapshotStore localSnapshots, RankingEngine ranking,
+            Clock clock) {
+        this.pricing = pricing;
+        this.localSnapshots = localSnapshots;
+        this.ranking = ranking;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public synchronized void warmStart() {
+        // A disk snapshot keeps the age it was saved with; prices feed launch guards, so old ones are not served.
+        Instant now = clock.instant();
+        for (ProviderName provider : ProviderName.values()) {
+            LocalSnapshotStore.StoredSnapshot stored = localSnapshots.get(provider);
+            if (stored != null && !stale(stored.savedAt(), now)) {
+                snapshots.put(provider, new Snapshot(stored.offers(), stored.savedAt()));
+                ranking.update(provider, stored.offers());
+            }
+        }
+        rebuild();
+    }
+
+    @Scheduled(fixedDelay = 5000)
+    public synchronized void refresh() {
+        boolean changed = false;
+        Instant now = clock.instant();
+
+        for (ProviderName provider : ProviderName.values()) {
+            try {
+                List<GpuOffer> offers = pricing.getOffers(provider).offers();
+                Snapshot current = snapshots.get(provider);
+
+                if (offers.isEmpty()) {
+                    // Keep the last good snapshot (from Redis or disk) until it goes stale.
+                    changed |= dropIfStale(provider, now);
+                    continue;
+                }
+
+                if (current != null && current.offers().equals(offers)) {
+                    snapshots.put(provider, new Snapshot(current.offers(), now));
+                    continue;
+                }
+
+                List<GpuOffer> copy = List.copyOf(offers);
+                snapshots.put(provider, new Snapshot(copy, now));
+                localSnapshots.save(provider, copy);
+                ranking.update(provider, copy);
+                changed = true;
+            } catch (Exception e) {
+                System.err.println("[OfferIndex] Refresh failed for " + provider + ": " + e.getMessage());
+
+                // Redis down: same rule, the last good snapshot is held until it goes stale.
+                changed |= dropIfStale(provider, now);
+            }
+        }
+
+        if (changed) {
+            rebuild();
+        }
+    }
+
+    private boolean dropIfStale(ProviderName provider, Instant now) {
+        Snapshot current = snapshots.get(provider);
+        if (current == null || !stale(current.at(), now)) {
+            return false;
+        }
+        snapshots.remove(provider);
+        ranking.remove(provider);
+        return true;
+    }
+
+    private static boolean stale(Instant at, Instant now) {
+        return Duration.between(at, now).compareTo(MAX_STALE) > 0;
+    }
+
+    private void rebuild() {
+        List<GpuOffer> all = new ArrayList<>();
+        snapshots.values().forEach(s -> all.addAll(s.offers()));
+        index = OfferIndex.build(all);
+    }
+
+    public OfferIndex current() {
+        return index;
+    }
+
+    private record Snapshot(List<GpuOffer> offers, Instant at) {
+    }
+}
@@ -0,0 +1,256 @@
+package ai.teraunit.core.pricing;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * THE SNAPSHOT WIRE FORMAT
+ * Versioned binary encoding for offer lists (CLEAN_OFFERS:*).
+ *
+ * Layout: MAGIC, 'O', VERSION, FLAGS, then the (optionally deflated) body:
+ * varint dictionary size, dictionary strings (varint length + UTF-8),
+ * varint offer count, and per offer five varint dictionary refs
+ * (provider, gpuModel, launchId, region, skuId; 0 = null), the price as
+ * zigzag varint micro-dollars and one flag byte.
+ *
+ * The first byte can never start a JSON document, so readers can tell a
+ * binary snapshot from legacy JSON without any side channel.
+ */
+public final class OfferSnapshotCodec {
+
+    private static final byte MAGIC = (byte) 0xA7;
+    private static final byte KIND_OFFERS = 'O';
+    private static final byte VERSION = 1;
+
+    private static final int FLAG_DEFLATED = 1;
+    private static final int OFFER_AVAILABLE = 1;
+
+    private static final int HEADER_SIZE = 4;
+
+    // Below this the deflate header costs more than it saves.
+    private static final int COMPRESS_THRESHOLD_BYTES = 512;
+
+    private static final double PRICE_SCALE = 1_000_000.0;
+
+    // Five one-byte refs, a one-byte price and the flag byte.
+    private static final int MIN_OFFER_BYTES = 7;
+
+    private OfferSnapshotCodec() {
+    }
+
+    public static boolean isEncoded(byte[] bytes) {
+        return bytes != null && bytes.length >= HEADER_SIZE && bytes[0] == MAGIC && bytes[1] == KIND_OFFERS;
+    }
+
+    public static byte[] encode(List<GpuOffer> offers) {
+        Map<String, Integer> dictIndex = new HashMap<>();
+        List<String> dict = new ArrayList<>();
+        for (GpuOffer o : offers) {
+            intern(o.provider(), dictIndex, dict);
+            intern(o.gpuModel(), dictIndex, dict);
+            intern(o.launchId(), dictIndex, dict);
+            intern(o.region(), dictIndex, dict);
+            intern(o.skuId(), dictIndex, dict);
+        }
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream(64 + offers.size() * 12);
+        writeVarLong(body, dict.size());
+        for (String s : dict) {
+            byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(body, utf8.length);
+            body.writeBytes(utf8);
+        }
+
+        writeVarLong(body, offers.size());
+        for (GpuOffer o : offers) {
+            writeRef(body, o.provider(), dictIndex);
+            writeRef(body, o.gpuModel(), dictIndex);
+            writeRef(body, o.launchId(), dictIndex);
+            writeRef(body, o.region(), dictIndex);
+            writeRef(body, o.skuId(), dictIndex);
+            writeVarLong(body, zigzag(Math.round(o.pricePerHour() * PRICE_SCALE)));
+            body.write(o.isAvailable() ? OFFER_AVAILABLE : 0);
+        }
+
+        byte[] raw = body.toByteArray();
+        int flags = 0;
+        byte[] payload = raw;
+        if (raw.length >= COMPRESS_THRESHOLD_BYTES) {
+            byte[] deflated = deflate(raw);
+            if (deflated.length < raw.length) {
+                payload = deflated;
+                flags |= FLAG_DEFLATED;
+            }
+        }
+
+        byte[] out = new byte[HEADER_SIZE + payload.length];
+        out[0] = MAGIC;
+        out[1] = KIND_OFFERS;
+        out[2] = VERSION;
+        out[3] = (byte) flags;
+        System.arraycopy(payload, 0, out, HEADER_SIZE, payload.length);
+        return out;
+    }
+
+    public static List<GpuOffer> decode(byte[] bytes) {
+        if (!isEncoded(bytes)) {
+            throw new IllegalArgumentException("Not an offer snapshot");
+        }
+        if (bytes[2] != VERSION) {
+            throw new IllegalArgumentException("Unsupported offer snapshot version: " + bytes[2]);
+        }
+
+        byte[] body = ((bytes[3] & FLAG_DEFLATED) != 0)
+                ? inflate(bytes, HEADER_SIZE)
+                : Arrays.copyOfRange(bytes, HEADER_SIZE, bytes.length);
+
+        // Counts are checked against the bytes left before anything is sized from them,
+        // so a corrupt or hostile value cannot make us allocate more than the input.
+        Reader in = new Reader(body);
+        int dictSize = in.count(1, "dictionary size");
+        String[] dict = new String[dictSize];
+        for (int i = 0; i < dictSize; i++) {
+            int len = in.count(1, "string length");
+            dict[i] = new String(body, in.pos, len, StandardCharsets.UTF_8);
+            in.pos += len;
+        }
+
+        int count = in.count(MIN_OFFER_BYTES, "offer count");
+        List<GpuOffer> offers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String provider = ref(dict, in.varLong());
+            String gpuModel = ref(dict, in.varLong());
+            String launchId = ref(dict, in.varLong());
+            String region = ref(dict, in.varLong());
+            String skuId = ref(dict, in.varLong());
+            double price = unzigzag(in.varLong()) / PRICE_SCALE;
+            boolean available = (in.next() & OFFER_AVAILABLE) != 0;
+            offers.add(new GpuOffer(provider, gpuModel, launchId, price, region, available, skuId));
+        }
+        return offers;
+    }
+
+    // --- DICTIONARY ---
+
+    private static void intern(String s, Map<String, Integer> dictIndex, List<String> dict) {
+        if (s != null && !dictIndex.containsKey(s)) {
+            dictIndex.put(s, dict.size());
+            dict.add(s);
+        }
+    }
+
+    private static void writeRef(ByteArrayOutputStream out, String s, Map<String, Integer> dictIndex) {
+        writeVarLong(out, s == null ? 0 : dictIndex.get(s) + 1);
+    }
+
+    private static String ref(String[] dict, long ref) {
+        if (ref < 0 || ref > dict.length) {
+            throw new IllegalArgumentException("Dictionary reference out of range in offer snapshot");
+        }
+        return ref == 0 ? null : dict[(int) ref - 1];
+    }
+
+    // --- VARINTS ---
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    // --- COMPRESSION ---
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2);
+            byte[] buf = new byte[8192];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buf);
+                out.write(buf, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes, int offset) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(bytes, offset, bytes.length - offset);
+            ByteArrayOutputStream out = new ByteArrayOutputStream((bytes.length - offset) * 4);
+            byte[] buf = new byte[8192];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buf);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("Truncated offer snapshot");
+                }
+                out.write(buf, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt offer snapshot", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] buf;
+        private int pos;
+
+        private Reader(byte[] buf) {
+            this.buf = buf;
+        }
+
+        private int next() {
+            if (pos >= buf.length) {
+                throw new IllegalArgumentException("Truncated offer snapshot");
+            }
+            return buf[pos++] & 0xFF;
+        }
+
+        // A varint count of items taking at least bytesEach bytes apiece, which must fit in what is left.
+        private int count(int bytesEach, String what) {
+            long n = varLong();
+            if (n < 0 || n > (long) (buf.length - pos) / bytesEach) {
+                throw new IllegalArgumentException("Offer snapshot " + what + " " + Long.toUnsignedString(n)
+                        + " exceeds its " + (buf.length - pos) + " remaining bytes");
+            }
+            return (int) n;
+        }
+
+        private long varLong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = next();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in offer snapshot");
+        }
+    }
+}
@@ -0,0 +1,596 @@
+package ai.teraunit.core.pricing;
+
+import ai.teraunit.core.common.GpuSku;
+import ai.teraunit.core.common.ProviderName;
+import ai.teraunit.core.common.RunPodLaunchId;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * THE STREAMING MAPPER
+ * Turns a provider response into {@link GpuOffer}s token by token. Only the
+ * handful of fields we read are materialized; everything else is skipped with
+ * {@code skipChildren()}, so no Map/List tree is ever built.
+ *
+ * The accepted shapes and skip rules are exactly those of the original
+ * tree-walking mapper: an entry that has a field of the wrong type is dropped,
+ * not the whole response.
+ */
+final class OfferStreamParser {
+
+    private OfferStreamParser() {
+    }
+
+    /**
+     * Appends offers to {@code out} as they are parsed. A response that breaks
+     * half-way throws; callers must then discard {@code out}, not publish it.
+     *
+     * @return raw entries seen in the provider's list, usable or not (lets
+     *         callers tell a page that hit the provider's cap)
+     */
+    static int parse(ProviderName provider, JsonParser p, List<GpuOffer> out) throws IOException {
+        try {
+            return parseResponse(provider, p, out);
+        } catch (NumberFormatException | ArithmeticException e) {
+            // A number that does not fit (an int overflow, an oversized alias count) is as
+            // malformed as a broken token, so it fails the same way.
+            throw new JsonParseException(p, "number out of range: " + e.getMessage(), e);
+        }
+    }
+
+    private static int parseResponse(ProviderName provider, JsonParser p, List<GpuOffer> out) throws IOException {
+        if (p.nextToken() != JsonToken.START_OBJECT) {
+            return 0;
+        }
+        int raw = 0;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+
+            if (provider == ProviderName.LAMBDA && "data".equals(field)) {
+                raw += lambdaData(p, value, out);
+            } else if (provider == ProviderName.RUNPOD && "data".equals(field) && value == JsonToken.START_OBJECT) {
+                raw += runPodData(p, out);
+            } else if (provider == ProviderName.VAST && "offers".equals(field) && value == JsonToken.START_ARRAY) {
+                raw += vastOffers(p, out);
+            } else {
+                p.skipChildren();
+            }
+        }
+        return raw;
+    }
+
+    // ---------------------------------------------------------
+    // 1. LAMBDA LABS
+    // ---------------------------------------------------------
+
+    // `data` has been seen as either an object keyed by instance type or an array.
+    private static int lambdaData(JsonParser p, JsonToken token, List<GpuOffer> out) throws IOException {
+        int raw = 0;
+        if (token == JsonToken.START_OBJECT) {
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                lambdaEntry(p, p.nextToken(), out);
+                raw++;
+            }
+        } else if (token == JsonToken.START_ARRAY) {
+            JsonToken t;
+            while ((t = p.nextToken()) != JsonToken.END_ARRAY && t != null) {
+                lambdaEntry(p, t, out);
+                raw++;
+            }
+        } else {
+            p.skipChildren();
+        }
+        return raw;
+    }
+
+    private static void lambdaEntry(JsonParser p, JsonToken token, List<GpuOffer> out) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            p.skipChildren();
+            return;
+        }
+
+        // Some shapes nest under `instance_type`, others put fields at top level.
+        LambdaFields item = new LambdaFields();
+        LambdaFields type = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken t = p.nextToken();
+            if ("instance_type".equals(field) && t == JsonToken.START_OBJECT) {
+                type = new LambdaFields();
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String typeField = p.currentName();
+                    type.read(typeField, p.nextToken(), p);
+                }
+            } else {
+                item.read(field, t, p);
+            }
+        }
+
+        LambdaFields typeInfo = type != null ? type : item;
+        if (typeInfo.badName || typeInfo.name == null || typeInfo.name.isBlank() || typeInfo.centsPerHour == null) {
+            return;
+        }
+
+        List<String> regions = item.regions != null ? item.regions : typeInfo.regions;
+        if (regions == null || regions.isEmpty()) {
+            return;
+        }
+
+        // Normalize once per instance type, not per region.
+        String name = typeInfo.name;
+        String upperName = name.toUpperCase();
+        double price = typeInfo.centsPerHour / 100.0;
+        String skuId = skuId(GpuCatalog.resolve(name));
+
+        for (String region : regions) {
+            if (region == null || region.isBlank()) {
+                continue;
+            }
+            out.add(new GpuOffer(ProviderName.LAMBDA.name(), upperName, name, price, region, true, skuId));
+        }
+    }
+
+    private static final class LambdaFields {
+        String name;
+        boolean badName;
+        Double centsPerHour;
+        List<String> regions; // null = field absent or JSON null
+
+        void read(String field, JsonToken t, JsonParser p) throws IOException {
+            switch (field) {
+                case "name" -> {
+                    if (t == JsonToken.VALUE_STRING) {
+                        name = p.getText();
+                    } else if (t != JsonToken.VALUE_NULL) {
+                        badName = true;
+                        p.skipChildren();
+                    }
+                }
+                case "price_cents_per_hour" -> {
+                    if (t.isNumeric()) {
+                        centsPerHour = p.getDoubleValue();
+                    } else {
+                        p.skipChildren();
+                    }
+                }
+                case "regions_with_capacity_available" -> regions = lambdaRegions(p, t);
+                default -> p.skipChildren();
+            }
+        }
+    }
+
+    // Regions come as a list (of names or {name}), an object keyed by name, or one string.
+    private static List<String> lambdaRegions(JsonParser p, JsonToken t) throws IOException {
+        if (t == JsonToken.VALUE_NULL) {
+            return null;
+        }
+
+        List<String> names = new ArrayList<>();
+        if (t == JsonToken.START_ARRAY) {
+            JsonToken e;
+            while ((e = p.nextToken()) != JsonToken.END_ARRAY && e != null) {
+                if (e == JsonToken.VALUE_STRING) {
+                    names.add(p.getText());
+                } else if (e == JsonToken.START_OBJECT) {
+                    names.add(nameField(p));
+                } else {
+                    p.skipChildren();
+                }
+            }
+        } else if (t == JsonToken.START_OBJECT) {
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                // If the key looks like a region name, prefer it; otherwise read a nested "name".
+                String key = p.currentName();
+                JsonToken v = p.nextToken();
+                String nested = (v == JsonToken.START_OBJECT) ? nameField(p) : skip(p);
+                names.add(key != null && !key.isBlank() ? key : nested);
+            }
+        } else if (t == JsonToken.VALUE_STRING) {
+            names.add(p.getText());
+        } else {
+            p.skipChildren();
+        }
+        return names;
+    }
+
+    // ---------------------------------------------------------
+    // 2. RUNPOD
+    // ---------------------------------------------------------
+
+    // Batched query shape: per GPU type, aliased lowestPrice blocks named
+    // "<secure|community><gpuCount>" plus a top-level dataCenters stock list.
+    // Without any alias the response is the original flat shape (communityPrice only).
+    private static int runPodData(JsonParser p, List<GpuOffer> out) throws IOException {
+        int raw = 0;
+        List<RunPodType> types = new ArrayList<>();
+        Map<String, Map<String, String>> stockByType = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken t = p.nextToken();
+            if ("gpuTypes".equals(field) && t == JsonToken.START_ARRAY) {
+                JsonToken e;
+                while ((e = p.nextToken()) != JsonToken.END_ARRAY && e != null) {
+                    raw++;
+                    if (e != JsonToken.START_OBJECT) {
+                        p.skipChildren();
+                        continue;
+                    }
+                    RunPodType type = runPodGpuType(p);
+                    if (type != null) {
+                        types.add(type);
+                    }
+                }
+            } else if ("dataCenters".equals(field) && t == JsonToken.START_ARRAY) {
+                stockByType = runPodDataCenters(p);
+            } else {
+                p.skipChildren();
+            }
+        }
+        // Stock may arrive after the types, so offers are built last, and only from a
+        // complete response: a break before dataCenters would unpin every secure offer.
+        for (RunPodType type : types) {
+            runPodOffers(type, stockByType, out);
+        }
+        return raw;
+    }
+
+    private static RunPodType runPodGpuType(JsonParser p) throws IOException {
+        String id = null;
+        String displayName = null;
+        Double communityPrice = null;
+        Integer memoryGb = null;
+        List<RunPodPrice> prices = new ArrayList<>();
+        boolean bad = false;
+
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken t = p.nextToken();
+            switch (field) {
+                case "id" -> {
+                    if (t == JsonToken.VALUE_STRING) {
+                        id = p.getText();
+                    } else {
+                        bad |= t != JsonToken.VALUE_NULL;
+                        p.skipChildren();
+                    }
+                }
+                case "displayName" -> {
+                    if (t == JsonToken.VALUE_STRING) {
+                        displayName = p.getText();
+                    } else {
+                        bad |= t != JsonToken.VALUE_NULL;
+                        p.skipChildren();
+                    }
+                }
+                case "communityPrice" -> {
+                    if (t.isNumeric()) {
+                        communityPrice = p.getDoubleValue();
+                    } else {
+                        bad |= t != JsonToken.VALUE_NULL;
+                        p.skipChildren();
+                    }
+                }
+                case "memoryInGb" -> memoryGb = t.isNumeric() ? Integer.valueOf(intValue(p)) : skipInt(p);
+                default -> {
+                    RunPodLaunchId.Cloud cloud = runPodAliasCloud(field);
+                    if (cloud != null && t == JsonToken.START_OBJECT) {
+                        int count = Integer.parseInt(field.substring(cloud == RunPodLaunchId.Cloud.SECURE ? 6 : 9));
+                        prices.add(runPodLowestPrice(p, cloud, count));
+                    } else {
+                        p.skipChildren();
+                    }
+                }
+            }
+        }
+
+        if (bad || id == null || id.equalsIgnoreCase("unknown")) {
+            return null;
+        }
+        return new RunPodType(id, displayName, communityPrice, memoryGb, prices);
+    }
+
+    // "secure4" -> SECURE, "community1" -> COMMUNITY, anything else -> null.
+    private static RunPodLaunchId.Cloud runPodAliasCloud(String field) {
+        if (field.startsWith("secure") && field.length() > 6 && isDigits(field.substring(6))) {
+            return RunPodLaunchId.Cloud.SECURE;
+        }
+        if (field.startsWith("community") && field.length() > 9 && isDigits(field.substring(9))) {
+            return RunPodLaunchId.Cloud.COMMUNITY;
+        }
+        return null;
+    }
+
+    private static RunPodPrice runPodLowestPrice(JsonParser p, RunPodLaunchId.Cloud cloud, int count)
+            throws IOException {
+        Double perGpu = null;
+        String stock = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken t = p.nextToken();
+            if ("uninterruptablePrice".equals(field) && t.isNumeric()) {
+                perGpu = p.getDoubleValue();
+            } else if ("stockStatus".equals(field) && t == JsonToken.VALUE_STRING) {
+                stock = p.getText();
+            } else {
+                p.skipChildren();
+            }
+        }
+        return new RunPodPrice(cloud, count, perGpu, stock);
+    }
+
+    // gpuTypeId -> (dataCenterId -> stockStatus), only where there is stock.
+    private static Map<String, Map<String, String>> runPodDataCenters(JsonParser p) throws IOException {
+        Map<String, Map<String, String>> stock = new HashMap<>();
+        JsonToken e;
+        while ((e = p.nextToken()) != JsonToken.END_ARRAY && e != null) {
+            if (e != JsonToken.START_OBJECT) {
+                p.skipChildren();
+                continue;
+            }
+            String dataCenter = null;
+            List<String[]> availability = new ArrayList<>();
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                JsonToken t = p.nextToken();
+                if ("id".equals(field) && t == JsonToken.VALUE_STRING) {
+                    dataCenter = p.getText();
+                } else if ("gpuAvailability".equals(field) && t == JsonToken.START_ARRAY) {
+                    JsonToken a;
+                    while ((a = p.nextToken()) != JsonToken.END_ARRAY && a != null) {
+                        if (a != JsonToken.START_OBJECT) {
+                            p.skipChildren();
+                            continue;
+                        }
+                        String gpuTypeId = null;
+                        String status = null;
+                        while (p.nextToken() == JsonToken.FIELD_NAME) {
+                            String f = p.currentName();
+                            JsonToken v = p.nextToken();
+                            if ("gpuTypeId".equals(f) && v == JsonToken.VALUE_STRING) {
+                                gpuTypeId = p.getText();
+                            } else if ("stockStatus".equals(f) && v == JsonToken.VALUE_STRING) {
+                                status = p.getText();
+                            } else {
+                                p.skipChildren();
+                            }
+                        }
+                        if (gpuTypeId != null && inStock(status)) {
+                            availability.add(new String[] { gpuTypeId, status });
+                        }
+                    }
+                } else {
+                    p.skipChildren();
+                }
+            }
+            if (dataCenter != null) {
+                for (String[] a : availability) {
+                    stock.computeIfAbsent(a[0], k -> new LinkedHashMap<>()).put(dataCenter, a[1]);
+                }
+            }
+        }
+        return stock;
+    }
+
+    private static void runPodOffers(RunPodType type, Map<String, Map<String, String>> stockByType,
+            List<GpuOffer> out) {
+        if (type.prices().isEmpty()) {
+            // Original query shape: one community price, availability unknown.
+            Double price = type.communityPrice();
+            if (price == null || price <= 0.001) {
+                return;
+            }
+            out.add(new GpuOffer(
+                    ProviderName.RUNPOD.name(),
+                    type.displayName(),
+                    type.id(),
+                    price,
+                    "GLOBAL", // RunPod allocates automatically
+                    true,
+                    skuId(runPodSku(type.id(), type.displayName(), 1, type.memoryGb()))));
+            return;
+        }
+
+        Map<String, String> dataCenters = stockByType == null ? null : stockByType.get(type.id());
+        for (RunPodPrice price : type.prices()) {
+            if (price.perGpu() == null || price.perGpu() <= 0.001) {
+                continue; // not offered at this count
+            }
+            // lowestPrice is quoted per GPU; offers carry the whole instance's price.
+            double total = price.perGpu() * price.gpuCount();
+            String skuId = skuId(runPodSku(type.id(), type.displayName(), price.gpuCount(), type.memoryGb()));
+
+            if (price.cloud() == RunPodLaunchId.Cloud.SECURE && inStock(price.stockStatus())
+                    && dataCenters != null && !dataCenters.isEmpty()) {
+                // Secure cloud can be pinned to a datacenter: one offer per datacenter with stock
+                // for the type. Stock at this count is only reported overall, so it gates them all.
+                for (String dataCenter : dataCenters.keySet()) {
+                    out.add(new GpuOffer(
+                            ProviderName.RUNPOD.name(),
+                            type.displayName(),
+                            new RunPodLaunchId(type.id(), price.cloud(), price.gpuCount(), dataCenter).encode(),
+                            total,
+                            dataCenter,
+                            true,
+                            skuId));
+                }
+                continue;
+            }
+            out.add(new GpuOffer(
+                    ProviderName.RUNPOD.name(),
+                    type.displayName(),
+                    new RunPodLaunchId(type.id(), price.cloud(), price.gpuCount(), null).encode(),
+                    total,
+                    "GLOBAL",
+                    inStock(price.stockStatus()),
+                    skuId));
+        }
+    }
+
+    // RunPod reports High / Medium / Low, or None / null when nothing is free.
+    private static boolean inStock(String stockStatus) {
+        return stockStatus != null && !stockStatus.isBlank() && !stockStatus.equalsIgnoreCase("none");
+    }
+
+    // getIntValue that throws on anything outside int range, whichever parser (stream
+    // or token buffer) and number type it came as; fractions truncate as before.
+    private static int intValue(JsonParser p) throws IOException {
+        if (p.getNumberType() != JsonParser.NumberType.INT) {
+            return Math.toIntExact((long) p.getDoubleValue());
+        }
+        return p.getIntValue();
+    }
+
+    private static Integer skipInt(JsonParser p) throws IOException {
+        p.skipChildren();
+        return null;
+    }
+
+    private record RunPodType(String id, String displayName, Double communityPrice, Integer memoryGb,
+            List<RunPodPrice> prices) {
+    }
+
+    private record RunPodPrice(RunPodLaunchId.Cloud cloud, int gpuCount, Double perGpu, String stockStatus) {
+    }
+
+    // RunPod ids carry VRAM ("NVIDIA A100 80GB PCIe"); display names often do not.
+    private static GpuSku runPodSku(String id, String displayName, int gpuCount, Integer memoryGb) {
+        GpuSku sku = GpuCatalog.resolve(id, gpuCount, memoryGb);
+        return sku != null ? sku : GpuCatalog.resolve(displayName, gpuCount, memoryGb);
+    }
+
+    // ---------------------------------------------------------
+    // 3. VAST.AI
+    // ---------------------------------------------------------
+
+    private static int vastOffers(JsonParser p, List<GpuOffer> out) throws IOException {
+        int raw = 0;
+        JsonToken e;
+        while ((e = p.nextToken()) != JsonToken.END_ARRAY && e != null) {
+            raw++;
+            if (e != JsonToken.START_OBJECT) {
+                p.skipChildren();
+                continue;
+            }
+            vastOffer(p, out);
+        }
+        return raw;
+    }
+
+    private static void vastOffer(JsonParser p, List<GpuOffer> out) throws IOException {
+        Double price = null;
+        String id = null;
+        String askId = null;
+        String askIdCamel = null;
+        String gpuName = null;
+        String geolocation = null;
+        Integer numGpus = null;
+        Integer vramGb = null;
+        boolean bad = false;
+
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken t = p.nextToken();
+            switch (field) {
+                case "dph_total" -> price = t.isNumeric() ? p.getDoubleValue() : null;
+                case "id" -> id = scalarText(p, t);
+                case "ask_id" -> askId = scalarText(p, t);
+                case "askId" -> askIdCamel = scalarText(p, t);
+                case "gpu_name", "geolocation" -> {
+                    String text = null;
+                    if (t == JsonToken.VALUE_STRING) {
+                        text = p.getText();
+                    } else if (t != JsonToken.VALUE_NULL) {
+                        bad = true;
+                    }
+                    if ("gpu_name".equals(field)) {
+                        gpuName = text;
+                    } else {
+                        geolocation = text;
+                    }
+                }
+                case "num_gpus" -> numGpus = t.isNumeric() ? intValue(p) : null;
+                // Vast reports gpu_ram per GPU in MB.
+                case "gpu_ram" -> vramGb = t.isNumeric() ? (int) Math.round(p.getDoubleValue() / 1024.0) : null;
+                default -> {
+                }
+            }
+            p.skipChildren();
+        }
+
+        String launchId = isNullId(id) ? (isNullId(askId) ? askIdCamel : askId) : id;
+        if (bad || price == null || price <= 0.01 || launchId == null || !isDigits(launchId.trim())) {
+            return;
+        }
+
+        out.add(new GpuOffer(
+                ProviderName.VAST.name(),
+                gpuName,
+                launchId.trim(),
+                price,
+                geolocation,
+                true,
+                skuId(GpuCatalog.resolve(gpuName, numGpus, vramGb))));
+    }
+
+    private static boolean isNullId(String id) {
+        return id == null || "null".equalsIgnoreCase(id.trim());
+    }
+
+    // --- TOKENS ---
+
+    /**
+     * Text of a scalar, null for JSON null, "" for objects/arrays (never a valid id).
+     */
+    private static String scalarText(JsonParser p, JsonToken t) throws IOException {
+        if (t == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        return t.isScalarValue() ? p.getText() : "";
+    }
+
+    // Reads {"name": ...} from an object whose START_OBJECT was just consumed.
+    private static String nameField(JsonParser p) throws IOException {
+        String name = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken t = p.nextToken();
+            if ("name".equals(field) && t.isScalarValue() && t != JsonToken.VALUE_NULL) {
+                name = p.getText();
+            } else {
+                p.skipChildren();
+            }
+        }
+        return name;
+    }
+
+    private static String skip(JsonParser p) throws IOException {
+        p.skipChildren();
+        return null;
+    }
+
+    static boolean isDigits(String s) {
+        if (s.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String skuId(GpuSku sku) {
+        return sku == null ? null : sku.id();
+    }
+}
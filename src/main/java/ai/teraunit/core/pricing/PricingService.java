@@ -2,6 +2,8 @@ package ai.teraunit.core.pricing;
 
 import ai.teraunit.core.api.PricingResponse;
 import ai.teraunit.core.common.ProviderName;
+import ai.teraunit.core.config.RedisSerializationConfig;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
@@ -13,7 +15,7 @@ public class PricingService {
 
     private final RedisTemplate<String, Object> redis;
 
-    public PricingService(RedisTemplate<String, Object> redis) {
+    public PricingService(@Qualifier(RedisSerializationConfig.OFFER_SNAPSHOTS) RedisTemplate<String, Object> redis) {
         this.redis = redis;
     }
 
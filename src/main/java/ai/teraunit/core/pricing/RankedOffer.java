@@ -0,0 +1,10 @@
+package ai.teraunit.core.pricing;
+
+public record RankedOffer(
+        GpuOffer offer,
+        int gpuCount,
+        double pricePerGpuHour,
+        double throughput,      // whole instance, in the profile's unit
+        double costPerUnitHour, // USD per unit-hour incl. amortized boot, lower is better
+        Long typicalBootSeconds // median launch-to-first-heartbeat, null if unknown
+) {}
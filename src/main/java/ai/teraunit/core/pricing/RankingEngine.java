@@ -0,0 +1,152 @@
+package ai.teraunit.core.pricing;
+
+import ai.teraunit.core.common.GpuSku;
+import ai.teraunit.core.common.ProviderName;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * THE VALUE RANKER
+ * Keeps a precomputed top-K list per workload profile, per provider and
+ * globally, ordered by cost per unit of useful throughput.
+ *
+ * Updates are incremental: only the provider whose snapshot changed is
+ * re-ranked (O(n log K)), then the small per-provider lists are merged.
+ * Reads are a subList of an immutable list.
+ *
+ * Boot time is billed but does no work, so an offer's cost is spread over
+ * {@link #BOOT_AMORTIZATION} of useful time plus its typical (median) boot
+ * from {@link BootTimes}; targets with no boot history rank on price alone.
+ */
+@Component
+public class RankingEngine {
+
+    // Deep enough for any page the UI shows; bounds memory and merge cost.
+    static final int TOP_K = 500;
+    // The session length a boot is paid back over.
+    static final Duration BOOT_AMORTIZATION = Duration.ofHours(4);
+
+    private static final Comparator<RankedOffer> BEST_FIRST = Comparator
+            .comparingDouble(RankedOffer::costPerUnitHour)
+            .thenComparingDouble(r -> r.offer().pricePerHour());
+
+    private final Map<ProviderName, Map<WorkloadProfile, List<RankedOffer>>> byProvider =
+            new EnumMap<>(ProviderName.class);
+    private volatile Map<WorkloadProfile, List<RankedOffer>> global = emptyTables();
+
+    private final BootTimes bootTimes;
+
+    public RankingEngine(BootTimes bootTimes) {
+        this.bootTimes = bootTimes;
+    }
+
+    public synchronized void update(ProviderName provider, List<GpuOffer> offers) {
+        byProvider.put(provider, rank(offers, bootTimes.typical(0.5)));
+        mergeGlobal();
+    }
+
+    public synchronized void remove(ProviderName provider) {
+        if (byProvider.remove(provider) != null) {
+            mergeGlobal();
+        }
+    }
+
+    /**
+     * Best offers for the profile, optionally for one provider. Constant time.
+     */
+    public List<RankedOffer> top(WorkloadProfile profile, ProviderName provider, int limit) {
+        Map<WorkloadProfile, List<RankedOffer>> tables;
+        if (provider == null) {
+            tables = global;
+        } else {
+            synchronized (this) {
+                tables = byProvider.get(provider);
+            }
+        }
+        if (tables == null) {
+            return List.of();
+        }
+        List<RankedOffer> ranked = tables.get(profile);
+        return ranked.subList(0, Math.max(0, Math.min(limit, ranked.size())));
+    }
+
+    // --- RANKING ---
+
+    static Map<WorkloadProfile, List<RankedOffer>> rank(List<GpuOffer> offers, BootTimes.Typical boots) {
+        Map<WorkloadProfile, PriorityQueue<RankedOffer>> heaps = new EnumMap<>(WorkloadProfile.class);
+        for (WorkloadProfile profile : WorkloadProfile.values()) {
+            // Max-heap on cost: the root is the first to evict.
+            heaps.put(profile, new PriorityQueue<>(TOP_K + 1, BEST_FIRST.reversed()));
+        }
+
+        for (GpuOffer offer : offers) {
+            if (!offer.isAvailable() || offer.pricePerHour() <= 0) {
+                continue;
+            }
+            GpuSku sku = skuOf(offer);
+            GpuSpecs.Spec spec = GpuSpecs.of(sku);
+            if (spec == null) {
+                continue;
+            }
+            double perGpu = offer.pricePerHour() / sku.gpuCount();
+            Duration boot = boots.of(offer.provider(), offer.region(), sku.id()).orElse(null);
+            double effectivePrice = boot == null ? offer.pricePerHour()
+                    : offer.pricePerHour() * (1 + (double) boot.toMillis() / BOOT_AMORTIZATION.toMillis());
+
+            for (WorkloadProfile profile : WorkloadProfile.values()) {
+                double throughput = profile.throughput(sku, spec);
+                if (throughput <= 0) {
+                    continue;
+                }
+                RankedOffer ranked = new RankedOffer(offer, sku.gpuCount(), perGpu, throughput,
+                        effectivePrice / throughput, boot == null ? null : boot.toSeconds());
+                PriorityQueue<RankedOffer> heap = heaps.get(profile);
+                heap.offer(ranked);
+                if (heap.size() > TOP_K) {
+                    heap.poll();
+                }
+            }
+        }
+
+        Map<WorkloadProfile, List<RankedOffer>> tables = new EnumMap<>(WorkloadProfile.class);
+        heaps.forEach((profile, heap) -> {
+            List<RankedOffer> sorted = new ArrayList<>(heap);
+            sorted.sort(BEST_FIRST);
+            tables.put(profile, Collections.unmodifiableList(sorted));
+        });
+        return tables;
+    }
+
+    private void mergeGlobal() {
+        Map<WorkloadProfile, List<RankedOffer>> merged = new EnumMap<>(WorkloadProfile.class);
+        for (WorkloadProfile profile : WorkloadProfile.values()) {
+            List<RankedOffer> all = new ArrayList<>();
+            byProvider.values().forEach(t -> all.addAll(t.get(profile)));
+            all.sort(BEST_FIRST);
+            merged.put(profile, Collections.unmodifiableList(
+                    all.size() > TOP_K ? new ArrayList<>(all.subList(0, TOP_K)) : all));
+        }
+        global = merged;
+    }
+
+    private static GpuSku skuOf(GpuOffer offer) {
+        GpuSku sku = GpuCatalog.byId(offer.skuId());
+        return sku != null ? sku : GpuCatalog.resolve(offer.gpuModel());
+    }
+
+    private static Map<WorkloadProfile, List<RankedOffer>> emptyTables() {
+        Map<WorkloadProfile, List<RankedOffer>> tables = new EnumMap<>(WorkloadProfile.class);
+        for (WorkloadProfile profile : WorkloadProfile.values()) {
+            tables.put(profile, List.of());
+        }
+        return tables;
+    }
+}
@@ -0,0 +1,55 @@
+package ai.teraunit.core.pricing;
+
+import ai.teraunit.core.common.GpuSku;
+
+import java.util.Locale;
+
+/**
+ * What the user is buying compute for. Each profile picks the throughput
+ * figure that matters for it; offers are ranked by price per unit of it.
+ */
+public enum WorkloadProfile {
+    TRAINING("TFLOPS"),       // BF16 tensor
+    INFERENCE("TFLOPS"),      // FP8, else BF16
+    FP32("TFLOPS"),           // classic HPC / non-tensor
+    MEMORY_BOUND("TB/s"),     // LLM decode, memory bandwidth
+    VRAM("GB");               // fit the biggest model per dollar
+
+    private final String unit;
+
+    WorkloadProfile(String unit) {
+        this.unit = unit;
+    }
+
+    public String unit() {
+        return unit;
+    }
+
+    /**
+     * Whole-instance throughput for this profile, 0 if unknown.
+     */
+    public double throughput(GpuSku sku, GpuSpecs.Spec spec) {
+        double perGpu = switch (this) {
+            case TRAINING -> spec.bf16Tflops();
+            case INFERENCE -> spec.lowPrecisionTflops();
+            case FP32 -> spec.fp32Tflops();
+            case MEMORY_BOUND -> spec.bandwidthTbps();
+            case VRAM -> sku.vramGb();
+        };
+        return perGpu * sku.gpuCount();
+    }
+
+    /**
+     * Case-insensitive lookup ("training", "memory-bound"); null if unknown.
+     */
+    public static WorkloadProfile parse(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return null;
+        }
+        try {
+            return valueOf(raw.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -2,6 +2,9 @@ package ai.teraunit.core.provisioning;
 
 import ai.teraunit.core.api.LaunchRequest;
 import ai.teraunit.core.common.ProviderName;
+import ai.teraunit.core.common.RunPodLaunchId;
+import ai.teraunit.core.config.OutboundPriority;
+import ai.teraunit.core.config.ProviderHttpClients;
 import ai.teraunit.core.security.TokenUtil;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -13,12 +16,28 @@ import java.util.Map;
 @Service
 public class CloudExecutor {
 
-    private final RestClient restClient;
+    // Boot images (Lambda boots its default Lambda Stack image).
+    private static final String LAMBDA_IMAGE = "lambda-stack";
+    private static final String RUNPOD_IMAGE = "runpod/pytorch:2.0.1-py3.10-cuda11.8.0-devel";
+    private static final String VAST_IMAGE = "pytorch/pytorch:2.0.1-cuda11.7-cudnn8-devel";
+
+    private final RestClient lambda;
+    private final RestClient runPod;
+    private final RestClient vast;
+    // Kills jump every queue: a zombie costs money until the call lands.
+    private final RestClient lambdaKill;
+    private final RestClient runPodKill;
+    private final RestClient vastKill;
     private final String callbackUrl;
 
-    public CloudExecutor(RestClient restClient,
+    public CloudExecutor(ProviderHttpClients http,
             @Value("${teraunit.callback-url}") String callbackUrl) {
-        this.restClient = restClient;
+        this.lambda = http.of(ProviderName.LAMBDA, OutboundPriority.LAUNCH);
+        this.runPod = http.of(ProviderName.RUNPOD, OutboundPriority.LAUNCH);
+        this.vast = http.of(ProviderName.VAST, OutboundPriority.LAUNCH);
+        this.lambdaKill = http.of(ProviderName.LAMBDA, OutboundPriority.TERMINATE);
+        this.runPodKill = http.of(ProviderName.RUNPOD, OutboundPriority.TERMINATE);
+        this.vastKill = http.of(ProviderName.VAST, OutboundPriority.TERMINATE);
         this.callbackUrl = callbackUrl;
     }
 
@@ -34,7 +53,21 @@ public class CloudExecutor {
         };
     }
 
-    public void terminate(String instanceId, ProviderName provider, String apiKey) {
+    /**
+     * The image an instance on this provider boots; part of its boot-time series.
+     */
+    public static String imageOf(ProviderName provider) {
+        return switch (provider) {
+            case LAMBDA -> LAMBDA_IMAGE;
+            case RUNPOD -> RUNPOD_IMAGE;
+            case VAST -> VAST_IMAGE;
+        };
+    }
+
+    /**
+     * @return false if the provider call failed (the instance may still be running)
+     */
+    public boolean terminate(String instanceId, ProviderName provider, String apiKey) {
         System.out.println("⚡ TERMINATING: " + instanceId + " on " + provider);
         String cleanKey = TokenUtil.sanitizeApiKey(apiKey);
         try {
@@ -43,8 +76,10 @@ public class CloudExecutor {
                 case RUNPOD -> terminateRunPod(instanceId, cleanKey);
                 case VAST -> terminateVast(instanceId, cleanKey);
             }
+            return true;
         } catch (Exception e) {
             System.err.println("FAILED TO KILL " + instanceId + ": " + e.getMessage());
+            return false;
         }
     }
 
@@ -68,7 +103,7 @@ public class CloudExecutor {
                     "name", "teraunit-worker-" + System.currentTimeMillis(),
                     "user_data", userData);
 
-            var response = restClient.post()
+            var response = lambda.post()
                     .uri(endpoint)
                     .header("Authorization", "Bearer " + key)
                     .body(payload)
@@ -96,19 +131,25 @@ public class CloudExecutor {
             // The command decodes and runs the script on boot
             String safeCommand = "echo " + b64Script + " | base64 -d | bash";
 
+            // The launchId pins cloud, GPU count and (secure only) datacenter to what was priced.
+            RunPodLaunchId target = RunPodLaunchId.parse(request.instanceType());
+            String dataCenter = target.dataCenterId() == null ? ""
+                    : "dataCenterId: \"%s\",".formatted(target.dataCenterId());
+
             String query = """
                     mutation {
                       podFindAndDeployOnDemand(
                         input: {
-                          cloudType: ALL,
-                          gpuCount: 1,
+                          cloudType: %s,
+                          gpuCount: %d,
+                          %s
                           volumeInGb: 40,
                           containerDiskInGb: 40,
                           minVcpuCount: 2,
                           minMemoryInGb: 15,
                           gpuTypeId: "%s",
                           name: "teraunit-worker",
-                          imageName: "runpod/pytorch:2.0.1-py3.10-cuda11.8.0-devel",
+                          imageName: "%s",
                           dockerArgs: "/bin/bash -c '%s'",
                           env: [{ key: "TERA_MODE", value: "active" }]
                         }
@@ -116,9 +157,10 @@ public class CloudExecutor {
                         id
                       }
                     }
-                    """.formatted(request.instanceType(), safeCommand);
+                    """.formatted(target.cloud(), target.gpuCount(), dataCenter, target.gpuTypeId(), RUNPOD_IMAGE,
+                            safeCommand);
 
-            Map response = restClient.post()
+            Map response = runPod.post()
                     .uri("https://api.runpod.io/graphql")
                     .header("Authorization", "Bearer " + key)
                     .body(Map.of("query", query))
@@ -151,10 +193,10 @@ public class CloudExecutor {
             Map<String, Object> payload = Map.of(
                     "id", offerId,
                     "client_id", "me",
-                    "image", "pytorch/pytorch:2.0.1-cuda11.7-cudnn8-devel",
+                    "image", VAST_IMAGE,
                     "onstart", generateHeartbeatScript(heartbeatId, heartbeatToken));
 
-            var response = restClient.put()
+            var response = vast.put()
                     .uri(endpoint)
                     .header("Authorization", "Bearer " + key)
                     .body(payload)
@@ -177,7 +219,7 @@ public class CloudExecutor {
     // --- TERMINATORS ---
 
     private void terminateLambda(String id, String key) {
-        restClient.post()
+        lambdaKill.post()
                 .uri("https://cloud.lambda.ai/api/v1/instance-operations/terminate")
                 .header("Authorization", "Bearer " + key)
                 .body(Map.of("instance_ids", new String[] { id }))
@@ -187,7 +229,7 @@ public class CloudExecutor {
 
     private void terminateRunPod(String id, String key) {
         String query = String.format("mutation { podTerminate(input: { podId: \"%s\" }) }", id);
-        restClient.post()
+        runPodKill.post()
                 .uri("https://api.runpod.io/graphql")
                 .header("Authorization", "Bearer " + key)
                 .body(Map.of("query", query))
@@ -196,7 +238,7 @@ public class CloudExecutor {
     }
 
     private void terminateVast(String id, String key) {
-        restClient.delete()
+        vastKill.delete()
                 .uri("https://console.vast.ai/api/v0/instances/" + id + "/")
                 .header("Authorization", "Bearer " + key)
                 .retrieve()
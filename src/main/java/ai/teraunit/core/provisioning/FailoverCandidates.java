@@ -0,0 +1,63 @@
+package ai.teraunit.core.provisioning;
+
+import ai.teraunit.core.common.ProviderName;
+import ai.teraunit.core.pricing.GpuOffer;
+import ai.teraunit.core.pricing.OfferIndex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Next-best live offers for a failover: cheapest first across the allowed
+ * (region, provider) combinations, skipping offers already tried.
+ */
+final class FailoverCandidates {
+
+    private static final Comparator<GpuOffer> BY_PRICE = Comparator
+            .comparingDouble(GpuOffer::pricePerHour)
+            .thenComparing(GpuOffer::provider)
+            .thenComparing(o -> o.launchId() == null ? "" : o.launchId());
+
+    private FailoverCandidates() {
+    }
+
+    /**
+     * @param regions empty or null for any region
+     * @param tried   keys from {@link #key(GpuOffer)} to skip
+     */
+    static List<GpuOffer> next(OfferIndex index, String gpu, List<String> regions,
+            Collection<ProviderName> providers, Double maxPrice, Set<String> tried, int limit) {
+        List<String> regionFilter = regions == null || regions.isEmpty() ? Collections.singletonList(null) : regions;
+        // Each (region, provider) bucket is already price-sorted; over-fetch to cover skipped entries.
+        int perBucket = limit + tried.size();
+        Map<String, GpuOffer> merged = new LinkedHashMap<>();
+        for (ProviderName provider : providers) {
+            for (String region : regionFilter) {
+                for (GpuOffer offer : index.search(gpu, region, provider.name(), maxPrice, perBucket)) {
+                    if (offer.launchId() != null && !tried.contains(key(offer))) {
+                        merged.putIfAbsent(key(offer), offer);
+                    }
+                }
+            }
+        }
+        List<GpuOffer> ranked = new ArrayList<>(merged.values());
+        ranked.sort(BY_PRICE);
+        return ranked.size() > limit ? ranked.subList(0, limit) : ranked;
+    }
+
+    // Region is part of the target: a Lambda type can sell out in one region only.
+    static String key(GpuOffer offer) {
+        return key(offer.provider(), offer.launchId(), offer.region());
+    }
+
+    static String key(String provider, String launchId, String region) {
+        return provider + "::" + launchId + "@" + (region == null ? "" : region.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,43 @@
+package ai.teraunit.core.provisioning;
+
+/**
+ * One instance of a fleet launch and what happened to it.
+ *
+ * @param compositeId "PROVIDER::instanceId" once launched, otherwise null
+ * @param error       the classified failure line for FAILED members
+ */
+public record FleetMember(int index, String heartbeatId, String compositeId, Status status, String error) {
+
+    public enum Status {
+        LAUNCHED,
+        FAILED,
+        // All-or-nothing: launched, then terminated because a sibling failed.
+        ROLLED_BACK,
+        // All-or-nothing: launched, and the terminate call failed (still running).
+        ROLLBACK_FAILED
+    }
+
+    static FleetMember launched(int index, String heartbeatId, String compositeId) {
+        return new FleetMember(index, heartbeatId, compositeId, Status.LAUNCHED, null);
+    }
+
+    static FleetMember failed(int index, String heartbeatId, String error) {
+        return new FleetMember(index, heartbeatId, null, Status.FAILED, error);
+    }
+
+    FleetMember rolledBack(boolean terminated) {
+        return new FleetMember(index, heartbeatId, compositeId,
+                terminated ? Status.ROLLED_BACK : Status.ROLLBACK_FAILED, error);
+    }
+
+    /**
+     * The provider's instance id (the part after "PROVIDER::"), or null.
+     */
+    public String instanceId() {
+        if (compositeId == null) {
+            return null;
+        }
+        int sep = compositeId.indexOf("::");
+        return sep < 0 ? compositeId : compositeId.substring(sep + 2);
+    }
+}
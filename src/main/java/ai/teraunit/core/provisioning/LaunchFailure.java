@@ -0,0 +1,86 @@
+package ai.teraunit.core.provisioning;
+
+import java.util.Locale;
+
+/**
+ * PROVIDER ERROR TRANSLATION LAYER
+ * Turns whatever a launch threw into the short status line the console shows.
+ */
+public final class LaunchFailure {
+
+    private LaunchFailure() {
+    }
+
+    public static String describe(Exception e) {
+        if (e instanceof SecurityException) {
+            // LOGIC ENGINE BLOCKS (Egress, Sovereignty, Fuse)
+            return "BLOCKED: " + e.getMessage();
+        }
+        if (e instanceof Preflight.DeadlineExceeded timeout) {
+            // A provider (or our own lookup) hung past its pre-flight deadline.
+            return "FAILED: PROVIDER TIMEOUT (" + timeout.step().toUpperCase(Locale.ROOT) + ")";
+        }
+
+        String msg = e.getMessage() == null ? "" : e.getMessage().toLowerCase(Locale.ROOT);
+
+        // --- 1. FUNDS ---
+        if (msg.contains("balance") || msg.contains("funds") || msg.contains("credit")) {
+            return "FAILED: INSUFFICIENT FUNDS (Check Provider Account)";
+        }
+        // --- 2. QUOTA ---
+        if (msg.contains("quota") || msg.contains("limit") || msg.contains("capacity")) {
+            return "FAILED: PROVIDER QUOTA EXCEEDED";
+        }
+        // --- 3. AUTH ---
+        if (isAuthMessage(msg)) {
+            return "FAILED: INVALID API KEY";
+        }
+        // --- 4. INVENTORY (The Fix for RunPod) ---
+        // Catches "SUPPLY_CONSTRAINT", "no longer any instances", "sold out",
+        // "unavailable"
+        if (isSoldOutMessage(msg)) {
+            return "FAILED: SOLD OUT (Race Condition)";
+        }
+
+        // Fallback: Log the full nasty error to Console, show simplified version to
+        // User
+        System.err.println("[LAUNCH-FAIL] " + e.getClass().getSimpleName() + ": " + e.getMessage());
+        return "ERROR: PROVIDER REJECTED REQUEST (See Console)";
+    }
+
+    /**
+     * True when the provider rejected the credential itself (401/403 and friends).
+     */
+    public static boolean isAuthFailure(Exception e) {
+        return e.getMessage() != null && isAuthMessage(e.getMessage().toLowerCase(Locale.ROOT));
+    }
+
+    private static boolean isAuthMessage(String msg) {
+        return msg.contains("unauthorized") || msg.contains("401") || msg.contains("403") || msg.contains("auth");
+    }
+
+    /**
+     * True when the offer itself is gone (sold out, no capacity), i.e. another
+     * offer could still succeed. Lambda reports this as "insufficient capacity".
+     * Only explicit sold-out wording counts: a bare "unavailable" is as likely a
+     * 503 Service Unavailable, which says nothing about the offer.
+     */
+    public static boolean isCapacityFailure(Exception e) {
+        if (e.getMessage() == null) {
+            return false;
+        }
+        String msg = e.getMessage().toLowerCase(Locale.ROOT);
+        return isExplicitSoldOut(msg) || msg.contains("capacity");
+    }
+
+    private static boolean isSoldOutMessage(String msg) {
+        return isExplicitSoldOut(msg) || msg.contains("unavailable");
+    }
+
+    private static boolean isExplicitSoldOut(String msg) {
+        return msg.contains("supply_constraint") ||
+                msg.contains("no longer") ||
+                msg.contains("stock") ||
+                msg.contains("sold out");
+    }
+}
@@ -0,0 +1,38 @@
+package ai.teraunit.core.provisioning;
+
+import ai.teraunit.core.common.ProviderName;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Snapshot of one asynchronous launch (single instance or fleet). Never
+ * carries the API key.
+ *
+ * @param count   instances requested (1 for a single launch)
+ * @param result  the launch outcome once terminal ("SUCCESS: LAMBDA::id",
+ *                "PARTIAL: 30/32 LAUNCHED ...", "FAILED: ...", "BLOCKED: ..."),
+ *                otherwise null
+ * @param members per-instance outcome of a fleet launch once terminal, otherwise empty
+ */
+public record LaunchJob(
+        String id,
+        ProviderName provider,
+        String instanceType,
+        String region,
+        int count,
+        LaunchPhase phase,
+        String result,
+        List<FleetMember> members,
+        Instant createdAt,
+        Instant updatedAt) {
+
+    LaunchJob advance(LaunchPhase next, String outcome) {
+        return finish(next, outcome, members);
+    }
+
+    LaunchJob finish(LaunchPhase next, String outcome, List<FleetMember> fleet) {
+        return new LaunchJob(id, provider, instanceType, region, count, next, outcome,
+                fleet == null ? List.of() : List.copyOf(fleet), createdAt, Instant.now());
+    }
+}
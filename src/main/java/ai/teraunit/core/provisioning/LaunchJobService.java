@@ -0,0 +1,468 @@
+package ai.teraunit.core.provisioning;
+
+import ai.teraunit.core.api.FailoverPolicy;
+import ai.teraunit.core.api.FleetLaunchRequest;
+import ai.teraunit.core.api.LaunchRequest;
+import ai.teraunit.core.common.ProviderName;
+import ai.teraunit.core.security.TokenUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * THE DISPATCHER
+ * POST /v1/launch only queues a job; the launch itself (verify, provision,
+ * vault, registerBirth) runs here on a virtual thread, so a slow provider
+ * never holds an HTTP request open.
+ *
+ * Each provider gets a fixed number of concurrent launches
+ * ({@code teraunit.launch.concurrency[.<provider>]}); the rest wait in QUEUED.
+ * Job state is written through to Redis (LAUNCH_JOB:&lt;id&gt;, a hash) so any
+ * replica can answer a poll. Live progress is pushed over SSE by the replica
+ * running the job.
+ *
+ * An Idempotency-Key is claimed with SET NX (LAUNCH_IDEMPOTENCY:&lt;sha256&gt; ->
+ * job id + request fingerprint, same TTL as the job), so a retried or
+ * concurrent duplicate gets the first request's job instead of a second
+ * billable instance.
+ */
+@Service
+public class LaunchJobService {
+
+    private static final String KEY_PREFIX = "LAUNCH_JOB:";
+    private static final Duration JOB_TTL = Duration.ofHours(24);
+    // Finished jobs stay in memory this long for SSE/polls, then only in Redis.
+    private static final Duration LOCAL_RETENTION = Duration.ofMinutes(15);
+    private static final long SSE_TIMEOUT_MS = Duration.ofMinutes(5).toMillis();
+
+    private static final String IDEMPOTENCY_PREFIX = "LAUNCH_IDEMPOTENCY:";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+    // How long a duplicate waits for the winner's job to appear before giving up.
+    private static final Duration CLAIM_WAIT = Duration.ofSeconds(2);
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then "
+                    + "return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final ProvisioningService provisioning;
+    private final VelocityFuse fuse;
+    private final StringRedisTemplate redis;
+    private final ObjectMapper json;
+    private final int maxPending;
+    private final int maxFleetSize;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<ProviderName, Semaphore> slots = new EnumMap<>(ProviderName.class);
+    private final Map<String, LaunchJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, List<SseEmitter>> listeners = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    public LaunchJobService(ProvisioningService provisioning,
+            VelocityFuse fuse,
+            StringRedisTemplate redis,
+            ObjectMapper json,
+            Environment env,
+            @Value("${teraunit.launch.concurrency:4}") int concurrency,
+            @Value("${teraunit.launch.max-pending:64}") int maxPending,
+            @Value("${teraunit.launch.fleet.max-count:64}") int maxFleetSize) {
+        this.provisioning = provisioning;
+        this.fuse = fuse;
+        this.redis = redis;
+        this.json = json;
+        this.maxPending = Math.max(1, maxPending);
+        // A fleet the fuse could never admit is refused up front with the smaller bound.
+        int admissible = fuse.largestAdmission();
+        if (maxFleetSize > admissible) {
+            System.err.println("[LAUNCH-FLEET] fleet.max-count " + maxFleetSize + " exceeds the launch fuse limit of "
+                    + admissible + "; fleets are capped at " + admissible);
+        }
+        this.maxFleetSize = Math.max(1, Math.min(maxFleetSize, admissible));
+        for (ProviderName provider : ProviderName.values()) {
+            int permits = env.getProperty("teraunit.launch.concurrency." + provider.name().toLowerCase(Locale.ROOT),
+                    Integer.class, concurrency);
+            slots.put(provider, new Semaphore(Math.max(1, permits), true));
+        }
+    }
+
+    /**
+     * A submitted job; {@code replayed} when an earlier request with the same
+     * Idempotency-Key owns it.
+     */
+    public record Submission(LaunchJob job, boolean replayed) {
+    }
+
+    /**
+     * Accepts a launch and returns its QUEUED snapshot immediately.
+     *
+     * @param idempotencyKey optional; a repeat returns the first request's job
+     * @throws IllegalArgumentException if the key was already used for a different launch
+     * @throws IllegalStateException    if too many launches are already waiting or running
+     * @throws VelocityFuse.Tripped     if the caller, token or provider is over its launch limit
+     */
+    public Submission submit(LaunchRequest request, String idempotencyKey, VelocityFuse.Caller caller) {
+        if (request == null || request.provider() == null) {
+            throw new IllegalArgumentException("provider is required");
+        }
+        return enqueue(request, 1, idempotencyKey, caller, progress -> {
+            String result = provisioning.launch(request, progress);
+            return new Outcome(result.startsWith("SUCCESS") ? LaunchPhase.SUCCEEDED : LaunchPhase.FAILED,
+                    result, null);
+        });
+    }
+
+    /**
+     * Accepts a fleet launch; the job's {@code members} report each instance once it is done.
+     *
+     * @throws IllegalArgumentException for a missing instance, a count outside 1..max-count,
+     *                                  a count larger than a launch limit, or a key already
+     *                                  used for a different launch
+     * @throws IllegalStateException    if too many launches are already waiting or running
+     * @throws VelocityFuse.Tripped     if the fleet would exceed a launch limit (members count one each)
+     */
+    public Submission submitFleet(FleetLaunchRequest fleet, String idempotencyKey, VelocityFuse.Caller caller) {
+        if (fleet == null || fleet.instance() == null || fleet.instance().provider() == null) {
+            throw new IllegalArgumentException("instance.provider is required");
+        }
+        if (fleet.count() < 1 || fleet.count() > maxFleetSize) {
+            throw new IllegalArgumentException("count must be between 1 and " + maxFleetSize);
+        }
+        return enqueue(fleet.instance(), fleet.count(), idempotencyKey, caller, progress -> {
+            ProvisioningService.FleetOutcome outcome = provisioning.launchFleet(fleet, progress);
+            return new Outcome(outcome.succeeded() ? LaunchPhase.SUCCEEDED : LaunchPhase.FAILED,
+                    outcome.summary(), outcome.members());
+        });
+    }
+
+    private Submission enqueue(LaunchRequest request, int count, String idempotencyKey,
+            VelocityFuse.Caller caller, Work work) {
+        String id = UUID.randomUUID().toString();
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            VelocityFuse.Admission admission = fuse.check(caller, request.provider(), count);
+            return new Submission(start(id, request, count, work, admission), false);
+        }
+        if (idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key longer than " + MAX_IDEMPOTENCY_KEY_LENGTH);
+        }
+
+        String redisKey = IDEMPOTENCY_PREFIX + TokenUtil.sha256Hex(idempotencyKey.trim());
+        String claim = id + ' ' + fingerprint(request, count);
+        Optional<LaunchJob> earlier = claim(redisKey, claim);
+        if (earlier.isPresent()) {
+            return new Submission(earlier.get(), true);
+        }
+        try {
+            // After the claim, so a replay does not spend the caller's launch budget.
+            VelocityFuse.Admission admission = fuse.check(caller, request.provider(), count);
+            return new Submission(start(id, request, count, work, admission), false);
+        } catch (RuntimeException e) {
+            // Nothing was launched: let a retry with the same key try again.
+            release(redisKey, claim);
+            throw e;
+        }
+    }
+
+    // A launch that never got queued gives its fuse budget back.
+    private LaunchJob start(String id, LaunchRequest request, int count, Work work,
+            VelocityFuse.Admission admission) {
+        try {
+            return start(id, request, count, work);
+        } catch (RuntimeException e) {
+            fuse.refund(admission);
+            throw e;
+        }
+    }
+
+    private LaunchJob start(String id, LaunchRequest request, int count, Work work) {
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            throw new IllegalStateException("LAUNCH_QUEUE_FULL: " + maxPending + " launches in flight");
+        }
+        evictFinished();
+
+        Instant now = Instant.now();
+        LaunchJob job = new LaunchJob(id, request.provider(), request.instanceType(),
+                request.region(), count, LaunchPhase.QUEUED, null, List.of(), now, now);
+        jobs.put(job.id(), job);
+        persist(job);
+
+        executor.execute(() -> run(job.id(), request.provider(), work));
+        return job;
+    }
+
+    // --- IDEMPOTENCY ---
+
+    /**
+     * Claims the key for {@code claim} ("jobId fingerprint"), or returns the
+     * job of whoever claimed it first. Redis being down fails open: the launch
+     * goes ahead without de-duplication.
+     */
+    private Optional<LaunchJob> claim(String redisKey, String claim) {
+        // The winner registers its job right after claiming; give it a moment.
+        Instant deadline = Instant.now().plus(CLAIM_WAIT);
+        String holder = null;
+        while (holder == null) {
+            try {
+                if (Boolean.TRUE.equals(redis.opsForValue().setIfAbsent(redisKey, claim, JOB_TTL))) {
+                    return Optional.empty();
+                }
+                holder = redis.opsForValue().get(redisKey);
+            } catch (RuntimeException e) {
+                System.err.println("[TeraUnit-Warn] idempotency check skipped: " + e.getMessage());
+                return Optional.empty();
+            }
+            // Null: released or expired in between; claim afresh.
+            if (holder == null && Instant.now().isAfter(deadline)) {
+                throw new IllegalStateException("LAUNCH_IN_PROGRESS: a launch with this Idempotency-Key is starting");
+            }
+        }
+
+        int space = holder.indexOf(' ');
+        String jobId = space < 0 ? holder : holder.substring(0, space);
+        if (!holder.substring(space + 1).equals(claim.substring(claim.indexOf(' ') + 1))) {
+            throw new IllegalArgumentException("IDEMPOTENCY_KEY_REUSED: key already used for a different launch");
+        }
+
+        while (true) {
+            Optional<LaunchJob> job = find(jobId);
+            if (job.isPresent()) {
+                return job;
+            }
+            if (Instant.now().isAfter(deadline)) {
+                throw new IllegalStateException("LAUNCH_IN_PROGRESS: a launch with this Idempotency-Key is starting");
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("LAUNCH_IN_PROGRESS: interrupted");
+            }
+        }
+    }
+
+    private void release(String redisKey, String claim) {
+        try {
+            redis.execute(RELEASE, List.of(redisKey), claim);
+        } catch (RuntimeException e) {
+            // Expires with the TTL.
+        }
+    }
+
+    // Same key, different launch is a client bug, not a retry. Covers every
+    // field that changes what gets launched, failover (and its keys) included.
+    private static String fingerprint(LaunchRequest request, int count) {
+        StringBuilder launch = new StringBuilder()
+                .append(request.provider()).append('|').append(request.instanceType())
+                .append('|').append(request.region()).append('|').append(request.sshKeyName())
+                .append('|').append(request.datasetSizeGb()).append('|').append(request.sourceRegion())
+                .append('|').append(request.currentGpuHourlyCost()).append('|').append(count)
+                .append('|').append(TokenUtil.sha256Hex(String.valueOf(request.apiKey())));
+        FailoverPolicy failover = request.failover();
+        if (failover != null) {
+            launch.append("|failover|").append(failover.gpu()).append('|').append(failover.maxPricePerHour())
+                    .append('|').append(failover.regions()).append('|').append(failover.providers())
+                    .append('|').append(failover.budgetSeconds()).append('|').append(failover.maxAttempts());
+            if (failover.apiKeys() != null) {
+                // Sorted, so the fingerprint does not depend on the map's iteration order.
+                new TreeMap<>(failover.apiKeys()).forEach((provider, key) -> launch.append('|').append(provider)
+                        .append('=').append(TokenUtil.sha256Hex(String.valueOf(key))));
+            }
+        }
+        return TokenUtil.sha256Hex(launch.toString());
+    }
+
+    /**
+     * Local state first (freshest), then Redis for jobs started on another replica.
+     */
+    public Optional<LaunchJob> find(String id) {
+        LaunchJob local = jobs.get(id);
+        return local != null ? Optional.of(local) : load(id);
+    }
+
+    /**
+     * Streams phase changes as "phase" events, starting with the current
+     * snapshot. Completes when the job is terminal, or straight away for a job
+     * running on another replica (poll that one instead).
+     */
+    public Optional<SseEmitter> subscribe(String id) {
+        Optional<LaunchJob> current = find(id);
+        if (current.isEmpty()) {
+            return Optional.empty();
+        }
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MS);
+        LaunchJob job = current.get();
+        boolean live = jobs.containsKey(id) && !job.phase().terminal();
+        if (live) {
+            List<SseEmitter> list = listeners.computeIfAbsent(id, k -> new CopyOnWriteArrayList<>());
+            list.add(emitter);
+            emitter.onCompletion(() -> list.remove(emitter));
+            emitter.onTimeout(() -> list.remove(emitter));
+            emitter.onError(e -> list.remove(emitter));
+            // Re-read after registering so a transition in between is not lost.
+            job = jobs.getOrDefault(id, job);
+        }
+        send(emitter, job);
+        if (!live || job.phase().terminal()) {
+            emitter.complete();
+        }
+        return Optional.of(emitter);
+    }
+
+    // --- EXECUTION ---
+
+    @FunctionalInterface
+    private interface Work {
+        Outcome run(Consumer<LaunchPhase> progress) throws Exception;
+    }
+
+    private record Outcome(LaunchPhase phase, String result, List<FleetMember> members) {
+    }
+
+    private void run(String id, ProviderName provider, Work work) {
+        Semaphore slot = slots.get(provider);
+        try {
+            slot.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.decrementAndGet();
+            update(id, LaunchPhase.FAILED, "FAILED: LAUNCH_CANCELLED (Shutdown)", null);
+            return;
+        }
+        try {
+            Outcome outcome = work.run(phase -> update(id, phase, null, null));
+            update(id, outcome.phase(), outcome.result(), outcome.members());
+        } catch (Exception e) {
+            update(id, LaunchPhase.FAILED, LaunchFailure.describe(e), null);
+        } finally {
+            slot.release();
+            pending.decrementAndGet();
+        }
+    }
+
+    private void update(String id, LaunchPhase phase, String result, List<FleetMember> members) {
+        LaunchJob job = jobs.computeIfPresent(id, (k, current) -> members == null
+                ? current.advance(phase, result)
+                : current.finish(phase, result, members));
+        if (job == null) {
+            return;
+        }
+        persist(job);
+
+        List<SseEmitter> list = phase.terminal() ? listeners.remove(id) : listeners.get(id);
+        if (list != null) {
+            for (SseEmitter emitter : list) {
+                send(emitter, job);
+                if (phase.terminal()) {
+                    emitter.complete();
+                }
+            }
+        }
+    }
+
+    private static void send(SseEmitter emitter, LaunchJob job) {
+        try {
+            emitter.send(SseEmitter.event().name("phase").data(job));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; its emitter is dropped via onError/onCompletion.
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void evictFinished() {
+        Instant cutoff = Instant.now().minus(LOCAL_RETENTION);
+        jobs.values().removeIf(job -> job.phase().terminal() && job.updatedAt().isBefore(cutoff));
+    }
+
+    // --- REDIS WRITE-THROUGH ---
+
+    private void persist(LaunchJob job) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("provider", job.provider().name());
+        fields.put("instanceType", String.valueOf(job.instanceType()));
+        fields.put("region", String.valueOf(job.region()));
+        fields.put("count", String.valueOf(job.count()));
+        fields.put("phase", job.phase().name());
+        if (job.result() != null) {
+            fields.put("result", job.result());
+        }
+        fields.put("createdAt", String.valueOf(job.createdAt().toEpochMilli()));
+        fields.put("updatedAt", String.valueOf(job.updatedAt().toEpochMilli()));
+        try {
+            if (!job.members().isEmpty()) {
+                fields.put("members", json.writeValueAsString(job.members()));
+            }
+            String key = KEY_PREFIX + job.id();
+            redis.opsForHash().putAll(key, fields);
+            redis.expire(key, JOB_TTL);
+        } catch (JsonProcessingException | RuntimeException e) {
+            // The replica running the job still answers from memory.
+            System.err.println("[TeraUnit-Warn] launch job " + job.id() + " not persisted: " + e.getMessage());
+        }
+    }
+
+    private Optional<LaunchJob> load(String id) {
+        try {
+            Map<Object, Object> fields = redis.opsForHash().entries(KEY_PREFIX + id);
+            if (fields == null || fields.isEmpty()) {
+                return Optional.empty();
+            }
+            Object members = fields.get("members");
+            return Optional.of(new LaunchJob(
+                    id,
+                    ProviderName.valueOf((String) fields.get("provider")),
+                    nullable(fields.get("instanceType")),
+                    nullable(fields.get("region")),
+                    fields.containsKey("count") ? Integer.parseInt((String) fields.get("count")) : 1,
+                    LaunchPhase.valueOf((String) fields.get("phase")),
+                    (String) fields.get("result"),
+                    members == null ? List.of() : List.of(json.readValue((String) members, FleetMember[].class)),
+                    Instant.ofEpochMilli(Long.parseLong((String) fields.get("createdAt"))),
+                    Instant.ofEpochMilli(Long.parseLong((String) fields.get("updatedAt")))));
+        } catch (JsonProcessingException | RuntimeException e) {
+            System.err.println("[TeraUnit-Warn] launch job " + id + " unreadable: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static String nullable(Object value) {
+        return value == null || "null".equals(value) ? null : (String) value;
+    }
+
+    /**
+     * Let in-flight launches finish (a half-done launch leaks an instance), up to a bound.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
+            System.err.println("[TeraUnit-Warn] " + pending.get() + " launch jobs still running at shutdown");
+            executor.shutdownNow();
+        }
+    }
+}
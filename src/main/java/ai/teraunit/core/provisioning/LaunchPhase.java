@@ -0,0 +1,17 @@
+package ai.teraunit.core.provisioning;
+
+/**
+ * Where a launch job is. QUEUED covers waiting for a provider slot.
+ */
+public enum LaunchPhase {
+    QUEUED,
+    VERIFYING,
+    PROVISIONING,
+    REGISTERING,
+    SUCCEEDED,
+    FAILED;
+
+    public boolean terminal() {
+        return this == SUCCEEDED || this == FAILED;
+    }
+}
@@ -0,0 +1,126 @@
+package ai.teraunit.core.provisioning;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * THE CHECKLIST
+ * Runs independent pre-launch checks side by side, each on its own virtual
+ * thread with its own deadline. The first failure (or missed deadline)
+ * interrupts the rest, so the launch waits for the slowest check at most.
+ *
+ * Same shape as StructuredTaskScope.ShutdownOnFailure (fork, join, close),
+ * which is still a preview API on Java 21.
+ */
+final class Preflight implements AutoCloseable {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final CompletableFuture<Void> failed = new CompletableFuture<>();
+    private final List<Step<?>> steps = new ArrayList<>();
+
+    private record Step<T>(String name, Duration deadline, CompletableFuture<T> result) {
+    }
+
+    /**
+     * A step that ran fine but said no (e.g. credentials rejected).
+     */
+    static final class Rejected extends RuntimeException {
+        Rejected(String reason) {
+            super(reason);
+        }
+    }
+
+    /**
+     * A step that missed its deadline.
+     */
+    static final class DeadlineExceeded extends RuntimeException {
+        private final String step;
+
+        DeadlineExceeded(String step, Duration deadline) {
+            super("PREFLIGHT_TIMEOUT: " + step + " exceeded " + deadline.toMillis() + "ms");
+            this.step = step;
+        }
+
+        String step() {
+            return step;
+        }
+    }
+
+    <T> CompletableFuture<T> fork(String name, Duration deadline, Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                result.complete(task.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.orTimeout(deadline.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((value, error) -> {
+                    if (error != null) {
+                        failed.complete(null);
+                    }
+                });
+        steps.add(new Step<>(name, deadline, result));
+        return result;
+    }
+
+    /**
+     * Waits for every step, or for the first failure, which interrupts the
+     * others and is rethrown: unchecked exceptions as-is, a missed deadline as
+     * {@link DeadlineExceeded}.
+     */
+    void join() throws InterruptedException {
+        try {
+            CompletableFuture.anyOf(failed,
+                    CompletableFuture.allOf(steps.stream().map(Step::result).toArray(CompletableFuture[]::new)))
+                    .get();
+        } catch (ExecutionException ignored) {
+            // Reported per step below, in fork order.
+        }
+
+        for (Step<?> step : steps) {
+            if (!step.result().isCompletedExceptionally()) {
+                continue;
+            }
+            executor.shutdownNow();
+            Throwable cause = causeOf(step.result());
+            if (cause instanceof TimeoutException) {
+                throw new DeadlineExceeded(step.name(), step.deadline());
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(step.name() + " failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    private static Throwable causeOf(CompletableFuture<?> result) {
+        try {
+            result.join();
+            return null;
+        } catch (CompletionException e) {
+            return e.getCause() == null ? e : e.getCause();
+        } catch (CancellationException e) {
+            return e;
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -1,6 +1,9 @@
 package ai.teraunit.core.provisioning;
 
 import ai.teraunit.core.api.LaunchRequest;
+import ai.teraunit.core.common.ProviderName;
+import ai.teraunit.core.config.OutboundPriority;
+import ai.teraunit.core.config.ProviderHttpClients;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
@@ -12,25 +15,41 @@ import java.util.Map;
 @Component
 public class ProviderVerifier {
 
-    private final RestClient restClient;
+    private final RestClient lambda;
+    private final RestClient runPod;
+    private final RestClient vast;
+    private final VerificationCache cache;
 
-    public ProviderVerifier(RestClient restClient) {
-        this.restClient = restClient;
+    public ProviderVerifier(ProviderHttpClients http, VerificationCache cache) {
+        this.lambda = http.of(ProviderName.LAMBDA, OutboundPriority.VERIFY);
+        this.runPod = http.of(ProviderName.RUNPOD, OutboundPriority.VERIFY);
+        this.vast = http.of(ProviderName.VAST, OutboundPriority.VERIFY);
+        this.cache = cache;
     }
 
     public boolean verify(LaunchRequest request, String apiKey) {
         // SANITIZATION PROTOCOL: Remove invisible spaces/newlines
         String cleanKey = ai.teraunit.core.security.TokenUtil.sanitizeApiKey(apiKey);
 
+        String sshKeyName = cacheSshKeyName(request);
+        if (cache.isVerified(request.provider(), cleanKey, sshKeyName)) {
+            System.out.println(">> VERIFIED (cached): " + request.provider() + " | KeyID: " + mask(cleanKey));
+            return true;
+        }
+
         System.out.println(
                 ">> VERIFYING: " + request.provider() + " | KeyID: " + mask(cleanKey) + " | Len: " + cleanKey.length());
 
         try {
-            return switch (request.provider()) {
+            boolean verified = switch (request.provider()) {
                 case LAMBDA -> verifyLambda(cleanKey, request.sshKeyName());
                 case RUNPOD -> verifyRunPod(cleanKey);
                 case VAST -> verifyVast(cleanKey);
             };
+            if (verified) {
+                cache.remember(request.provider(), cleanKey, sshKeyName);
+            }
+            return verified;
         } catch (Exception e) {
             System.err.println("!! VERIFICATION FAILED !!");
             System.err.println("Provider: " + request.provider());
@@ -39,6 +58,21 @@ public class ProviderVerifier {
         }
     }
 
+    /**
+     * Drops a cached verification, e.g. after the provider rejected the key at launch.
+     */
+    public void forget(LaunchRequest request, String apiKey) {
+        String cleanKey = ai.teraunit.core.security.TokenUtil.sanitizeApiKey(apiKey);
+        cache.invalidate(request.provider(), cleanKey, cacheSshKeyName(request));
+    }
+
+    // Only Lambda's check depends on the SSH key name (it must exist on the account).
+    private static String cacheSshKeyName(LaunchRequest request) {
+        return request.provider() == ProviderName.LAMBDA
+                ? ai.teraunit.core.security.TokenUtil.sanitizeHumanIdentifier(request.sshKeyName())
+                : null;
+    }
+
     // --- PROVIDER CHECKS ---
 
     @SuppressWarnings("unchecked")
@@ -47,7 +81,7 @@ public class ProviderVerifier {
             String cleanSshKeyName = ai.teraunit.core.security.TokenUtil.sanitizeHumanIdentifier(sshKeyName);
 
             // 1. List Keys
-            Map<String, Object> response = restClient.get()
+            Map<String, Object> response = lambda.get()
                     .uri("https://cloud.lambda.ai/api/v1/ssh-keys")
                     .header("Authorization", "Bearer " + key)
                     .retrieve()
@@ -85,7 +119,7 @@ public class ProviderVerifier {
         // check.
         String query = "query myself { myself { id } }";
         try {
-            Map response = restClient.post()
+            Map response = runPod.post()
                     .uri("https://api.runpod.io/graphql")
                     .header("Authorization", "Bearer " + key)
                     .body(Map.of("query", query))
@@ -112,7 +146,7 @@ public class ProviderVerifier {
 
     private boolean verifyVast(String key) {
         try {
-            restClient.get()
+            vast.get()
                     .uri("https://console.vast.ai/api/v0/users/current/")
                     .header("Authorization", "Bearer " + key)
                     .retrieve()
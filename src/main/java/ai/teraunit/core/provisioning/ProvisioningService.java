@@ -1,65 +1,484 @@
 package ai.teraunit.core.provisioning;
 
+import ai.teraunit.core.api.FailoverPolicy;
+import ai.teraunit.core.api.FleetLaunchRequest;
 import ai.teraunit.core.api.LaunchRequest;
+import ai.teraunit.core.common.GpuSku;
 import ai.teraunit.core.common.ProviderName;
+import ai.teraunit.core.pricing.BootTimes;
+import ai.teraunit.core.pricing.GpuCatalog;
 import ai.teraunit.core.pricing.GpuOffer;
+import ai.teraunit.core.pricing.OfferIndexService;
 import ai.teraunit.core.security.KeyVaultService;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
 
 @Service
 public class ProvisioningService {
 
+    // Failover defaults when the request's FailoverPolicy leaves them out.
+    private static final int DEFAULT_FAILOVER_BUDGET_SECONDS = 60;
+    private static final int DEFAULT_FAILOVER_ATTEMPTS = 5;
+    private static final double DEFAULT_FAILOVER_PRICE_SLACK = 1.2;
+    private static final int FAILOVER_LOOKAHEAD = 8;
+
     private final KeyVaultService vault;
     private final ProviderVerifier verifier;
     private final EgressGuard egressGuard;
     private final CloudExecutor executor;
     private final ReaperService reaper; // PROTOCOL 6: THE EXECUTIONER LINK
-    private final RedisTemplate<String, Object> redis;
+    private final OfferIndexService offerIndex;
+    private final WarmPool warmPool;
+
+    // Pre-flight deadlines: a hanging provider becomes a fast PREFLIGHT_TIMEOUT.
+    private final Duration verifyDeadline;
+    private final Duration localDeadline;
+    // Concurrent provider calls within one fleet launch.
+    private final int fleetParallelism;
 
     public ProvisioningService(KeyVaultService vault,
             ProviderVerifier verifier,
             EgressGuard egressGuard,
             CloudExecutor executor,
             ReaperService reaper,
-            RedisTemplate<String, Object> redis) {
+            OfferIndexService offerIndex,
+            WarmPool warmPool,
+            @Value("${teraunit.launch.preflight.verify-timeout-ms:10000}") long verifyTimeoutMs,
+            @Value("${teraunit.launch.preflight.local-timeout-ms:2000}") long localTimeoutMs,
+            @Value("${teraunit.launch.fleet.parallelism:8}") int fleetParallelism) {
         this.vault = vault;
         this.verifier = verifier;
         this.egressGuard = egressGuard;
         this.executor = executor;
         this.reaper = reaper;
-        this.redis = redis;
+        this.offerIndex = offerIndex;
+        this.warmPool = warmPool;
+        this.verifyDeadline = Duration.ofMillis(verifyTimeoutMs);
+        this.localDeadline = Duration.ofMillis(localTimeoutMs);
+        this.fleetParallelism = Math.max(1, fleetParallelism);
     }
 
-    public String launch(LaunchRequest request) {
+    /**
+     * Runs one launch end to end, reporting each phase to {@code progress} as it starts.
+     */
+    public String launch(LaunchRequest request, Consumer<LaunchPhase> progress) throws InterruptedException {
 
         // Always sanitize API keys at the trust boundary.
         // This avoids hidden whitespace / pasted "Bearer " prefixes.
         String cleanApiKey = ai.teraunit.core.security.TokenUtil.sanitizeApiKey(request.apiKey());
 
+        Clearance clearance;
+        try {
+            clearance = clear(request, cleanApiKey, 1, null, progress);
+        } catch (Preflight.Rejected e) {
+            return "FAILED: " + e.getMessage();
+        }
+
+        // Pooled SKU: an idle, already-heartbeating instance skips the cold boot.
+        // Its ledger row and heartbeat identity were registered when it joined the pool.
+        Optional<String> pooled = warmPool.claim(request, cleanApiKey);
+        if (pooled.isPresent()) {
+            progress.accept(LaunchPhase.REGISTERING);
+            return "SUCCESS: " + pooled.get() + " (WARM POOL)";
+        }
+
+        // ---------------------------------------------------------
+        // EXECUTION & REGISTRATION
+        // ---------------------------------------------------------
+
+        // 1. Heartbeat identity + token exist BEFORE launch so we can inject them into
+        // boot scripts
+        String heartbeatId = UUID.randomUUID().toString();
+        String heartbeatToken = clearance.heartbeatTokens().getFirst();
+        String heartbeatTokenSha256 = ai.teraunit.core.security.TokenUtil.sha256Hex(heartbeatToken);
+
+        // 2. Execute
+        progress.accept(LaunchPhase.PROVISIONING);
+        String compositeId;
+        String storageKey = clearance.storageKey();
+        BootTimes.Key series = bootSeries(request.provider(), request.instanceType(), request.region());
+        String failoverNote = "";
+        try {
+            compositeId = executor.provision(request, cleanApiKey, heartbeatId, heartbeatToken);
+        } catch (RuntimeException e) {
+            if (LaunchFailure.isAuthFailure(e)) {
+                // A cached "verified" must not outlive the provider rejecting the key.
+                verifier.forget(request, cleanApiKey);
+            }
+            if (request.failover() == null || !LaunchFailure.isCapacityFailure(e)) {
+                throw e;
+            }
+            // Lost the race: take the next-best live offer instead of bouncing the user.
+            Placement placement = failover(request, cleanApiKey, clearance, heartbeatId, heartbeatToken, e);
+            compositeId = placement.compositeId();
+            storageKey = placement.storageKey();
+            series = bootSeries(ProviderName.valueOf(placement.offer().provider()), placement.offer().launchId(),
+                    placement.offer().region());
+            failoverNote = " (FAILOVER: " + placement.offer().provider() + " " + placement.offer().gpuModel()
+                    + " @ $" + placement.offer().pricePerHour() + "/hr in " + placement.offer().region()
+                    + " after " + placement.attempts() + " retr" + (placement.attempts() == 1 ? "y" : "ies") + ")";
+        }
+
+        // 3. PROTOCOL 6: REGISTER BIRTH
+        progress.accept(LaunchPhase.REGISTERING);
+
+        String[] parts = compositeId.split("::");
+        if (parts.length == 2) {
+            // Convert "LAMBDA" string to Enum
+            ProviderName provider = ProviderName.valueOf(parts[0]);
+            String realId = parts[1];
+
+            // Save to DB (bind provider instanceId -> heartbeatId + token hash)
+            reaper.registerBirth(realId, heartbeatId, heartbeatTokenSha256, provider, storageKey, series);
+        }
+        return "SUCCESS: " + compositeId + failoverNote;
+    }
+
+    // --- FAILOVER ---
+
+    private record Placement(String compositeId, String storageKey, GpuOffer offer, int attempts) {
+    }
+
+    /**
+     * Walks the next-best live offers allowed by the request's
+     * {@link FailoverPolicy} until one launches, the attempts or the time
+     * budget run out, or no candidate is left; then rethrows the last failure.
+     * Every candidate passes the same sovereignty and egress rules as the
+     * original target.
+     */
+    private Placement failover(LaunchRequest request, String cleanApiKey, Clearance clearance,
+            String heartbeatId, String heartbeatToken, RuntimeException soldOut) {
+        FailoverPolicy policy = request.failover();
+        String gpu = policy.gpu() != null && !policy.gpu().isBlank() ? policy.gpu() : skuOf(request.instanceType());
+        if (gpu == null) {
+            System.err.println("[LAUNCH-FAILOVER] No GPU class for " + request.instanceType() + "; not retrying.");
+            throw soldOut;
+        }
+        Double ceiling = policy.maxPricePerHour() != null ? policy.maxPricePerHour()
+                : clearance.targetPrice() > 0 ? clearance.targetPrice() * DEFAULT_FAILOVER_PRICE_SLACK : null;
+        Map<ProviderName, String> keys = failoverKeys(request, cleanApiKey, policy);
+        Instant deadline = Instant.now().plusSeconds(
+                policy.budgetSeconds() != null ? policy.budgetSeconds() : DEFAULT_FAILOVER_BUDGET_SECONDS);
+        int maxAttempts = policy.maxAttempts() != null ? policy.maxAttempts() : DEFAULT_FAILOVER_ATTEMPTS;
+
+        Set<String> tried = new HashSet<>();
+        tried.add(FailoverCandidates.key(request.provider().name(), request.instanceType(), request.region()));
+        RuntimeException last = soldOut;
+        int attempts = 0;
+
+        while (attempts < maxAttempts && Instant.now().isBefore(deadline) && !keys.isEmpty()) {
+            GpuOffer next = FailoverCandidates.next(offerIndex.current(), gpu, policy.regions(), keys.keySet(),
+                    ceiling, tried, FAILOVER_LOOKAHEAD).stream()
+                    .filter(o -> isSovereigntyCompliant(request.sourceRegion(), o.region()))
+                    .filter(o -> request.currentGpuHourlyCost() <= 0 || egressGuard.isSafeToMove(
+                            o.pricePerHour(), request.currentGpuHourlyCost(), request.datasetSizeGb()))
+                    .findFirst().orElse(null);
+            if (next == null) {
+                break;
+            }
+            tried.add(FailoverCandidates.key(next));
+            attempts++;
+
+            ProviderName provider = ProviderName.valueOf(next.provider());
+            String key = keys.get(provider);
+            LaunchRequest alternative = new LaunchRequest(provider, key, next.launchId(), next.region(),
+                    request.sshKeyName(), request.datasetSizeGb(), request.sourceRegion(),
+                    request.currentGpuHourlyCost(), null);
+            System.out.println("[LAUNCH-FAILOVER] Attempt " + attempts + ": " + provider + " " + next.launchId()
+                    + " @ $" + next.pricePerHour() + "/hr");
+            try {
+                if (provider != request.provider() && !verifier.verify(alternative, key)) {
+                    keys.remove(provider);
+                    continue;
+                }
+                String compositeId = executor.provision(alternative, key, heartbeatId, heartbeatToken);
+                String storageKey = provider == request.provider() ? clearance.storageKey() : vault.encrypt(key);
+                return new Placement(compositeId, storageKey, next, attempts);
+            } catch (RuntimeException e) {
+                last = e;
+                if (!LaunchFailure.isCapacityFailure(e)) {
+                    // Not a race: this provider will not take us (auth, funds, ...); stop trying it.
+                    if (LaunchFailure.isAuthFailure(e)) {
+                        verifier.forget(alternative, key);
+                    }
+                    keys.remove(provider);
+                }
+            }
+        }
+        throw last;
+    }
+
+    // Providers failover may use: the request's own, plus any listed with a key.
+    private static Map<ProviderName, String> failoverKeys(LaunchRequest request, String cleanApiKey,
+            FailoverPolicy policy) {
+        Map<ProviderName, String> keys = new EnumMap<>(ProviderName.class);
+        keys.put(request.provider(), cleanApiKey);
+        if (policy.apiKeys() != null) {
+            policy.apiKeys().forEach((provider, key) -> {
+                if (provider != null && key != null && !key.isBlank()) {
+                    keys.putIfAbsent(provider, ai.teraunit.core.security.TokenUtil.sanitizeApiKey(key));
+                }
+            });
+        }
+        if (policy.providers() != null && !policy.providers().isEmpty()) {
+            keys.keySet().retainAll(policy.providers());
+        } else {
+            keys.keySet().retainAll(Set.of(request.provider()));
+        }
+        return keys;
+    }
+
+    // Which boot-time series a launch of this target belongs to.
+    private BootTimes.Key bootSeries(ProviderName provider, String instanceType, String region) {
+        return BootTimes.Key.of(provider, instanceType, region,
+                offerIndex.current().skuOf(provider.name(), instanceType), CloudExecutor.imageOf(provider));
+    }
+
+    private static String skuOf(String instanceType) {
+        GpuSku sku = GpuCatalog.resolve(instanceType);
+        return sku == null ? null : sku.id();
+    }
+
+    /**
+     * Launches {@code count} copies of one request. Members are dispatched in
+     * parallel, each with its own heartbeat identity, and every success is
+     * registered in one batch insert. With {@code allOrNothing}, any failure
+     * terminates the members that did launch; if the batch insert itself
+     * fails, every launched member is terminated, since nothing else would
+     * ever stop it.
+     */
+    public FleetOutcome launchFleet(FleetLaunchRequest fleet, Consumer<LaunchPhase> progress)
+            throws InterruptedException {
+        LaunchRequest request = fleet.instance();
+        int count = fleet.count();
+        String cleanApiKey = ai.teraunit.core.security.TokenUtil.sanitizeApiKey(request.apiKey());
+
+        Clearance clearance;
+        try {
+            clearance = clear(request, cleanApiKey, count, fleet.maxPricePerHour(), progress);
+        } catch (Preflight.Rejected e) {
+            return new FleetOutcome("FAILED: " + e.getMessage(), List.of());
+        }
+
+        // --- DISPATCH ---
+        // Provider batch endpoints (Lambda quantity) share one user_data across the
+        // batch, which would give every member the same heartbeat identity, so
+        // members are dispatched one call each, in parallel.
+        progress.accept(LaunchPhase.PROVISIONING);
+        FleetMember[] members = new FleetMember[count];
+        String[] heartbeatTokenHashes = new String[count];
+        Semaphore inFlight = new Semaphore(fleetParallelism);
+        try (ExecutorService dispatch = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                String heartbeatId = UUID.randomUUID().toString();
+                dispatch.execute(() -> {
+                    FleetMember member = null;
+                    try {
+                        String heartbeatToken = clearance.heartbeatTokens().get(index);
+                        heartbeatTokenHashes[index] = ai.teraunit.core.security.TokenUtil.sha256Hex(heartbeatToken);
+                        member = launchMember(index, request, cleanApiKey, heartbeatId, heartbeatToken, inFlight);
+                    } finally {
+                        // Whatever escaped (an Error, a missing token), the slot is never left empty.
+                        members[index] = member != null ? member
+                                : FleetMember.failed(index, heartbeatId, "FAILED: LAUNCH_ABORTED");
+                    }
+                });
+            }
+        }
+
+        // --- PROTOCOL 6: REGISTER BIRTHS (one batch) ---
+        progress.accept(LaunchPhase.REGISTERING);
+        List<ReaperService.Birth> births = new ArrayList<>();
+        for (FleetMember member : members) {
+            if (member.status() == FleetMember.Status.LAUNCHED) {
+                births.add(new ReaperService.Birth(member.instanceId(), member.heartbeatId(),
+                        heartbeatTokenHashes[member.index()]));
+            }
+        }
+        if (!births.isEmpty()) {
+            try {
+                reaper.registerBirths(births, request.provider(), clearance.storageKey(),
+                        bootSeries(request.provider(), request.instanceType(), request.region()));
+            } catch (RuntimeException e) {
+                // Not in the ledger means no heartbeat check and no reaper: nothing would
+                // ever stop these, so they go now, whatever allOrNothing says.
+                System.err.println("[LAUNCH-FLEET] Ledger write failed for " + births.size()
+                        + " instance(s); terminating them: " + e.getMessage());
+                Set<String> survivors = terminateUnrecorded(births, request.provider(), cleanApiKey);
+                return rolledBack(members, survivors,
+                        "FAILED: FLEET ROLLED BACK (LEDGER WRITE FAILED)");
+            }
+        }
+
+        int failed = count - births.size();
+        if (failed == 0) {
+            return new FleetOutcome("SUCCESS: " + count + "/" + count + " LAUNCHED", List.of(members));
+        }
+        String firstError = Arrays.stream(members)
+                .filter(m -> m.status() == FleetMember.Status.FAILED)
+                .map(FleetMember::error)
+                .findFirst().orElse("");
+        if (!fleet.allOrNothing()) {
+            String summary = births.isEmpty() ? "FAILED: 0/" + count + " LAUNCHED (" + firstError + ")"
+                    : "PARTIAL: " + births.size() + "/" + count + " LAUNCHED (" + failed + " FAILED)";
+            return new FleetOutcome(summary, List.of(members));
+        }
+
+        // --- ALL-OR-NOTHING ROLLBACK ---
+        Set<String> survivors = births.isEmpty() ? Set.of()
+                : reaper.rollBack(births.stream().map(ReaperService.Birth::instanceId).toList(),
+                        request.provider(), cleanApiKey);
+        return rolledBack(members, survivors,
+                "FAILED: FLEET ROLLED BACK (" + failed + "/" + count + " FAILED: " + firstError + ")");
+    }
+
+    // One fleet member's provider call, within the fleet's parallelism.
+    private FleetMember launchMember(int index, LaunchRequest request, String cleanApiKey, String heartbeatId,
+            String heartbeatToken, Semaphore inFlight) {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return FleetMember.failed(index, heartbeatId, "FAILED: LAUNCH_CANCELLED");
+        }
+        try {
+            String compositeId = executor.provision(request, cleanApiKey, heartbeatId, heartbeatToken);
+            return FleetMember.launched(index, heartbeatId, compositeId);
+        } catch (RuntimeException e) {
+            if (LaunchFailure.isAuthFailure(e)) {
+                verifier.forget(request, cleanApiKey);
+            }
+            return FleetMember.failed(index, heartbeatId, LaunchFailure.describe(e));
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    // Terminates instances that never made it into the ledger; returns the ones still running.
+    private Set<String> terminateUnrecorded(List<ReaperService.Birth> births, ProviderName provider,
+            String cleanApiKey) {
+        Set<String> survivors = new HashSet<>();
+        for (ReaperService.Birth birth : births) {
+            boolean terminated;
+            try {
+                terminated = executor.terminate(birth.instanceId(), provider, cleanApiKey);
+            } catch (RuntimeException e) {
+                terminated = false;
+            }
+            if (!terminated) {
+                survivors.add(birth.instanceId());
+                System.err.println("[LAUNCH-FLEET] UNTRACKED INSTANCE STILL RUNNING: " + provider + "::"
+                        + birth.instanceId());
+            }
+        }
+        return survivors;
+    }
+
+    // Marks every launched member with the rollback's result and builds the outcome.
+    private static FleetOutcome rolledBack(FleetMember[] members, Set<String> survivors, String summary) {
+        for (int i = 0; i < members.length; i++) {
+            if (members[i].status() == FleetMember.Status.LAUNCHED) {
+                members[i] = members[i].rolledBack(!survivors.contains(members[i].instanceId()));
+            }
+        }
+        if (!survivors.isEmpty()) {
+            summary += " - " + survivors.size() + " INSTANCE(S) COULD NOT BE TERMINATED";
+        }
+        return new FleetOutcome(summary, List.of(members));
+    }
+
+    /**
+     * Result of a fleet launch: a one-line summary plus every member's fate.
+     */
+    public record FleetOutcome(String summary, List<FleetMember> members) {
+        public boolean succeeded() {
+            return summary.startsWith("SUCCESS") || summary.startsWith("PARTIAL");
+        }
+    }
+
+    // What pre-flight hands to execution.
+    private record Clearance(double targetPrice, String storageKey, List<String> heartbeatTokens) {
+    }
+
+    /**
+     * Sovereignty, then the parallel pre-flight, then the egress guard.
+     *
+     * @throws Preflight.Rejected when verification says no, or a ceiling is set and the price is
+     *                            over it or not known
+     * @throws SecurityException  for sovereignty / egress blocks
+     */
+    private Clearance clear(LaunchRequest request, String cleanApiKey, int tokenCount, Double maxPricePerHour,
+            Consumer<LaunchPhase> progress) throws InterruptedException {
         // ---------------------------------------------------------
         // PROTOCOL 12: SOVEREIGNTY SWITCH (GDPR/Compliance)
         // ---------------------------------------------------------
+        // Pure string check: stays inline so a violation never touches a provider.
         if (!isSovereigntyCompliant(request.sourceRegion(), request.region())) {
             throw new SecurityException(
                     "SOVEREIGNTY_VIOLATION: Data transfer between EU and Non-EU zones is prohibited.");
         }
 
         // ---------------------------------------------------------
-        // PROTOCOL 5: BUREAUCRACY BYPASS (Quota & Auth)
+        // PRE-FLIGHT (parallel, each step on its own deadline)
         // ---------------------------------------------------------
-        boolean isVerified = verifier.verify(request, cleanApiKey);
-
-        if (!isVerified) {
-            return "FAILED: QUOTA_EXCEEDED_OR_AUTH_FAILURE";
+        // PROTOCOL 5 (Quota & Auth), the price for PROTOCOL 10, and the
+        // heartbeat tokens + vault blob needed after launch are independent,
+        // so the launch waits for the slowest of them rather than their sum.
+        progress.accept(LaunchPhase.VERIFYING);
+        CompletableFuture<Double> targetPriceStep;
+        CompletableFuture<String> storageKeyStep;
+        CompletableFuture<List<String>> heartbeatTokensStep;
+        try (Preflight preflight = new Preflight()) {
+            preflight.fork("verify", verifyDeadline, () -> {
+                if (!verifier.verify(request, cleanApiKey)) {
+                    throw new Preflight.Rejected("QUOTA_EXCEEDED_OR_AUTH_FAILURE");
+                }
+                return true;
+            });
+            targetPriceStep = preflight.fork("price", localDeadline,
+                    () -> fetchCurrentPrice(request.provider(), request.instanceType()));
+            storageKeyStep = preflight.fork("vault", localDeadline, () -> vault.encrypt(cleanApiKey));
+            heartbeatTokensStep = preflight.fork("token", localDeadline, () -> {
+                List<String> tokens = new ArrayList<>(tokenCount);
+                for (int i = 0; i < tokenCount; i++) {
+                    tokens.add(ai.teraunit.core.security.TokenUtil.generateToken());
+                }
+                return tokens;
+            });
+            preflight.join();
         }
 
         // ---------------------------------------------------------
         // PROTOCOL 10: EGRESS GUARD (Profitability)
         // ---------------------------------------------------------
-        double targetPrice = fetchCurrentPrice(request.provider(), request.instanceType());
+        double targetPrice = targetPriceStep.join();
+
+        // No live price (0.0) cannot be checked against a ceiling, so it does not pass one.
+        if (maxPricePerHour != null && targetPrice <= 0) {
+            throw new Preflight.Rejected("PRICE_UNKNOWN (no live offer for " + request.instanceType()
+                    + "; cannot enforce $" + maxPricePerHour + "/hr)");
+        }
+        if (maxPricePerHour != null && targetPrice > maxPricePerHour) {
+            throw new Preflight.Rejected("PRICE_ABOVE_CEILING ($" + targetPrice + "/hr > $" + maxPricePerHour + "/hr)");
+        }
 
         // Only check profitability if we have valid cost data
         if (targetPrice > 0 && request.currentGpuHourlyCost() > 0) {
@@ -72,33 +491,7 @@ public class ProvisioningService {
                 throw new SecurityException("EGRESS_BLOCK: This move loses money. Stay where you are.");
             }
         }
-
-        // ---------------------------------------------------------
-        // EXECUTION & REGISTRATION
-        // ---------------------------------------------------------
-
-        // 1. Generate heartbeat identity + token BEFORE launch so we can inject it into
-        // boot scripts
-        String heartbeatId = UUID.randomUUID().toString();
-        String heartbeatToken = ai.teraunit.core.security.TokenUtil.generateToken();
-        String heartbeatTokenSha256 = ai.teraunit.core.security.TokenUtil.sha256Hex(heartbeatToken);
-
-        // 2. Execute
-        String compositeId = executor.provision(request, cleanApiKey, heartbeatId, heartbeatToken);
-
-        // 3. PROTOCOL 6: REGISTER BIRTH
-        String storageKey = vault.encrypt(cleanApiKey);
-
-        String[] parts = compositeId.split("::");
-        if (parts.length == 2) {
-            // Convert "LAMBDA" string to Enum
-            ProviderName provider = ProviderName.valueOf(parts[0]);
-            String realId = parts[1];
-
-            // Save to DB (bind provider instanceId -> heartbeatId + token hash)
-            reaper.registerBirth(realId, heartbeatId, heartbeatTokenSha256, provider, storageKey);
-        }
-        return "SUCCESS: " + compositeId;
+        return new Clearance(targetPrice, storageKeyStep.join(), heartbeatTokensStep.join());
     }
 
     /**
@@ -113,22 +506,12 @@ public class ProvisioningService {
     }
 
     /**
-     * Looks up the real-time price from the Scraper Cache.
+     * Looks up the real-time price from the in-memory offer index.
+     * Exact launch id or canonical SKU match (hash hits, no string scans).
      */
-    @SuppressWarnings("unchecked")
     private double fetchCurrentPrice(ProviderName provider, String instanceType) {
         try {
-            List<GpuOffer> offers = (List<GpuOffer>) redis.opsForValue().get("CLEAN_OFFERS:" + provider);
-            if (offers == null)
-                return 0.0;
-
-            return offers.stream()
-                    // Relaxed matching for MVP (contains instead of exact equals)
-                    .filter(o -> o.gpuModel().toUpperCase().contains(instanceType.toUpperCase())
-                            || instanceType.toUpperCase().contains(o.gpuModel().toUpperCase()))
-                    .mapToDouble(GpuOffer::pricePerHour)
-                    .min()
-                    .orElse(0.0);
+            return offerIndex.current().cheapestPrice(provider.name(), instanceType);
         } catch (Exception e) {
             // Log generic error to avoid leaking sensitive context
             System.err.println("[Pricing] Failed to lookup target price.");
@@ -1,21 +1,30 @@
 package ai.teraunit.core.provisioning;
 
 import ai.teraunit.core.common.ProviderName;
+import ai.teraunit.core.pricing.BootLatencySketch;
+import ai.teraunit.core.pricing.BootTimes;
 import ai.teraunit.core.security.KeyVaultService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import ai.teraunit.core.repository.InstanceEntity;
 import ai.teraunit.core.repository.InstanceRepository;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @Service
 public class ReaperService {
 
+    // Boot-time history the sketches are rebuilt from.
+    private static final Duration BOOT_HISTORY = Duration.ofDays(7);
+
     private final InstanceRepository repository; // NEW: The Truth
     private final CloudExecutor executor;
     private final KeyVaultService vault;
@@ -24,14 +33,26 @@ public class ReaperService {
     // Set to 0 to disable.
     private final long maxRuntimeMinutes;
 
+    // An instance that has never phoned home is given 1.5x its series' p95
+    // boot time (within these bounds) before it counts as a zombie.
+    private final BootTimes bootTimes;
+    private final Duration minBootGrace;
+    private final Duration maxBootGrace;
+
     public ReaperService(InstanceRepository repository,
             CloudExecutor executor,
             KeyVaultService vault,
-            @Value("${teraunit.instance.max-runtime-minutes:0}") long maxRuntimeMinutes) {
+            BootTimes bootTimes,
+            @Value("${teraunit.instance.max-runtime-minutes:0}") long maxRuntimeMinutes,
+            @Value("${teraunit.instance.boot-grace-minutes:5}") long minBootGraceMinutes,
+            @Value("${teraunit.instance.boot-grace-max-minutes:30}") long maxBootGraceMinutes) {
         this.repository = repository;
         this.executor = executor;
         this.vault = vault;
+        this.bootTimes = bootTimes;
         this.maxRuntimeMinutes = maxRuntimeMinutes;
+        this.minBootGrace = Duration.ofMinutes(Math.max(1, minBootGraceMinutes));
+        this.maxBootGrace = Duration.ofMinutes(Math.max(this.minBootGrace.toMinutes(), maxBootGraceMinutes));
     }
 
     @Scheduled(fixedRate = 60000) // Run every minute
@@ -49,8 +70,14 @@ public class ReaperService {
         List<InstanceEntity> expired = repository.findExpired(now);
 
         Set<String> processed = new HashSet<>();
+        BootTimes.Typical slowBoots = bootTimes.typical(0.95);
 
         for (InstanceEntity zombie : zombies) {
+            if (zombie.getFirstHeartbeatAt() == null
+                    && zombie.getStartTime().plus(bootGrace(zombie, slowBoots)).isAfter(now)) {
+                // Never phoned home, but still within a normal boot for its series.
+                continue;
+            }
             processed.add(zombie.getInstanceId());
             System.out.println("💀 ZOMBIE DETECTED: " + zombie.getInstanceId());
             try {
@@ -90,6 +117,42 @@ public class ReaperService {
         }
     }
 
+    private Duration bootGrace(InstanceEntity entity, BootTimes.Typical slowBoots) {
+        Duration typical = slowBoots.of(entity.getProvider().name(), entity.getRegion(), entity.getSku())
+                .orElse(Duration.ZERO);
+        Duration grace = typical.multipliedBy(3).dividedBy(2);
+        return grace.compareTo(minBootGrace) < 0 ? minBootGrace
+                : grace.compareTo(maxBootGrace) > 0 ? maxBootGrace : grace;
+    }
+
+    /**
+     * Rebuilds the boot-time sketches from the ledger so every replica sees
+     * boots whose first heartbeat landed elsewhere; runs at startup, then
+     * every 10 minutes.
+     */
+    @Scheduled(fixedDelay = 600000)
+    public void reloadBootTimes() {
+        Map<BootTimes.Key, BootLatencySketch> rebuilt = new HashMap<>();
+        for (InstanceEntity entity : repository.findBootedSince(Instant.now().minus(BOOT_HISTORY))) {
+            rebuilt.computeIfAbsent(seriesOf(entity), k -> new BootLatencySketch())
+                    .add(Duration.between(entity.getStartTime(), entity.getFirstHeartbeatAt()));
+        }
+        bootTimes.replace(rebuilt);
+    }
+
+    private static BootTimes.Key seriesOf(InstanceEntity entity) {
+        return new BootTimes.Key(entity.getProvider().name(), entity.getRegion(), entity.getSku(),
+                entity.getImage());
+    }
+
+    private InstanceEntity newborn(String instanceId, String heartbeatId, String heartbeatTokenSha256,
+            ProviderName provider, String encryptedKey, BootTimes.Key series) {
+        InstanceEntity entity = new InstanceEntity(instanceId, heartbeatId, heartbeatTokenSha256, provider,
+                encryptedKey);
+        entity.setBootSeries(series.region(), series.sku(), series.image());
+        return entity;
+    }
+
     private Instant computeExpiresAt(Instant startTime) {
         if (maxRuntimeMinutes <= 0) {
             return null;
@@ -110,13 +173,98 @@ public class ReaperService {
             String heartbeatId,
             String heartbeatTokenSha256,
             ProviderName provider,
-            String encryptedKey) {
-        InstanceEntity entity = new InstanceEntity(instanceId, heartbeatId, heartbeatTokenSha256, provider,
-                encryptedKey);
+            String encryptedKey,
+            BootTimes.Key series) {
+        InstanceEntity entity = newborn(instanceId, heartbeatId, heartbeatTokenSha256, provider, encryptedKey,
+                series);
         entity.setExpiresAt(computeExpiresAt(entity.getStartTime()));
         repository.save(entity);
     }
 
+    /**
+     * One fleet member's identity, as bound at launch.
+     */
+    public record Birth(String instanceId, String heartbeatId, String heartbeatTokenSha256) {
+    }
+
+    // Fleet launch: every member in one batch insert
+    public void registerBirths(List<Birth> births, ProviderName provider, String encryptedKey,
+            BootTimes.Key series) {
+        List<InstanceEntity> entities = births.stream()
+                .map(b -> {
+                    InstanceEntity entity = newborn(b.instanceId(), b.heartbeatId(), b.heartbeatTokenSha256(),
+                            provider, encryptedKey, series);
+                    entity.setExpiresAt(computeExpiresAt(entity.getStartTime()));
+                    return entity;
+                })
+                .toList();
+        repository.saveAll(entities);
+    }
+
+    /**
+     * Fleet rollback: terminates each instance and retires the ones the
+     * provider confirmed. Returns the ids that could NOT be terminated; they
+     * stay active in the ledger so they remain visible and reapable.
+     */
+    public Set<String> rollBack(List<String> instanceIds, ProviderName provider, String apiKey) {
+        Set<String> survivors = new HashSet<>();
+        List<InstanceEntity> retired = new ArrayList<>();
+        for (String instanceId : instanceIds) {
+            if (!executor.terminate(instanceId, provider, apiKey)) {
+                survivors.add(instanceId);
+                continue;
+            }
+            InstanceEntity entity = repository.findByInstanceId(instanceId);
+            if (entity != null) {
+                entity.kill();
+                retired.add(entity);
+            }
+        }
+        repository.saveAll(retired);
+        return survivors;
+    }
+
+    /**
+     * Warm pool member: parked under {@code poolKey} with an idle lease of
+     * {@code idleBudget} (capped by the normal max-runtime lease), so the
+     * regular expiry sweep drains it once its idle spend is used up.
+     */
+    public void registerPoolBirth(String instanceId,
+            String heartbeatId,
+            String heartbeatTokenSha256,
+            ProviderName provider,
+            String encryptedKey,
+            String poolKey,
+            Duration idleBudget,
+            BootTimes.Key series) {
+        InstanceEntity entity = newborn(instanceId, heartbeatId, heartbeatTokenSha256, provider, encryptedKey,
+                series);
+        entity.joinPool(poolKey);
+        Instant idleUntil = entity.getStartTime().plus(idleBudget);
+        Instant lease = computeExpiresAt(entity.getStartTime());
+        entity.setExpiresAt(lease != null && lease.isBefore(idleUntil) ? lease : idleUntil);
+        repository.save(entity);
+    }
+
+    /**
+     * Takes one ready (already heartbeating) member out of the pool and gives
+     * it a normal lease from now. Returns its provider instance id, or null
+     * if the pool has none ready.
+     */
+    public String claimPooled(String poolKey) {
+        for (InstanceEntity candidate : repository.findReadyInPool(poolKey)) {
+            // Lost races just move on to the next candidate.
+            if (repository.claimFromPool(candidate.getInstanceId(), poolKey, computeExpiresAt(Instant.now())) == 1) {
+                return candidate.getInstanceId();
+            }
+        }
+        return null;
+    }
+
+    public long poolSize(String poolKey) {
+        return repository.countInPool(poolKey);
+    }
+
     // Called by HeartbeatController
     public void registerHeartbeat(String heartbeatId) {
         InstanceEntity entity = repository.findByHeartbeatId(heartbeatId);
@@ -124,8 +272,13 @@ public class ReaperService {
             if (entity.getExpiresAt() == null) {
                 entity.setExpiresAt(computeExpiresAt(entity.getStartTime()));
             }
+            boolean firstPulse = entity.getFirstHeartbeatAt() == null;
             entity.heartbeat();
             repository.save(entity);
+            if (firstPulse && entity.getImage() != null) {
+                bootTimes.record(seriesOf(entity),
+                        Duration.between(entity.getStartTime(), entity.getFirstHeartbeatAt()));
+            }
         }
     }
 }
@@ -1,46 +1,355 @@
 package ai.teraunit.core.provisioning;
 
-import org.springframework.data.redis.core.RedisTemplate;
+import ai.teraunit.core.common.ProviderName;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 
+import java.time.Clock;
 import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
 
+/**
+ * THE FUSE
+ * Sliding-window launch limits per client IP, per control token and per
+ * provider. One Lua script checks every window and records the launch in a
+ * single atomic round trip (EVALSHA), so concurrent requests cannot slip
+ * past a limit between the check and the increment.
+ *
+ * Each window is a sorted set of launch timestamps (FUSE:&lt;dimension&gt;:&lt;id&gt;,
+ * Redis server time). A launch is recorded in every window or in none.
+ *
+ * Local fast path: once Redis says a window is full, or this replica alone
+ * has filled it, requests for it are rejected without a round trip until
+ * the oldest launch ages out. If Redis is unreachable, the local windows
+ * still enforce the limits per replica.
+ */
 @Component
 public class VelocityFuse {
 
-    private final RedisTemplate<String, Object> redis;
+    private static final String KEY_PREFIX = "FUSE:";
 
-    // STRICT LIMIT: 5 Instances per Hour for the public
-    private static final int HOURLY_LAUNCH_LIMIT = 5;
+    // KEYS: one window per dimension. ARGV: window ms, cost, launch id, then each key's limit.
+    // Returns {0, 0} when admitted, else {tripped key index (1-based), retry-after ms}.
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static final RedisScript<List> ADMIT = new DefaultRedisScript<>("""
+            local t = redis.call('TIME')
+            local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)
+            local window = tonumber(ARGV[1])
+            local cost = tonumber(ARGV[2])
+            for i, key in ipairs(KEYS) do
+              redis.call('ZREMRANGEBYSCORE', key, '-inf', now - window)
+              if redis.call('ZCARD', key) + cost > tonumber(ARGV[3 + i]) then
+                local oldest = redis.call('ZRANGE', key, 0, 0, 'WITHSCORES')
+                local wait = window
+                if oldest[2] then wait = tonumber(oldest[2]) + window - now end
+                return {i, wait}
+              end
+            end
+            for _, key in ipairs(KEYS) do
+              for n = 1, cost do
+                redis.call('ZADD', key, now, ARGV[3] .. ':' .. n)
+              end
+              redis.call('PEXPIRE', key, window)
+            end
+            return {0, 0}
+            """, List.class);
 
-    // PRODUCTION WHITELIST: Localhost + Your Office IP (Optional)
-    private static final List<String> ADMIN_IPS = List.of("127.0.0.1", "0:0:0:0:0:0:0:1");
+    // KEYS: the windows a launch was recorded in. ARGV: launch id, cost.
+    private static final RedisScript<Long> REFUND = new DefaultRedisScript<>("""
+            for _, key in ipairs(KEYS) do
+              for n = 1, tonumber(ARGV[2]) do
+                redis.call('ZREM', key, ARGV[1] .. ':' .. n)
+              end
+            end
+            return 1
+            """, Long.class);
 
-    public VelocityFuse(RedisTemplate<String, Object> redis) {
+    // Local windows kept per replica; beyond this many, idle ones are dropped.
+    private static final int MAX_LOCAL_WINDOWS = 10_000;
+
+    private final StringRedisTemplate redis;
+    private final Clock clock;
+    private final boolean enabled;
+    private final Duration window;
+    private final int perClient;
+    private final int perToken;
+    private final Map<ProviderName, Integer> perProvider = new EnumMap<>(ProviderName.class);
+    private final List<String> adminIps;
+
+    private final Map<String, Window> local = new HashMap<>();
+
+    /**
+     * Who is launching: the client IP and a stable id for the control token used.
+     */
+    public record Caller(String clientIp, String tokenId) {
+    }
+
+    /**
+     * A full window; {@code retryAfter} is when its oldest launch ages out.
+     */
+    public static final class Tripped extends SecurityException {
+        private final Duration retryAfter;
+
+        Tripped(String dimension, int limit, Duration window, Duration retryAfter) {
+            super("VELOCITY_FUSE_TRIPPED: " + dimension + " limit " + limit + "/" + window.toMinutes()
+                    + "min exceeded.");
+            this.retryAfter = retryAfter;
+        }
+
+        public Duration retryAfter() {
+            return retryAfter;
+        }
+    }
+
+    /**
+     * Launches recorded by one {@link #check}; hand it to {@link #refund} if
+     * nothing was launched after all.
+     */
+    public static final class Admission {
+        static final Admission NONE = new Admission(List.of(), null, 0, 0);
+
+        private final List<String> keys;
+        private final String launchId;
+        private final long at;
+        private final int count;
+
+        private Admission(List<String> keys, String launchId, long at, int count) {
+            this.keys = keys;
+            this.launchId = launchId;
+            this.at = at;
+            this.count = count;
+        }
+    }
+
+    public VelocityFuse(StringRedisTemplate redis,
+            Environment env,
+            @Value("${teraunit.fuse.enabled:true}") boolean enabled,
+            @Value("${teraunit.fuse.window-minutes:60}") long windowMinutes,
+            @Value("${teraunit.fuse.per-client:64}") int perClient,
+            @Value("${teraunit.fuse.per-token:64}") int perToken,
+            @Value("${teraunit.fuse.per-provider:0}") int perProvider,
+            @Value("${teraunit.fuse.admin-ips:127.0.0.1,0:0:0:0:0:0:0:1}") String adminIps) {
+        this(redis, Clock.systemUTC(), enabled, Duration.ofMinutes(Math.max(1, windowMinutes)), perClient, perToken,
+                providerLimits(env, perProvider), adminIps);
+    }
+
+    VelocityFuse(StringRedisTemplate redis, Clock clock, boolean enabled, Duration window, int perClient,
+            int perToken, Map<ProviderName, Integer> perProvider, String adminIps) {
         this.redis = redis;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.window = window;
+        this.perClient = perClient;
+        this.perToken = perToken;
+        this.perProvider.putAll(perProvider);
+        this.adminIps = adminIps == null || adminIps.isBlank() ? List.of()
+                : Arrays.stream(adminIps.split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList();
     }
 
-    public void check(String clientIp) {
-        if (clientIp == null) clientIp = "UNKNOWN";
+    private static Map<ProviderName, Integer> providerLimits(Environment env, int fallback) {
+        Map<ProviderName, Integer> limits = new EnumMap<>(ProviderName.class);
+        for (ProviderName provider : ProviderName.values()) {
+            limits.put(provider, env.getProperty("teraunit.fuse.per-provider." + provider.name().toLowerCase(Locale.ROOT),
+                    Integer.class, fallback));
+        }
+        return limits;
+    }
+
+    /**
+     * Most launches one admission can ever get: the smallest limit in force
+     * (admin IPs aside), or {@link Integer#MAX_VALUE} when nothing is limited.
+     */
+    public int largestAdmission() {
+        if (!enabled) {
+            return Integer.MAX_VALUE;
+        }
+        int largest = Integer.MAX_VALUE;
+        for (int limit : List.of(perClient, perToken)) {
+            if (limit > 0) {
+                largest = Math.min(largest, limit);
+            }
+        }
+        for (int limit : perProvider.values()) {
+            if (limit > 0) {
+                largest = Math.min(largest, limit);
+            }
+        }
+        return largest;
+    }
 
-        // 1. BYPASS: Admins are immune to the fuse
-        if (ADMIN_IPS.contains(clientIp)) {
-            System.out.println("[FUSE] Admin Bypass for: " + clientIp);
+    /**
+     * Admits {@code count} launches or throws. A limit of 0 (or less) leaves
+     * that dimension unlimited; admin IPs bypass the client limit only.
+     *
+     * @throws IllegalArgumentException when {@code count} alone is over a limit
+     *                                  (no amount of waiting would admit it)
+     * @throws Tripped                  when any window is full
+     */
+    public Admission check(Caller caller, ProviderName provider, int count) {
+        if (!enabled) {
+            return Admission.NONE;
+        }
+        String clientIp = caller == null || caller.clientIp() == null ? "UNKNOWN" : caller.clientIp();
+
+        List<String> keys = new ArrayList<>(3);
+        List<Integer> limits = new ArrayList<>(3);
+        List<String> dimensions = new ArrayList<>(3);
+        if (perClient > 0 && !adminIps.contains(clientIp)) {
+            add(keys, limits, dimensions, "client", clientIp, perClient);
+        }
+        if (perToken > 0 && caller != null && caller.tokenId() != null) {
+            add(keys, limits, dimensions, "token", caller.tokenId(), perToken);
+        }
+        int providerLimit = perProvider.getOrDefault(provider, 0);
+        if (providerLimit > 0) {
+            add(keys, limits, dimensions, "provider", provider.name(), providerLimit);
+        }
+        if (keys.isEmpty()) {
+            return Admission.NONE;
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            if (count > limits.get(i)) {
+                throw new IllegalArgumentException("LAUNCH_LIMIT_EXCEEDED: " + count + " launches exceed the "
+                        + dimensions.get(i) + " limit of " + limits.get(i) + "/" + window.toMinutes() + "min");
+            }
+        }
+
+        long now = clock.millis();
+        synchronized (local) {
+            // FAST PATH: already known to be full, no round trip.
+            for (int i = 0; i < keys.size(); i++) {
+                long wait = window(keys.get(i)).waitMs(now, window.toMillis(), count, limits.get(i));
+                if (wait > 0) {
+                    throw new Tripped(dimensions.get(i), limits.get(i), window, Duration.ofMillis(wait));
+                }
+            }
+        }
+
+        String launchId = UUID.randomUUID().toString();
+        List<Long> verdict = admit(keys, limits, count, launchId);
+        synchronized (local) {
+            if (verdict != null && verdict.getFirst() > 0) {
+                int tripped = verdict.getFirst().intValue() - 1;
+                Duration retryAfter = Duration.ofMillis(Math.max(0, verdict.get(1)));
+                window(keys.get(tripped)).blockUntil(now + retryAfter.toMillis());
+                throw new Tripped(dimensions.get(tripped), limits.get(tripped), window, retryAfter);
+            }
+            for (String key : keys) {
+                window(key).record(now, count);
+            }
+        }
+        return new Admission(List.copyOf(keys), launchId, now, count);
+    }
+
+    /**
+     * Gives back the budget of an admission whose launches never started
+     * (e.g. the launch queue was full). Best effort: if Redis is unreachable
+     * the launches simply age out of the window.
+     */
+    public void refund(Admission admission) {
+        if (admission == null || admission.keys.isEmpty()) {
             return;
         }
+        synchronized (local) {
+            for (String key : admission.keys) {
+                Window w = local.get(key);
+                if (w != null) {
+                    w.forget(admission.at, admission.count);
+                }
+            }
+        }
+        try {
+            redis.execute(REFUND, admission.keys, admission.launchId, String.valueOf(admission.count));
+        } catch (RuntimeException e) {
+            System.err.println("[TeraUnit-Warn] fuse refund skipped: " + e.getMessage());
+        }
+    }
+
+    private static void add(List<String> keys, List<Integer> limits, List<String> dimensions,
+            String dimension, String id, int limit) {
+        keys.add(KEY_PREFIX + dimension + ":" + id);
+        limits.add(limit);
+        dimensions.add(dimension);
+    }
+
+    // Null when Redis is unreachable: the local windows decided alone.
+    @SuppressWarnings("unchecked")
+    private List<Long> admit(List<String> keys, List<Integer> limits, int count, String launchId) {
+        Object[] args = new Object[3 + limits.size()];
+        args[0] = String.valueOf(window.toMillis());
+        args[1] = String.valueOf(count);
+        args[2] = launchId;
+        for (int i = 0; i < limits.size(); i++) {
+            args[3 + i] = String.valueOf(limits.get(i));
+        }
+        try {
+            return (List<Long>) redis.execute(ADMIT, keys, args);
+        } catch (RuntimeException e) {
+            System.err.println("[TeraUnit-Warn] fuse falling back to local limits: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private Window window(String key) {
+        if (local.size() >= MAX_LOCAL_WINDOWS && !local.containsKey(key)) {
+            long now = clock.millis();
+            local.values().removeIf(w -> w.idle(now, window.toMillis()));
+        }
+        return local.computeIfAbsent(key, k -> new Window());
+    }
 
-        // 2. CHECK: Public Traffic
-        String key = "RATE_LIMIT:" + clientIp;
-        Integer count = (Integer) redis.opsForValue().get(key);
+    /**
+     * This replica's view of one window: its own launches, plus a block
+     * learned from Redis.
+     */
+    private static final class Window {
+        private final Deque<Long> launches = new ArrayDeque<>();
+        private long blockedUntil;
 
-        if (count == null) {
-            redis.opsForValue().set(key, 1, Duration.ofHours(1));
-        } else {
-            if (count >= HOURLY_LAUNCH_LIMIT) {
-                throw new SecurityException("VELOCITY_FUSE_TRIPPED: Limit " + HOURLY_LAUNCH_LIMIT + "/hr exceeded.");
+        long waitMs(long now, long windowMs, int cost, int limit) {
+            if (blockedUntil > now) {
+                return blockedUntil - now;
             }
-            redis.opsForValue().increment(key);
+            while (!launches.isEmpty() && launches.peekFirst() <= now - windowMs) {
+                launches.pollFirst();
+            }
+            if (launches.size() + cost > limit) {
+                return launches.isEmpty() ? windowMs : launches.peekFirst() + windowMs - now;
+            }
+            return 0;
+        }
+
+        void record(long now, int cost) {
+            for (int i = 0; i < cost; i++) {
+                launches.addLast(now);
+            }
+        }
+
+        void forget(long at, int cost) {
+            for (int i = 0; i < cost; i++) {
+                launches.removeLastOccurrence(at);
+            }
+        }
+
+        void blockUntil(long until) {
+            blockedUntil = Math.max(blockedUntil, until);
+        }
+
+        boolean idle(long now, long windowMs) {
+            return blockedUntil <= now && (launches.isEmpty() || launches.peekLast() <= now - windowMs);
         }
     }
 }
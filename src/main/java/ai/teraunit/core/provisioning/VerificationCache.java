@@ -0,0 +1,107 @@
+package ai.teraunit.core.provisioning;
+
+import ai.teraunit.core.common.ProviderName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * THE STAMP
+ * Remembers successful {@link ProviderVerifier} checks for a short TTL so a
+ * burst of launches with one credential pays the verification round trip once.
+ *
+ * Entries are keyed by HMAC-SHA256(provider, API key, SSH key name) under a
+ * per-process random secret: no key material is held, and the digests are
+ * useless outside this JVM. Only successes are cached; an auth failure from
+ * provisioning drops the entry at once.
+ */
+@Component
+public class VerificationCache {
+
+    private static final int MAX_ENTRIES = 4096;
+
+    private final Duration ttl;
+    private final Clock clock;
+    private final byte[] secret = new byte[32];
+    private final Map<String, Instant> verifiedUntil = new ConcurrentHashMap<>();
+
+    @Autowired
+    public VerificationCache(@Value("${teraunit.verify.cache-ttl-seconds:120}") long ttlSeconds) {
+        this(Duration.ofSeconds(ttlSeconds), Clock.systemUTC());
+    }
+
+    VerificationCache(Duration ttl, Clock clock) {
+        this.ttl = ttl;
+        this.clock = clock;
+        new SecureRandom().nextBytes(secret);
+    }
+
+    public boolean isVerified(ProviderName provider, String apiKey, String sshKeyName) {
+        if (ttl.isZero() || ttl.isNegative()) {
+            return false;
+        }
+        String key = key(provider, apiKey, sshKeyName);
+        Instant until = verifiedUntil.get(key);
+        if (until == null) {
+            return false;
+        }
+        if (!clock.instant().isBefore(until)) {
+            verifiedUntil.remove(key, until);
+            return false;
+        }
+        return true;
+    }
+
+    public void remember(ProviderName provider, String apiKey, String sshKeyName) {
+        if (ttl.isZero() || ttl.isNegative()) {
+            return;
+        }
+        if (verifiedUntil.size() >= MAX_ENTRIES) {
+            Instant now = clock.instant();
+            verifiedUntil.values().removeIf(until -> !now.isBefore(until));
+            if (verifiedUntil.size() >= MAX_ENTRIES) {
+                verifiedUntil.clear();
+            }
+        }
+        verifiedUntil.put(key(provider, apiKey, sshKeyName), clock.instant().plus(ttl));
+    }
+
+    public void invalidate(ProviderName provider, String apiKey, String sshKeyName) {
+        verifiedUntil.remove(key(provider, apiKey, sshKeyName));
+    }
+
+    int size() {
+        return verifiedUntil.size();
+    }
+
+    private String key(ProviderName provider, String apiKey, String sshKeyName) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            // Length-prefixed fields so ("ab", "c") and ("a", "bc") cannot collide.
+            for (String part : new String[] { provider.name(), apiKey, sshKeyName }) {
+                byte[] bytes = (part == null ? "" : part).getBytes(StandardCharsets.UTF_8);
+                mac.update((byte) (bytes.length >>> 24));
+                mac.update((byte) (bytes.length >>> 16));
+                mac.update((byte) (bytes.length >>> 8));
+                mac.update((byte) bytes.length);
+                mac.update(bytes);
+            }
+            return Base64.getEncoder().encodeToString(mac.doFinal());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package ai.teraunit.core.provisioning;
+
+import ai.teraunit.core.api.LaunchRequest;
+import ai.teraunit.core.common.ProviderName;
+import ai.teraunit.core.pricing.BootTimes;
+import ai.teraunit.core.pricing.OfferIndexService;
+import ai.teraunit.core.security.KeyVaultService;
+import ai.teraunit.core.security.TokenUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * THE BULLPEN
+ * Keeps a few idle, already-heartbeating instances per configured SKU so a
+ * matching launch is handed one in seconds instead of waiting for a cold boot.
+ *
+ * Pool members are launched with the operator's pool credential
+ * ({@code teraunit.pool.api-key.<provider>}), so only launches presenting that
+ * same key are served from the pool. Each member gets an idle lease worth
+ * {@code max-idle-spend-usd} at the SKU's current price; the reaper's expiry
+ * sweep drains members nobody claims in time. Claiming clears the pool mark
+ * atomically in the ledger, and refills take a short Redis lock per SKU
+ * (POOL_REFILL:&lt;sku&gt;) so replicas do not overfill.
+ */
+@Service
+public class WarmPool {
+
+    private static final String LOCK_PREFIX = "POOL_REFILL:";
+
+    private static final RedisScript<Long> UNLOCK = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then "
+                    + "return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final ReaperService reaper;
+    private final CloudExecutor cloud;
+    private final KeyVaultService vault;
+    private final OfferIndexService offerIndex;
+    private final StringRedisTemplate redis;
+
+    private final boolean enabled;
+    private final List<Sku> skus;
+    private final double maxIdleSpendUsd;
+    private final String sshKeyName;
+    private final Duration lockTtl;
+    private final Map<ProviderName, String> apiKeys = new EnumMap<>(ProviderName.class);
+    private final String owner = UUID.randomUUID().toString();
+
+    public WarmPool(ReaperService reaper,
+            CloudExecutor cloud,
+            KeyVaultService vault,
+            OfferIndexService offerIndex,
+            StringRedisTemplate redis,
+            Environment env,
+            @Value("${teraunit.pool.enabled:false}") boolean enabled,
+            @Value("${teraunit.pool.skus:}") String skus,
+            @Value("${teraunit.pool.max-idle-spend-usd:5.0}") double maxIdleSpendUsd,
+            @Value("${teraunit.pool.ssh-key-name:}") String sshKeyName,
+            @Value("${teraunit.pool.refill-ms:30000}") long refillMs) {
+        this.reaper = reaper;
+        this.cloud = cloud;
+        this.vault = vault;
+        this.offerIndex = offerIndex;
+        this.redis = redis;
+        this.skus = Sku.parseAll(skus);
+        this.enabled = enabled && !this.skus.isEmpty() && maxIdleSpendUsd > 0;
+        this.maxIdleSpendUsd = maxIdleSpendUsd;
+        this.sshKeyName = sshKeyName;
+        // Long enough to cover one refill's provider calls; expires on its own.
+        this.lockTtl = Duration.ofMillis(Math.max(refillMs, 30000));
+        for (ProviderName provider : ProviderName.values()) {
+            String key = env.getProperty("teraunit.pool.api-key." + provider.name().toLowerCase(Locale.ROOT));
+            if (key != null && !key.isBlank()) {
+                apiKeys.put(provider, TokenUtil.sanitizeApiKey(key));
+            }
+        }
+    }
+
+    /**
+     * One pooled SKU: {@code PROVIDER:instanceType:region:target}. The
+     * instance type may itself contain ':' (only the ends are split off) and
+     * the region may be empty for providers that place by launch id.
+     */
+    record Sku(ProviderName provider, String instanceType, String region, int target) {
+
+        static List<Sku> parseAll(String raw) {
+            List<Sku> skus = new ArrayList<>();
+            if (raw == null || raw.isBlank()) {
+                return skus;
+            }
+            for (String entry : raw.split(",")) {
+                if (!entry.isBlank()) {
+                    skus.add(parse(entry.trim()));
+                }
+            }
+            return List.copyOf(skus);
+        }
+
+        static Sku parse(String entry) {
+            int first = entry.indexOf(':');
+            int last = entry.lastIndexOf(':');
+            int region = last > 0 ? entry.lastIndexOf(':', last - 1) : -1;
+            if (first < 0 || region <= first) {
+                throw new IllegalArgumentException("teraunit.pool.skus entry must be PROVIDER:type:region:target: "
+                        + entry);
+            }
+            int target;
+            try {
+                target = Integer.parseInt(entry.substring(last + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("teraunit.pool.skus target must be a number: " + entry);
+            }
+            String type = entry.substring(first + 1, region).trim();
+            if (type.isEmpty() || target < 0) {
+                throw new IllegalArgumentException("teraunit.pool.skus entry is incomplete: " + entry);
+            }
+            String regionName = entry.substring(region + 1, last).trim();
+            return new Sku(ProviderName.valueOf(entry.substring(0, first).trim().toUpperCase(Locale.ROOT)), type,
+                    regionName.isEmpty() ? null : regionName, target);
+        }
+
+        // Ledger key for this SKU's idle members.
+        String key() {
+            return provider.name() + ":" + instanceType + ":" + (region == null ? "" : region);
+        }
+
+        boolean matches(LaunchRequest request) {
+            return request.provider() == provider
+                    && instanceType.equals(request.instanceType() == null ? null : request.instanceType().trim())
+                    && (region == null ? "" : region).equalsIgnoreCase(
+                            request.region() == null ? "" : request.region().trim());
+        }
+    }
+
+    /**
+     * Hands over a ready pool member for this launch, if the SKU is pooled,
+     * the credential is the pool's own, and one is idle and heartbeating.
+     *
+     * @return "PROVIDER::instanceId", like {@link CloudExecutor#provision}
+     */
+    public Optional<String> claim(LaunchRequest request, String cleanApiKey) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        for (Sku sku : skus) {
+            if (!sku.matches(request)) {
+                continue;
+            }
+            String poolApiKey = apiKeys.get(sku.provider());
+            if (poolApiKey == null || !TokenUtil.constantTimeEquals(poolApiKey, cleanApiKey)) {
+                return Optional.empty();
+            }
+            // Lambda bakes the SSH key in at launch; the others attach it from the account.
+            if (sku.provider() == ProviderName.LAMBDA && !TokenUtil.sanitizeHumanIdentifier(sshKeyName)
+                    .equals(TokenUtil.sanitizeHumanIdentifier(request.sshKeyName()))) {
+                return Optional.empty();
+            }
+            String instanceId = reaper.claimPooled(sku.key());
+            if (instanceId == null) {
+                return Optional.empty();
+            }
+            System.out.println("[WARM-POOL] Claimed " + instanceId + " from " + sku.key());
+            Thread.ofVirtual().start(() -> refill(sku));
+            return Optional.of(sku.provider().name() + "::" + instanceId);
+        }
+        return Optional.empty();
+    }
+
+    @Scheduled(fixedDelayString = "${teraunit.pool.refill-ms:30000}")
+    public void refill() {
+        if (!enabled) {
+            return;
+        }
+        for (Sku sku : skus) {
+            refill(sku);
+        }
+    }
+
+    private void refill(Sku sku) {
+        String apiKey = apiKeys.get(sku.provider());
+        if (apiKey == null || !lock(sku)) {
+            return;
+        }
+        try {
+            launchDeficit(sku, apiKey);
+        } finally {
+            unlock(sku);
+        }
+    }
+
+    private void launchDeficit(Sku sku, String apiKey) {
+        long deficit = sku.target() - reaper.poolSize(sku.key());
+        if (deficit <= 0) {
+            return;
+        }
+        double price = offerIndex.current().cheapestPrice(sku.provider().name(), sku.instanceType());
+        if (price <= 0) {
+            // No live price means no way to bound the idle spend.
+            System.err.println("[WARM-POOL] No live price for " + sku.key() + "; not refilling.");
+            return;
+        }
+        Duration idleBudget = Duration.ofSeconds((long) (maxIdleSpendUsd / price * 3600));
+        String storageKey = vault.encrypt(apiKey);
+        LaunchRequest request = new LaunchRequest(sku.provider(), apiKey, sku.instanceType(), sku.region(),
+                sshKeyName, 0, null, 0, null);
+        BootTimes.Key series = BootTimes.Key.of(sku.provider(), sku.instanceType(), sku.region(),
+                offerIndex.current().skuOf(sku.provider().name(), sku.instanceType()),
+                CloudExecutor.imageOf(sku.provider()));
+
+        for (long i = 0; i < deficit; i++) {
+            String heartbeatId = UUID.randomUUID().toString();
+            String heartbeatToken = TokenUtil.generateToken();
+            try {
+                String compositeId = cloud.provision(request, apiKey, heartbeatId, heartbeatToken);
+                String[] parts = compositeId.split("::");
+                reaper.registerPoolBirth(parts[parts.length - 1], heartbeatId, TokenUtil.sha256Hex(heartbeatToken),
+                        sku.provider(), storageKey, sku.key(), idleBudget, series);
+                System.out.println("[WARM-POOL] Booting " + compositeId + " for " + sku.key());
+            } catch (RuntimeException e) {
+                // Sold out or rejected: try again next round rather than hammering the provider.
+                System.err.println("[WARM-POOL] Refill of " + sku.key() + " failed: " + LaunchFailure.describe(e));
+                return;
+            }
+        }
+    }
+
+    private boolean lock(Sku sku) {
+        try {
+            return Boolean.TRUE.equals(redis.opsForValue().setIfAbsent(LOCK_PREFIX + sku.key(), owner, lockTtl));
+        } catch (RuntimeException e) {
+            System.err.println("[TeraUnit-Warn] pool refill lock unavailable: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void unlock(Sku sku) {
+        try {
+            redis.execute(UNLOCK, List.of(LOCK_PREFIX + sku.key()), owner);
+        } catch (RuntimeException e) {
+            // Expires on its own.
+        }
+    }
+}
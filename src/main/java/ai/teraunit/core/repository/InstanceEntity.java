@@ -7,7 +7,9 @@ import java.time.Instant;
 @Entity
 @Table(name = "tera_instances", indexes = {
         @Index(name = "idx_active_heartbeat", columnList = "isActive, lastHeartbeat"),
-        @Index(name = "idx_active_expiry", columnList = "isActive, expiresAt")
+        @Index(name = "idx_active_expiry", columnList = "isActive, expiresAt"),
+        @Index(name = "idx_active_pool", columnList = "isActive, poolKey"),
+        @Index(name = "idx_first_heartbeat", columnList = "firstHeartbeatAt")
 })
 public class InstanceEntity {
 
@@ -44,9 +46,21 @@ public class InstanceEntity {
 
     private Instant lastHeartbeat;
 
+    // First real heartbeat (lastHeartbeat starts at birth, which hides the boot).
+    private Instant firstHeartbeatAt;
+
+    // Boot-time series this instance belongs to (null for rows born before it was recorded)
+    private String region;
+    private String sku;
+    private String image;
+
     @Column(nullable = false)
     private boolean isActive = true;
 
+    // Warm pool SKU while the instance sits idle in the pool; null once it
+    // belongs to a launch (or if it never was pooled).
+    private String poolKey;
+
     // --- CONSTRUCTORS & GETTERS ---
 
     public InstanceEntity() {
@@ -78,13 +92,27 @@ public class InstanceEntity {
     }
 
     public void heartbeat() {
-        this.lastHeartbeat = Instant.now();
+        Instant now = Instant.now();
+        if (this.firstHeartbeatAt == null) {
+            this.firstHeartbeatAt = now;
+        }
+        this.lastHeartbeat = now;
     }
 
     public void kill() {
         this.isActive = false;
     }
 
+    public void joinPool(String poolKey) {
+        this.poolKey = poolKey;
+    }
+
+    public void setBootSeries(String region, String sku, String image) {
+        this.region = region;
+        this.sku = sku;
+        this.image = image;
+    }
+
     // Getters...
     public String getInstanceId() {
         return instanceId;
@@ -122,7 +150,27 @@ public class InstanceEntity {
         return lastHeartbeat;
     }
 
+    public Instant getFirstHeartbeatAt() {
+        return firstHeartbeatAt;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public String getImage() {
+        return image;
+    }
+
     public boolean isActive() {
         return isActive;
     }
+
+    public String getPoolKey() {
+        return poolKey;
+    }
 }
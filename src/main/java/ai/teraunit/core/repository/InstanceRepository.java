@@ -1,7 +1,9 @@
 package ai.teraunit.core.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.Instant;
 import java.util.List;
 
@@ -19,6 +21,26 @@ public interface InstanceRepository extends JpaRepository<InstanceEntity, Long>
     @Query("SELECT i FROM InstanceEntity i WHERE i.isActive = true ORDER BY i.startTime DESC")
     List<InstanceEntity> findActive();
 
+    // Warm pool: idle members that have heartbeated at least once, oldest first
+    @Query("SELECT i FROM InstanceEntity i WHERE i.isActive = true AND i.poolKey = :poolKey "
+            + "AND i.firstHeartbeatAt IS NOT NULL ORDER BY i.startTime ASC")
+    List<InstanceEntity> findReadyInPool(String poolKey);
+
+    // Warm pool: every live idle member, still booting or ready
+    @Query("SELECT COUNT(i) FROM InstanceEntity i WHERE i.isActive = true AND i.poolKey = :poolKey")
+    long countInPool(String poolKey);
+
+    // Warm pool hand-over: compare-and-set on poolKey so two launches never get the same instance
+    @Modifying
+    @Transactional
+    @Query("UPDATE InstanceEntity i SET i.poolKey = NULL, i.expiresAt = :expiresAt "
+            + "WHERE i.instanceId = :instanceId AND i.poolKey = :poolKey AND i.isActive = true")
+    int claimFromPool(String instanceId, String poolKey, Instant expiresAt);
+
+    // Boot-time history: instances with a recorded boot series that first phoned home after [since]
+    @Query("SELECT i FROM InstanceEntity i WHERE i.firstHeartbeatAt > :since AND i.image IS NOT NULL")
+    List<InstanceEntity> findBootedSince(Instant since);
+
     InstanceEntity findByInstanceId(String instanceId);
 
     InstanceEntity findByHeartbeatId(String heartbeatId);
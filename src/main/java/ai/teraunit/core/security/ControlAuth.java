@@ -16,7 +16,10 @@ public class ControlAuth {
         this.controlTokens = parseTokens(controlToken);
     }
 
-    public void requireControlToken(HttpServletRequest request) {
+    /**
+     * @return a stable, non-secret id for the token presented (for per-token limits)
+     */
+    public String requireControlToken(HttpServletRequest request) {
         if (controlTokens.isEmpty()) {
             throw new SecurityException("CONTROL_TOKEN_NOT_CONFIGURED");
         }
@@ -39,6 +42,7 @@ public class ControlAuth {
         if (!ok) {
             throw new SecurityException("CONTROL_TOKEN_INVALID");
         }
+        return TokenUtil.sha256Hex(candidate).substring(0, 16);
     }
 
     private static List<String> parseTokens(String raw) {
@@ -0,0 +1,52 @@
+package ai.teraunit.core.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class GzipDecodingInterceptorTests {
+
+    @Test
+    void gzippedResponse_isInflatedAndRequestAdvertisesGzip() throws Exception {
+        byte[] json = "{\"offers\":[]}".getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(json);
+        }
+
+        MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET, URI.create("https://example.test/"));
+        ClientHttpResponse response = new GzipDecodingInterceptor().intercept(request, new byte[0], (req, body) -> {
+            MockClientHttpResponse mock = new MockClientHttpResponse(compressed.toByteArray(), HttpStatus.OK);
+            mock.getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return mock;
+        });
+
+        assertEquals("gzip", request.getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING));
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("{\"offers\":[]}", new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void emptyGzipBody_readsAsEmpty() throws Exception {
+        MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.HEAD, URI.create("https://example.test/"));
+        ClientHttpResponse response = new GzipDecodingInterceptor().intercept(request, new byte[0], (req, body) -> {
+            MockClientHttpResponse mock = new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+            mock.getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return mock;
+        });
+
+        assertEquals(0, response.getBody().readAllBytes().length);
+    }
+}
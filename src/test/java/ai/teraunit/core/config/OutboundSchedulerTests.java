@@ -0,0 +1,142 @@
+package ai.teraunit.core.config;
+
+import ai.teraunit.core.common.ProviderName;
+import ai.teraunit.core.support.MutableClock;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutboundSchedulerTests {
+
+    private static final Map<ProviderName, OutboundScheduler.Limit> ONE_PER_SECOND = Map.of(
+            ProviderName.LAMBDA, new OutboundScheduler.Limit(1, 1),
+            ProviderName.RUNPOD, new OutboundScheduler.Limit(1, 1),
+            ProviderName.VAST, new OutboundScheduler.Limit(1, 1));
+
+    @Test
+    void waitingCalls_goOutInStrictPriorityOrder() {
+        MutableClock clock = new MutableClock();
+        OutboundScheduler scheduler = new OutboundScheduler(clock, ONE_PER_SECOND, 0, Duration.ofSeconds(30));
+        OutboundScheduler.Lane lane = scheduler.lane(ProviderName.VAST, "Bearer key");
+        assertEquals(0, lane.poll(lane.enqueue(OutboundPriority.SCRAPE)));
+
+        OutboundScheduler.Ticket scrape = lane.enqueue(OutboundPriority.SCRAPE);
+        OutboundScheduler.Ticket launch = lane.enqueue(OutboundPriority.LAUNCH);
+        OutboundScheduler.Ticket kill = lane.enqueue(OutboundPriority.TERMINATE);
+        assertTrue(lane.poll(kill) > 0);
+
+        // Queued first, but the kill and the launch get the next two tokens.
+        clock.advance(Duration.ofSeconds(1));
+        assertTrue(lane.poll(scrape) > 0);
+        assertTrue(lane.poll(launch) > 0);
+        assertEquals(0, lane.poll(kill));
+
+        clock.advance(Duration.ofSeconds(1));
+        assertTrue(lane.poll(scrape) > 0);
+        assertEquals(0, lane.poll(launch));
+
+        clock.advance(Duration.ofSeconds(1));
+        assertEquals(0, lane.poll(scrape));
+    }
+
+    @Test
+    void terminates_borrowPastAnEmptyBucket_andEveryoneElsePaysItBack() {
+        MutableClock clock = new MutableClock();
+        OutboundScheduler scheduler = new OutboundScheduler(clock, ONE_PER_SECOND, 2, Duration.ofSeconds(30));
+        OutboundScheduler.Lane lane = scheduler.lane(ProviderName.LAMBDA, "Bearer key");
+        assertEquals(0, lane.poll(lane.enqueue(OutboundPriority.SCRAPE)));
+
+        assertEquals(0, lane.poll(lane.enqueue(OutboundPriority.TERMINATE)));
+        assertEquals(0, lane.poll(lane.enqueue(OutboundPriority.TERMINATE)));
+        OutboundScheduler.Ticket third = lane.enqueue(OutboundPriority.TERMINATE);
+        assertEquals(1000, lane.poll(third));
+        clock.advance(Duration.ofSeconds(1));
+        assertEquals(0, lane.poll(third));
+
+        // Two tokens of debt plus one for itself.
+        OutboundScheduler.Ticket launch = lane.enqueue(OutboundPriority.LAUNCH);
+        assertEquals(3000, lane.poll(launch));
+    }
+
+    @Test
+    void lanesAreSeparatePerCredential() {
+        OutboundScheduler scheduler = new OutboundScheduler(new MutableClock(), ONE_PER_SECOND, 0,
+                Duration.ofSeconds(30));
+        OutboundScheduler.Lane first = scheduler.lane(ProviderName.RUNPOD, "key-a");
+        assertEquals(0, first.poll(first.enqueue(OutboundPriority.SCRAPE)));
+        assertTrue(first.poll(first.enqueue(OutboundPriority.SCRAPE)) > 0);
+
+        OutboundScheduler.Lane second = scheduler.lane(ProviderName.RUNPOD, "key-b");
+        assertEquals(0, second.poll(second.enqueue(OutboundPriority.SCRAPE)));
+        assertEquals(first, scheduler.lane(ProviderName.RUNPOD, " key-a "));
+    }
+
+    @Test
+    void bareAndBearerHeaders_forTheSameKey_shareOneLane() {
+        MutableClock clock = new MutableClock();
+        OutboundScheduler scheduler = new OutboundScheduler(clock, ONE_PER_SECOND, 0, Duration.ofSeconds(30));
+        // RunPod's scraper sends the raw key; the executor and verifier send "Bearer <key>".
+        OutboundScheduler.Lane scrapes = scheduler.lane(ProviderName.RUNPOD, "rp-key");
+        OutboundScheduler.Lane kills = scheduler.lane(ProviderName.RUNPOD, "Bearer rp-key");
+        assertSame(scrapes, kills);
+        assertSame(scrapes, scheduler.lane(ProviderName.RUNPOD, "bearer  rp-key"));
+
+        assertEquals(0, scrapes.poll(scrapes.enqueue(OutboundPriority.SCRAPE)));
+        OutboundScheduler.Ticket scrape = scrapes.enqueue(OutboundPriority.SCRAPE);
+        OutboundScheduler.Ticket kill = kills.enqueue(OutboundPriority.TERMINATE);
+        clock.advance(Duration.ofSeconds(1));
+        assertTrue(scrapes.poll(scrape) > 0);
+        assertEquals(0, kills.poll(kill));
+    }
+
+    @Test
+    void tooManyRequests_pausesTheLaneForRetryAfter() throws Exception {
+        MutableClock clock = new MutableClock();
+        OutboundScheduler scheduler = new OutboundScheduler(clock, ONE_PER_SECOND, 2, Duration.ZERO);
+        MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.POST, URI.create("https://example.test/"));
+        request.getHeaders().set(HttpHeaders.AUTHORIZATION, "Bearer key");
+
+        scheduler.interceptor(ProviderName.VAST, OutboundPriority.SCRAPE).intercept(request, new byte[0],
+                (req, body) -> {
+                    MockClientHttpResponse response = new MockClientHttpResponse(new byte[0],
+                            HttpStatus.TOO_MANY_REQUESTS);
+                    response.getHeaders().set(HttpHeaders.RETRY_AFTER, "30");
+                    return response;
+                });
+
+        // Even a kill waits out the provider's pause, and with no queue time it fails fast.
+        OutboundScheduler.Lane lane = scheduler.lane(ProviderName.VAST, "Bearer key");
+        OutboundScheduler.Ticket kill = lane.enqueue(OutboundPriority.TERMINATE);
+        assertEquals(30_000, lane.poll(kill));
+        assertThrows(IOException.class, () -> scheduler.interceptor(ProviderName.VAST, OutboundPriority.TERMINATE)
+                .intercept(request, new byte[0], (req, body) -> new MockClientHttpResponse(new byte[0], HttpStatus.OK)));
+
+        clock.advance(Duration.ofSeconds(30));
+        assertEquals(0, lane.poll(kill));
+    }
+
+    @Test
+    void retryAfter_acceptsSecondsAndHttpDates() {
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        assertEquals(Duration.ofSeconds(120), OutboundScheduler.retryAfter("120", now));
+        assertEquals(Duration.ofSeconds(90), OutboundScheduler.retryAfter("Wed, 01 Jan 2025 00:01:30 GMT", now));
+        assertEquals(Duration.ZERO, OutboundScheduler.retryAfter("Tue, 31 Dec 2024 23:00:00 GMT", now));
+        assertEquals(OutboundScheduler.DEFAULT_BACKOFF, OutboundScheduler.retryAfter(null, now));
+        assertEquals(OutboundScheduler.DEFAULT_BACKOFF, OutboundScheduler.retryAfter("soon", now));
+    }
+}
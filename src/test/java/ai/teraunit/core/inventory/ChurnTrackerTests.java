@@ -0,0 +1,77 @@
+package ai.teraunit.core.inventory;
+
+import ai.teraunit.core.common.ProviderName;
+import ai.teraunit.core.pricing.GpuOffer;
+import ai.teraunit.core.support.MutableClock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChurnTrackerTests {
+
+    private static GpuOffer offer(String gpu, String id, double price) {
+        return new GpuOffer("VAST", gpu, id, price, "US", true);
+    }
+
+    @Test
+    void unknownProvider_isNeutral() {
+        ChurnTracker churn = new ChurnTracker();
+        assertEquals(ChurnTracker.NEUTRAL_CHURN, churn.hotness(ProviderName.LAMBDA), 1e-9);
+        assertEquals(List.of(), churn.hottestSegments(ProviderName.LAMBDA, 5, 0.0));
+    }
+
+    @Test
+    void repricedSegment_heatsUp_stableSegment_coolsDown() {
+        ChurnTracker churn = new ChurnTracker();
+        for (int i = 0; i < 10; i++) {
+            churn.observe(ProviderName.VAST, List.of(
+                    offer("RTX 4090", "a", 0.40),
+                    offer("RTX 4090", "b", 0.45),
+                    offer("RTX 3090", "c", 0.20 + i * 0.01)));
+        }
+
+        List<String> hot = churn.hottestSegments(ProviderName.VAST, 5, ChurnTracker.NEUTRAL_CHURN);
+        assertEquals(List.of("RTX 3090"), hot);
+        assertTrue(churn.hotness(ProviderName.VAST) > ChurnTracker.HOT_CHURN);
+    }
+
+    @Test
+    void scarceHardware_outranksEquallyVolatileCommodity() {
+        ChurnTracker churn = new ChurnTracker();
+        churn.observe(ProviderName.VAST, List.of(offer("H100 SXM", "h1", 2.0), offer("RTX 4090", "r1", 0.4)));
+        churn.observe(ProviderName.VAST, List.of(offer("H100 SXM", "h2", 2.0), offer("RTX 4090", "r2", 0.4)));
+
+        assertEquals(List.of("H100 SXM", "RTX 4090"), churn.hottestSegments(ProviderName.VAST, 5, 0.0));
+    }
+
+    @Test
+    void unchangedAndPartialObservations_onlyTouchWhatWasRead() {
+        ChurnTracker churn = new ChurnTracker();
+        churn.observe(ProviderName.VAST, List.of(offer("A100 PCIE", "a", 1.0), offer("RTX 4090", "r", 0.4)));
+        double before = churn.hotness(ProviderName.VAST);
+
+        churn.observeUnchanged(ProviderName.VAST);
+        assertTrue(churn.hotness(ProviderName.VAST) < before);
+
+        // Only A100 was re-read and it moved: the 4090 must not count as vanished.
+        churn.observeSegments(ProviderName.VAST, List.of("A100 PCIE"), List.of(offer("A100 PCIE", "a", 1.1)));
+        assertEquals(List.of("A100 PCIE"), churn.hottestSegments(ProviderName.VAST, 5, ChurnTracker.NEUTRAL_CHURN));
+    }
+
+    @Test
+    void requestBudget_waitsForRefillAndAllowsDebt() {
+        MutableClock clock = new MutableClock();
+        RequestBudget budget = new RequestBudget(3_600, clock); // 1 per second, 300 banked
+
+        assertEquals(Duration.ZERO, budget.waitFor(100));
+        budget.consume(400);
+        assertEquals(Duration.ofSeconds(101), budget.waitFor(1));
+
+        clock.advance(Duration.ofSeconds(101));
+        assertEquals(Duration.ZERO, budget.waitFor(1));
+    }
+}
@@ -0,0 +1,41 @@
+package ai.teraunit.core.inventory;
+
+import ai.teraunit.core.common.ProviderName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CoalescingQueueTests {
+
+    @Test
+    void newerValueReplacesPendingOne_andIsHandedBack() throws InterruptedException {
+        CoalescingQueue<ProviderName, String> queue = new CoalescingQueue<>();
+
+        assertNull(queue.put(ProviderName.VAST, "v1"));
+        assertNull(queue.put(ProviderName.LAMBDA, "l1"));
+        assertEquals("v1", queue.put(ProviderName.VAST, "v2"));
+        assertEquals(2, queue.size());
+
+        // The replaced key moved to the back: Lambda has waited longer.
+        assertEquals("l1", queue.take());
+        assertEquals("v2", queue.take());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void take_blocksUntilAValueArrives() throws Exception {
+        CoalescingQueue<ProviderName, String> queue = new CoalescingQueue<>();
+        Thread producer = Thread.ofVirtual().start(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.put(ProviderName.RUNPOD, "r1");
+        });
+
+        assertEquals("r1", queue.take());
+        producer.join();
+    }
+}
@@ -0,0 +1,105 @@
+package ai.teraunit.core.inventory;
+
+import ai.teraunit.core.common.ProviderName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RawScrapeArchiveTests {
+
+    @TempDir
+    Path tempDir;
+
+    private static byte[] payload(int i) {
+        return ("{\"data\":[{\"name\":\"gpu_" + i + "\",\"price_cents_per_hour\":" + (100 + i) + "}]}")
+                .repeat(20).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void appendedResponses_readBackByRandomAccess_afterRestart() throws Exception {
+        Instant t0 = Instant.parse("2025-01-01T00:00:00Z");
+        RawScrapeArchive archive = new RawScrapeArchive(true, tempDir, 1 << 20, 8 << 20);
+        archive.open();
+        for (int i = 0; i < 5; i++) {
+            ProviderName provider = i % 2 == 0 ? ProviderName.LAMBDA : ProviderName.VAST;
+            archive.append(provider, t0.plusSeconds(i * 60L), payload(i));
+        }
+        archive.close();
+
+        RawScrapeArchive restarted = new RawScrapeArchive(true, tempDir, 1 << 20, 8 << 20);
+        restarted.open();
+
+        List<RawScrapeArchive.Entry> lambda = restarted.find(ProviderName.LAMBDA, null, null, 10);
+        assertEquals(3, lambda.size());
+        assertEquals(t0.plusSeconds(240), lambda.get(0).scrapedAt()); // newest first
+        assertTrue(lambda.get(0).storedLength() < lambda.get(0).rawLength());
+
+        RawScrapeArchive.Entry second = restarted.find(null, t0.plusSeconds(60), t0.plusSeconds(60), 10).get(0);
+        assertEquals(ProviderName.VAST, second.provider());
+        assertArrayEquals(payload(1), restarted.read(second.segment(), second.offset()));
+
+        // Writing resumes in a fresh segment after the old ones.
+        RawScrapeArchive.Entry next = restarted.append(ProviderName.RUNPOD, t0.plusSeconds(600), payload(9));
+        assertEquals(second.segment() + 1, next.segment());
+        assertArrayEquals(payload(9), restarted.read(next.segment(), next.offset()));
+        restarted.close();
+    }
+
+    @Test
+    void segmentsRotateBySize_andOldestAreDeletedPastRetention() throws Exception {
+        RawScrapeArchive archive = new RawScrapeArchive(true, tempDir, 200, 600);
+        archive.open();
+        Instant t0 = Instant.parse("2025-01-01T00:00:00Z");
+        for (int i = 0; i < 20; i++) {
+            archive.append(ProviderName.LAMBDA, t0.plusSeconds(i), payload(i));
+        }
+        archive.close();
+
+        long segments;
+        try (Stream<Path> files = Files.list(tempDir)) {
+            segments = files.count();
+        }
+        assertTrue(segments > 1 && segments < 20, "segments=" + segments);
+        List<RawScrapeArchive.Entry> kept = archive.find(ProviderName.LAMBDA, null, null, 100);
+        assertTrue(kept.size() < 20);
+        assertEquals(t0.plusSeconds(19), kept.get(0).scrapedAt());
+    }
+
+    @Test
+    void corruptedRecord_failsItsChecksum_tornTailIsIgnored() throws Exception {
+        RawScrapeArchive archive = new RawScrapeArchive(true, tempDir, 1 << 20, 8 << 20);
+        archive.open();
+        RawScrapeArchive.Entry first = archive.append(ProviderName.LAMBDA, Instant.now(), payload(1));
+        RawScrapeArchive.Entry second = archive.append(ProviderName.LAMBDA, Instant.now(), payload(2));
+        archive.close();
+
+        Path segment = tempDir.resolve(String.format("raw-%08d.seg", first.segment()));
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            long last = file.length() - 1;
+            file.seek(last);
+            int b = file.read();
+            file.seek(last);
+            file.write(b ^ 0x7F);
+            file.setLength(file.length() + 10); // half-written next record
+        }
+
+        RawScrapeArchive restarted = new RawScrapeArchive(true, tempDir, 1 << 20, 8 << 20);
+        restarted.open();
+        assertEquals(2, restarted.find(null, null, null, 10).size());
+        assertArrayEquals(payload(1), restarted.read(first.segment(), first.offset()));
+        assertThrows(java.io.IOException.class, () -> restarted.read(second.segment(), second.offset()));
+        restarted.close();
+    }
+}
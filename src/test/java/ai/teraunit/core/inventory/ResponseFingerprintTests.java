@@ -0,0 +1,58 @@
+package ai.teraunit.core.inventory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ResponseFingerprintTests {
+
+    private static MockClientHttpResponse ok(String body) {
+        return new MockClientHttpResponse(body.getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+    }
+
+    @Test
+    void identicalBody_isUnchangedOnlyAfterCommit() throws Exception {
+        ResponseFingerprint fingerprint = new ResponseFingerprint(Duration.ofMinutes(10));
+
+        assertNotNull(fingerprint.readIfChanged(ok("{\"offers\":[1]}")));
+        // Not committed (e.g. the Redis write failed): the same body must be processed again.
+        assertNotNull(fingerprint.readIfChanged(ok("{\"offers\":[1]}")));
+        fingerprint.commit();
+
+        assertNull(fingerprint.readIfChanged(ok("{\"offers\":[1]}")));
+        assertNotNull(fingerprint.readIfChanged(ok("{\"offers\":[2]}")));
+    }
+
+    @Test
+    void validators_areSentBackAndNotModifiedMeansUnchanged() throws Exception {
+        ResponseFingerprint fingerprint = new ResponseFingerprint(Duration.ofMinutes(10));
+        MockClientHttpResponse first = ok("{}");
+        first.getHeaders().setETag("\"v1\"");
+        fingerprint.readIfChanged(first);
+        fingerprint.commit();
+
+        HttpHeaders request = new HttpHeaders();
+        fingerprint.applyConditionalHeaders(request);
+        assertEquals("\"v1\"", request.getFirst(HttpHeaders.IF_NONE_MATCH));
+
+        assertNull(fingerprint.readIfChanged(new MockClientHttpResponse(new byte[0], HttpStatus.NOT_MODIFIED)));
+    }
+
+    @Test
+    void fullRefresh_isForcedAfterMaxSkipAge() throws Exception {
+        ResponseFingerprint fingerprint = new ResponseFingerprint(Duration.ZERO);
+        fingerprint.readIfChanged(ok("{}"));
+        fingerprint.commit();
+
+        Thread.sleep(5);
+        assertNotNull(fingerprint.readIfChanged(ok("{}")));
+    }
+}
@@ -0,0 +1,51 @@
+package ai.teraunit.core.inventory;
+
+import ai.teraunit.core.support.MutableClock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScrapeCircuitBreakerTests {
+
+    @Test
+    void opensAfterThreshold_thenLetsOneProbeThroughAfterCooldown() {
+        MutableClock clock = new MutableClock();
+        ScrapeCircuitBreaker breaker = new ScrapeCircuitBreaker(2, Duration.ofSeconds(60), Duration.ofSeconds(600), clock);
+
+        breaker.onFailure();
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(ScrapeCircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+
+        clock.advance(Duration.ofSeconds(61));
+        assertTrue(breaker.tryAcquire());
+        assertEquals(ScrapeCircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onSuccess();
+        assertEquals(ScrapeCircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void failedProbe_doublesCooldownUpToCap() {
+        MutableClock clock = new MutableClock();
+        ScrapeCircuitBreaker breaker = new ScrapeCircuitBreaker(1, Duration.ofSeconds(60), Duration.ofSeconds(100), clock);
+
+        breaker.onFailure();
+        clock.advance(Duration.ofSeconds(61));
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+
+        assertEquals(ScrapeCircuitBreaker.State.OPEN, breaker.state());
+        clock.advance(Duration.ofSeconds(99));
+        assertFalse(breaker.tryAcquire());
+        clock.advance(Duration.ofSeconds(2));
+        assertTrue(breaker.tryAcquire());
+    }
+}
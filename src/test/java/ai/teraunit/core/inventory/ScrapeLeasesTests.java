@@ -0,0 +1,170 @@
+package ai.teraunit.core.inventory;
+
+import ai.teraunit.core.common.ProviderName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScrapeLeasesTests {
+
+    private static final Duration TTL = Duration.ofSeconds(30);
+    private static final String KEY = "SCRAPE_LEADER:VAST";
+
+    @Test
+    void firstReplicaTakesTheLease_theOtherFollows() {
+        FakeRedis redis = new FakeRedis();
+        ScrapeLeases first = new ScrapeLeases(redis, true);
+        ScrapeLeases second = new ScrapeLeases(redis, true);
+
+        assertTrue(first.refresh(ProviderName.VAST, TTL));
+        assertFalse(second.refresh(ProviderName.VAST, TTL));
+
+        assertEquals(first.owner(), redis.values.get(KEY));
+        assertTrue(first.isLeader(ProviderName.VAST));
+        assertFalse(second.isLeader(ProviderName.VAST));
+    }
+
+    @Test
+    void leaderRenews_withCompareAndPexpire() {
+        FakeRedis redis = new FakeRedis();
+        ScrapeLeases leases = new ScrapeLeases(redis, true);
+
+        leases.refresh(ProviderName.VAST, TTL);
+        assertTrue(leases.refresh(ProviderName.VAST, TTL));
+
+        assertEquals(List.of("renew " + KEY + " " + leases.owner() + " 30000"), redis.scripts);
+    }
+
+    @Test
+    void expiredLease_isNotRenewed_andTheNewHolderKeepsIt() {
+        FakeRedis redis = new FakeRedis();
+        ScrapeLeases stalled = new ScrapeLeases(redis, true);
+        ScrapeLeases takeover = new ScrapeLeases(redis, true);
+        stalled.refresh(ProviderName.VAST, TTL);
+
+        redis.values.remove(KEY); // TTL ran out while the leader was stalled
+        assertTrue(takeover.refresh(ProviderName.VAST, TTL));
+
+        assertFalse(stalled.refresh(ProviderName.VAST, TTL));
+        assertEquals(takeover.owner(), redis.values.get(KEY));
+    }
+
+    @Test
+    void release_onlyDeletesALeaseWeStillHold() {
+        FakeRedis redis = new FakeRedis();
+        ScrapeLeases leases = new ScrapeLeases(redis, true);
+        leases.refresh(ProviderName.VAST, TTL);
+        leases.refresh(ProviderName.LAMBDA, TTL);
+        redis.values.put(KEY, "someone-else");
+
+        leases.releaseAll();
+
+        assertEquals("someone-else", redis.values.get(KEY));
+        assertNull(redis.values.get("SCRAPE_LEADER:LAMBDA"));
+        assertFalse(leases.isLeader(ProviderName.LAMBDA));
+    }
+
+    @Test
+    void confirm_failsOnceAnotherReplicaHoldsTheLease_evenBeforeTheLocalExpiry() {
+        FakeRedis redis = new FakeRedis();
+        ScrapeLeases stalled = new ScrapeLeases(redis, true);
+        ScrapeLeases takeover = new ScrapeLeases(redis, true);
+        stalled.refresh(ProviderName.VAST, TTL);
+        assertTrue(stalled.confirm(ProviderName.VAST));
+
+        redis.values.remove(KEY);
+        takeover.refresh(ProviderName.VAST, TTL);
+
+        assertFalse(stalled.confirm(ProviderName.VAST));
+        assertFalse(stalled.isLeader(ProviderName.VAST));
+        assertTrue(takeover.confirm(ProviderName.VAST));
+    }
+
+    @Test
+    void redisDown_keepsTheLocalLeaseUntilItsExpiry() {
+        FakeRedis redis = new FakeRedis();
+        ScrapeLeases leases = new ScrapeLeases(redis, true);
+        leases.refresh(ProviderName.VAST, TTL);
+
+        redis.down = true;
+        assertTrue(leases.refresh(ProviderName.VAST, TTL));
+        assertTrue(leases.confirm(ProviderName.VAST));
+
+        ScrapeLeases follower = new ScrapeLeases(redis, true);
+        assertFalse(follower.refresh(ProviderName.VAST, TTL));
+        assertFalse(follower.confirm(ProviderName.VAST));
+    }
+
+    @Test
+    void disabled_isAlwaysLeader_andNeverTouchesRedis() {
+        FakeRedis redis = new FakeRedis();
+        redis.down = true;
+        ScrapeLeases leases = new ScrapeLeases(redis, false);
+
+        assertTrue(leases.refresh(ProviderName.VAST, TTL));
+        assertTrue(leases.confirm(ProviderName.VAST));
+        assertTrue(redis.values.isEmpty());
+    }
+
+    /**
+     * SET NX and GET on a map, plus the two compare-and-act scripts, told
+     * apart by what they do on a match.
+     */
+    private static final class FakeRedis extends StringRedisTemplate {
+        private final Map<String, String> values = new HashMap<>();
+        private final List<String> scripts = new ArrayList<>();
+        private boolean down;
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public ValueOperations<String, String> opsForValue() {
+            return (ValueOperations<String, String>) Proxy.newProxyInstance(ValueOperations.class.getClassLoader(),
+                    new Class<?>[] {ValueOperations.class}, (self, method, args) -> {
+                        checkUp();
+                        return switch (method.getName()) {
+                            case "setIfAbsent" -> values.putIfAbsent((String) args[0], (String) args[1]) == null;
+                            case "get" -> values.get(args[0]);
+                            default -> throw new UnsupportedOperationException(method.getName());
+                        };
+                    });
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+            checkUp();
+            String key = keys.getFirst();
+            boolean renew = script.getScriptAsString().contains("pexpire");
+            scripts.add((renew ? "renew " : "release ") + key + " "
+                    + Arrays.stream(args).map(String::valueOf).collect(Collectors.joining(" ")));
+            if (!args[0].equals(values.get(key))) {
+                return (T) (Long) 0L;
+            }
+            if (!renew) {
+                values.remove(key);
+            }
+            return (T) (Long) 1L;
+        }
+
+        private void checkUp() {
+            if (down) {
+                throw new IllegalStateException("connection refused");
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package ai.teraunit.core.inventory;
+
+import ai.teraunit.core.common.ProviderName;
+import ai.teraunit.core.support.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScrapeOrchestratorTests {
+
+    private static final Duration INTERVAL = Duration.ofSeconds(60);
+
+    private final MutableClock clock = new MutableClock();
+    private final FakeScraper scraper = new FakeScraper();
+    private final ScrapeOrchestrator orchestrator = new ScrapeOrchestrator(List.of(scraper),
+            new SimpleMeterRegistry(), new ChurnTracker(), new ScrapeLeases(null, false), new MockEnvironment(),
+            true, 0.1, 3, 60, 600, clock);
+    private final ScrapeOrchestrator.Lane lane = orchestrator.lane(ProviderName.VAST);
+
+    @AfterEach
+    void tearDown() {
+        orchestrator.stop();
+    }
+
+    @Test
+    void hungScrape_isCancelledAtTheDeadline() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        scraper.body = () -> {
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return ScrapeResult.UPDATED;
+        };
+
+        orchestrator.runOnce(lane);
+
+        assertTrue(interrupted.await(2, TimeUnit.SECONDS), "the hung scrape was never interrupted");
+        assertEquals(1, lane.timeouts.get());
+        assertEquals(1, lane.failures.get());
+        assertTrue(lane.lastError.startsWith("deadline of "), lane.lastError);
+        awaitIdle();
+    }
+
+    @Test
+    void tickWhileARunIgnoresItsCancel_isSkipped_notStacked() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        scraper.body = () -> {
+            while (true) {
+                try {
+                    release.await();
+                    return ScrapeResult.UPDATED;
+                } catch (InterruptedException ignored) {
+                    // a scrape that does not honour cancellation
+                }
+            }
+        };
+
+        orchestrator.runOnce(lane); // times out, but the run keeps going
+        orchestrator.runOnce(lane);
+
+        assertEquals(1, scraper.calls.get());
+        assertEquals(1, lane.skipped.get());
+        assertTrue(lane.running.get());
+
+        release.countDown();
+        awaitIdle();
+        orchestrator.runOnce(lane);
+        assertEquals(2, scraper.calls.get());
+    }
+
+    @Test
+    void breakerOpens_thenOneProbeAfterTheCooldown_closesItOnSuccess() throws Exception {
+        scraper.body = () -> {
+            throw new IllegalStateException("HTTP 503");
+        };
+        for (int i = 0; i < 3; i++) {
+            orchestrator.runOnce(lane);
+        }
+        assertEquals(ScrapeCircuitBreaker.State.OPEN, lane.breaker.state());
+
+        orchestrator.runOnce(lane);
+        assertEquals(3, scraper.calls.get()); // open: the provider is not called
+
+        clock.advance(Duration.ofSeconds(61));
+        scraper.body = () -> ScrapeResult.UPDATED;
+        orchestrator.runOnce(lane);
+
+        assertEquals(4, scraper.calls.get());
+        assertEquals(ScrapeCircuitBreaker.State.CLOSED, lane.breaker.state());
+        assertEquals(clock.instant(), lane.lastSuccess);
+    }
+
+    @Test
+    void nextDelay_staysWithinTheJitterBand() {
+        for (int i = 0; i < 1_000; i++) {
+            long delay = orchestrator.nextDelayMs(lane);
+            assertTrue(delay >= 54_000 && delay <= 66_000, "delay " + delay);
+        }
+        assertEquals(INTERVAL, lane.currentInterval);
+    }
+
+    @Test
+    void adaptiveInterval_isClampedBetweenAQuarterAndThreeTimesNominal() {
+        assertEquals(INTERVAL.multipliedBy(3), ScrapeOrchestrator.adaptiveInterval(INTERVAL, 0.0));
+        assertEquals(INTERVAL, ScrapeOrchestrator.adaptiveInterval(INTERVAL, ChurnTracker.NEUTRAL_CHURN));
+        assertEquals(Duration.ofSeconds(15), ScrapeOrchestrator.adaptiveInterval(INTERVAL, ChurnTracker.HOT_CHURN));
+        assertEquals(Duration.ofSeconds(15), ScrapeOrchestrator.adaptiveInterval(INTERVAL, 5.0));
+        // A short nominal interval never goes under the 10s floor.
+        assertEquals(Duration.ofSeconds(10),
+                ScrapeOrchestrator.adaptiveInterval(Duration.ofSeconds(20), ChurnTracker.HOT_CHURN));
+    }
+
+    private void awaitIdle() throws InterruptedException {
+        Instant deadline = Instant.now().plusSeconds(2);
+        while (lane.running.get()) {
+            assertTrue(Instant.now().isBefore(deadline), "lane still busy");
+            Thread.sleep(5);
+        }
+    }
+
+    private interface Body {
+        ScrapeResult run() throws InterruptedException;
+    }
+
+    private static final class FakeScraper implements GpuProviderScraper {
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile Body body = () -> ScrapeResult.UPDATED;
+
+        @Override
+        public ProviderName provider() {
+            return ProviderName.VAST;
+        }
+
+        @Override
+        public Duration interval() {
+            return INTERVAL;
+        }
+
+        @Override
+        public Duration deadline() {
+            return Duration.ofMillis(200);
+        }
+
+        @Override
+        public ScrapeResult scrape() throws InterruptedException {
+            calls.incrementAndGet();
+            return body.run();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package ai.teraunit.core.inventory;
+
+import ai.teraunit.core.common.GpuPriceScrapedEvent;
+import ai.teraunit.core.common.ProviderName;
+import ai.teraunit.core.pricing.PriceMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScrapePipelineTests {
+
+    private static final byte[] RUNPOD_BODY = """
+            {"data": {"gpuTypes": [
+              {"id": "NVIDIA A100 80GB PCIe", "displayName": "A100 PCIe", "communityPrice": 1.19}
+            ]}}
+            """.getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void deliveredBatch_isUpdated_evenIfAnOptionalSinkFails() throws Exception {
+        RecordingSink redis = new RecordingSink("redis", true, false);
+        RecordingSink churn = new RecordingSink("churn", false, true);
+        ScrapePipeline pipeline = start(redis, churn);
+        try {
+            assertEquals(ScrapeResult.UPDATED, pipeline.await(pipeline.publish(event(RUNPOD_BODY))));
+            assertEquals(1, redis.batches.size());
+            assertEquals(1, redis.batches.getFirst().offers().size());
+        } finally {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    void requiredSinkFailure_failsTheScrape() throws Exception {
+        RecordingSink redis = new RecordingSink("redis", true, true);
+        ScrapePipeline pipeline = start(redis);
+        try {
+            IllegalStateException e = assertThrows(IllegalStateException.class,
+                    () -> pipeline.await(pipeline.publish(event(RUNPOD_BODY))));
+            assertTrue(e.getMessage().contains("redis down"));
+        } finally {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    void mappingFailure_failsTheScrape_andNothingIsWritten() throws Exception {
+        RecordingSink redis = new RecordingSink("redis", true, false);
+        ScrapePipeline pipeline = start(redis);
+        byte[] truncated = "{\"data\": {\"gpuTypes\": [{\"id\": \"NVIDIA".getBytes(StandardCharsets.UTF_8);
+        try {
+            assertThrows(IllegalStateException.class, () -> pipeline.await(pipeline.publish(event(truncated))));
+            assertTrue(redis.batches.isEmpty());
+        } finally {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    void emptyMapping_keepsTheSnapshot() throws Exception {
+        RecordingSink redis = new RecordingSink("redis", true, false);
+        ScrapePipeline pipeline = start(redis);
+        byte[] empty = "{\"data\": {\"gpuTypes\": []}}".getBytes(StandardCharsets.UTF_8);
+        try {
+            assertEquals(ScrapeResult.EMPTY, pipeline.await(pipeline.publish(event(empty))));
+            assertTrue(redis.batches.isEmpty());
+        } finally {
+            pipeline.stop();
+        }
+    }
+
+    private static ScrapePipeline start(OfferSink... sinks) {
+        ScrapePipeline pipeline = new ScrapePipeline(new PriceMapper(), List.of(sinks), List.of(),
+                new SimpleMeterRegistry(), 4, 1, 2000);
+        pipeline.start();
+        return pipeline;
+    }
+
+    private static GpuPriceScrapedEvent event(byte[] body) {
+        return new GpuPriceScrapedEvent(ProviderName.RUNPOD, body, Instant.now());
+    }
+
+    private static final class RecordingSink implements OfferSink {
+        private final String name;
+        private final boolean required;
+        private final boolean fail;
+        private final List<OfferBatch> batches = new CopyOnWriteArrayList<>();
+
+        RecordingSink(String name, boolean required, boolean fail) {
+            this.name = name;
+            this.required = required;
+            this.fail = fail;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public boolean required() {
+            return required;
+        }
+
+        @Override
+        public void accept(OfferBatch batch) {
+            if (fail) {
+                throw new IllegalStateException(name + " down");
+            }
+            batches.add(batch);
+        }
+    }
+}
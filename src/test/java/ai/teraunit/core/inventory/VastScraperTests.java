@@ -0,0 +1,154 @@
+package ai.teraunit.core.inventory;
+
+import ai.teraunit.core.config.OutboundScheduler;
+import ai.teraunit.core.pricing.GpuOffer;
+import ai.teraunit.core.pricing.PriceMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VastScraperTests {
+
+    // The shipped Vast lane: 2 req/s, burst 4, against the 30s deadline.
+    private static final OutboundScheduler.Limit VAST_LIMIT = new OutboundScheduler.Limit(2, 4);
+
+    private final List<OfferBatch> published = new CopyOnWriteArrayList<>();
+    private final ScrapePipeline pipeline = new ScrapePipeline(new PriceMapper(), List.of(new RecordingSink()),
+            List.of(), new SimpleMeterRegistry(), 4, 1, 2000);
+
+    @AfterEach
+    void tearDown() {
+        pipeline.stop();
+    }
+
+    @Test
+    void shardBudget_fitsTheOutboundLaneWithinTheDeadline() {
+        assertEquals(4 + 45, VastScraper.shardBudget(VAST_LIMIT, Duration.ofSeconds(30)));
+        assertEquals(VastScraper.MAX_SHARD_REQUESTS,
+                VastScraper.shardBudget(new OutboundScheduler.Limit(50, 10), Duration.ofSeconds(30)));
+        assertEquals(1, VastScraper.shardBudget(new OutboundScheduler.Limit(0.01, 1), Duration.ZERO));
+    }
+
+    @Test
+    void hourlyBudget_isTheSweepCadencePlusOneHotRefreshPerInterval() {
+        assertEquals(60 * (49 + 24), VastScraper.hourlyBudget(Duration.ofSeconds(60), 49));
+        // A lane too slow for a full hot refresh never budgets more than it can send.
+        assertEquals(60 * (10 + 10), VastScraper.hourlyBudget(Duration.ofSeconds(60), 10));
+        VastScraper scraper = new VastScraper(new FakeBundles(1).client(), VAST_LIMIT, new PriceMapper(), pipeline,
+                new ChurnTracker());
+        assertEquals(4_380, scraper.requestBudgetPerHour());
+    }
+
+    @Test
+    void marketLargerThanOneDeadline_isPublishedEverySweep_andFullyCoveredByRotation() throws Exception {
+        FakeBundles vast = new FakeBundles(200);
+        VastScraper scraper = new VastScraper(vast.client(), VAST_LIMIT, new PriceMapper(), pipeline,
+                new ChurnTracker());
+        int budget = VastScraper.shardBudget(VAST_LIMIT, scraper.deadline());
+        pipeline.start();
+
+        Set<String> covered = Set.of();
+        for (int sweep = 1; sweep <= 8 && covered.size() < 200; sweep++) {
+            vast.requests.set(0);
+            ScrapeResult result = scraper.scrape();
+
+            // Never more than the lane can send before the orchestrator cancels the run.
+            assertTrue(vast.requests.get() <= budget, "sweep " + sweep + " sent " + vast.requests.get());
+            assertEquals(vast.requests.get(), scraper.requestsLastRun());
+            assertEquals(ScrapeResult.UPDATED, result);
+            covered = names(published.getLast().offers());
+        }
+
+        assertEquals(200, covered.size());
+        assertTrue(published.size() > 1);
+    }
+
+    private static Set<String> names(List<GpuOffer> offers) {
+        Set<String> names = new HashSet<>();
+        offers.forEach(o -> names.add(o.gpuModel()));
+        return names;
+    }
+
+    private final class RecordingSink implements OfferSink {
+        @Override
+        public String name() {
+            return "recording";
+        }
+
+        @Override
+        public boolean required() {
+            return true;
+        }
+
+        @Override
+        public void accept(OfferBatch batch) {
+            published.add(batch);
+        }
+    }
+
+    /**
+     * The bundles endpoint over a market of one offer per gpu_name: honours
+     * gpu_name eq / notin and, like Vast, returns at most SHARD_CAP offers.
+     */
+    private static final class FakeBundles {
+        private final ObjectMapper json = new ObjectMapper();
+        private final List<Map<String, Object>> market = new ArrayList<>();
+        private final AtomicInteger requests = new AtomicInteger();
+
+        FakeBundles(int gpuNames) {
+            for (int i = 0; i < gpuNames; i++) {
+                market.add(Map.of("id", 1000 + i, "gpu_name", String.format("GPU %03d", i),
+                        "dph_total", 0.5 + i / 100.0, "num_gpus", 1, "geolocation", "US"));
+            }
+        }
+
+        RestClient client() {
+            return RestClient.builder()
+                    .requestFactory((uri, method) -> new MockClientHttpRequest(method, uri) {
+                        @Override
+                        protected ClientHttpResponse executeInternal() throws IOException {
+                            requests.incrementAndGet();
+                            return respond(json.readValue(getBodyAsBytes(), Map.class));
+                        }
+                    })
+                    .build();
+        }
+
+        @SuppressWarnings("unchecked")
+        private ClientHttpResponse respond(Map<String, Object> query) throws IOException {
+            Map<String, Object> filter = (Map<String, Object>) query.get("gpu_name");
+            List<Map<String, Object>> offers = new ArrayList<>();
+            for (Map<String, Object> offer : market) {
+                Object name = offer.get("gpu_name");
+                boolean match = filter == null
+                        || (filter.containsKey("eq") && filter.get("eq").equals(name))
+                        || (filter.containsKey("notin") && !((List<Object>) filter.get("notin")).contains(name));
+                if (match && offers.size() < VastScraper.SHARD_CAP) {
+                    offers.add(offer);
+                }
+            }
+            byte[] body = json.writeValueAsString(Map.of("offers", offers)).getBytes(StandardCharsets.UTF_8);
+            return new MockClientHttpResponse(body, HttpStatus.OK);
+        }
+    }
+}
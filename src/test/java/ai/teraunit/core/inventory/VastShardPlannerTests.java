@@ -0,0 +1,56 @@
+package ai.teraunit.core.inventory;
+
+import ai.teraunit.core.pricing.GpuOffer;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VastShardPlannerTests {
+
+    private static GpuOffer offer(String gpu, double price) {
+        return new GpuOffer("VAST", gpu, "1", price, "US", true);
+    }
+
+    @Test
+    void firstLevel_isOneShardPerKnownNamePlusCatchAll() {
+        List<VastShard> shards = VastShardPlanner.firstLevel(Set.of("RTX 4090", "A100 SXM4"));
+
+        assertEquals(3, shards.size());
+        assertEquals("A100 SXM4", shards.get(0).gpuName());
+        VastShard catchAll = shards.get(2);
+        assertEquals(Map.of("notin", List.of("A100 SXM4", "RTX 4090")), catchAll.applyTo(Map.of()).get("gpu_name"));
+        assertEquals(List.of(VastShard.ALL), VastShardPlanner.firstLevel(Set.of()));
+    }
+
+    @Test
+    void split_peelsNewNamesThenCountsThenPrice() {
+        List<VastShard> byName = VastShardPlanner.split(VastShard.ALL,
+                List.of(offer("RTX 4090", 0.3), offer("RTX 3090", 0.2)));
+        assertEquals(3, byName.size());
+        assertEquals(Set.of("RTX 3090", "RTX 4090"), byName.get(2).excludedGpuNames());
+
+        VastShard named = byName.get(0);
+        List<VastShard> byCount = VastShardPlanner.split(named, List.of(offer("RTX 3090", 0.2)));
+        assertEquals(5, byCount.size());
+        assertTrue(byCount.get(4).otherNumGpus());
+
+        List<VastShard> byPrice = VastShardPlanner.split(byCount.get(0),
+                List.of(offer("RTX 3090", 0.2), offer("RTX 3090", 0.4), offer("RTX 3090", 0.6)));
+        assertEquals(2, byPrice.size());
+        assertEquals(0.4, byPrice.get(0).maxPrice());
+        assertEquals(0.4, byPrice.get(1).minPrice());
+        assertEquals(Map.of("gte", 0.4), byPrice.get(1).applyTo(Map.of()).get("dph_total"));
+    }
+
+    @Test
+    void split_stopsWhenEveryPriceIsTheSame() {
+        VastShard leaf = new VastShard("RTX 3090", Set.of(), 1, false, 0.2, Double.POSITIVE_INFINITY);
+
+        assertTrue(VastShardPlanner.split(leaf, List.of(offer("RTX 3090", 0.2), offer("RTX 3090", 0.2))).isEmpty());
+    }
+}
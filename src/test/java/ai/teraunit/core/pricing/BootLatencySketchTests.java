@@ -0,0 +1,57 @@
+package ai.teraunit.core.pricing;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BootLatencySketchTests {
+
+    private static void assertWithin(long expected, long actual) {
+        double error = Math.abs(actual - expected) / (double) expected;
+        assertTrue(error <= BootLatencySketch.RELATIVE_ACCURACY,
+                "expected ~" + expected + " but got " + actual + " (" + error + ")");
+    }
+
+    @Test
+    void quantiles_areWithinRelativeAccuracy() {
+        BootLatencySketch sketch = new BootLatencySketch();
+        for (int s = 1; s <= 1000; s++) {
+            sketch.add(Duration.ofSeconds(s));
+        }
+
+        assertEquals(1000, sketch.count());
+        assertWithin(500_000, sketch.quantileMs(0.5));
+        assertWithin(900_000, sketch.quantileMs(0.9));
+        assertWithin(990_000, sketch.quantileMs(0.99));
+        assertEquals(1_000, sketch.quantileMs(0.0));
+        assertEquals(1_000_000, sketch.quantileMs(1.0));
+    }
+
+    @Test
+    void merge_equalsOneSketchOverAllSamples() {
+        BootLatencySketch fast = new BootLatencySketch();
+        BootLatencySketch slow = new BootLatencySketch();
+        BootLatencySketch all = new BootLatencySketch();
+        for (int s = 1; s <= 100; s++) {
+            Duration latency = Duration.ofSeconds(s * 7L);
+            (s % 2 == 0 ? fast : slow).add(latency);
+            all.add(latency);
+        }
+
+        BootLatencySketch merged = fast.copy();
+        merged.merge(slow);
+
+        assertEquals(all.count(), merged.count());
+        for (double q : new double[] { 0.1, 0.5, 0.95 }) {
+            assertEquals(all.quantileMs(q), merged.quantileMs(q));
+        }
+    }
+
+    @Test
+    void empty_reportsZero() {
+        assertEquals(0, new BootLatencySketch().quantileMs(0.5));
+    }
+}
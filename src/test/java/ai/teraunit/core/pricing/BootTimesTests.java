@@ -0,0 +1,55 @@
+package ai.teraunit.core.pricing;
+
+import ai.teraunit.core.common.ProviderName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BootTimesTests {
+
+    private static void boots(BootTimes times, BootTimes.Key key, int n, Duration each) {
+        for (int i = 0; i < n; i++) {
+            times.record(key, each);
+        }
+    }
+
+    @Test
+    void typical_fallsBackFromRegionToSkuToProvider() {
+        BootTimes times = new BootTimes();
+        BootTimes.Key east = BootTimes.Key.of(ProviderName.LAMBDA, "gpu_1x_h100_pcie", "us-east-1", null, "img");
+        BootTimes.Key west = BootTimes.Key.of(ProviderName.LAMBDA, "gpu_1x_h100_pcie", "US-West-1", null, "img");
+        boots(times, east, BootTimes.MIN_SAMPLES, Duration.ofSeconds(60));
+        boots(times, west, 2, Duration.ofSeconds(600));
+
+        BootTimes.Typical typical = times.typical(0.5);
+
+        assertEquals(Duration.ofSeconds(60), typical.of("LAMBDA", "us-east-1", east.sku()).orElseThrow());
+        // us-west-1 alone is too thin, so the SKU across regions answers (mostly the 60s boots).
+        assertEquals(60_000, typical.of("lambda", "us-west-1", west.sku()).orElseThrow().toMillis(),
+                60_000 * BootLatencySketch.RELATIVE_ACCURACY);
+        assertTrue(typical.of("LAMBDA", "us-east-1", "A100-80G-SXM-x8").isPresent());
+        assertTrue(typical.of("VAST", "US", east.sku()).isEmpty());
+    }
+
+    @Test
+    void report_mergesMatchingSeries() {
+        BootTimes times = new BootTimes();
+        boots(times, BootTimes.Key.of(ProviderName.VAST, "1001", "US", "RTX4090-24G-PCIE-x1", "img"), 3,
+                Duration.ofSeconds(90));
+        boots(times, BootTimes.Key.of(ProviderName.VAST, "1002", "EU", "RTX4090-24G-PCIE-x1", "img"), 1,
+                Duration.ofSeconds(90));
+        boots(times, BootTimes.Key.of(ProviderName.LAMBDA, "gpu_1x_a100", "us-east-1", null, "img"), 1,
+                Duration.ofSeconds(30));
+
+        BootTimes.Report vast = times.report("vast", null, null, null);
+
+        assertEquals(4, vast.overall().count());
+        assertEquals(2, vast.series().size());
+        assertEquals("us", vast.series().getFirst().key().region());
+        assertEquals(1, times.report(null, null, null, null).series().stream()
+                .filter(s -> s.key().provider().equals("LAMBDA")).count());
+    }
+}
@@ -0,0 +1,52 @@
+package ai.teraunit.core.pricing;
+
+import ai.teraunit.core.common.GpuFormFactor;
+import ai.teraunit.core.common.GpuModel;
+import ai.teraunit.core.common.GpuSku;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class GpuCatalogTests {
+
+    @Test
+    void resolve_matchesSameHardwareAcrossProviderSpellings() {
+        GpuSku lambda = GpuCatalog.resolve("gpu_1x_a100_80gb_sxm4");
+        GpuSku runpod = GpuCatalog.resolve("NVIDIA A100-SXM4-80GB");
+        GpuSku vast = GpuCatalog.resolve("A100 SXM4", 1, 80);
+
+        assertEquals("A100-80G-SXM-x1", lambda.id());
+        assertSame(lambda, runpod);
+        assertSame(lambda, vast);
+    }
+
+    @Test
+    void resolve_readsCountFormFactorAndVram() {
+        GpuSku sku = GpuCatalog.resolve("gpu_8x_h100_sxm5");
+        assertEquals(GpuModel.H100, sku.model());
+        assertEquals(GpuFormFactor.SXM, sku.formFactor());
+        assertEquals(8, sku.gpuCount());
+        assertEquals(80, sku.vramGb());
+
+        assertEquals("H100-80G-PCIE-x1", GpuCatalog.resolve("H100 PCIe").id());
+        assertEquals("RTX4090-24G-PCIE-x4", GpuCatalog.resolve("RTX 4090", 4, 24).id());
+        assertEquals(GpuModel.A10, GpuCatalog.resolve("gpu_1x_a10").model());
+        assertEquals(GpuModel.RTX6000_ADA, GpuCatalog.resolve("RTX 6000 Ada").model());
+    }
+
+    @Test
+    void resolve_returnsNullForUncataloguedHardware() {
+        assertNull(GpuCatalog.resolve("Instinct MI250"));
+        assertNull(GpuCatalog.resolve(""));
+    }
+
+    @Test
+    void byId_parsesIdsFromOtherNodes() {
+        GpuSku sku = GpuCatalog.byId("L40S-48G-PCIE-x2");
+        assertEquals(GpuModel.L40S, sku.model());
+        assertEquals(2, sku.gpuCount());
+        assertNull(GpuCatalog.byId("not-a-sku"));
+    }
+}
@@ -0,0 +1,54 @@
+package ai.teraunit.core.pricing;
+
+import ai.teraunit.core.common.ProviderName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LocalSnapshotStoreTests {
+
+    @TempDir
+    Path tempDir;
+
+    private static final List<GpuOffer> OFFERS = List.of(
+            new GpuOffer("LAMBDA", "GPU_1X_A10", "gpu_1x_a10", 0.75, "us-west-1", true, "A10-24G-PCIE-x1"));
+
+    @Test
+    void savedSnapshot_isLoadedByFreshStore() {
+        Path dir = tempDir;
+
+        new LocalSnapshotStore(true, dir.toString(), 60).save(ProviderName.LAMBDA, OFFERS);
+
+        LocalSnapshotStore restarted = new LocalSnapshotStore(true, dir.toString(), 60);
+        restarted.load();
+
+        LocalSnapshotStore.StoredSnapshot snapshot = restarted.get(ProviderName.LAMBDA);
+        assertNotNull(snapshot);
+        assertEquals(OFFERS, snapshot.offers());
+        assertNull(restarted.get(ProviderName.VAST));
+    }
+
+    @Test
+    void corruptedSnapshot_isIgnored() throws Exception {
+        Path dir = tempDir;
+
+        new LocalSnapshotStore(true, dir.toString(), 60).save(ProviderName.LAMBDA, OFFERS);
+
+        Path file = dir.resolve("offers-LAMBDA.snap");
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 0x5A;
+        Files.write(file, bytes);
+
+        LocalSnapshotStore restarted = new LocalSnapshotStore(true, dir.toString(), 60);
+        restarted.load();
+
+        assertNull(restarted.get(ProviderName.LAMBDA));
+    }
+}
@@ -0,0 +1,71 @@
+package ai.teraunit.core.pricing;
+
+import ai.teraunit.core.api.PricingResponse;
+import ai.teraunit.core.common.ProviderName;
+import ai.teraunit.core.support.MutableClock;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OfferIndexServiceTests {
+
+    @TempDir
+    Path tempDir;
+
+    private static final List<GpuOffer> OFFERS = List.of(
+            new GpuOffer("LAMBDA", "GPU_1X_A10", "gpu_1x_a10", 0.75, "us-west-1", true, "A10-24G-PCIE-x1"));
+
+    @Test
+    void diskSnapshot_keepsItsAge_andAgesOutWhileRedisIsEmpty() {
+        LocalSnapshotStore disk = savedSnapshot();
+        MutableClock clock = new MutableClock(Instant.now());
+        OfferIndexService service = new OfferIndexService(new EmptyRedis(), disk, new RankingEngine(new BootTimes()),
+                clock);
+
+        service.warmStart();
+        service.refresh();
+        assertEquals(0.75, service.current().cheapestPrice("LAMBDA", "gpu_1x_a10"));
+
+        // Redis never confirms it, so it goes stale five minutes after it was saved, not after boot.
+        clock.advance(Duration.ofMinutes(6));
+        service.refresh();
+        assertEquals(0, service.current().size());
+    }
+
+    @Test
+    void diskSnapshot_olderThanMaxStale_isNotServedOnBoot() {
+        LocalSnapshotStore disk = savedSnapshot();
+        MutableClock clock = new MutableClock(Instant.now().plus(Duration.ofMinutes(6)));
+        OfferIndexService service = new OfferIndexService(new EmptyRedis(), disk, new RankingEngine(new BootTimes()),
+                clock);
+
+        service.warmStart();
+
+        assertEquals(0, service.current().size());
+    }
+
+    private LocalSnapshotStore savedSnapshot() {
+        new LocalSnapshotStore(true, tempDir.toString(), 60).save(ProviderName.LAMBDA, OFFERS);
+        LocalSnapshotStore restarted = new LocalSnapshotStore(true, tempDir.toString(), 60);
+        restarted.load();
+        return restarted;
+    }
+
+    // Redis up but holding no CLEAN_OFFERS keys, as on a fresh deploy.
+    private static final class EmptyRedis extends PricingService {
+        EmptyRedis() {
+            super(null);
+        }
+
+        @Override
+        public PricingResponse getOffers(ProviderName provider) {
+            return new PricingResponse(provider.name(), List.of());
+        }
+    }
+}
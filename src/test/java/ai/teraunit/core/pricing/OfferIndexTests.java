@@ -0,0 +1,63 @@
+package ai.teraunit.core.pricing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OfferIndexTests {
+
+    private static final List<GpuOffer> OFFERS = List.of(
+            new GpuOffer("VAST", "A100 PCIE", "1001", 1.40, "US", true),
+            new GpuOffer("VAST", "RTX 4090", "1002", 0.35, "US", true),
+            new GpuOffer("RUNPOD", "NVIDIA A100-PCIE", "NVIDIA A100", 1.19, "GLOBAL", true),
+            new GpuOffer("LAMBDA", "A100 PCIE", "gpu_1x_a100", 1.29, "us-east-1", true),
+            new GpuOffer("VAST", "A100 PCIE", "1003", 0.99, "EU", false));
+
+    @Test
+    void search_returnsCheapestFirstAcrossProviders() {
+        OfferIndex index = OfferIndex.build(OFFERS);
+
+        List<GpuOffer> result = index.search("a100 pcie", null, null, null, 10);
+        assertEquals(3, result.size());
+        assertEquals("RUNPOD", result.get(0).provider());
+        assertEquals("LAMBDA", result.get(1).provider());
+        assertEquals("VAST", result.get(2).provider());
+    }
+
+    @Test
+    void search_appliesRegionProviderPriceAndLimit() {
+        OfferIndex index = OfferIndex.build(OFFERS);
+
+        assertEquals(1, index.search(null, "us", "vast", 0.50, 10).size());
+        assertEquals(2, index.search(null, "US", null, null, 10).size());
+        assertEquals(1, index.search(null, null, null, null, 1).size());
+        assertEquals("1002", index.search(null, null, null, null, 1).getFirst().launchId());
+        assertTrue(index.search("H100", null, null, null, 10).isEmpty());
+    }
+
+    @Test
+    void search_matchesCanonicalSkuAndFamily() {
+        OfferIndex index = OfferIndex.build(List.of(
+                new GpuOffer("LAMBDA", "GPU_8X_H100_SXM5", "gpu_8x_h100_sxm5", 23.92, "us-east-1", true,
+                        "H100-80G-SXM-x8"),
+                new GpuOffer("RUNPOD", "H100 PCIe", "NVIDIA H100 PCIe", 2.39, "GLOBAL", true,
+                        "H100-80G-PCIE-x1")));
+
+        assertEquals(2, index.search("h100", null, null, null, 10).size());
+        assertEquals(1, index.search("H100-80G-SXM-x8", null, null, null, 10).size());
+        assertEquals(23.92, index.cheapestPrice("LAMBDA", "gpu_8x_h100_sxm5"));
+        assertEquals(2.39, index.cheapestPrice("RUNPOD", "H100 PCIe"));
+        assertEquals(0.0, index.cheapestPrice("VAST", "H100 PCIe"));
+    }
+
+    @Test
+    void build_skipsUnavailableOffers() {
+        OfferIndex index = OfferIndex.build(OFFERS);
+
+        assertEquals(4, index.size());
+        assertTrue(index.search(null, "EU", null, null, 10).isEmpty());
+    }
+}
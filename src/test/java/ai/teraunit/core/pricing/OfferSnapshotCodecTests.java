@@ -0,0 +1,65 @@
+package ai.teraunit.core.pricing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OfferSnapshotCodecTests {
+
+    @Test
+    void roundTrip_preservesAllFieldsIncludingNulls() {
+        List<GpuOffer> offers = List.of(
+                new GpuOffer("LAMBDA", "GPU_1X_A100", "gpu_1x_a100", 1.29, "us-east-1", true, "A100-40G-SXM-x1"),
+                new GpuOffer("VAST", null, "123456", 0.486667, null, false, null));
+
+        byte[] encoded = OfferSnapshotCodec.encode(offers);
+
+        assertTrue(OfferSnapshotCodec.isEncoded(encoded));
+        assertEquals(offers, OfferSnapshotCodec.decode(encoded));
+    }
+
+    @Test
+    void largeSnapshots_areCompressedAndSmallerThanJson() throws Exception {
+        List<GpuOffer> offers = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            offers.add(new GpuOffer("VAST", "RTX 4090", String.valueOf(1_000_000 + i), (35_000 + i) / 100_000.0, "US",
+                    true, "RTX4090-24G-PCIE-x1"));
+        }
+
+        byte[] encoded = OfferSnapshotCodec.encode(offers);
+
+        // Plain JSON; the old Redis serializer also wrote type hints, so the real saving is larger.
+        byte[] json = new ObjectMapper().writeValueAsBytes(offers);
+        assertEquals(offers, OfferSnapshotCodec.decode(encoded));
+        assertTrue(encoded.length * 4 < json.length,
+                "encoded " + encoded.length + " bytes vs " + json.length + " bytes of JSON");
+    }
+
+    @Test
+    void isEncoded_rejectsJson() {
+        assertFalse(OfferSnapshotCodec.isEncoded("[\"java.util.ArrayList\",[]]".getBytes(StandardCharsets.UTF_8)));
+        assertFalse(OfferSnapshotCodec.isEncoded(new byte[0]));
+    }
+
+    @Test
+    void countsLargerThanTheInput_areRejectedBeforeAllocating() {
+        // Header, then a dictionary "of" 2^31 - 1 strings in five bytes.
+        byte[] hugeDictionary = {(byte) 0xA7, 'O', 1, 0, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+        // Empty dictionary, then 1,000 offers in two bytes.
+        byte[] hugeOfferCount = {(byte) 0xA7, 'O', 1, 0, 0, (byte) 0xE8, 0x07};
+        // One offer whose provider points past the (empty) dictionary.
+        byte[] danglingRef = {(byte) 0xA7, 'O', 1, 0, 0, 1, 9, 0, 0, 0, 0, 0, 1};
+
+        assertThrows(IllegalArgumentException.class, () -> OfferSnapshotCodec.decode(hugeDictionary));
+        assertThrows(IllegalArgumentException.class, () -> OfferSnapshotCodec.decode(hugeOfferCount));
+        assertThrows(IllegalArgumentException.class, () -> OfferSnapshotCodec.decode(danglingRef));
+    }
+}
@@ -1,12 +1,18 @@
 package ai.teraunit.core.pricing;
 
 import ai.teraunit.core.common.ProviderName;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class PriceMapperTests {
@@ -153,4 +159,143 @@ class PriceMapperTests {
         assertEquals("123456", offers.getFirst().launchId());
         assertEquals("US", offers.getFirst().region());
     }
+
+    @Test
+    void streamingMapping_matchesMapMapping() throws Exception {
+        PriceMapper mapper = new PriceMapper();
+
+        String json = """
+                {"meta": {"nested": [1, 2, {"x": null}]},
+                 "offers": [
+                   {"dph_total": 0.49, "id": 123456, "gpu_name": "RTX 3090", "geolocation": "US",
+                    "num_gpus": 2, "gpu_ram": 24576, "extra": {"a": [1, 2, 3]}},
+                   {"dph_total": 0.75, "id": null, "ask_id": 777, "gpu_name": "A100 SXM4", "geolocation": "EU"},
+                   {"dph_total": 0.02, "id": "not-a-number", "gpu_name": "RTX 4090", "geolocation": "US"},
+                   {"dph_total": "0.50", "id": 5, "gpu_name": "RTX 4090", "geolocation": "US"}
+                 ]}
+                """;
+
+        List<GpuOffer> streamed = mapper.mapToOffers(ProviderName.VAST,
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> decoded = new ObjectMapper().readValue(json, Map.class);
+        List<GpuOffer> mapped = mapper.mapToOffers(ProviderName.VAST, decoded);
+
+        assertEquals(mapped, streamed);
+        assertEquals(2, streamed.size());
+        assertEquals("123456", streamed.get(0).launchId());
+        assertEquals("RTX3090-24G-PCIE-x2", streamed.get(0).skuId());
+        assertEquals("777", streamed.get(1).launchId());
+        assertEquals("EU", streamed.get(1).region());
+    }
+
+    @Test
+    void numbersOutOfIntRange_rejectTheBody_onBothPaths() throws Exception {
+        PriceMapper mapper = new PriceMapper();
+        String vast = """
+                {"offers": [{"dph_total": 0.49, "id": 1, "gpu_name": "RTX 3090", "num_gpus": 5000000000}]}
+                """;
+        String runPod = """
+                {"data": {"gpuTypes": [{"id": "NVIDIA A100 80GB PCIe", "secure99999999999": {}}]}}
+                """;
+
+        assertThrows(UncheckedIOException.class, () -> mapper.mapToOffers(ProviderName.VAST,
+                new ByteArrayInputStream(vast.getBytes(StandardCharsets.UTF_8))));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> decoded = new ObjectMapper().readValue(vast, Map.class);
+        assertThrows(UncheckedIOException.class, () -> mapper.mapToOffers(ProviderName.VAST, decoded));
+        assertThrows(UncheckedIOException.class, () -> mapper.mapToOffers(ProviderName.RUNPOD,
+                new ByteArrayInputStream(runPod.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    void streamingMapping_rejectsTruncatedBody() {
+        PriceMapper mapper = new PriceMapper();
+
+        String json = """
+                {"data": {"gpuTypes": [
+                  {"id": "NVIDIA A100 80GB PCIe", "displayName": "A100 PCIe", "communityPrice": 1.19},
+                  {"id": "NVIDIA H100
+                """;
+
+        // A partial list must never reach the snapshot: the whole body is rejected.
+        assertThrows(UncheckedIOException.class, () -> mapper.mapToOffers(ProviderName.RUNPOD,
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    void runPodBatchedQuery_pricesEachCloudAndCountAndPinsSecureToDatacenters() {
+        PriceMapper mapper = new PriceMapper();
+
+        String json = """
+                {"data": {
+                  "gpuTypes": [
+                    {"id": "NVIDIA H100 80GB HBM3", "displayName": "H100 SXM", "memoryInGb": 80,
+                     "secure1": {"uninterruptablePrice": 2.99, "stockStatus": "High"},
+                     "community1": {"uninterruptablePrice": 2.49, "stockStatus": null},
+                     "community8": {"uninterruptablePrice": 2.39, "stockStatus": "Low"},
+                     "secure8": {"uninterruptablePrice": null, "stockStatus": null}}
+                  ],
+                  "dataCenters": [
+                    {"id": "US-TX-3", "gpuAvailability": [
+                      {"gpuTypeId": "NVIDIA H100 80GB HBM3", "stockStatus": "Medium"}]},
+                    {"id": "EU-RO-1", "gpuAvailability": [
+                      {"gpuTypeId": "NVIDIA H100 80GB HBM3", "stockStatus": "None"}]}
+                  ]
+                }}
+                """;
+
+        List<GpuOffer> offers = mapper.mapToOffers(ProviderName.RUNPOD,
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        // secure x1 in US-TX-3 only, community x1 (out of stock), community x8; secure x8 unpriced.
+        assertEquals(3, offers.size());
+        GpuOffer secure = offers.stream().filter(o -> o.launchId().contains("|SECURE|")).findFirst().orElseThrow();
+        assertEquals("NVIDIA H100 80GB HBM3|SECURE|x1|US-TX-3", secure.launchId());
+        assertEquals("US-TX-3", secure.region());
+        assertTrue(secure.isAvailable());
+
+        GpuOffer community1 = offers.stream()
+                .filter(o -> o.launchId().endsWith("|COMMUNITY|x1")).findFirst().orElseThrow();
+        assertEquals("GLOBAL", community1.region());
+        assertFalse(community1.isAvailable());
+
+        GpuOffer community8 = offers.stream()
+                .filter(o -> o.launchId().endsWith("|COMMUNITY|x8")).findFirst().orElseThrow();
+        assertEquals(2.39 * 8, community8.pricePerHour(), 1e-9);
+        assertEquals("H100-80G-SXM-x8", community8.skuId());
+        assertTrue(community8.isAvailable());
+    }
+
+    @Test
+    void runPodBatchedQuery_secureCountOutOfStock_isNotPinnedAsAvailable() {
+        PriceMapper mapper = new PriceMapper();
+
+        String json = """
+                {"data": {
+                  "gpuTypes": [
+                    {"id": "NVIDIA H100 80GB HBM3", "displayName": "H100 SXM", "memoryInGb": 80,
+                     "secure1": {"uninterruptablePrice": 2.99, "stockStatus": "High"},
+                     "secure8": {"uninterruptablePrice": 2.89, "stockStatus": "None"}}
+                  ],
+                  "dataCenters": [
+                    {"id": "US-TX-3", "gpuAvailability": [
+                      {"gpuTypeId": "NVIDIA H100 80GB HBM3", "stockStatus": "High"}]},
+                    {"id": "EU-RO-1", "gpuAvailability": [
+                      {"gpuTypeId": "NVIDIA H100 80GB HBM3", "stockStatus": "Low"}]}
+                  ]
+                }}
+                """;
+
+        List<GpuOffer> offers = mapper.mapToOffers(ProviderName.RUNPOD,
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        // x1 pinned to both datacenters; x8 has no stock anywhere, so one unpinned, unavailable offer.
+        assertEquals(3, offers.size());
+        assertEquals(2, offers.stream().filter(o -> o.launchId().contains("|x1|")).count());
+        GpuOffer secure8 = offers.stream().filter(o -> o.launchId().contains("|x8")).findFirst().orElseThrow();
+        assertEquals("NVIDIA H100 80GB HBM3|SECURE|x8", secure8.launchId());
+        assertEquals("GLOBAL", secure8.region());
+        assertFalse(secure8.isAvailable());
+    }
 }
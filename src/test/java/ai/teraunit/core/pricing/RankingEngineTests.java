@@ -0,0 +1,70 @@
+package ai.teraunit.core.pricing;
+
+import ai.teraunit.core.common.ProviderName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RankingEngineTests {
+
+    @Test
+    void top_ranksByCostPerTflopNotRawPrice() {
+        RankingEngine engine = new RankingEngine(new BootTimes());
+        engine.update(ProviderName.LAMBDA, List.of(
+                new GpuOffer("LAMBDA", "GPU_1X_A100", "gpu_1x_a100", 1.29, "us-east-1", true, "A100-40G-PCIE-x1"),
+                new GpuOffer("LAMBDA", "GPU_8X_H100_SXM5", "gpu_8x_h100_sxm5", 23.92, "us-east-1", true,
+                        "H100-80G-SXM-x8")));
+        engine.update(ProviderName.VAST, List.of(
+                new GpuOffer("VAST", "RTX 4090", "1002", 0.35, "US", true, "RTX4090-24G-PCIE-x1"),
+                new GpuOffer("VAST", "Mystery GPU", "1003", 0.01, "US", true, null)));
+
+        List<RankedOffer> training = engine.top(WorkloadProfile.TRAINING, null, 10);
+        assertEquals(3, training.size());
+        assertEquals("1002", training.get(0).offer().launchId());
+        assertEquals("gpu_8x_h100_sxm5", training.get(1).offer().launchId());
+        assertEquals(8, training.get(1).gpuCount());
+        assertEquals(2.99, training.get(1).pricePerGpuHour(), 1e-9);
+
+        assertEquals("1002", engine.top(WorkloadProfile.VRAM, null, 1).getFirst().offer().launchId());
+        assertEquals(2, engine.top(WorkloadProfile.TRAINING, ProviderName.LAMBDA, 10).size());
+    }
+
+    @Test
+    void remove_dropsProviderFromGlobalRanking() {
+        RankingEngine engine = new RankingEngine(new BootTimes());
+        engine.update(ProviderName.VAST, List.of(
+                new GpuOffer("VAST", "RTX 4090", "1002", 0.35, "US", true, "RTX4090-24G-PCIE-x1")));
+
+        engine.remove(ProviderName.VAST);
+
+        assertTrue(engine.top(WorkloadProfile.INFERENCE, null, 10).isEmpty());
+        assertTrue(engine.top(WorkloadProfile.INFERENCE, ProviderName.VAST, 10).isEmpty());
+    }
+
+    @Test
+    void slowBoots_costMoreThanTheirPriceSuggests() {
+        BootTimes boots = new BootTimes();
+        for (int i = 0; i < BootTimes.MIN_SAMPLES; i++) {
+            boots.record(BootTimes.Key.of(ProviderName.VAST, "1001", "US", "RTX4090-24G-PCIE-x1", "img"),
+                    Duration.ofHours(1));
+        }
+        RankingEngine engine = new RankingEngine(boots);
+        engine.update(ProviderName.VAST, List.of(
+                new GpuOffer("VAST", "RTX 4090", "1001", 0.34, "US", true, "RTX4090-24G-PCIE-x1")));
+        engine.update(ProviderName.RUNPOD, List.of(
+                new GpuOffer("RUNPOD", "RTX 4090", "NVIDIA GeForce RTX 4090", 0.36, "US", true,
+                        "RTX4090-24G-PCIE-x1")));
+
+        List<RankedOffer> ranked = engine.top(WorkloadProfile.TRAINING, null, 10);
+        // An hour of boot over a 4h session is +25%, which outweighs the 2 cents.
+        assertEquals("RUNPOD", ranked.get(0).offer().provider());
+        assertNull(ranked.get(0).typicalBootSeconds());
+        assertEquals(3600.0, ranked.get(1).typicalBootSeconds().doubleValue(),
+                3600 * BootLatencySketch.RELATIVE_ACCURACY);
+    }
+}
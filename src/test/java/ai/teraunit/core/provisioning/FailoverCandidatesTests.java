@@ -0,0 +1,45 @@
+package ai.teraunit.core.provisioning;
+
+import ai.teraunit.core.common.ProviderName;
+import ai.teraunit.core.pricing.GpuOffer;
+import ai.teraunit.core.pricing.OfferIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FailoverCandidatesTests {
+
+    private static final OfferIndex INDEX = OfferIndex.build(List.of(
+            new GpuOffer("LAMBDA", "H100 PCIe", "gpu_1x_h100_pcie", 2.49, "us-east-1", true),
+            new GpuOffer("LAMBDA", "H100 PCIe", "gpu_1x_h100_pcie", 2.49, "us-west-1", true),
+            new GpuOffer("VAST", "H100 PCIE", "5001", 2.10, "US", true),
+            new GpuOffer("VAST", "H100 PCIE", "5002", 2.90, "EU", true),
+            new GpuOffer("VAST", "A100 PCIE", "5003", 1.10, "US", true)));
+
+    private static List<String> keys(List<GpuOffer> offers) {
+        return offers.stream().map(o -> o.provider() + ":" + o.launchId() + ":" + o.region()).toList();
+    }
+
+    @Test
+    void cheapestFirst_acrossAllowedProviders_skippingTried() {
+        List<GpuOffer> next = FailoverCandidates.next(INDEX, "H100", null,
+                List.of(ProviderName.LAMBDA, ProviderName.VAST), 2.50,
+                Set.of(FailoverCandidates.key("VAST", "5001", "US"),
+                        FailoverCandidates.key("LAMBDA", "gpu_1x_h100_pcie", "us-east-1")), 5);
+
+        // The same Lambda type in another region is a separate target; 5002 is over the ceiling;
+        // A100 is another class.
+        assertEquals(List.of("LAMBDA:gpu_1x_h100_pcie:us-west-1"), keys(next));
+    }
+
+    @Test
+    void regionsAndProvidersNarrowTheSearch() {
+        assertEquals(List.of("VAST:5002:EU"), keys(FailoverCandidates.next(INDEX, "H100", List.of("eu"),
+                List.of(ProviderName.VAST, ProviderName.LAMBDA), null, Set.of(), 5)));
+        assertEquals(List.of("VAST:5001:US", "VAST:5002:EU"), keys(FailoverCandidates.next(INDEX, "H100", null,
+                List.of(ProviderName.VAST), null, Set.of(), 5)));
+    }
+}
@@ -0,0 +1,87 @@
+package ai.teraunit.core.provisioning;
+
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Just enough Redis for the launch job tests: strings (SET NX, GET), hashes
+ * and the compare-and-delete release script, shared by every service built
+ * on it the way replicas share one Redis. With {@code down} set, every call
+ * fails like a lost connection.
+ */
+final class InMemoryRedis extends StringRedisTemplate {
+
+    final Map<String, String> values = new ConcurrentHashMap<>();
+    final Map<String, Map<Object, Object>> hashes = new ConcurrentHashMap<>();
+    volatile boolean down;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ValueOperations<String, String> opsForValue() {
+        return proxy(ValueOperations.class, (self, method, args) -> switch (method.getName()) {
+            case "setIfAbsent" -> values.putIfAbsent((String) args[0], (String) args[1]) == null;
+            case "get" -> values.get(args[0]);
+            default -> unsupported(method.getName());
+        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public HashOperations<String, Object, Object> opsForHash() {
+        return proxy(HashOperations.class, (self, method, args) -> switch (method.getName()) {
+            case "putAll" -> {
+                hashes.computeIfAbsent((String) args[0], k -> new ConcurrentHashMap<>())
+                        .putAll((Map<?, ?>) args[1]);
+                yield null;
+            }
+            case "entries" -> new HashMap<>(hashes.getOrDefault((String) args[0], Map.of()));
+            default -> unsupported(method.getName());
+        });
+    }
+
+    @Override
+    public Boolean expire(String key, Duration timeout) {
+        checkUp();
+        return true;
+    }
+
+    // The only script the launch services send here: delete KEYS[1] if it still holds ARGV[1].
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+        checkUp();
+        return (T) (Long) (values.remove(keys.getFirst(), Objects.toString(args[0])) ? 1L : 0L);
+    }
+
+    private <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                (self, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return method.invoke(this, args);
+                    }
+                    checkUp();
+                    return handler.invoke(self, method, args);
+                }));
+    }
+
+    private void checkUp() {
+        if (down) {
+            throw new IllegalStateException("connection refused");
+        }
+    }
+
+    private static Object unsupported(String name) {
+        throw new UnsupportedOperationException("InMemoryRedis does not fake " + name);
+    }
+}
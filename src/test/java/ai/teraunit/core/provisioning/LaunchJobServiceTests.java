@@ -0,0 +1,292 @@
+package ai.teraunit.core.provisioning;
+
+import ai.teraunit.core.api.FailoverPolicy;
+import ai.teraunit.core.api.FleetLaunchRequest;
+import ai.teraunit.core.api.LaunchRequest;
+import ai.teraunit.core.common.ProviderName;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LaunchJobServiceTests {
+
+    private static final VelocityFuse.Caller CALLER = new VelocityFuse.Caller("203.0.113.7", "token-a");
+
+    private final InMemoryRedis redis = new InMemoryRedis();
+    private final FakeProvisioning provisioning = new FakeProvisioning();
+    private final List<LaunchJobService> replicas = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        provisioning.gate.countDown();
+        provisioning.hold.countDown();
+        for (LaunchJobService replica : replicas) {
+            replica.shutdown();
+        }
+    }
+
+    // --- LIFECYCLE ---
+
+    @Test
+    void job_goesFromQueued_throughProvisioning_toSucceeded() throws Exception {
+        LaunchJobService service = replica(8);
+        provisioning.gate = new CountDownLatch(1);
+        provisioning.hold = new CountDownLatch(1);
+
+        LaunchJob queued = service.submit(request(), null, CALLER).job();
+        assertEquals(LaunchPhase.QUEUED, queued.phase());
+        assertEquals(LaunchPhase.QUEUED, service.find(queued.id()).orElseThrow().phase());
+
+        provisioning.gate.countDown();
+        awaitPhase(service, queued.id(), LaunchPhase.PROVISIONING);
+
+        provisioning.hold.countDown();
+        LaunchJob done = awaitPhase(service, queued.id(), LaunchPhase.SUCCEEDED);
+        assertEquals("SUCCESS: LAMBDA::i-1", done.result());
+    }
+
+    @Test
+    void launchThatThrows_endsFailed_withTheClassifiedError() throws Exception {
+        LaunchJobService service = replica(8);
+        provisioning.failure = new RuntimeException("No capacity available");
+
+        String id = service.submit(request(), null, CALLER).job().id();
+
+        LaunchJob failed = awaitPhase(service, id, LaunchPhase.FAILED);
+        assertEquals("FAILED: PROVIDER QUOTA EXCEEDED", failed.result());
+    }
+
+    @Test
+    void fullQueue_rejectsNewLaunches_untilOneFinishes() throws Exception {
+        LaunchJobService service = replica(1);
+        provisioning.gate = new CountDownLatch(1);
+        String first = service.submit(request(), null, CALLER).job().id();
+
+        IllegalStateException full = assertThrows(IllegalStateException.class,
+                () -> service.submit(request(), null, CALLER));
+        assertTrue(full.getMessage().startsWith("LAUNCH_QUEUE_FULL"));
+
+        provisioning.gate.countDown();
+        awaitPhase(service, first, LaunchPhase.SUCCEEDED);
+        // The slot is handed back right after the final phase is written.
+        Instant deadline = Instant.now().plusSeconds(5);
+        LaunchJob next = null;
+        while (next == null) {
+            try {
+                next = service.submit(request(), null, CALLER).job();
+            } catch (IllegalStateException stillFull) {
+                assertTrue(Instant.now().isBefore(deadline), stillFull.getMessage());
+                Thread.sleep(10);
+            }
+        }
+        assertEquals(LaunchPhase.QUEUED, next.phase());
+    }
+
+    @Test
+    void anotherReplica_readsTheJobFromRedis() throws Exception {
+        LaunchJobService runner = replica(8);
+        LaunchJobService poller = replica(8);
+
+        String id = runner.submitFleet(new FleetLaunchRequest(request(), 2, false, null), null, CALLER).job().id();
+        LaunchJob local = awaitPhase(runner, id, LaunchPhase.SUCCEEDED);
+
+        // Written through right after the runner's own state changes.
+        LaunchJob remote = awaitPhase(poller, id, LaunchPhase.SUCCEEDED);
+        assertEquals(local.result(), remote.result());
+        assertEquals(2, remote.count());
+        assertEquals("us-east-1", remote.region());
+        assertEquals(local.members(), remote.members());
+        assertEquals(local.createdAt().toEpochMilli(), remote.createdAt().toEpochMilli());
+        assertTrue(poller.find("no-such-job").isEmpty());
+    }
+
+    @Test
+    void fleetMaxCount_isCappedAtTheFuseLimit() {
+        VelocityFuse fuse = new VelocityFuse(redis, Clock.systemUTC(), true, Duration.ofHours(1), 0, 8, Map.of(), "");
+        LaunchJobService service = new LaunchJobService(provisioning, fuse, redis, new ObjectMapper(),
+                new MockEnvironment(), 4, 8, 64);
+        replicas.add(service);
+
+        // The fuse would refuse nine anyway; the bound reported is the one that applies.
+        IllegalArgumentException tooBig = assertThrows(IllegalArgumentException.class,
+                () -> service.submitFleet(new FleetLaunchRequest(request(), 9, false, null), null, CALLER));
+        assertEquals("count must be between 1 and 8", tooBig.getMessage());
+    }
+
+    // --- IDEMPOTENCY ---
+
+    @Test
+    void firstRequest_claimsTheKey_andARetryReplaysItsJob() {
+        LaunchJobService service = replica(8);
+
+        LaunchJobService.Submission first = service.submit(request(), "retry-me", CALLER);
+        LaunchJobService.Submission retry = service.submit(request(), "retry-me", CALLER);
+
+        assertFalse(first.replayed());
+        assertTrue(retry.replayed());
+        assertEquals(first.job().id(), retry.job().id());
+        assertEquals(1, redis.values.size());
+        assertTrue(redis.values.values().iterator().next().startsWith(first.job().id() + " "));
+    }
+
+    @Test
+    void duplicateOnAnotherReplica_waitsForTheWinnersJob_thenReplaysIt() {
+        LaunchJobService winner = replica(8);
+        LaunchJobService loser = replica(8);
+        provisioning.gate = new CountDownLatch(1);
+        String jobId = winner.submit(request(), "race", CALLER).job().id();
+        // As if the winner had claimed the key but not yet written its job.
+        Map<Object, Object> written = redis.hashes.remove("LAUNCH_JOB:" + jobId);
+        Thread.ofVirtual().start(() -> {
+            sleep(Duration.ofMillis(200));
+            redis.hashes.put("LAUNCH_JOB:" + jobId, written);
+        });
+
+        LaunchJobService.Submission duplicate = loser.submit(request(), "race", CALLER);
+
+        assertTrue(duplicate.replayed());
+        assertEquals(jobId, duplicate.job().id());
+    }
+
+    @Test
+    void sameKey_forADifferentLaunch_isRejected() {
+        LaunchJobService service = replica(8);
+        service.submit(request(), "once", CALLER);
+
+        LaunchRequest otherRegion = new LaunchRequest(ProviderName.LAMBDA, "key", "gpu_1x_h100_pcie", "us-west-1",
+                "ssh", 0, null, 0, null);
+        IllegalArgumentException reused = assertThrows(IllegalArgumentException.class,
+                () -> service.submit(otherRegion, "once", CALLER));
+        assertTrue(reused.getMessage().startsWith("IDEMPOTENCY_KEY_REUSED"));
+    }
+
+    @Test
+    void sameKey_withADifferentFailoverPolicy_isRejected() {
+        LaunchJobService service = replica(8);
+        service.submit(request(), "once", CALLER);
+
+        LaunchRequest withFailover = new LaunchRequest(ProviderName.LAMBDA, "key", "gpu_1x_h100_pcie", "us-east-1",
+                "ssh", 0, null, 0, new FailoverPolicy("H100", 4.0, List.of(), List.of(), Map.of(), 30, 3));
+        assertThrows(IllegalArgumentException.class, () -> service.submit(withFailover, "once", CALLER));
+    }
+
+    @Test
+    void keyIsReleased_whenTheLaunchCannotBeQueued() {
+        LaunchJobService service = replica(1);
+        provisioning.gate = new CountDownLatch(1);
+        service.submit(request(), null, CALLER);
+
+        IllegalStateException full = assertThrows(IllegalStateException.class,
+                () -> service.submit(request(), "after-the-rush", CALLER));
+        assertTrue(full.getMessage().startsWith("LAUNCH_QUEUE_FULL"));
+        // Nothing launched, so a retry with the same key must get a fresh claim.
+        assertTrue(redis.values.isEmpty());
+    }
+
+    @Test
+    void redisDown_failsOpen_andLaunchesWithoutDeduplication() {
+        LaunchJobService service = replica(8);
+        redis.down = true;
+
+        LaunchJobService.Submission first = service.submit(request(), "no-redis", CALLER);
+        LaunchJobService.Submission second = service.submit(request(), "no-redis", CALLER);
+
+        assertFalse(first.replayed());
+        assertFalse(second.replayed());
+        assertNotEquals(first.job().id(), second.job().id());
+    }
+
+    // --- HELPERS ---
+
+    private LaunchJobService replica(int maxPending) {
+        VelocityFuse fuse = new VelocityFuse(redis, Clock.systemUTC(), false, Duration.ofHours(1), 0, 0, Map.of(), "");
+        LaunchJobService service = new LaunchJobService(provisioning, fuse, redis, new ObjectMapper(),
+                new MockEnvironment(), 4, maxPending, 8);
+        replicas.add(service);
+        return service;
+    }
+
+    private static LaunchRequest request() {
+        return new LaunchRequest(ProviderName.LAMBDA, "key", "gpu_1x_h100_pcie", "us-east-1", "ssh", 0, null, 0,
+                null);
+    }
+
+    private static LaunchJob awaitPhase(LaunchJobService service, String id, LaunchPhase phase)
+            throws InterruptedException {
+        Instant deadline = Instant.now().plusSeconds(5);
+        LaunchJob job = service.find(id).orElseThrow();
+        while (job.phase() != phase) {
+            assertTrue(Instant.now().isBefore(deadline), "still " + job.phase() + ", expected " + phase);
+            Thread.sleep(10);
+            job = service.find(id).orElseThrow();
+        }
+        return job;
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Launches report PROVISIONING once {@code gate} opens and finish once
+     * {@code hold} does (both open unless a test closes them), then succeed
+     * unless {@code failure} is set.
+     */
+    static final class FakeProvisioning extends ProvisioningService {
+        volatile CountDownLatch gate = new CountDownLatch(0);
+        volatile CountDownLatch hold = new CountDownLatch(0);
+        volatile RuntimeException failure;
+        private final AtomicInteger launched = new AtomicInteger();
+
+        FakeProvisioning() {
+            super(null, null, null, null, null, null, null, 0, 0, 1);
+        }
+
+        @Override
+        public String launch(LaunchRequest request, Consumer<LaunchPhase> progress) throws InterruptedException {
+            provision(progress);
+            return "SUCCESS: LAMBDA::i-" + launched.incrementAndGet();
+        }
+
+        @Override
+        public FleetOutcome launchFleet(FleetLaunchRequest fleet, Consumer<LaunchPhase> progress)
+                throws InterruptedException {
+            provision(progress);
+            List<FleetMember> members = new ArrayList<>();
+            for (int i = 0; i < fleet.count(); i++) {
+                members.add(FleetMember.launched(i, "hb-" + i, "LAMBDA::i-" + launched.incrementAndGet()));
+            }
+            return new FleetOutcome("SUCCESS: " + fleet.count() + "/" + fleet.count() + " LAUNCHED", members);
+        }
+
+        private void provision(Consumer<LaunchPhase> progress) throws InterruptedException {
+            gate.await();
+            progress.accept(LaunchPhase.PROVISIONING);
+            hold.await();
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
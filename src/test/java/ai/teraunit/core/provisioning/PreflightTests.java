@@ -0,0 +1,77 @@
+package ai.teraunit.core.provisioning;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PreflightTests {
+
+    @Test
+    void stepsRunConcurrently() throws Exception {
+        // Each step waits for the other at the barrier: run one after the
+        // other, the first would time out there instead of returning.
+        CyclicBarrier bothRunning = new CyclicBarrier(2);
+        CompletableFuture<String> a;
+        CompletableFuture<Integer> b;
+        try (Preflight preflight = new Preflight()) {
+            a = preflight.fork("a", Duration.ofSeconds(5), () -> {
+                bothRunning.await(2, TimeUnit.SECONDS);
+                return "ok";
+            });
+            b = preflight.fork("b", Duration.ofSeconds(5), () -> {
+                bothRunning.await(2, TimeUnit.SECONDS);
+                return 42;
+            });
+            preflight.join();
+        }
+
+        assertEquals("ok", a.join());
+        assertEquals(Integer.valueOf(42), b.join());
+    }
+
+    @Test
+    void firstFailure_interruptsTheOthers() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        try (Preflight preflight = new Preflight()) {
+            preflight.fork("slow", Duration.ofSeconds(30), () -> {
+                try {
+                    Thread.sleep(30_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    throw e;
+                }
+                return null;
+            });
+            preflight.fork("verify", Duration.ofSeconds(30), () -> {
+                throw new Preflight.Rejected("QUOTA_EXCEEDED_OR_AUTH_FAILURE");
+            });
+
+            Preflight.Rejected e = assertThrows(Preflight.Rejected.class, preflight::join);
+            assertEquals("QUOTA_EXCEEDED_OR_AUTH_FAILURE", e.getMessage());
+        }
+        assertTrue(interrupted.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void missedDeadline_isReportedAsTimeoutOfThatStep() {
+        try (Preflight preflight = new Preflight()) {
+            preflight.fork("price", Duration.ofSeconds(5), () -> 1.0);
+            preflight.fork("verify", Duration.ofMillis(100), () -> {
+                Thread.sleep(30_000);
+                return true;
+            });
+
+            Preflight.DeadlineExceeded e = assertThrows(Preflight.DeadlineExceeded.class, preflight::join);
+            assertEquals("verify", e.step());
+            assertEquals("FAILED: PROVIDER TIMEOUT (VERIFY)", LaunchFailure.describe(e));
+        }
+    }
+}
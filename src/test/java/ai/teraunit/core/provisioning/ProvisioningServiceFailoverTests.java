@@ -0,0 +1,211 @@
+package ai.teraunit.core.provisioning;
+
+import ai.teraunit.core.api.FailoverPolicy;
+import ai.teraunit.core.api.LaunchRequest;
+import ai.teraunit.core.common.ProviderName;
+import ai.teraunit.core.pricing.GpuOffer;
+import ai.teraunit.core.pricing.OfferIndex;
+import ai.teraunit.core.pricing.OfferIndexService;
+import ai.teraunit.core.security.KeyVaultService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProvisioningServiceFailoverTests {
+
+    private final CloudExecutor executor = mock(CloudExecutor.class);
+    private final ReaperService reaper = mock(ReaperService.class);
+    private final OfferIndexService offerIndex = mock(OfferIndexService.class);
+    private final List<String> attempted = new ArrayList<>();
+
+    private ProvisioningService service;
+
+    @BeforeEach
+    void setUp() {
+        ProviderVerifier verifier = mock(ProviderVerifier.class);
+        when(verifier.verify(any(), anyString())).thenReturn(true);
+        KeyVaultService vault = mock(KeyVaultService.class);
+        when(vault.encrypt(anyString())).thenAnswer(call -> "sealed:" + call.getArgument(0));
+        WarmPool warmPool = mock(WarmPool.class);
+        when(warmPool.claim(any(), anyString())).thenReturn(Optional.empty());
+        service = new ProvisioningService(vault, verifier, new EgressGuard(), executor, reaper, offerIndex,
+                warmPool, 2000, 2000, 4);
+    }
+
+    @Test
+    void soldOutCandidates_areRetriedUpToMaxAttempts_thenTheLastFailureIsThrown() {
+        market(lambda("us-east-1", 2.49), lambda("us-west-1", 2.49), lambda("us-south-1", 2.59),
+                lambda("us-midwest-1", 2.69));
+        provisionAnswers(target -> {
+            throw new RuntimeException("insufficient capacity for " + target);
+        });
+
+        RuntimeException thrown = assertThrows(RuntimeException.class,
+                () -> service.launch(request("us-east-1", policy(List.of(ProviderName.LAMBDA), Map.of(), 60, 2)),
+                        phase -> {
+                        }));
+
+        assertEquals(List.of("LAMBDA gpu_1x_h100_pcie us-east-1", "LAMBDA gpu_1x_h100_pcie us-west-1",
+                "LAMBDA gpu_1x_h100_pcie us-south-1"), attempted);
+        assertEquals("insufficient capacity for LAMBDA gpu_1x_h100_pcie us-south-1", thrown.getMessage());
+    }
+
+    @Test
+    void spentTimeBudget_rethrowsTheOriginalSoldOut_withoutRetrying() {
+        market(lambda("us-east-1", 2.49), lambda("us-west-1", 2.49));
+        RuntimeException soldOut = new RuntimeException("No capacity available");
+        provisionAnswers(target -> {
+            throw soldOut;
+        });
+
+        RuntimeException thrown = assertThrows(RuntimeException.class,
+                () -> service.launch(request("us-east-1", policy(List.of(ProviderName.LAMBDA), Map.of(), 0, 5)),
+                        phase -> {
+                        }));
+
+        assertSame(soldOut, thrown);
+        assertEquals(1, attempted.size());
+    }
+
+    @Test
+    void genericServiceUnavailable_isNotTreatedAsSoldOut() {
+        market(lambda("us-east-1", 2.49), lambda("us-west-1", 2.49));
+        provisionAnswers(target -> {
+            throw new RuntimeException("503 Service Unavailable");
+        });
+
+        assertThrows(RuntimeException.class,
+                () -> service.launch(request("us-east-1", policy(List.of(ProviderName.LAMBDA), Map.of(), 60, 5)),
+                        phase -> {
+                        }));
+
+        assertEquals(1, attempted.size());
+    }
+
+    @Test
+    void nonCapacityFailure_dropsThatProvider_forTheRestOfTheFailover() throws Exception {
+        market(lambda("us-east-1", 2.49), vast("5001", 2.10), vast("5002", 2.20), lambda("us-west-1", 2.49));
+        provisionAnswers(target -> switch (target) {
+            case "VAST 5001 US" -> throw new RuntimeException("Insufficient balance");
+            case "LAMBDA gpu_1x_h100_pcie us-west-1" -> "LAMBDA::i-west";
+            default -> throw new RuntimeException("No capacity available");
+        });
+
+        String result = service.launch(request("us-east-1", policy(List.of(ProviderName.LAMBDA, ProviderName.VAST),
+                Map.of(ProviderName.VAST, "vast-key"), 60, 5)), phase -> {
+                });
+
+        assertTrue(result.startsWith("SUCCESS: LAMBDA::i-west (FAILOVER: LAMBDA"), result);
+        assertEquals(List.of("LAMBDA gpu_1x_h100_pcie us-east-1", "VAST 5001 US",
+                "LAMBDA gpu_1x_h100_pcie us-west-1"), attempted);
+    }
+
+    @Test
+    void providerWithoutAKey_isNeverTried() throws Exception {
+        market(lambda("us-east-1", 2.49), vast("5001", 2.10), lambda("us-west-1", 2.49));
+        provisionAnswers(target -> target.endsWith("us-west-1") ? "LAMBDA::i-west" : fail("No capacity available"));
+
+        service.launch(request("us-east-1", policy(List.of(ProviderName.LAMBDA, ProviderName.VAST), Map.of(), 60, 5)),
+                phase -> {
+                });
+
+        assertEquals(List.of("LAMBDA gpu_1x_h100_pcie us-east-1", "LAMBDA gpu_1x_h100_pcie us-west-1"), attempted);
+    }
+
+    @Test
+    void candidates_passTheSameSovereigntyAndEgressRulesAsTheTarget() throws Exception {
+        // Moving 10 GB costs $0.90: fine at $0.40/hr saved, not at $0.01/hr.
+        market(lambda("eu-west-1", 2.49), lambda("us-east-1", 1.00), lambda("eu-north-1", 2.99),
+                lambda("eu-central-1", 2.60));
+        provisionAnswers(target -> target.endsWith("eu-central-1") ? "LAMBDA::i-eu" : fail("No capacity available"));
+        LaunchRequest request = new LaunchRequest(ProviderName.LAMBDA, "key", "gpu_1x_h100_pcie", "eu-west-1",
+                "ssh", 10, "eu-central-1", 3.00, policy(List.of(ProviderName.LAMBDA), Map.of(), 60, 5));
+
+        service.launch(request, phase -> {
+        });
+
+        assertEquals(List.of("LAMBDA gpu_1x_h100_pcie eu-west-1", "LAMBDA gpu_1x_h100_pcie eu-central-1"),
+                attempted);
+    }
+
+    @Test
+    void crossProviderPlacement_isRecordedWithThatProvidersSealedKey() throws Exception {
+        market(lambda("us-east-1", 2.49), vast("5001", 2.10));
+        provisionAnswers(target -> target.startsWith("VAST") ? "VAST::5001-live" : fail("No capacity available"));
+
+        service.launch(request("us-east-1", policy(List.of(ProviderName.LAMBDA, ProviderName.VAST),
+                Map.of(ProviderName.VAST, " vast-key "), 60, 5)), phase -> {
+                });
+
+        verify(reaper).registerBirth(eq("5001-live"), anyString(), anyString(), eq(ProviderName.VAST),
+                eq("sealed:vast-key"), any());
+    }
+
+    @Test
+    void sameProviderPlacement_keepsTheRequestsSealedKey() throws Exception {
+        market(lambda("us-east-1", 2.49), lambda("us-west-1", 2.49));
+        provisionAnswers(target -> target.endsWith("us-west-1") ? "LAMBDA::i-west" : fail("No capacity available"));
+
+        service.launch(request("us-east-1", policy(List.of(ProviderName.LAMBDA), Map.of(), 60, 5)), phase -> {
+        });
+
+        verify(reaper).registerBirth(eq("i-west"), anyString(), anyString(), eq(ProviderName.LAMBDA),
+                eq("sealed:key"), any());
+    }
+
+    // --- HELPERS ---
+
+    private interface Outcome {
+        String provision(String target);
+    }
+
+    // Records each target as "PROVIDER instanceType region", then answers for it.
+    private void provisionAnswers(Outcome outcome) {
+        when(executor.provision(any(), anyString(), anyString(), anyString())).thenAnswer(call -> {
+            LaunchRequest launch = call.getArgument(0);
+            String target = launch.provider() + " " + launch.instanceType() + " " + launch.region();
+            attempted.add(target);
+            return outcome.provision(target);
+        });
+    }
+
+    private void market(GpuOffer... offers) {
+        when(offerIndex.current()).thenReturn(OfferIndex.build(List.of(offers)));
+    }
+
+    private static String fail(String message) {
+        throw new RuntimeException(message);
+    }
+
+    private static GpuOffer lambda(String region, double price) {
+        return new GpuOffer("LAMBDA", "H100 PCIe", "gpu_1x_h100_pcie", price, region, true);
+    }
+
+    private static GpuOffer vast(String id, double price) {
+        return new GpuOffer("VAST", "H100 PCIE", id, price, "US", true);
+    }
+
+    private static FailoverPolicy policy(List<ProviderName> providers, Map<ProviderName, String> apiKeys,
+            int budgetSeconds, int maxAttempts) {
+        return new FailoverPolicy("H100", 5.0, List.of(), providers, apiKeys, budgetSeconds, maxAttempts);
+    }
+
+    private static LaunchRequest request(String region, FailoverPolicy policy) {
+        return new LaunchRequest(ProviderName.LAMBDA, "key", "gpu_1x_h100_pcie", region, "ssh", 0, null, 0, policy);
+    }
+}
@@ -0,0 +1,158 @@
+package ai.teraunit.core.provisioning;
+
+import ai.teraunit.core.api.FleetLaunchRequest;
+import ai.teraunit.core.api.LaunchRequest;
+import ai.teraunit.core.common.ProviderName;
+import ai.teraunit.core.pricing.OfferIndex;
+import ai.teraunit.core.pricing.OfferIndexService;
+import ai.teraunit.core.security.KeyVaultService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProvisioningServiceFleetTests {
+
+    private final CloudExecutor executor = mock(CloudExecutor.class);
+    private final ReaperService reaper = mock(ReaperService.class);
+    private final AtomicInteger provisioned = new AtomicInteger();
+
+    private ProvisioningService service;
+
+    @BeforeEach
+    void setUp() {
+        ProviderVerifier verifier = mock(ProviderVerifier.class);
+        when(verifier.verify(any(), anyString())).thenReturn(true);
+        KeyVaultService vault = mock(KeyVaultService.class);
+        when(vault.encrypt(anyString())).thenReturn("sealed");
+        OfferIndexService offerIndex = mock(OfferIndexService.class);
+        when(offerIndex.current()).thenReturn(OfferIndex.EMPTY);
+        service = new ProvisioningService(vault, verifier, new EgressGuard(), executor, reaper, offerIndex,
+                null, 2000, 2000, 4);
+    }
+
+    @Test
+    void partialFailure_registersTheMembersThatLaunched() throws Exception {
+        failEvery(3, new RuntimeException("No capacity available"));
+
+        ProvisioningService.FleetOutcome outcome = service.launchFleet(fleet(3, false), phase -> {
+        });
+
+        assertEquals("PARTIAL: 2/3 LAUNCHED (1 FAILED)", outcome.summary());
+        assertEquals(2, count(outcome, FleetMember.Status.LAUNCHED));
+        assertEquals(1, count(outcome, FleetMember.Status.FAILED));
+        verify(reaper).registerBirths(argThatHasSize(2), eq(ProviderName.LAMBDA), eq("sealed"), any());
+        verify(reaper, never()).rollBack(anyList(), any(), anyString());
+    }
+
+    @Test
+    void allOrNothing_rollsBackTheMembersThatLaunched() throws Exception {
+        failEvery(3, new RuntimeException("No capacity available"));
+        when(reaper.rollBack(anyList(), eq(ProviderName.LAMBDA), anyString())).thenReturn(Set.of());
+
+        ProvisioningService.FleetOutcome outcome = service.launchFleet(fleet(3, true), phase -> {
+        });
+
+        assertTrue(outcome.summary().startsWith("FAILED: FLEET ROLLED BACK (1/3 FAILED"), outcome.summary());
+        assertEquals(2, count(outcome, FleetMember.Status.ROLLED_BACK));
+        assertEquals(1, count(outcome, FleetMember.Status.FAILED));
+    }
+
+    @Test
+    void rollback_reportsInstancesThatCouldNotBeTerminated() throws Exception {
+        failEvery(3, new RuntimeException("No capacity available"));
+        when(reaper.rollBack(anyList(), eq(ProviderName.LAMBDA), anyString()))
+                .thenAnswer(call -> Set.of(call.<List<String>>getArgument(0).getFirst()));
+
+        ProvisioningService.FleetOutcome outcome = service.launchFleet(fleet(3, true), phase -> {
+        });
+
+        assertTrue(outcome.summary().endsWith(" - 1 INSTANCE(S) COULD NOT BE TERMINATED"), outcome.summary());
+        assertEquals(1, count(outcome, FleetMember.Status.ROLLED_BACK));
+        assertEquals(1, count(outcome, FleetMember.Status.ROLLBACK_FAILED));
+    }
+
+    @Test
+    void ledgerWriteFailure_terminatesEveryLaunchedMember() throws Exception {
+        when(executor.provision(any(), anyString(), anyString(), anyString()))
+                .thenAnswer(call -> "LAMBDA::i-" + provisioned.incrementAndGet());
+        when(executor.terminate(anyString(), eq(ProviderName.LAMBDA), anyString())).thenReturn(true);
+        doThrow(new IllegalStateException("database down"))
+                .when(reaper).registerBirths(anyList(), any(), anyString(), any());
+
+        ProvisioningService.FleetOutcome outcome = service.launchFleet(fleet(3, false), phase -> {
+        });
+
+        assertEquals("FAILED: FLEET ROLLED BACK (LEDGER WRITE FAILED)", outcome.summary());
+        assertEquals(3, count(outcome, FleetMember.Status.ROLLED_BACK));
+        verify(executor, times(3)).terminate(anyString(), eq(ProviderName.LAMBDA), anyString());
+    }
+
+    @Test
+    void memberThatDiesWithAnError_isAFailure_notAHole() throws Exception {
+        failEvery(3, new StackOverflowError());
+
+        ProvisioningService.FleetOutcome outcome = service.launchFleet(fleet(3, false), phase -> {
+        });
+
+        assertEquals(3, outcome.members().size());
+        assertEquals(1, outcome.members().stream().filter(m -> "FAILED: LAUNCH_ABORTED".equals(m.error())).count());
+        assertEquals("PARTIAL: 2/3 LAUNCHED (1 FAILED)", outcome.summary());
+    }
+
+    @Test
+    void priceCeiling_withNoLivePrice_launchesNothing() throws Exception {
+        LaunchRequest instance = new LaunchRequest(ProviderName.LAMBDA, "key", "gpu_1x_h100_pcie", "us-east-1",
+                "ssh", 0, null, 0, null);
+
+        ProvisioningService.FleetOutcome outcome = service.launchFleet(
+                new FleetLaunchRequest(instance, 3, false, 2.50), phase -> {
+                });
+
+        assertTrue(outcome.summary().startsWith("FAILED: PRICE_UNKNOWN"), outcome.summary());
+        assertTrue(outcome.members().isEmpty());
+        verify(executor, never()).provision(any(), anyString(), anyString(), anyString());
+        verify(reaper, never()).registerBirths(anyList(), any(), anyString(), any());
+    }
+
+    // Every n-th provider call throws; the rest launch.
+    private void failEvery(int n, Throwable failure) {
+        when(executor.provision(any(), anyString(), anyString(), anyString())).thenAnswer(call -> {
+            int attempt = provisioned.incrementAndGet();
+            if (attempt % n == 0) {
+                throw failure;
+            }
+            return "LAMBDA::i-" + attempt;
+        });
+    }
+
+    private static List<ReaperService.Birth> argThatHasSize(int size) {
+        return argThat(births -> births != null && births.size() == size);
+    }
+
+    private static long count(ProvisioningService.FleetOutcome outcome, FleetMember.Status status) {
+        return outcome.members().stream().filter(m -> m.status() == status).count();
+    }
+
+    private static FleetLaunchRequest fleet(int count, boolean allOrNothing) {
+        LaunchRequest instance = new LaunchRequest(ProviderName.LAMBDA, "key", "gpu_1x_h100_pcie", "us-east-1",
+                "ssh", 0, null, 0, null);
+        return new FleetLaunchRequest(instance, count, allOrNothing, null);
+    }
+}
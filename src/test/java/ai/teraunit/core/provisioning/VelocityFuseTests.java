@@ -0,0 +1,142 @@
+package ai.teraunit.core.provisioning;
+
+import ai.teraunit.core.common.ProviderName;
+import ai.teraunit.core.support.MutableClock;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VelocityFuseTests {
+
+    private static final VelocityFuse.Caller PUBLIC = new VelocityFuse.Caller("203.0.113.7", "token-a");
+    private static final Duration HOUR = Duration.ofHours(1);
+
+    @Test
+    void redisDown_localWindowStillEnforcesTheLimit() {
+        MutableClock clock = new MutableClock();
+        FakeRedis redis = new FakeRedis(() -> {
+            throw new IllegalStateException("connection refused");
+        });
+        VelocityFuse fuse = new VelocityFuse(redis, clock, true, HOUR, 3, 0, Map.of(), "");
+
+        fuse.check(PUBLIC, ProviderName.LAMBDA, 2);
+        clock.advance(Duration.ofMinutes(10));
+        fuse.check(PUBLIC, ProviderName.LAMBDA, 1);
+
+        VelocityFuse.Tripped tripped = assertThrows(VelocityFuse.Tripped.class,
+                () -> fuse.check(PUBLIC, ProviderName.LAMBDA, 1));
+        assertEquals(Duration.ofMinutes(50), tripped.retryAfter());
+
+        // The first two age out together.
+        clock.advance(Duration.ofMinutes(50));
+        fuse.check(PUBLIC, ProviderName.LAMBDA, 2);
+    }
+
+    @Test
+    void redisVerdict_isHonouredLocallyUntilRetryAfter() {
+        MutableClock clock = new MutableClock();
+        FakeRedis redis = new FakeRedis(() -> List.of(1L, 30_000L));
+        VelocityFuse fuse = new VelocityFuse(redis, clock, true, HOUR, 5, 0, Map.of(), "");
+
+        assertThrows(VelocityFuse.Tripped.class, () -> fuse.check(PUBLIC, ProviderName.VAST, 1));
+        assertThrows(VelocityFuse.Tripped.class, () -> fuse.check(PUBLIC, ProviderName.VAST, 1));
+        assertEquals(1, redis.calls.size());
+
+        clock.advance(Duration.ofSeconds(30));
+        redis.verdict = () -> List.of(0L, 0L);
+        fuse.check(PUBLIC, ProviderName.VAST, 1);
+        assertEquals(2, redis.calls.size());
+    }
+
+    @Test
+    void everyLimitedDimensionIsCheckedInOneRoundTrip() {
+        FakeRedis redis = new FakeRedis(() -> List.of(0L, 0L));
+        VelocityFuse fuse = new VelocityFuse(redis, new MutableClock(), true, HOUR, 5, 20,
+                Map.of(ProviderName.RUNPOD, 50), "");
+
+        fuse.check(PUBLIC, ProviderName.RUNPOD, 4);
+
+        assertEquals(List.of(List.of("FUSE:client:203.0.113.7", "FUSE:token:token-a", "FUSE:provider:RUNPOD")),
+                redis.calls);
+    }
+
+    @Test
+    void adminIpsSkipOnlyTheClientLimit() {
+        FakeRedis redis = new FakeRedis(() -> List.of(0L, 0L));
+        VelocityFuse fuse = new VelocityFuse(redis, new MutableClock(), true, HOUR, 1, 0,
+                Map.of(ProviderName.LAMBDA, 10), "127.0.0.1");
+        VelocityFuse.Caller admin = new VelocityFuse.Caller("127.0.0.1", "token-a");
+
+        fuse.check(admin, ProviderName.VAST, 3);
+        fuse.check(admin, ProviderName.LAMBDA, 3);
+
+        assertEquals(List.of(List.of("FUSE:provider:LAMBDA")), redis.calls);
+    }
+
+    @Test
+    void moreLaunchesThanTheLimit_areRejectedUpFront_notTripped() {
+        FakeRedis redis = new FakeRedis(() -> List.of(0L, 0L));
+        VelocityFuse fuse = new VelocityFuse(redis, new MutableClock(), true, HOUR, 5, 0, Map.of(), "");
+
+        // Waiting would never help, so this is a bad request, not a 429.
+        assertThrows(IllegalArgumentException.class, () -> fuse.check(PUBLIC, ProviderName.VAST, 6));
+        assertTrue(redis.calls.isEmpty());
+        fuse.check(PUBLIC, ProviderName.VAST, 5);
+    }
+
+    @Test
+    void largestAdmission_isTheSmallestLimitInForce() {
+        FakeRedis redis = new FakeRedis(() -> List.of(0L, 0L));
+
+        assertEquals(20, new VelocityFuse(redis, new MutableClock(), true, HOUR, 0, 64,
+                Map.of(ProviderName.RUNPOD, 20, ProviderName.VAST, 0), "").largestAdmission());
+        assertEquals(Integer.MAX_VALUE, new VelocityFuse(redis, new MutableClock(), true, HOUR, 0, 0,
+                Map.of(), "").largestAdmission());
+        assertEquals(Integer.MAX_VALUE, new VelocityFuse(redis, new MutableClock(), false, HOUR, 5, 5,
+                Map.of(), "").largestAdmission());
+    }
+
+    @Test
+    void refund_givesTheBudgetBack() {
+        MutableClock clock = new MutableClock();
+        FakeRedis redis = new FakeRedis(() -> {
+            throw new IllegalStateException("connection refused");
+        });
+        VelocityFuse fuse = new VelocityFuse(redis, clock, true, HOUR, 3, 0, Map.of(), "");
+
+        fuse.check(PUBLIC, ProviderName.LAMBDA, 1);
+        VelocityFuse.Admission queueFull = fuse.check(PUBLIC, ProviderName.LAMBDA, 2);
+        assertThrows(VelocityFuse.Tripped.class, () -> fuse.check(PUBLIC, ProviderName.LAMBDA, 1));
+
+        fuse.refund(queueFull);
+        fuse.check(PUBLIC, ProviderName.LAMBDA, 2);
+        // admit, admit, (tripped locally), refund, admit: the refund was sent to Redis too.
+        assertEquals(4, redis.calls.size());
+    }
+
+    private static final class FakeRedis extends StringRedisTemplate {
+        private final List<List<String>> calls = new ArrayList<>();
+        private Supplier<List<Long>> verdict;
+
+        FakeRedis(Supplier<List<Long>> verdict) {
+            this.verdict = verdict;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+            calls.add(List.copyOf(keys));
+            return (T) verdict.get();
+        }
+    }
+}
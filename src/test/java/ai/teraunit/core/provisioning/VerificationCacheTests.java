@@ -0,0 +1,55 @@
+package ai.teraunit.core.provisioning;
+
+import ai.teraunit.core.common.ProviderName;
+import ai.teraunit.core.support.MutableClock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VerificationCacheTests {
+
+    @Test
+    void remembered_untilTtlElapses() {
+        MutableClock clock = new MutableClock();
+        VerificationCache cache = new VerificationCache(Duration.ofSeconds(60), clock);
+
+        assertFalse(cache.isVerified(ProviderName.LAMBDA, "key-1", "laptop"));
+        cache.remember(ProviderName.LAMBDA, "key-1", "laptop");
+        assertTrue(cache.isVerified(ProviderName.LAMBDA, "key-1", "laptop"));
+
+        clock.advance(Duration.ofSeconds(59));
+        assertTrue(cache.isVerified(ProviderName.LAMBDA, "key-1", "laptop"));
+        clock.advance(Duration.ofSeconds(1));
+        assertFalse(cache.isVerified(ProviderName.LAMBDA, "key-1", "laptop"));
+    }
+
+    @Test
+    void entriesAreScopedToProviderKeyAndSshKey() {
+        VerificationCache cache = new VerificationCache(Duration.ofSeconds(60), new MutableClock());
+        cache.remember(ProviderName.LAMBDA, "key-1", "laptop");
+
+        assertFalse(cache.isVerified(ProviderName.RUNPOD, "key-1", "laptop"));
+        assertFalse(cache.isVerified(ProviderName.LAMBDA, "key-2", "laptop"));
+        assertFalse(cache.isVerified(ProviderName.LAMBDA, "key-1", "desktop"));
+        // Field boundaries are part of the digest.
+        assertFalse(cache.isVerified(ProviderName.LAMBDA, "key-1l", "aptop"));
+    }
+
+    @Test
+    void invalidate_dropsEntryImmediately() {
+        VerificationCache cache = new VerificationCache(Duration.ofSeconds(60), new MutableClock());
+        cache.remember(ProviderName.VAST, "key-1", null);
+        cache.invalidate(ProviderName.VAST, "key-1", null);
+        assertFalse(cache.isVerified(ProviderName.VAST, "key-1", null));
+    }
+
+    @Test
+    void zeroTtl_disablesCaching() {
+        VerificationCache cache = new VerificationCache(Duration.ZERO, new MutableClock());
+        cache.remember(ProviderName.VAST, "key-1", null);
+        assertFalse(cache.isVerified(ProviderName.VAST, "key-1", null));
+    }
+}
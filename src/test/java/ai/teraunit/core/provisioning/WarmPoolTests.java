@@ -0,0 +1,219 @@
+package ai.teraunit.core.provisioning;
+
+import ai.teraunit.core.api.LaunchRequest;
+import ai.teraunit.core.common.ProviderName;
+import ai.teraunit.core.pricing.BootTimes;
+import ai.teraunit.core.pricing.GpuOffer;
+import ai.teraunit.core.pricing.OfferIndex;
+import ai.teraunit.core.pricing.OfferIndexService;
+import ai.teraunit.core.repository.InstanceEntity;
+import ai.teraunit.core.repository.InstanceRepository;
+import ai.teraunit.core.security.KeyVaultService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WarmPoolTests {
+
+    private static final String SKU_KEY = "LAMBDA:gpu_1x_h100_pcie:us-east-1";
+    private static final String LOCK_KEY = "POOL_REFILL:" + SKU_KEY;
+
+    private final ReaperService reaper = mock(ReaperService.class);
+    private final CloudExecutor cloud = mock(CloudExecutor.class);
+    private final OfferIndexService offerIndex = mock(OfferIndexService.class);
+    private final InMemoryRedis redis = new InMemoryRedis();
+    private final AtomicInteger booted = new AtomicInteger();
+
+    private WarmPool pool;
+
+    @BeforeEach
+    void setUp() {
+        KeyVaultService vault = mock(KeyVaultService.class);
+        when(vault.encrypt(anyString())).thenReturn("sealed");
+        when(offerIndex.current()).thenReturn(OfferIndex.EMPTY);
+        MockEnvironment env = new MockEnvironment().withProperty("teraunit.pool.api-key.lambda", "pool-key");
+        pool = new WarmPool(reaper, cloud, vault, offerIndex, redis, env, true,
+                "LAMBDA:gpu_1x_h100_pcie:us-east-1:3", 5.0, "pool-ssh", 30000);
+    }
+
+    private static LaunchRequest request(ProviderName provider, String type, String region) {
+        return new LaunchRequest(provider, "key", type, region, "ssh", 0, null, 0, null);
+    }
+
+    @Test
+    void parsesSkuList_splittingOnlyTheEnds() {
+        List<WarmPool.Sku> skus = WarmPool.Sku.parseAll(
+                "lambda:gpu_1x_h100_pcie:us-east-1:2, RUNPOD:NVIDIA H100 80GB HBM3|SECURE|x1:EU-RO-1::1");
+
+        assertEquals(new WarmPool.Sku(ProviderName.LAMBDA, "gpu_1x_h100_pcie", "us-east-1", 2), skus.get(0));
+        // Everything between the provider and the region is the launch id, colons included.
+        WarmPool.Sku runPod = skus.get(1);
+        assertEquals("NVIDIA H100 80GB HBM3|SECURE|x1:EU-RO-1", runPod.instanceType());
+        assertNull(runPod.region());
+        assertEquals(1, runPod.target());
+        assertEquals("RUNPOD:NVIDIA H100 80GB HBM3|SECURE|x1:EU-RO-1:", runPod.key());
+    }
+
+    @Test
+    void emptyConfig_meansNoPool() {
+        assertTrue(WarmPool.Sku.parseAll("").isEmpty());
+        assertTrue(WarmPool.Sku.parseAll(null).isEmpty());
+    }
+
+    @Test
+    void malformedEntries_failFast() {
+        assertThrows(IllegalArgumentException.class, () -> WarmPool.Sku.parse("LAMBDA:gpu_1x_h100_pcie:2"));
+        assertThrows(IllegalArgumentException.class, () -> WarmPool.Sku.parse("LAMBDA:gpu:us-east-1:two"));
+        assertThrows(IllegalArgumentException.class, () -> WarmPool.Sku.parse("NOPE:gpu:us-east-1:1"));
+    }
+
+    @Test
+    void matches_sameProviderTypeAndRegionOnly() {
+        WarmPool.Sku sku = WarmPool.Sku.parse("LAMBDA:gpu_1x_h100_pcie:us-east-1:2");
+
+        assertTrue(sku.matches(request(ProviderName.LAMBDA, "gpu_1x_h100_pcie", "US-EAST-1")));
+        assertFalse(sku.matches(request(ProviderName.LAMBDA, "gpu_1x_h100_pcie", "us-west-1")));
+        assertFalse(sku.matches(request(ProviderName.LAMBDA, "gpu_8x_h100_sxm5", "us-east-1")));
+        assertFalse(sku.matches(request(ProviderName.VAST, "gpu_1x_h100_pcie", "us-east-1")));
+    }
+
+    // --- CLAIM ---
+
+    @Test
+    void claim_withAnotherKey_neverTouchesThePool() {
+        assertEquals(Optional.empty(), pool.claim(pooled("pool-ssh"), "someone-elses-key"));
+        verify(reaper, never()).claimPooled(anyString());
+    }
+
+    @Test
+    void claim_withThePoolKey_handsOverAReadyMember() {
+        when(reaper.claimPooled(SKU_KEY)).thenReturn("i-ready");
+
+        assertEquals(Optional.of("LAMBDA::i-ready"), pool.claim(pooled("pool-ssh"), "pool-key"));
+    }
+
+    @Test
+    void claim_onLambda_requiresThePoolsSshKey() {
+        when(reaper.claimPooled(SKU_KEY)).thenReturn("i-ready");
+
+        assertEquals(Optional.empty(), pool.claim(pooled("my-laptop"), "pool-key"));
+        verify(reaper, never()).claimPooled(anyString());
+    }
+
+    @Test
+    void claim_withNoReadyMember_fallsBackToAColdLaunch() {
+        assertEquals(Optional.empty(), pool.claim(pooled("pool-ssh"), "pool-key"));
+        verify(reaper).claimPooled(SKU_KEY);
+    }
+
+    // --- REFILL ---
+
+    @Test
+    void refill_launchesTheDeficit_whileHoldingTheSkuLock() {
+        market(2.50);
+        when(reaper.poolSize(SKU_KEY)).thenReturn(1L);
+        when(cloud.provision(any(), eq("pool-key"), anyString(), anyString())).thenAnswer(call -> {
+            assertTrue(redis.values.containsKey(LOCK_KEY), "provisioned without the refill lock");
+            return "LAMBDA::i-" + booted.incrementAndGet();
+        });
+
+        pool.refill();
+
+        // $5 of idle time at $2.50/hr.
+        verify(reaper).registerPoolBirth(eq("i-1"), anyString(), anyString(), eq(ProviderName.LAMBDA),
+                eq("sealed"), eq(SKU_KEY), eq(Duration.ofHours(2)), any());
+        verify(reaper).registerPoolBirth(eq("i-2"), anyString(), anyString(), eq(ProviderName.LAMBDA),
+                eq("sealed"), eq(SKU_KEY), eq(Duration.ofHours(2)), any());
+        assertFalse(redis.values.containsKey(LOCK_KEY));
+    }
+
+    @Test
+    void refill_leavesTheSkuToTheReplicaHoldingItsLock() {
+        market(2.50);
+        redis.values.put(LOCK_KEY, "another-replica");
+
+        pool.refill();
+
+        verify(cloud, never()).provision(any(), anyString(), anyString(), anyString());
+        assertEquals("another-replica", redis.values.get(LOCK_KEY));
+    }
+
+    @Test
+    void refill_withoutALivePrice_launchesNothing() {
+        pool.refill();
+
+        verify(reaper).poolSize(SKU_KEY);
+        verify(cloud, never()).provision(any(), anyString(), anyString(), anyString());
+        assertFalse(redis.values.containsKey(LOCK_KEY));
+    }
+
+    // --- LEDGER ---
+
+    @Test
+    void poolBirth_expiresOnceItsIdleBudgetIsSpent_orAtTheRuntimeLease() {
+        InstanceRepository repository = mock(InstanceRepository.class);
+        ArgumentCaptor<InstanceEntity> saved = ArgumentCaptor.forClass(InstanceEntity.class);
+        BootTimes.Key series = new BootTimes.Key("LAMBDA", "us-east-1", "H100-80G-PCIE-x1", "img");
+
+        new ReaperService(repository, cloud, null, null, 0, 5, 30)
+                .registerPoolBirth("i-idle", "hb", "sha", ProviderName.LAMBDA, "sealed", SKU_KEY,
+                        Duration.ofHours(2), series);
+        new ReaperService(repository, cloud, null, null, 60, 5, 30)
+                .registerPoolBirth("i-leased", "hb", "sha", ProviderName.LAMBDA, "sealed", SKU_KEY,
+                        Duration.ofHours(2), series);
+
+        verify(repository, times(2)).save(saved.capture());
+        InstanceEntity idle = saved.getAllValues().get(0);
+        InstanceEntity leased = saved.getAllValues().get(1);
+        assertEquals(SKU_KEY, idle.getPoolKey());
+        assertEquals(idle.getStartTime().plus(2, ChronoUnit.HOURS), idle.getExpiresAt());
+        assertEquals(leased.getStartTime().plus(60, ChronoUnit.MINUTES), leased.getExpiresAt());
+    }
+
+    @Test
+    void claimPooled_movesOnWhenAnotherLaunchWinsTheRace() {
+        InstanceRepository repository = mock(InstanceRepository.class);
+        ReaperService ledger = new ReaperService(repository, cloud, null, null, 0, 5, 30);
+        InstanceEntity taken = new InstanceEntity("i-taken", "hb-1", "sha", ProviderName.LAMBDA, "sealed");
+        InstanceEntity free = new InstanceEntity("i-free", "hb-2", "sha", ProviderName.LAMBDA, "sealed");
+        when(repository.findReadyInPool(SKU_KEY)).thenReturn(List.of(taken, free));
+        when(repository.claimFromPool(eq("i-taken"), eq(SKU_KEY), any())).thenReturn(0);
+        when(repository.claimFromPool(eq("i-free"), eq(SKU_KEY), any())).thenReturn(1);
+
+        assertEquals("i-free", ledger.claimPooled(SKU_KEY));
+
+        when(repository.claimFromPool(eq("i-free"), eq(SKU_KEY), any())).thenReturn(0);
+        assertNull(ledger.claimPooled(SKU_KEY));
+    }
+
+    private void market(double price) {
+        when(offerIndex.current()).thenReturn(OfferIndex.build(List.of(
+                new GpuOffer("LAMBDA", "H100 PCIe", "gpu_1x_h100_pcie", price, "us-east-1", true))));
+    }
+
+    private static LaunchRequest pooled(String sshKeyName) {
+        return new LaunchRequest(ProviderName.LAMBDA, "ignored", "gpu_1x_h100_pcie", "us-east-1", sshKeyName, 0,
+                null, 0, null);
+    }
+}